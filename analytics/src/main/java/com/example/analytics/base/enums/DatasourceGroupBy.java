@@ -0,0 +1,27 @@
+package com.example.analytics.base.enums;
+
+/**
+ * Grouping of datasource aggregate queries.
+ */
+public enum DatasourceGroupBy {
+
+    NONE,
+    TENANT,
+    METRIC,
+    MINUTE,
+    HOUR,
+    DAY;
+
+    /**
+     * @return the time resolution for time based groupings, null otherwise
+     */
+    public Resolution resolution() {
+        return switch (this) {
+            case MINUTE -> Resolution.MINUTE;
+            case HOUR -> Resolution.HOUR;
+            case DAY -> Resolution.DAY;
+            default -> null;
+        };
+    }
+
+}
@@ -0,0 +1,29 @@
+package com.example.analytics.base.enums;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.Duration;
+
+/**
+ * Bucket widths kept by the rollup engine.
+ */
+@AllArgsConstructor
+@Getter
+public enum Resolution {
+
+    MINUTE(Duration.ofMinutes(1)),
+    HOUR(Duration.ofHours(1)),
+    DAY(Duration.ofDays(1));
+
+    private final Duration width;
+
+    public long bucketOf(long epochMillis) {
+        return Math.floorDiv(epochMillis, width.toMillis());
+    }
+
+    public long startOf(long bucket) {
+        return bucket * width.toMillis();
+    }
+
+}
@@ -0,0 +1,26 @@
+package com.example.analytics.base.vo;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(description = "Aggregates of one group")
+public record DatasourceGroupData(
+
+        @Schema(description = "Group key: tenant id, metric name, bucket start or 'all'", example = "2025-01-01T00:00:00Z")
+        String key,
+
+        @Schema(description = "Number of matching events", example = "120000")
+        long count,
+
+        @Schema(description = "Sum of values", example = "3400.5")
+        double sum,
+
+        @Schema(description = "Smallest value", example = "1")
+        double min,
+
+        @Schema(description = "Largest value", example = "250")
+        double max,
+
+        @Schema(description = "Mean value", example = "28.3")
+        double mean
+) {
+}
@@ -0,0 +1,40 @@
+package com.example.analytics.base.vo;
+
+import com.example.analytics.base.enums.DatasourceGroupBy;
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+
+import java.time.Instant;
+import java.util.List;
+
+@Schema(description = "Filter and aggregation over the columnar event segments; every filter is optional")
+public record DatasourceQueryData(
+
+        @Schema(description = "Tenant to scan, required outside the admin API", example = "1")
+        Integer tenantId,
+
+        @Schema(description = "Metrics to include, all when empty", example = "[\"api.calls\"]")
+        List<String> metrics,
+
+        @Schema(description = "Earliest event time, inclusive", example = "2025-01-01T00:00:00Z")
+        Instant from,
+
+        @Schema(description = "Latest event time, exclusive", example = "2025-02-01T00:00:00Z")
+        Instant to,
+
+        @Schema(description = "Smallest value to include", example = "0")
+        Double minValue,
+
+        @Schema(description = "Largest value to include", example = "1000")
+        Double maxValue,
+
+        @Schema(description = "Grouping of aggregates, ignored when streaming rows", example = "DAY")
+        DatasourceGroupBy groupBy,
+
+        @Schema(description = "Maximum number of groups or rows returned", example = "1000")
+        @Min(1)
+        @Max(1_000_000)
+        Integer limit
+) {
+}
@@ -0,0 +1,25 @@
+package com.example.analytics.base.vo;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+@Schema(description = "Result of a datasource aggregate query")
+public record DatasourceResultData(
+
+        @Schema(description = "Sealed segments available", example = "240")
+        int segments,
+
+        @Schema(description = "Segments left after zone map pruning", example = "12")
+        int segmentsScanned,
+
+        @Schema(description = "Rows read after run and time range pushdown", example = "1200000")
+        long rowsScanned,
+
+        @Schema(description = "Rows matching every filter", example = "1180000")
+        long rowsMatched,
+
+        @Schema(description = "Groups ordered by key, truncated to the limit")
+        List<DatasourceGroupData> groups
+) {
+}
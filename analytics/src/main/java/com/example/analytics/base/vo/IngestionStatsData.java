@@ -0,0 +1,32 @@
+package com.example.analytics.base.vo;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(description = "Event ingestion pipeline counters since startup")
+public record IngestionStatsData(
+
+        @Schema(description = "Sink the consumers write to", example = "jdbc")
+        String sink,
+
+        @Schema(description = "Number of ring buffer shards", example = "4")
+        int shards,
+
+        @Schema(description = "Total ring buffer capacity in events", example = "65536")
+        int capacity,
+
+        @Schema(description = "Events currently buffered", example = "0")
+        int buffered,
+
+        @Schema(description = "Events accepted from producers", example = "1000")
+        long accepted,
+
+        @Schema(description = "Events rejected because the buffer was full", example = "0")
+        long rejected,
+
+        @Schema(description = "Events written by the sink", example = "1000")
+        long written,
+
+        @Schema(description = "Events dropped after a sink failure", example = "0")
+        long failed
+) {
+}
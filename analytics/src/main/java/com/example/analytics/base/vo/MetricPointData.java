@@ -0,0 +1,40 @@
+package com.example.analytics.base.vo;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.time.Instant;
+
+@Schema(description = "Aggregates of one metric over one bucket or range")
+public record MetricPointData(
+
+        @Schema(description = "Start of the bucket or range", example = "2025-01-01T00:00:00Z")
+        Instant start,
+
+        @Schema(description = "Number of events", example = "120")
+        long count,
+
+        @Schema(description = "Sum of values", example = "3400.5")
+        double sum,
+
+        @Schema(description = "Smallest value", example = "1")
+        Double min,
+
+        @Schema(description = "Largest value", example = "250")
+        Double max,
+
+        @Schema(description = "Mean value", example = "28.3")
+        Double mean,
+
+        @Schema(description = "Estimated median, within 1% relative error", example = "21")
+        Double p50,
+
+        @Schema(description = "Estimated 90th percentile, within 1% relative error", example = "80")
+        Double p90,
+
+        @Schema(description = "Estimated 99th percentile, within 1% relative error", example = "200")
+        Double p99,
+
+        @Schema(description = "Estimated number of distinct subjects, null when events carry no subject", example = "17")
+        Long distinct
+) {
+}
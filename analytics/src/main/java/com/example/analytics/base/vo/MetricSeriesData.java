@@ -0,0 +1,33 @@
+package com.example.analytics.base.vo;
+
+import com.example.analytics.base.enums.Resolution;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.time.Instant;
+import java.util.List;
+
+@Schema(description = "Time series of one tenant metric with range totals")
+public record MetricSeriesData(
+
+        @Schema(description = "Tenant id", example = "1")
+        Integer tenantId,
+
+        @Schema(description = "Metric name", example = "api.calls")
+        String metric,
+
+        @Schema(description = "Bucket width", example = "MINUTE")
+        Resolution resolution,
+
+        @Schema(description = "Start of the requested range, inclusive", example = "2025-01-01T00:00:00Z")
+        Instant from,
+
+        @Schema(description = "End of the requested range, exclusive", example = "2025-01-01T01:00:00Z")
+        Instant to,
+
+        @Schema(description = "Aggregates over the whole range, merged from the bucket sketches")
+        MetricPointData total,
+
+        @Schema(description = "Non-empty buckets in time order")
+        List<MetricPointData> points
+) {
+}
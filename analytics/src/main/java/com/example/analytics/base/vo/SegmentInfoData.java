@@ -0,0 +1,31 @@
+package com.example.analytics.base.vo;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.time.Instant;
+
+@Schema(description = "Sealed columnar segment and its zone map")
+public record SegmentInfoData(
+
+        @Schema(description = "Segment file name", example = "segment-1735689600000-000001.col")
+        String name,
+
+        @Schema(description = "Number of rows", example = "1000000")
+        int rows,
+
+        @Schema(description = "File size in bytes", example = "21000000")
+        long bytes,
+
+        @Schema(description = "Smallest tenant id", example = "1")
+        int minTenantId,
+
+        @Schema(description = "Largest tenant id", example = "42")
+        int maxTenantId,
+
+        @Schema(description = "Earliest event time", example = "2025-01-01T00:00:00Z")
+        Instant minTime,
+
+        @Schema(description = "Latest event time", example = "2025-01-01T00:05:00Z")
+        Instant maxTime
+) {
+}
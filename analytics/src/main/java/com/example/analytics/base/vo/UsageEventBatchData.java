@@ -0,0 +1,18 @@
+package com.example.analytics.base.vo;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+@Schema(description = "A batch of usage events, accepted or rejected as a whole")
+public record UsageEventBatchData(
+
+        @Schema(description = "Events in the batch")
+        @NotEmpty
+        @Size(max = 5000)
+        List<@Valid UsageEventData> events
+) {
+}
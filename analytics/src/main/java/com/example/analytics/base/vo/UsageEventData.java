@@ -0,0 +1,33 @@
+package com.example.analytics.base.vo;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+import java.time.Instant;
+
+@Schema(description = "A single usage event")
+public record UsageEventData(
+
+        @Schema(description = "Tenant the event belongs to", example = "1")
+        @NotNull
+        Integer tenantId,
+
+        @Schema(description = "Metric name", example = "api.calls")
+        @NotBlank
+        @Size(max = 64)
+        String metric,
+
+        @Schema(description = "Measured value", example = "1")
+        double value,
+
+        @Schema(description = "When the event happened", example = "2025-01-01T00:00:00Z")
+        @NotNull
+        Instant occurredAt,
+
+        @Schema(description = "Optional user, session or device the event is about, counted for distinct values", example = "user-42")
+        @Size(max = 128)
+        String subject
+) {
+}
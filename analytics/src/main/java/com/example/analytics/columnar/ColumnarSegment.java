@@ -0,0 +1,254 @@
+package com.example.analytics.columnar;
+
+import com.example.analytics.base.vo.SegmentInfoData;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.DoubleBuffer;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+
+/**
+ * Immutable, memory-mapped columnar segment of usage events.
+ * <p>
+ * Layout (big endian, columns 8-byte aligned):
+ * <pre>
+ * header   int magic, int version, int rows, int reserved,
+ *          int minTenant, int maxTenant, long minTime, long maxTime, double minValue, double maxValue,
+ *          5 x (long offset, long length)
+ * tenant   run-length encoded: int runs, runs x (int tenantId, int endRow)
+ * metric   dictionary (sorted) followed by run-length encoded dictionary codes
+ * time     long[rows] epoch millis
+ * value    double[rows]
+ * subject  dictionary, padding to 4 bytes, int[rows] codes (-1 = none)
+ * </pre>
+ * Rows are sorted by tenant, metric and time. Scans intersect the tenant and metric runs with the
+ * filter, binary search the time range inside each run and only then read values, so most filters
+ * touch a small part of the mapped file. Runs and dictionaries are decoded onto the heap at open
+ * time; the row columns stay in the page cache.
+ */
+public final class ColumnarSegment {
+
+    static final int MAGIC = 0x45565347;
+    static final int VERSION = 1;
+    static final int HEADER_BYTES = 4 * Integer.BYTES + 2 * Integer.BYTES + 2 * Long.BYTES + 2 * Double.BYTES + 5 * 2 * Long.BYTES;
+
+    private final Path path;
+    private final long bytes;
+    private final int rows;
+    private final int minTenant;
+    private final int maxTenant;
+    private final long minTime;
+    private final long maxTime;
+    private final double minValue;
+    private final double maxValue;
+    private final int[] tenantRunValues;
+    private final int[] tenantRunEnds;
+    private final String[] metricDictionary;
+    private final int[] metricRunCodes;
+    private final int[] metricRunEnds;
+    private final LongBuffer times;
+    private final DoubleBuffer values;
+    private final String[] subjectDictionary;
+    private final IntBuffer subjects;
+
+    private ColumnarSegment(Path path, MappedByteBuffer buffer, long bytes) throws IOException {
+        this.path = path;
+        this.bytes = bytes;
+        if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+            throw new IOException("Not a version " + VERSION + " columnar segment: " + path);
+        }
+        this.rows = buffer.getInt(8);
+        this.minTenant = buffer.getInt(16);
+        this.maxTenant = buffer.getInt(20);
+        this.minTime = buffer.getLong(24);
+        this.maxTime = buffer.getLong(32);
+        this.minValue = buffer.getDouble(40);
+        this.maxValue = buffer.getDouble(48);
+
+        ByteBuffer tenant = column(buffer, 0);
+        int tenantRuns = tenant.getInt();
+        tenantRunValues = new int[tenantRuns];
+        tenantRunEnds = new int[tenantRuns];
+        for (int i = 0; i < tenantRuns; i++) {
+            tenantRunValues[i] = tenant.getInt();
+            tenantRunEnds[i] = tenant.getInt();
+        }
+
+        ByteBuffer metric = column(buffer, 1);
+        metricDictionary = readDictionary(metric);
+        int metricRuns = metric.getInt();
+        metricRunCodes = new int[metricRuns];
+        metricRunEnds = new int[metricRuns];
+        for (int i = 0; i < metricRuns; i++) {
+            metricRunCodes[i] = metric.getInt();
+            metricRunEnds[i] = metric.getInt();
+        }
+
+        times = column(buffer, 2).asLongBuffer();
+        values = column(buffer, 3).asDoubleBuffer();
+
+        ByteBuffer subject = column(buffer, 4);
+        subjectDictionary = readDictionary(subject);
+        subject.position((subject.position() + Integer.BYTES - 1) & ~(Integer.BYTES - 1));
+        subjects = subject.slice().asIntBuffer();
+    }
+
+    public static ColumnarSegment open(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            return new ColumnarSegment(path, channel.map(FileChannel.MapMode.READ_ONLY, 0, size), size);
+        }
+    }
+
+    /**
+     * Zone map and dictionary check; false means no row of this segment can match.
+     */
+    public boolean mayMatch(ScanFilter filter) {
+        if (filter.tenantId() != null && (filter.tenantId() < minTenant || filter.tenantId() > maxTenant)) {
+            return false;
+        }
+        if (filter.to() <= minTime || filter.from() > maxTime) {
+            return false;
+        }
+        if (filter.maxValue() < minValue || filter.minValue() > maxValue) {
+            return false;
+        }
+        return filter.metrics().isEmpty() || allowedMetricCodes(filter) != null;
+    }
+
+    /**
+     * Visits every matching row in (tenant, metric, time) order.
+     *
+     * @return rows read after run and time range pushdown
+     */
+    public long scan(ScanFilter filter, RowVisitor visitor) {
+        boolean[] allowedMetrics = filter.metrics().isEmpty() ? null : allowedMetricCodes(filter);
+        if (!filter.metrics().isEmpty() && allowedMetrics == null) {
+            return 0;
+        }
+        long scanned = 0;
+        int tenantStart = 0;
+        int metricRun = 0;
+        for (int t = 0; t < tenantRunValues.length; t++) {
+            int tenant = tenantRunValues[t];
+            int tenantEnd = tenantRunEnds[t];
+            if (filter.tenantId() == null || filter.tenantId() == tenant) {
+                while (metricRunEnds[metricRun] <= tenantStart) metricRun++;
+                int start = tenantStart;
+                for (int m = metricRun; m < metricRunEnds.length && start < tenantEnd; m++) {
+                    int end = Math.min(metricRunEnds[m], tenantEnd);
+                    int code = metricRunCodes[m];
+                    if (allowedMetrics == null || allowedMetrics[code]) {
+                        int low = lowerBound(start, end, filter.from());
+                        int high = lowerBound(low, end, filter.to());
+                        scanned += high - low;
+                        for (int row = low; row < high; row++) {
+                            double value = values.get(row);
+                            if (value >= filter.minValue() && value <= filter.maxValue()) {
+                                visitor.visit(row, tenant, code, times.get(row), value);
+                            }
+                        }
+                    }
+                    start = end;
+                }
+            }
+            tenantStart = tenantEnd;
+        }
+        return scanned;
+    }
+
+    public String metric(int code) {
+        return metricDictionary[code];
+    }
+
+    public String subject(int row) {
+        int code = subjects.get(row);
+        return code < 0 ? null : subjectDictionary[code];
+    }
+
+    public int rows() {
+        return rows;
+    }
+
+    public long minTime() {
+        return minTime;
+    }
+
+    public long maxTime() {
+        return maxTime;
+    }
+
+    /**
+     * Deletes the segment file. The mapping stays readable for scans still holding this segment and
+     * is unmapped when the segment is garbage collected, which also releases the disk space; the JDK
+     * offers no explicit unmap that is safe while another thread may read the buffer.
+     */
+    void delete() throws IOException {
+        Files.deleteIfExists(path);
+    }
+
+    public SegmentInfoData info() {
+        return new SegmentInfoData(path.getFileName().toString(), rows, bytes, minTenant, maxTenant,
+                Instant.ofEpochMilli(minTime), Instant.ofEpochMilli(maxTime));
+    }
+
+    /**
+     * First row in {@code [from, to)} whose time is not before {@code time}; times are sorted inside a run.
+     */
+    private int lowerBound(int from, int to, long time) {
+        int low = from;
+        int high = to;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (times.get(mid) < time) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private boolean[] allowedMetricCodes(ScanFilter filter) {
+        boolean[] allowed = new boolean[metricDictionary.length];
+        boolean any = false;
+        for (int i = 0; i < metricDictionary.length; i++) {
+            if (filter.metrics().contains(metricDictionary[i])) {
+                allowed[i] = true;
+                any = true;
+            }
+        }
+        return any ? allowed : null;
+    }
+
+    private static ByteBuffer column(MappedByteBuffer buffer, int index) {
+        int entry = 4 * Integer.BYTES + 2 * Integer.BYTES + 2 * Long.BYTES + 2 * Double.BYTES + index * 2 * Long.BYTES;
+        int offset = (int) buffer.getLong(entry);
+        int length = (int) buffer.getLong(entry + Long.BYTES);
+        return buffer.slice(offset, length);
+    }
+
+    private static String[] readDictionary(ByteBuffer buffer) {
+        String[] entries = new String[buffer.getInt()];
+        buffer.getInt();
+        for (int i = 0; i < entries.length; i++) {
+            byte[] utf8 = new byte[buffer.getShort()];
+            buffer.get(utf8);
+            entries[i] = new String(utf8, StandardCharsets.UTF_8);
+        }
+        return entries;
+    }
+
+    @FunctionalInterface
+    public interface RowVisitor {
+        void visit(int row, int tenantId, int metricCode, long time, double value);
+    }
+}
@@ -0,0 +1,289 @@
+package com.example.analytics.columnar;
+
+import com.example.analytics.base.vo.UsageEventData;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.function.IntUnaryOperator;
+
+/**
+ * Accumulates rows in growable primitive columns and writes them as one immutable segment in the
+ * layout described on {@link ColumnarSegment}. Rows are sorted by tenant, metric and time first, so
+ * the tenant and metric columns collapse into a few runs and time is ordered inside every run.
+ * Not thread safe.
+ */
+final class ColumnarSegmentBuilder {
+
+    private long openedAt;
+    private int size;
+    private int[] tenants;
+    private String[] metrics;
+    private long[] times;
+    private double[] values;
+    private String[] subjects;
+
+    ColumnarSegmentBuilder(int initialCapacity) {
+        tenants = new int[initialCapacity];
+        metrics = new String[initialCapacity];
+        times = new long[initialCapacity];
+        values = new double[initialCapacity];
+        subjects = new String[initialCapacity];
+    }
+
+    void add(UsageEventData event) {
+        if (size == 0) {
+            openedAt = System.currentTimeMillis();
+        }
+        if (size == tenants.length) {
+            int capacity = Math.max(16, size * 2);
+            tenants = Arrays.copyOf(tenants, capacity);
+            metrics = Arrays.copyOf(metrics, capacity);
+            times = Arrays.copyOf(times, capacity);
+            values = Arrays.copyOf(values, capacity);
+            subjects = Arrays.copyOf(subjects, capacity);
+        }
+        tenants[size] = event.tenantId();
+        metrics[size] = event.metric();
+        times[size] = event.occurredAt().toEpochMilli();
+        values[size] = event.value();
+        subjects[size] = event.subject();
+        size++;
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * Wall clock time of the first row, 0 while empty.
+     */
+    long openedAt() {
+        return openedAt;
+    }
+
+    /**
+     * Writes the segment to a temporary file and moves it into place, so readers never see a partial segment.
+     */
+    void writeTo(Path file) throws IOException {
+        String[] metricDictionary = new TreeSet<>(Arrays.asList(metrics).subList(0, size)).toArray(String[]::new);
+        Map<String, Integer> metricCodes = new HashMap<>();
+        for (int i = 0; i < metricDictionary.length; i++) {
+            metricCodes.put(metricDictionary[i], i);
+        }
+        int[] metricCodeOf = new int[size];
+        for (int i = 0; i < size; i++) {
+            metricCodeOf[i] = metricCodes.get(metrics[i]);
+        }
+        int[] order = sortedOrder(metricCodeOf);
+
+        int minTenant = Integer.MAX_VALUE, maxTenant = Integer.MIN_VALUE;
+        long minTime = Long.MAX_VALUE, maxTime = Long.MIN_VALUE;
+        double minValue = Double.POSITIVE_INFINITY, maxValue = Double.NEGATIVE_INFINITY;
+        for (int i = 0; i < size; i++) {
+            minTenant = Math.min(minTenant, tenants[i]);
+            maxTenant = Math.max(maxTenant, tenants[i]);
+            minTime = Math.min(minTime, times[i]);
+            maxTime = Math.max(maxTime, times[i]);
+            minValue = Math.min(minValue, values[i]);
+            maxValue = Math.max(maxValue, values[i]);
+        }
+
+        byte[][] columns = {
+                runLengthEncode(order, i -> tenants[i]),
+                concat(dictionary(metricDictionary), runLengthEncode(order, i -> metricCodeOf[i])),
+                longColumn(order),
+                doubleColumn(order),
+                subjectColumn(order)
+        };
+
+        ByteBuffer header = ByteBuffer.allocate(ColumnarSegment.HEADER_BYTES);
+        header.putInt(ColumnarSegment.MAGIC).putInt(ColumnarSegment.VERSION).putInt(size).putInt(0)
+                .putInt(minTenant).putInt(maxTenant)
+                .putLong(minTime).putLong(maxTime)
+                .putDouble(minValue).putDouble(maxValue);
+        long offset = ColumnarSegment.HEADER_BYTES;
+        for (byte[] column : columns) {
+            header.putLong(offset).putLong(column.length);
+            offset += align(column.length);
+        }
+        header.flip();
+
+        Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            writeFully(channel, header);
+            for (byte[] column : columns) {
+                writeFully(channel, ByteBuffer.wrap(column));
+                writeFully(channel, ByteBuffer.allocate(align(column.length) - column.length));
+            }
+            channel.force(true);
+        }
+        Files.move(temporary, file, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Row numbers sorted by tenant, metric and time, stable for equal keys. A counting sort on the
+     * (tenant, metric) pair is followed by a merge sort on time inside each pair, which is linear for
+     * the usual case of rows arriving in time order; no row number is boxed.
+     */
+    private int[] sortedOrder(int[] metricCodeOf) {
+        long[] pairs = new long[size];
+        for (int i = 0; i < size; i++) {
+            pairs[i] = pair(tenants[i], metricCodeOf[i]);
+        }
+        Arrays.sort(pairs);
+        int groups = 0;
+        for (int i = 0; i < size; i++) {
+            if (i == 0 || pairs[i] != pairs[groups - 1]) {
+                pairs[groups++] = pairs[i];
+            }
+        }
+        int[] groupOf = new int[size];
+        int[] starts = new int[groups + 1];
+        for (int i = 0; i < size; i++) {
+            groupOf[i] = Arrays.binarySearch(pairs, 0, groups, pair(tenants[i], metricCodeOf[i]));
+            starts[groupOf[i] + 1]++;
+        }
+        for (int g = 0; g < groups; g++) {
+            starts[g + 1] += starts[g];
+        }
+        int[] next = Arrays.copyOf(starts, groups);
+        int[] order = new int[size];
+        for (int i = 0; i < size; i++) {
+            order[next[groupOf[i]]++] = i;
+        }
+        int[] scratch = new int[size];
+        for (int g = 0; g < groups; g++) {
+            sortByTime(order, scratch, starts[g], starts[g + 1]);
+        }
+        return order;
+    }
+
+    private void sortByTime(int[] order, int[] scratch, int from, int to) {
+        if (to - from <= 32) {
+            for (int i = from + 1; i < to; i++) {
+                int row = order[i];
+                int j = i;
+                while (j > from && times[order[j - 1]] > times[row]) {
+                    order[j] = order[j - 1];
+                    j--;
+                }
+                order[j] = row;
+            }
+            return;
+        }
+        int mid = (from + to) >>> 1;
+        sortByTime(order, scratch, from, mid);
+        sortByTime(order, scratch, mid, to);
+        if (times[order[mid - 1]] <= times[order[mid]]) {
+            return;
+        }
+        System.arraycopy(order, from, scratch, from, to - from);
+        int left = from;
+        int right = mid;
+        for (int i = from; i < to; i++) {
+            if (right >= to || left < mid && times[scratch[left]] <= times[scratch[right]]) {
+                order[i] = scratch[left++];
+            } else {
+                order[i] = scratch[right++];
+            }
+        }
+    }
+
+    private static long pair(int tenant, int metricCode) {
+        return (long) tenant << 32 | metricCode;
+    }
+
+    /**
+     * Layout: {@code int runCount, then per run int value + int exclusive end row}.
+     */
+    private byte[] runLengthEncode(int[] order, IntUnaryOperator column) {
+        ByteBuffer runs = ByteBuffer.allocate(Integer.BYTES + size * 2 * Integer.BYTES);
+        runs.position(Integer.BYTES);
+        int count = 0;
+        int i = 0;
+        while (i < size) {
+            int value = column.applyAsInt(order[i]);
+            int end = i + 1;
+            while (end < size && column.applyAsInt(order[end]) == value) end++;
+            runs.putInt(value).putInt(end);
+            count++;
+            i = end;
+        }
+        runs.putInt(0, count);
+        return Arrays.copyOf(runs.array(), runs.position());
+    }
+
+    private byte[] longColumn(int[] order) {
+        ByteBuffer buffer = ByteBuffer.allocate(size * Long.BYTES);
+        for (int row : order) buffer.putLong(times[row]);
+        return buffer.array();
+    }
+
+    private byte[] doubleColumn(int[] order) {
+        ByteBuffer buffer = ByteBuffer.allocate(size * Double.BYTES);
+        for (int row : order) buffer.putDouble(values[row]);
+        return buffer.array();
+    }
+
+    /**
+     * Dictionary in first appearance order followed by one int code per row, -1 for no subject.
+     */
+    private byte[] subjectColumn(int[] order) throws IOException {
+        Map<String, Integer> codes = new HashMap<>();
+        ByteBuffer rows = ByteBuffer.allocate(size * Integer.BYTES);
+        for (int row : order) {
+            String subject = subjects[row];
+            rows.putInt(subject == null ? -1 : codes.computeIfAbsent(subject, s -> codes.size()));
+        }
+        String[] dictionary = new String[codes.size()];
+        codes.forEach((subject, code) -> dictionary[code] = subject);
+        byte[] head = dictionary(dictionary);
+        // keep the code array 4-byte aligned for the int view used by readers
+        byte[] padding = new byte[(Integer.BYTES - head.length % Integer.BYTES) % Integer.BYTES];
+        return concat(concat(head, padding), rows.array());
+    }
+
+    /**
+     * Layout: {@code int count, int byteLength, then per entry short length + UTF-8 bytes}.
+     */
+    private static byte[] dictionary(String[] entries) throws IOException {
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(body);
+        for (String entry : entries) {
+            byte[] utf8 = entry.getBytes(StandardCharsets.UTF_8);
+            out.writeShort(utf8.length);
+            out.write(utf8);
+        }
+        ByteBuffer head = ByteBuffer.allocate(2 * Integer.BYTES).putInt(entries.length).putInt(body.size());
+        return concat(head.array(), body.toByteArray());
+    }
+
+    private static byte[] concat(byte[] first, byte[] second) {
+        byte[] result = Arrays.copyOf(first, first.length + second.length);
+        System.arraycopy(second, 0, result, first.length, second.length);
+        return result;
+    }
+
+    private static int align(int length) {
+        return (length + 7) & ~7;
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+}
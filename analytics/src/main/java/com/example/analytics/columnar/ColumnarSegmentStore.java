@@ -0,0 +1,288 @@
+package com.example.analytics.columnar;
+
+import com.example.analytics.base.enums.DatasourceGroupBy;
+import com.example.analytics.base.vo.DatasourceResultData;
+import com.example.analytics.base.vo.SegmentInfoData;
+import com.example.analytics.base.vo.UsageEventData;
+import com.example.analytics.ingest.EventBatchListener;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Local columnar store for ad-hoc datasource queries over historical events, kept off the OLTP
+ * database. Ingested batches are buffered in a {@link ColumnarSegmentBuilder} and sealed into an
+ * immutable {@link ColumnarSegment} once it holds {@code rows-per-segment} rows or its first row is
+ * {@code seal-interval} old, so rows become queryable after at most that interval. Segments whose
+ * newest row is older than {@code retention}, and the oldest segments beyond {@code max-segments},
+ * are dropped after every seal and periodically.
+ * <p>
+ * Aggregate queries prune segments by zone map and scan the rest in parallel on a dedicated
+ * {@link ForkJoinPool}; row queries are streamed segment by segment, oldest first, in the
+ * (tenant, metric, time) order of each segment.
+ */
+@Component
+public class ColumnarSegmentStore implements EventBatchListener, SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(ColumnarSegmentStore.class);
+
+    private final boolean enabled;
+    private final Path directory;
+    private final int rowsPerSegment;
+    private final Duration sealInterval;
+    private final int scanParallelism;
+    private final int maxSegments;
+    private final Duration retention;
+
+    private final List<ColumnarSegment> segments = new CopyOnWriteArrayList<>();
+    private final AtomicLong sequence = new AtomicLong();
+    private final Object lock = new Object();
+    private ColumnarSegmentBuilder current;
+    private ScheduledExecutorService sealer;
+    private ForkJoinPool scanPool;
+    private volatile boolean running;
+
+    public ColumnarSegmentStore(@Value("${app.analytics.columnar.enabled:true}") boolean enabled,
+                                @Value("${app.analytics.columnar.directory:data/analytics/columnar}") Path directory,
+                                @Value("${app.analytics.columnar.rows-per-segment:1000000}") int rowsPerSegment,
+                                @Value("${app.analytics.columnar.seal-interval:5m}") Duration sealInterval,
+                                @Value("${app.analytics.columnar.scan-parallelism:0}") int scanParallelism,
+                                @Value("${app.analytics.columnar.max-segments:1000}") int maxSegments,
+                                @Value("${app.analytics.columnar.retention:90d}") Duration retention) {
+        this.enabled = enabled;
+        this.directory = directory;
+        this.rowsPerSegment = rowsPerSegment;
+        this.sealInterval = sealInterval;
+        this.scanParallelism = scanParallelism > 0 ? scanParallelism : Runtime.getRuntime().availableProcessors();
+        this.maxSegments = maxSegments;
+        this.retention = retention;
+        this.current = new ColumnarSegmentBuilder(Math.min(rowsPerSegment, 64 * 1024));
+    }
+
+    @Override
+    public void onBatch(List<UsageEventData> events) {
+        if (!enabled) {
+            return;
+        }
+        synchronized (lock) {
+            for (UsageEventData event : events) {
+                current.add(event);
+                if (current.size() >= rowsPerSegment) {
+                    sealCurrent();
+                }
+            }
+        }
+    }
+
+    /**
+     * Seals the buffered rows in the background, if there are any.
+     */
+    public void seal() {
+        synchronized (lock) {
+            if (current.size() > 0) {
+                sealCurrent();
+            }
+        }
+    }
+
+    public DatasourceResultData query(ScanFilter filter, DatasourceGroupBy groupBy, int limit) {
+        List<ColumnarSegment> all = List.copyOf(segments);
+        List<ColumnarSegment> candidates = all.stream().filter(s -> s.mayMatch(filter)).toList();
+        ScanResult result = candidates.isEmpty()
+                ? new ScanResult()
+                : scanPool.invoke(new SegmentScanTask(candidates, filter, groupBy));
+        Comparator<String> order = groupBy == DatasourceGroupBy.TENANT
+                ? Comparator.comparingInt(String::length).thenComparing(Comparator.naturalOrder())
+                : Comparator.naturalOrder();
+        return new DatasourceResultData(all.size(), result.segmentsScanned(), result.rowsScanned(),
+                result.rowsMatched(), result.groups(order, limit));
+    }
+
+    /**
+     * Hands up to {@code limit} matching rows to {@code sink}. Segments are visited by their earliest
+     * row; inside a segment rows come in (tenant, metric, time) order, so rows of several metrics or
+     * of overlapping segments are not globally ordered by time.
+     */
+    public void streamRows(ScanFilter filter, int limit, RowSink sink) throws IOException {
+        List<ColumnarSegment> candidates = segments.stream()
+                .filter(s -> s.mayMatch(filter))
+                .sorted(Comparator.comparingLong(ColumnarSegment::minTime))
+                .toList();
+        long[] remaining = {limit};
+        for (ColumnarSegment segment : candidates) {
+            try {
+                segment.scan(filter, (row, tenantId, metricCode, time, value) -> {
+                    if (remaining[0]-- <= 0) {
+                        throw new LimitReached();
+                    }
+                    try {
+                        sink.accept(tenantId, segment.metric(metricCode), time, value, segment.subject(row));
+                    } catch (IOException e) {
+                        throw new SinkFailed(e);
+                    }
+                });
+            } catch (LimitReached e) {
+                return;
+            } catch (SinkFailed e) {
+                throw (IOException) e.getCause();
+            }
+        }
+    }
+
+    public List<SegmentInfoData> segments() {
+        return segments.stream().map(ColumnarSegment::info).toList();
+    }
+
+    @Override
+    public void start() {
+        scanPool = new ForkJoinPool(scanParallelism);
+        sealer = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "analytics-columnar-seal");
+            thread.setDaemon(true);
+            return thread;
+        });
+        if (enabled) {
+            openExisting();
+            expire();
+            long period = Math.max(1000, sealInterval.toMillis() / 4);
+            sealer.scheduleWithFixedDelay(this::sealIfDue, period, period, TimeUnit.MILLISECONDS);
+        }
+        running = true;
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        seal();
+        sealer.shutdown();
+        try {
+            if (!sealer.awaitTermination(1, TimeUnit.MINUTES)) {
+                log.warn("Timed out waiting for columnar segments to be sealed");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        scanPool.shutdown();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Same phase as the rollups: open before ingestion starts, sealed after it drained.
+     */
+    @Override
+    public int getPhase() {
+        return SmartLifecycle.DEFAULT_PHASE - 8192;
+    }
+
+    private void sealCurrent() {
+        ColumnarSegmentBuilder full = current;
+        current = new ColumnarSegmentBuilder(Math.min(rowsPerSegment, 64 * 1024));
+        sealer.execute(() -> write(full));
+    }
+
+    private void sealIfDue() {
+        synchronized (lock) {
+            if (current.size() > 0 && System.currentTimeMillis() - current.openedAt() >= sealInterval.toMillis()) {
+                sealCurrent();
+            }
+        }
+        expire();
+    }
+
+    private void write(ColumnarSegmentBuilder builder) {
+        Path file = directory.resolve("segment-%d-%06d.col".formatted(builder.openedAt(), sequence.incrementAndGet()));
+        try {
+            builder.writeTo(file);
+            segments.add(ColumnarSegment.open(file));
+            log.info("Sealed columnar segment {} with {} rows", file.getFileName(), builder.size());
+        } catch (IOException e) {
+            log.error("Failed to seal columnar segment {}, {} rows lost", file, builder.size(), e);
+        }
+        expire();
+    }
+
+    /**
+     * Drops segments past the retention and the oldest ones beyond {@code max-segments}; runs at start
+     * and then on the sealer thread only. A dropped segment leaves the list before its file is deleted, so new
+     * queries no longer see it while running scans finish on the mapping they hold.
+     */
+    void expire() {
+        long cutoff = retention.isZero() ? Long.MIN_VALUE : System.currentTimeMillis() - retention.toMillis();
+        List<ColumnarSegment> expired = new ArrayList<>();
+        int excess = maxSegments > 0 ? segments.size() - maxSegments : 0;
+        for (ColumnarSegment segment : segments) {
+            if (excess-- > 0 || segment.maxTime() < cutoff) {
+                expired.add(segment);
+            }
+        }
+        if (expired.isEmpty()) {
+            return;
+        }
+        segments.removeAll(expired);
+        for (ColumnarSegment segment : expired) {
+            try {
+                segment.delete();
+            } catch (IOException e) {
+                log.warn("Failed to delete expired columnar segment {}", segment.info().name(), e);
+            }
+        }
+        log.info("Dropped {} expired columnar segments, {} left", expired.size(), segments.size());
+    }
+
+    private void openExisting() {
+        try {
+            Files.createDirectories(directory);
+            List<ColumnarSegment> opened = new ArrayList<>();
+            try (Stream<Path> files = Files.list(directory)) {
+                for (Path file : files.filter(f -> f.toString().endsWith(".col")).sorted().toList()) {
+                    opened.add(ColumnarSegment.open(file));
+                }
+            }
+            segments.addAll(opened);
+            log.info("Opened {} columnar segments from {}", opened.size(), directory);
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot open columnar segments in " + directory, e);
+        }
+    }
+
+    @FunctionalInterface
+    public interface RowSink {
+        void accept(int tenantId, String metric, long time, double value, String subject) throws IOException;
+    }
+
+    /**
+     * Unwinds a scan once the row limit is reached; carries no stack trace.
+     */
+    private static final class LimitReached extends RuntimeException {
+        private LimitReached() {
+            super(null, null, false, false);
+        }
+    }
+
+    private static final class SinkFailed extends RuntimeException {
+        private SinkFailed(IOException cause) {
+            super(cause);
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.example.analytics.columnar;
+
+import java.util.Arrays;
+import java.util.function.LongFunction;
+
+/**
+ * Open addressing map from a primitive long group key to count, sum, min and max, kept in parallel
+ * arrays so the per-row path of a scan does not allocate. One instance per segment scan.
+ */
+final class GroupAccumulator {
+
+    private static final long FREE = Long.MIN_VALUE;
+
+    private long[] keys;
+    private long[] counts;
+    private double[] sums;
+    private double[] mins;
+    private double[] maxs;
+    private int size;
+
+    GroupAccumulator() {
+        allocate(64);
+    }
+
+    void add(long key, double value) {
+        int slot = slotOf(key);
+        if (keys[slot] == FREE) {
+            keys[slot] = key;
+            mins[slot] = value;
+            maxs[slot] = value;
+            if (++size * 2 > keys.length) {
+                rehash();
+                slot = slotOf(key);
+            }
+        }
+        counts[slot]++;
+        sums[slot] += value;
+        if (value < mins[slot]) mins[slot] = value;
+        if (value > maxs[slot]) maxs[slot] = value;
+    }
+
+    /**
+     * Folds every group into {@code target} under the label produced for its key.
+     */
+    void drainTo(ScanResult target, LongFunction<String> label) {
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != FREE) {
+                target.merge(label.apply(keys[i]), counts[i], sums[i], mins[i], maxs[i]);
+            }
+        }
+    }
+
+    private int slotOf(long key) {
+        int mask = keys.length - 1;
+        int slot = (int) (mix(key) & mask);
+        while (keys[slot] != FREE && keys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private void rehash() {
+        long[] oldKeys = keys;
+        long[] oldCounts = counts;
+        double[] oldSums = sums;
+        double[] oldMins = mins;
+        double[] oldMaxs = maxs;
+        allocate(oldKeys.length * 2);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != FREE) {
+                int slot = slotOf(oldKeys[i]);
+                keys[slot] = oldKeys[i];
+                counts[slot] = oldCounts[i];
+                sums[slot] = oldSums[i];
+                mins[slot] = oldMins[i];
+                maxs[slot] = oldMaxs[i];
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        Arrays.fill(keys, FREE);
+        counts = new long[capacity];
+        sums = new double[capacity];
+        mins = new double[capacity];
+        maxs = new double[capacity];
+    }
+
+    private static long mix(long key) {
+        key ^= key >>> 33;
+        key *= 0xff51afd7ed558ccdL;
+        key ^= key >>> 33;
+        return key;
+    }
+}
@@ -0,0 +1,21 @@
+package com.example.analytics.columnar;
+
+import com.example.analytics.base.vo.DatasourceQueryData;
+
+import java.util.Set;
+
+/**
+ * Normalized filter pushed down into segment scans. Time is {@code [from, to)} in epoch millis,
+ * values are an inclusive range and an empty metric set matches every metric.
+ */
+public record ScanFilter(Integer tenantId, Set<String> metrics, long from, long to, double minValue, double maxValue) {
+
+    public static ScanFilter of(DatasourceQueryData query) {
+        return new ScanFilter(query.tenantId(),
+                query.metrics() != null ? Set.copyOf(query.metrics()) : Set.of(),
+                query.from() != null ? query.from().toEpochMilli() : Long.MIN_VALUE,
+                query.to() != null ? query.to().toEpochMilli() : Long.MAX_VALUE,
+                query.minValue() != null ? query.minValue() : Double.NEGATIVE_INFINITY,
+                query.maxValue() != null ? query.maxValue() : Double.POSITIVE_INFINITY);
+    }
+}
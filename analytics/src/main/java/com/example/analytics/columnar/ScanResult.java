@@ -0,0 +1,69 @@
+package com.example.analytics.columnar;
+
+import com.example.analytics.base.vo.DatasourceGroupData;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Mergeable partial result of scanning one or more segments.
+ */
+final class ScanResult {
+
+    private final Map<String, double[]> groups = new HashMap<>();
+    private int segmentsScanned;
+    private long rowsScanned;
+    private long rowsMatched;
+
+    void merge(String key, long count, double sum, double min, double max) {
+        double[] stats = groups.get(key);
+        if (stats == null) {
+            groups.put(key, new double[]{count, sum, min, max});
+            return;
+        }
+        stats[0] += count;
+        stats[1] += sum;
+        stats[2] = Math.min(stats[2], min);
+        stats[3] = Math.max(stats[3], max);
+    }
+
+    void addSegment(long scanned, long matched) {
+        segmentsScanned++;
+        rowsScanned += scanned;
+        rowsMatched += matched;
+    }
+
+    ScanResult merge(ScanResult other) {
+        other.groups.forEach((key, stats) -> merge(key, (long) stats[0], stats[1], stats[2], stats[3]));
+        segmentsScanned += other.segmentsScanned;
+        rowsScanned += other.rowsScanned;
+        rowsMatched += other.rowsMatched;
+        return this;
+    }
+
+    int segmentsScanned() {
+        return segmentsScanned;
+    }
+
+    long rowsScanned() {
+        return rowsScanned;
+    }
+
+    long rowsMatched() {
+        return rowsMatched;
+    }
+
+    List<DatasourceGroupData> groups(Comparator<String> order, int limit) {
+        return groups.entrySet().stream()
+                .sorted(Map.Entry.comparingByKey(order))
+                .limit(limit)
+                .map(e -> {
+                    double[] stats = e.getValue();
+                    long count = (long) stats[0];
+                    return new DatasourceGroupData(e.getKey(), count, stats[1], stats[2], stats[3], stats[1] / count);
+                })
+                .toList();
+    }
+}
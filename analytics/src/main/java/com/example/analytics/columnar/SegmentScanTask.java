@@ -0,0 +1,63 @@
+package com.example.analytics.columnar;
+
+import com.example.analytics.base.enums.DatasourceGroupBy;
+import com.example.analytics.base.enums.Resolution;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Fork-join aggregation over a list of segments, split in halves down to one segment per task.
+ * Segments are size bounded when sealed, so one segment is a reasonable unit of work.
+ */
+final class SegmentScanTask extends RecursiveTask<ScanResult> {
+
+    private final List<ColumnarSegment> segments;
+    private final ScanFilter filter;
+    private final DatasourceGroupBy groupBy;
+
+    SegmentScanTask(List<ColumnarSegment> segments, ScanFilter filter, DatasourceGroupBy groupBy) {
+        this.segments = segments;
+        this.filter = filter;
+        this.groupBy = groupBy;
+    }
+
+    @Override
+    protected ScanResult compute() {
+        if (segments.size() == 1) {
+            return scan(segments.get(0));
+        }
+        int middle = segments.size() / 2;
+        SegmentScanTask left = new SegmentScanTask(segments.subList(0, middle), filter, groupBy);
+        SegmentScanTask right = new SegmentScanTask(segments.subList(middle, segments.size()), filter, groupBy);
+        left.fork();
+        ScanResult result = right.compute();
+        return result.merge(left.join());
+    }
+
+    private ScanResult scan(ColumnarSegment segment) {
+        GroupAccumulator accumulator = new GroupAccumulator();
+        long[] matched = {0};
+        Resolution resolution = groupBy.resolution();
+        long scanned = segment.scan(filter, (row, tenantId, metricCode, time, value) -> {
+            long key = switch (groupBy) {
+                case NONE -> 0;
+                case TENANT -> tenantId;
+                case METRIC -> metricCode;
+                case MINUTE, HOUR, DAY -> resolution.bucketOf(time);
+            };
+            accumulator.add(key, value);
+            matched[0]++;
+        });
+        ScanResult result = new ScanResult();
+        result.addSegment(scanned, matched[0]);
+        accumulator.drainTo(result, key -> switch (groupBy) {
+            case NONE -> "all";
+            case TENANT -> String.valueOf(key);
+            case METRIC -> segment.metric((int) key);
+            case MINUTE, HOUR, DAY -> Instant.ofEpochMilli(resolution.startOf(key)).toString();
+        });
+        return result;
+    }
+}
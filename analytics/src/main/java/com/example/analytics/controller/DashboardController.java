@@ -0,0 +1,58 @@
+package com.example.analytics.controller;
+
+import com.example.analytics.base.enums.Resolution;
+import com.example.analytics.base.vo.MetricSeriesData;
+import com.example.analytics.rollup.RollupEngine;
+import com.example.core.base.enums.ResponseMessage;
+import com.example.core.controller.BaseController;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.Duration;
+import java.time.Instant;
+
+@SuppressWarnings("unused")
+@RestController
+@RequestMapping("/v1/analytics/dashboards")
+@RequiredArgsConstructor
+@Tag(name = "Analytics dashboards", description = "Pre-aggregated metric series")
+public class DashboardController extends BaseController {
+
+    private static final int DEFAULT_POINTS = 60;
+
+    private final RollupEngine rollupEngine;
+
+    @GetMapping("/tenants/{tenantId}/metrics/{metric}")
+    @Operation(
+            summary = "Get a metric series",
+            description = "Returns count, sum, min, max, mean, percentiles and distinct subjects per bucket for the "
+                    + "range [from, to), plus totals over the range. Defaults to the last 60 buckets of the resolution; "
+                    + "ranges longer than the buckets kept are rejected."
+    )
+    public ResponseEntity<?> getMetricSeries(
+            @PathVariable Integer tenantId,
+            @PathVariable String metric,
+            @RequestParam(defaultValue = "MINUTE") Resolution resolution,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant to) {
+        if (!actsFor(tenantId)) {
+            return tenantNotGranted(tenantId);
+        }
+        int buckets = rollupEngine.slots(resolution);
+        Instant end = to != null ? to : Instant.now();
+        Instant start = from != null ? from : end.minus(resolution.getWidth().multipliedBy(Math.min(DEFAULT_POINTS, buckets)));
+        if (!start.isBefore(end)) {
+            return badRequest("'from' must be before 'to'");
+        }
+        if (Duration.between(start, end).compareTo(resolution.getWidth().multipliedBy(buckets)) > 0) {
+            return badRequest("The range must not span more than the %d %s buckets kept".formatted(buckets, resolution));
+        }
+        MetricSeriesData series = rollupEngine.query(tenantId, metric, resolution, start, end);
+        return ok(series, ResponseMessage.METRIC_SERIES_FETCHED_SUCCESSFULLY.getValue());
+    }
+
+}
@@ -0,0 +1,123 @@
+package com.example.analytics.controller;
+
+import com.example.analytics.base.enums.DatasourceGroupBy;
+import com.example.analytics.base.vo.DatasourceQueryData;
+import com.example.analytics.base.vo.DatasourceResultData;
+import com.example.analytics.base.vo.SegmentInfoData;
+import com.example.analytics.columnar.ColumnarSegmentStore;
+import com.example.analytics.columnar.ScanFilter;
+import com.example.core.base.enums.ErrorMessage;
+import com.example.core.base.enums.ResponseMessage;
+import com.example.core.base.response.ControllerResponse;
+import com.example.core.controller.BaseController;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.http.ProblemDetail;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Objects;
+
+@SuppressWarnings("unused")
+@RestController
+@RequiredArgsConstructor
+@Tag(name = "Analytics datasource", description = "Ad-hoc queries over the columnar event segments")
+public class DatasourceController extends BaseController {
+
+    private static final int DEFAULT_LIMIT = 1000;
+    private static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
+    private final ColumnarSegmentStore segmentStore;
+    private final ObjectMapper objectMapper;
+
+    @PostMapping("/v1/analytics/datasource/query")
+    @Operation(
+            summary = "Aggregate events of a tenant",
+            description = "Filters the sealed event segments of one tenant and returns count, sum, min, max and mean per group."
+    )
+    public ResponseEntity<?> query(@RequestBody @Valid DatasourceQueryData query) {
+        if (query.tenantId() == null) {
+            return badRequest(ErrorMessage.TENANT_ID_REQUIRED.getValue());
+        }
+        if (!actsFor(query.tenantId())) {
+            return tenantNotGranted(query.tenantId());
+        }
+        return ok(execute(query), ResponseMessage.DATASOURCE_QUERY_EXECUTED_SUCCESSFULLY.getValue());
+    }
+
+    @PostMapping(value = "/v1/analytics/datasource/rows", produces = "application/x-ndjson")
+    @Operation(
+            summary = "Stream events of a tenant",
+            description = "Streams the matching events of one tenant as newline delimited JSON. Segments are returned oldest first;"
+                    + " within a segment events are ordered by metric, then time."
+    )
+    public ResponseEntity<StreamingResponseBody> rows(@RequestBody @Valid DatasourceQueryData query) {
+        ResponseEntity<ProblemDetail> problem = query.tenantId() == null ? badRequest(ErrorMessage.TENANT_ID_REQUIRED.getValue())
+                : actsFor(query.tenantId()) ? null : tenantNotGranted(query.tenantId());
+        if (problem != null) {
+            return ResponseEntity.status(problem.getStatusCode())
+                    .contentType(MediaType.APPLICATION_PROBLEM_JSON)
+                    .body(out -> objectMapper.writeValue(out, problem.getBody()));
+        }
+        ScanFilter filter = ScanFilter.of(query);
+        int limit = Objects.requireNonNullElse(query.limit(), DEFAULT_LIMIT);
+        StreamingResponseBody body = out -> {
+            try (JsonGenerator json = objectMapper.getFactory().createGenerator(out).setRootValueSeparator(null)) {
+                segmentStore.streamRows(filter, limit, (tenantId, metric, time, value, subject) -> {
+                    json.writeStartObject();
+                    json.writeNumberField("tenantId", tenantId);
+                    json.writeStringField("metric", metric);
+                    json.writeNumberField("value", value);
+                    json.writeStringField("occurredAt", Instant.ofEpochMilli(time).toString());
+                    json.writeStringField("subject", subject);
+                    json.writeEndObject();
+                    json.writeRaw('\n');
+                });
+            }
+        };
+        return ResponseEntity.ok().contentType(NDJSON).body(body);
+    }
+
+    @PostMapping("/v1/admin/analytics/datasource/query")
+    @Operation(
+            summary = "Aggregate events across tenants",
+            description = "Like the tenant query, but tenantId is optional and grouping by tenant is meaningful."
+    )
+    public ResponseEntity<ControllerResponse<DatasourceResultData>> adminQuery(@RequestBody @Valid DatasourceQueryData query) {
+        return ok(execute(query), ResponseMessage.DATASOURCE_QUERY_EXECUTED_SUCCESSFULLY.getValue());
+    }
+
+    @GetMapping("/v1/admin/analytics/datasource/segments")
+    @Operation(
+            summary = "List sealed segments",
+            description = "Returns every sealed columnar segment with its row count and zone map."
+    )
+    public ResponseEntity<ControllerResponse<List<SegmentInfoData>>> segments() {
+        return ok(segmentStore.segments(), ResponseMessage.SEGMENTS_FETCHED_SUCCESSFULLY.getValue());
+    }
+
+    @PostMapping("/v1/admin/analytics/datasource/segments/seal")
+    @Operation(
+            summary = "Seal buffered events",
+            description = "Seals the events buffered since the last segment in the background, making them queryable."
+    )
+    public ResponseEntity<ControllerResponse<Void>> seal() {
+        segmentStore.seal();
+        return accepted(null, ResponseMessage.SEGMENT_SEAL_REQUESTED.getValue());
+    }
+
+    private DatasourceResultData execute(DatasourceQueryData query) {
+        DatasourceGroupBy groupBy = Objects.requireNonNullElse(query.groupBy(), DatasourceGroupBy.NONE);
+        int limit = Objects.requireNonNullElse(query.limit(), DEFAULT_LIMIT);
+        return segmentStore.query(ScanFilter.of(query), groupBy, limit);
+    }
+
+}
@@ -0,0 +1,65 @@
+package com.example.analytics.controller;
+
+import com.example.analytics.base.vo.IngestionStatsData;
+import com.example.analytics.base.vo.UsageEventBatchData;
+import com.example.analytics.base.vo.UsageEventData;
+import com.example.analytics.ingest.EventIngestionPipeline;
+import com.example.core.base.enums.ErrorMessage;
+import com.example.core.base.enums.ResponseMessage;
+import com.example.core.base.response.ControllerResponse;
+import com.example.core.controller.BaseController;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.Duration;
+
+@SuppressWarnings("unused")
+@RestController
+@Tag(name = "Analytics events", description = "Usage event ingestion")
+public class EventIngestionController extends BaseController {
+
+    private final EventIngestionPipeline pipeline;
+    private final Duration retryAfter;
+
+    public EventIngestionController(EventIngestionPipeline pipeline,
+                                    @Value("${app.analytics.ingest.retry-after:1s}") Duration retryAfter) {
+        this.pipeline = pipeline;
+        this.retryAfter = retryAfter;
+    }
+
+    @PostMapping("/v1/analytics/events")
+    @Operation(
+            summary = "Ingest usage events",
+            description = "Buffers a batch of usage events for asynchronous storage. Answers 202 once buffered, "
+                    + "or 429 with Retry-After when the ingestion buffer is full."
+    )
+    public ResponseEntity<?> ingest(@RequestBody @Valid UsageEventBatchData batch) {
+        for (UsageEventData event : batch.events()) {
+            if (!actsFor(event.tenantId())) {
+                return tenantNotGranted(event.tenantId());
+            }
+        }
+        if (!pipeline.publish(batch.events())) {
+            return tooManyRequests(ErrorMessage.EVENT_BUFFER_FULL.getValue().formatted(Math.max(1, retryAfter.toSeconds())), retryAfter);
+        }
+        int count = batch.events().size();
+        return accepted(count, ResponseMessage.EVENTS_ACCEPTED.getValue().formatted(count));
+    }
+
+    @GetMapping("/v1/admin/analytics/events/stats")
+    @Operation(
+            summary = "Get ingestion statistics",
+            description = "Returns buffer occupancy and event counters of the ingestion pipeline."
+    )
+    public ResponseEntity<ControllerResponse<IngestionStatsData>> stats() {
+        return ok(pipeline.stats(), ResponseMessage.INGESTION_STATS_FETCHED_SUCCESSFULLY.getValue());
+    }
+
+}
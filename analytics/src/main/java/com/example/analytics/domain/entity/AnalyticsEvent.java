@@ -0,0 +1,43 @@
+package com.example.analytics.domain.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Raw usage event. Rows are inserted in JDBC batches by {@link com.example.analytics.ingest.JdbcEventSink};
+ * the mapping only describes the table.
+ */
+@Entity
+@Table(name = "ANALYTICS_EVENT", indexes = {
+        @Index(name = "IDX_EVENT_TENANT_TIME", columnList = "TENANT_ID, OCCURRED_AT"),
+})
+@Getter
+@Setter
+@Access(AccessType.FIELD)
+public class AnalyticsEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "EVT_PK_ID")
+    private Long id;
+
+    @Column(name = "TENANT_ID", nullable = false)
+    private Integer tenantId;
+
+    @Column(name = "METRIC", nullable = false, length = 64)
+    private String metric;
+
+    @Column(name = "METRIC_VALUE", nullable = false)
+    private double value;
+
+    /**
+     * Epoch milliseconds.
+     */
+    @Column(name = "OCCURRED_AT", nullable = false)
+    private long occurredAt;
+
+    @Column(name = "SUBJECT", length = 128)
+    private String subject;
+
+}
@@ -0,0 +1,70 @@
+package com.example.analytics.domain.entity;
+
+import com.example.analytics.base.enums.Resolution;
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Snapshot of one rollup bucket as seen by one node. Rows are written and read by
+ * {@link com.example.analytics.rollup.RollupSnapshotStore}; the mapping only describes the table.
+ */
+@Entity
+@Table(name = "ANALYTICS_ROLLUP", uniqueConstraints = {
+        @UniqueConstraint(name = "UK_ROLLUP_BUCKET", columnNames = {"TENANT_ID", "METRIC", "RESOLUTION", "BUCKET_START", "NODE_ID"}),
+}, indexes = {
+        @Index(name = "IDX_ROLLUP_RESOLUTION_START", columnList = "RESOLUTION, BUCKET_START"),
+})
+@Getter
+@Setter
+@Access(AccessType.FIELD)
+public class AnalyticsRollup {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "RLP_PK_ID")
+    private Long id;
+
+    @Column(name = "TENANT_ID", nullable = false)
+    private Integer tenantId;
+
+    @Column(name = "METRIC", nullable = false, length = 64)
+    private String metric;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "RESOLUTION", nullable = false)
+    private Resolution resolution;
+
+    /**
+     * Epoch milliseconds.
+     */
+    @Column(name = "BUCKET_START", nullable = false)
+    private long bucketStart;
+
+    /**
+     * Node that ingested the events of this row.
+     */
+    @Column(name = "NODE_ID", nullable = false, length = 128)
+    private String nodeId;
+
+    @Column(name = "EVENT_COUNT", nullable = false)
+    private long count;
+
+    @Column(name = "VALUE_SUM", nullable = false)
+    private double sum;
+
+    @Column(name = "VALUE_MIN", nullable = false)
+    private double min;
+
+    @Column(name = "VALUE_MAX", nullable = false)
+    private double max;
+
+    @Lob
+    @Column(name = "HISTOGRAM", nullable = false)
+    private byte[] histogram;
+
+    @Lob
+    @Column(name = "DISTINCT_SKETCH")
+    private byte[] distinctSketch;
+
+}
@@ -0,0 +1,14 @@
+package com.example.analytics.ingest;
+
+import com.example.analytics.base.vo.UsageEventData;
+
+import java.util.List;
+
+/**
+ * Notified by the ingestion consumers after a batch has been written to the sink. Called from the
+ * shard consumer threads, so implementations must be thread safe and should not block.
+ */
+public interface EventBatchListener {
+
+    void onBatch(List<UsageEventData> events);
+}
@@ -0,0 +1,233 @@
+package com.example.analytics.ingest;
+
+import com.example.analytics.base.vo.IngestionStatsData;
+import com.example.analytics.base.vo.UsageEventData;
+import com.example.core.base.concurrent.BoundedMpscQueue;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+/**
+ * Bounded ingestion pipeline: producers publish into one of several lock-free ring buffers and a
+ * dedicated consumer per shard drains it into the {@link EventSink} in batches. A batch is flushed
+ * once it reaches {@code batch-size} events or its oldest event has waited {@code linger}; written
+ * batches are then handed to every {@link EventBatchListener}.
+ * <p>
+ * Memory is bounded by {@code shards * capacity} buffered events. When no shard can take a request's
+ * batch it is rejected as a whole and the caller is expected to answer 429.
+ * <p>
+ * Runs in a lifecycle phase below the web server, so on shutdown requests stop arriving before the
+ * buffers are drained.
+ */
+@Component
+public class EventIngestionPipeline implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(EventIngestionPipeline.class);
+    private static final int MAX_WRITE_ATTEMPTS = 3;
+
+    private final EventSink sink;
+    private final ObjectProvider<EventBatchListener> listenerProvider;
+    private final List<BoundedMpscQueue<UsageEventData>> shards;
+    private final int batchSize;
+    private final long lingerNanos;
+    private final long idleParkNanos;
+    private final Duration drainTimeout;
+
+    private final LongAdder accepted = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder written = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+
+    private final List<Thread> consumers = new ArrayList<>();
+    private List<EventBatchListener> listeners = List.of();
+    private volatile boolean running;
+
+    public EventIngestionPipeline(EventSink sink,
+                                  ObjectProvider<EventBatchListener> listenerProvider,
+                                  @Value("${app.analytics.ingest.shards:0}") int shardCount,
+                                  @Value("${app.analytics.ingest.shard-capacity:16384}") int shardCapacity,
+                                  @Value("${app.analytics.ingest.batch-size:1000}") int batchSize,
+                                  @Value("${app.analytics.ingest.linger:50ms}") Duration linger,
+                                  @Value("${app.analytics.ingest.drain-timeout:10s}") Duration drainTimeout) {
+        int count = shardCount > 0 ? shardCount : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        this.sink = sink;
+        this.listenerProvider = listenerProvider;
+        this.shards = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            shards.add(new BoundedMpscQueue<>(shardCapacity));
+        }
+        this.batchSize = batchSize;
+        this.lingerNanos = linger.toNanos();
+        this.idleParkNanos = Math.min(lingerNanos, TimeUnit.MILLISECONDS.toNanos(1));
+        this.drainTimeout = drainTimeout;
+    }
+
+    /**
+     * Publishes all events or none. Starts at a random shard and tries each shard once.
+     *
+     * @return false when the pipeline is stopped or every shard is too full for the batch
+     */
+    public boolean publish(List<UsageEventData> events) {
+        if (running) {
+            int count = shards.size();
+            int start = ThreadLocalRandom.current().nextInt(count);
+            for (int i = 0; i < count; i++) {
+                if (shards.get((start + i) % count).offerAll(events)) {
+                    accepted.add(events.size());
+                    return true;
+                }
+            }
+        }
+        rejected.add(events.size());
+        return false;
+    }
+
+    public IngestionStatsData stats() {
+        int capacity = 0;
+        int buffered = 0;
+        for (BoundedMpscQueue<UsageEventData> shard : shards) {
+            capacity += shard.capacity();
+            buffered += shard.size();
+        }
+        return new IngestionStatsData(sink.name(), shards.size(), capacity, buffered,
+                accepted.sum(), rejected.sum(), written.sum(), failed.sum());
+    }
+
+    @Override
+    public void start() {
+        listeners = listenerProvider.orderedStream().toList();
+        running = true;
+        for (int i = 0; i < shards.size(); i++) {
+            int shard = i;
+            Thread consumer = new Thread(() -> consume(shard), "analytics-ingest-" + shard);
+            consumer.setDaemon(true);
+            consumer.start();
+            consumers.add(consumer);
+        }
+        log.info("Started event ingestion: {} shards x {} events, batch size {}, sink {}",
+                shards.size(), shards.get(0).capacity(), batchSize, sink.name());
+    }
+
+    /**
+     * Lets the consumers drain their shards for up to {@code drain-timeout}. Consumers still running
+     * after that are interrupted and the sink is left open, since one of them may still be inside
+     * {@link EventSink#write}; the events not yet written are logged as abandoned.
+     */
+    @Override
+    public void stop() {
+        running = false;
+        long deadline = System.nanoTime() + drainTimeout.toNanos();
+        for (Thread consumer : consumers) {
+            try {
+                TimeUnit.NANOSECONDS.timedJoin(consumer, Math.max(1, deadline - System.nanoTime()));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        List<Thread> unfinished = consumers.stream().filter(Thread::isAlive).toList();
+        consumers.clear();
+        if (unfinished.isEmpty()) {
+            try {
+                sink.close();
+            } catch (Exception e) {
+                log.warn("Failed to close event sink {}", sink.name(), e);
+            }
+        } else {
+            long abandoned = abandoned();
+            unfinished.forEach(Thread::interrupt);
+            log.warn("{} ingestion consumers did not finish within {}, abandoning {} events and leaving sink {} open",
+                    unfinished.size(), drainTimeout, abandoned, sink.name());
+        }
+        IngestionStatsData stats = stats();
+        log.info("Stopped event ingestion: accepted {}, written {}, failed {}, left in buffer {}",
+                stats.accepted(), stats.written(), stats.failed(), stats.buffered());
+    }
+
+    /**
+     * Accepted events that were neither written nor dropped after failed writes: still buffered or in
+     * a batch that was being written.
+     */
+    long abandoned() {
+        return accepted.sum() - written.sum() - failed.sum();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        return SmartLifecycle.DEFAULT_PHASE - 4096;
+    }
+
+    private void consume(int shard) {
+        BoundedMpscQueue<UsageEventData> queue = shards.get(shard);
+        List<UsageEventData> batch = new ArrayList<>(batchSize);
+        Consumer<UsageEventData> collector = batch::add;
+        long oldest = 0;
+        while (!Thread.currentThread().isInterrupted()) {
+            boolean stopping = !running;
+            int drained = queue.drain(collector, batchSize - batch.size());
+            if (drained > 0 && oldest == 0) {
+                oldest = System.nanoTime();
+            }
+            boolean due = batch.size() >= batchSize
+                    || (!batch.isEmpty() && (stopping || System.nanoTime() - oldest >= lingerNanos));
+            if (due) {
+                write(shard, batch);
+                batch.clear();
+                oldest = 0;
+            } else if (stopping && batch.isEmpty()) {
+                return;
+            } else if (drained == 0) {
+                LockSupport.parkNanos(idleParkNanos);
+            }
+        }
+    }
+
+    private void write(int shard, List<UsageEventData> batch) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                sink.write(shard, batch);
+                written.add(batch.size());
+                notifyListeners(batch);
+                return;
+            } catch (Exception e) {
+                if (e instanceof InterruptedException) {
+                    Thread.currentThread().interrupt();
+                }
+                if (attempt == MAX_WRITE_ATTEMPTS || Thread.currentThread().isInterrupted()) {
+                    failed.add(batch.size());
+                    log.error("Dropping {} events of shard {} after {} failed writes", batch.size(), shard, attempt, e);
+                    return;
+                }
+                log.warn("Write of {} events to {} failed (attempt {}), retrying", batch.size(), sink.name(), attempt, e);
+                LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(100L * attempt));
+            }
+        }
+    }
+
+    private void notifyListeners(List<UsageEventData> batch) {
+        for (EventBatchListener listener : listeners) {
+            try {
+                listener.onBatch(batch);
+            } catch (RuntimeException e) {
+                log.error("Event batch listener {} failed", listener.getClass().getSimpleName(), e);
+            }
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.example.analytics.ingest;
+
+import com.example.analytics.base.vo.UsageEventData;
+
+import java.util.List;
+
+/**
+ * Destination for batches drained from the ingestion ring buffers. Each shard has exactly one
+ * consumer thread, so calls for the same shard never overlap; calls for different shards may.
+ */
+public interface EventSink {
+
+    String name();
+
+    void write(int shard, List<UsageEventData> events) throws Exception;
+
+    default void close() throws Exception {
+    }
+}
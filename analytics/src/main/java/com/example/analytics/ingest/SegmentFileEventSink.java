@@ -0,0 +1,157 @@
+package com.example.analytics.ingest;
+
+import com.example.analytics.base.vo.UsageEventData;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Appends batches to local segment files, one open segment per shard, rolled by size.
+ * <p>
+ * Record layout (big endian): {@code int tenantId, long occurredAt (epoch millis), double value,
+ * short metricLength, byte[] metric (UTF-8), short subjectLength (-1 when absent), byte[] subject (UTF-8)}. Segments are named {@code events-<shard>-<seq>.seg}
+ * and are never modified once rolled.
+ * <p>
+ * A batch is all or nothing within its segment: when a write fails, the segment is cut back to
+ * where the batch started, so the retry of the batch does not append a second, partial copy.
+ */
+@Component
+@ConditionalOnProperty(name = "app.analytics.ingest.sink", havingValue = "segment")
+public class SegmentFileEventSink implements EventSink {
+
+    private static final Logger log = LoggerFactory.getLogger(SegmentFileEventSink.class);
+    private static final int FIXED_RECORD_BYTES = Integer.BYTES + Long.BYTES + Double.BYTES + 2 * Short.BYTES;
+
+    private final Path directory;
+    private final long segmentBytes;
+    private final boolean fsync;
+    private final ConcurrentMap<Integer, Segment> segments = new ConcurrentHashMap<>();
+
+    public SegmentFileEventSink(@Value("${app.analytics.ingest.segment.directory:data/analytics/events}") Path directory,
+                                @Value("${app.analytics.ingest.segment.max-size:64MB}") DataSize segmentSize,
+                                @Value("${app.analytics.ingest.segment.fsync:false}") boolean fsync) throws IOException {
+        this.directory = Files.createDirectories(directory);
+        this.segmentBytes = segmentSize.toBytes();
+        this.fsync = fsync;
+    }
+
+    @Override
+    public String name() {
+        return "segment";
+    }
+
+    @Override
+    public void write(int shard, List<UsageEventData> events) throws IOException {
+        Segment segment = segments.computeIfAbsent(shard, s -> new Segment());
+        if (segment.channel == null || segment.channel.size() >= segmentBytes) {
+            segment.roll(shard);
+        }
+        ByteBuffer buffer = segment.buffer;
+        long start = segment.channel.position();
+        try {
+            for (UsageEventData event : events) {
+                byte[] metric = event.metric().getBytes(StandardCharsets.UTF_8);
+                byte[] subject = event.subject() != null ? event.subject().getBytes(StandardCharsets.UTF_8) : null;
+                int subjectLength = subject != null ? subject.length : 0;
+                if (buffer.remaining() < FIXED_RECORD_BYTES + metric.length + subjectLength) {
+                    segment.flush();
+                }
+                buffer.putInt(event.tenantId())
+                        .putLong(event.occurredAt().toEpochMilli())
+                        .putDouble(event.value())
+                        .putShort((short) metric.length)
+                        .put(metric)
+                        .putShort(subject != null ? (short) subjectLength : -1);
+                if (subject != null) {
+                    buffer.put(subject);
+                }
+            }
+            segment.flush();
+            if (fsync) {
+                segment.channel.force(false);
+            }
+        } catch (IOException | RuntimeException e) {
+            segment.discardFrom(start);
+            throw e;
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        for (Segment segment : segments.values()) {
+            if (segment.channel != null) {
+                segment.channel.force(false);
+                segment.channel.close();
+            }
+        }
+        segments.clear();
+    }
+
+    /**
+     * Open segment of a single shard; only touched by that shard's consumer thread.
+     */
+    private final class Segment {
+
+        private final ByteBuffer buffer = ByteBuffer.allocateDirect(256 * 1024);
+        private FileChannel channel;
+        private long sequence;
+
+        private void roll(int shard) throws IOException {
+            if (channel != null) {
+                channel.force(false);
+                channel.close();
+            }
+            Path file;
+            do {
+                file = directory.resolve("events-%d-%06d.seg".formatted(shard, sequence++));
+            } while (Files.exists(file));
+            channel = FileChannel.open(file, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+            log.info("Opened event segment {}", file);
+        }
+
+        private void flush() throws IOException {
+            buffer.flip();
+            try {
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+            } finally {
+                buffer.clear();
+            }
+        }
+
+        /**
+         * Cuts off a failed batch written from {@code offset}. If even that fails, the segment is
+         * abandoned and the next batch starts a new one.
+         */
+        private void discardFrom(long offset) {
+            buffer.clear();
+            try {
+                channel.truncate(offset);
+                channel.position(offset);
+            } catch (IOException e) {
+                log.error("Failed to cut a failed batch off its event segment, rolling to a new segment", e);
+                try {
+                    channel.close();
+                } catch (IOException ignored) {
+                    // already failing
+                }
+                channel = null;
+            }
+        }
+    }
+}
@@ -0,0 +1,170 @@
+package com.example.analytics.rollup;
+
+import com.example.analytics.base.enums.Resolution;
+import com.example.analytics.sketch.HyperLogLog;
+import com.example.analytics.sketch.LogHistogram;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * Fixed number of consecutive buckets of one resolution, stored column-wise in flat primitive
+ * arrays indexed by {@code bucket mod slots}. A slot is reset when a newer bucket claims it; events
+ * for buckets that have rotated out of the window are ignored. Sketches are allocated on first use
+ * and cleared, not reallocated, when the slot is reused. Not thread safe; guarded by
+ * {@link RollupSeries}.
+ */
+final class BucketRing {
+
+    private static final long EMPTY = Long.MIN_VALUE;
+
+    private final Resolution resolution;
+    private final int slots;
+    private final long[] buckets;
+    private final long[] counts;
+    private final double[] sums;
+    private final double[] mins;
+    private final double[] maxs;
+    private final LogHistogram[] histograms;
+    private final HyperLogLog[] distincts;
+    private final BitSet dirty;
+    private long latest = EMPTY;
+
+    BucketRing(Resolution resolution, int slots) {
+        this.resolution = resolution;
+        this.slots = slots;
+        this.buckets = new long[slots];
+        this.counts = new long[slots];
+        this.sums = new double[slots];
+        this.mins = new double[slots];
+        this.maxs = new double[slots];
+        this.histograms = new LogHistogram[slots];
+        this.distincts = new HyperLogLog[slots];
+        this.dirty = new BitSet(slots);
+        Arrays.fill(buckets, EMPTY);
+    }
+
+    void record(long epochMillis, double value, String subject) {
+        int slot = claim(resolution.bucketOf(epochMillis));
+        if (slot < 0) {
+            return;
+        }
+        counts[slot]++;
+        sums[slot] += value;
+        mins[slot] = Math.min(mins[slot], value);
+        maxs[slot] = Math.max(maxs[slot], value);
+        histogram(slot).add(value);
+        if (subject != null) {
+            distinct(slot).addHash(HyperLogLog.hash(subject));
+        }
+        dirty.set(slot);
+    }
+
+    /**
+     * Merges a stored bucket into its slot, so restoring the same bucket start twice adds both up.
+     */
+    void restore(RollupBucket snapshot) {
+        int slot = claim(resolution.bucketOf(snapshot.bucketStart()));
+        if (slot < 0) {
+            return;
+        }
+        counts[slot] += snapshot.count();
+        sums[slot] += snapshot.sum();
+        mins[slot] = Math.min(mins[slot], snapshot.min());
+        maxs[slot] = Math.max(maxs[slot], snapshot.max());
+        histogram(slot).merge(LogHistogram.fromBytes(snapshot.histogram()));
+        if (snapshot.distinct() != null) {
+            distinct(slot).merge(HyperLogLog.fromBytes(snapshot.distinct()));
+        }
+    }
+
+    /**
+     * Copies every dirty bucket into {@code out} and clears the dirty marks.
+     */
+    void drainDirty(int tenantId, String metric, List<RollupBucket> out) {
+        for (int slot = dirty.nextSetBit(0); slot >= 0; slot = dirty.nextSetBit(slot + 1)) {
+            HyperLogLog distinct = distincts[slot];
+            out.add(new RollupBucket(tenantId, metric, resolution, resolution.startOf(buckets[slot]),
+                    counts[slot], sums[slot], mins[slot], maxs[slot],
+                    histograms[slot].toBytes(), distinct != null ? distinct.toBytes() : null));
+        }
+        dirty.clear();
+    }
+
+    /**
+     * Marks a bucket dirty again after a failed write, unless it has been rotated out meanwhile.
+     */
+    void markDirty(long bucketStart) {
+        long bucket = resolution.bucketOf(bucketStart);
+        int slot = slotOf(bucket);
+        if (buckets[slot] == bucket) {
+            dirty.set(slot);
+        }
+    }
+
+    /**
+     * Visits the non-empty buckets in {@code [fromBucket, toBucket]} in time order.
+     */
+    void forEach(long fromBucket, long toBucket, BucketVisitor visitor) {
+        if (latest == EMPTY) {
+            return;
+        }
+        // Only the window holds buckets, so a range reaching far into the past or future costs at most one pass.
+        long first = Math.max(fromBucket, latest - slots + 1);
+        long last = Math.min(toBucket, latest);
+        for (long bucket = first; bucket <= last; bucket++) {
+            int slot = slotOf(bucket);
+            if (buckets[slot] == bucket && counts[slot] > 0) {
+                visitor.visit(resolution.startOf(bucket), counts[slot], sums[slot], mins[slot], maxs[slot],
+                        histograms[slot], distincts[slot]);
+            }
+        }
+    }
+
+    private int claim(long bucket) {
+        if (latest != EMPTY && bucket <= latest - slots) {
+            return -1;
+        }
+        int slot = slotOf(bucket);
+        if (buckets[slot] != bucket) {
+            if (buckets[slot] > bucket) {
+                return -1;
+            }
+            buckets[slot] = bucket;
+            counts[slot] = 0;
+            sums[slot] = 0;
+            mins[slot] = Double.POSITIVE_INFINITY;
+            maxs[slot] = Double.NEGATIVE_INFINITY;
+            if (histograms[slot] != null) histograms[slot].clear();
+            if (distincts[slot] != null) distincts[slot].clear();
+            dirty.clear(slot);
+        }
+        latest = Math.max(latest, bucket);
+        return slot;
+    }
+
+    private int slotOf(long bucket) {
+        return (int) Math.floorMod(bucket, (long) slots);
+    }
+
+    private LogHistogram histogram(int slot) {
+        if (histograms[slot] == null) {
+            histograms[slot] = new LogHistogram();
+        }
+        return histograms[slot];
+    }
+
+    private HyperLogLog distinct(int slot) {
+        if (distincts[slot] == null) {
+            distincts[slot] = new HyperLogLog();
+        }
+        return distincts[slot];
+    }
+
+    @FunctionalInterface
+    interface BucketVisitor {
+        void visit(long bucketStart, long count, double sum, double min, double max,
+                   LogHistogram histogram, HyperLogLog distinct);
+    }
+}
@@ -0,0 +1,21 @@
+package com.example.analytics.rollup;
+
+import com.example.analytics.base.enums.Resolution;
+
+/**
+ * Persistable copy of one bucket, detached from the live ring.
+ *
+ * @param histogram serialized {@link com.example.analytics.sketch.LogHistogram}
+ * @param distinct  serialized {@link com.example.analytics.sketch.HyperLogLog}, null when no event had a subject
+ */
+public record RollupBucket(int tenantId,
+                           String metric,
+                           Resolution resolution,
+                           long bucketStart,
+                           long count,
+                           double sum,
+                           double min,
+                           double max,
+                           byte[] histogram,
+                           byte[] distinct) {
+}
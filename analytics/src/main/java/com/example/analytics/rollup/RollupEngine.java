@@ -0,0 +1,306 @@
+package com.example.analytics.rollup;
+
+import com.example.analytics.base.enums.Resolution;
+import com.example.analytics.base.vo.MetricPointData;
+import com.example.analytics.base.vo.MetricSeriesData;
+import com.example.analytics.base.vo.UsageEventData;
+import com.example.analytics.ingest.EventBatchListener;
+import com.example.analytics.sketch.HyperLogLog;
+import com.example.analytics.sketch.LogHistogram;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Keeps rolling minute, hour and day buckets per tenant and metric, fed by the ingestion pipeline.
+ * Each bucket holds count, sum, min and max plus a {@link LogHistogram} for percentiles and a
+ * {@link HyperLogLog} for distinct subjects; both merge, so range totals are exact merges of the
+ * buckets rather than averages of percentiles.
+ * <p>
+ * Buckets changed since the last snapshot are written every {@code flush-interval}, and on startup
+ * the rings are rebuilt from this node's stored snapshots before the web server starts taking events.
+ * Every node keeps only the events it ingested; queries merge in the buckets other nodes stored.
+ * The number of series is capped by {@code max-series}; events of further series are counted and
+ * skipped. So are events timed before the oldest bucket kept or more than {@code max-clock-skew}
+ * ahead of this node's clock: a single far future event would otherwise move the rings forward
+ * and every current event after it would land in a bucket that has already rotated out.
+ */
+@Component
+public class RollupEngine implements EventBatchListener, SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(RollupEngine.class);
+
+    private final RollupSnapshotStore store;
+    private final Map<Resolution, Integer> slots = new EnumMap<>(Resolution.class);
+    private final int maxSeries;
+    private final Duration flushInterval;
+    private final long maxClockSkewMillis;
+    private final Clock clock = Clock.systemUTC();
+
+    private final ConcurrentMap<Integer, ConcurrentMap<String, RollupSeries>> series = new ConcurrentHashMap<>();
+    private final AtomicInteger seriesCount = new AtomicInteger();
+    private final LongAdder skippedEvents = new LongAdder();
+    private final LongAdder outOfWindowEvents = new LongAdder();
+    private ScheduledExecutorService scheduler;
+    private volatile boolean running;
+
+    public RollupEngine(RollupSnapshotStore store,
+                        @Value("${app.analytics.rollup.minute-buckets:180}") int minuteBuckets,
+                        @Value("${app.analytics.rollup.hour-buckets:168}") int hourBuckets,
+                        @Value("${app.analytics.rollup.day-buckets:90}") int dayBuckets,
+                        @Value("${app.analytics.rollup.max-series:10000}") int maxSeries,
+                        @Value("${app.analytics.rollup.flush-interval:10s}") Duration flushInterval,
+                        @Value("${app.analytics.rollup.max-clock-skew:1m}") Duration maxClockSkew) {
+        this.store = store;
+        this.slots.put(Resolution.MINUTE, minuteBuckets);
+        this.slots.put(Resolution.HOUR, hourBuckets);
+        this.slots.put(Resolution.DAY, dayBuckets);
+        this.maxSeries = maxSeries;
+        this.flushInterval = flushInterval;
+        this.maxClockSkewMillis = maxClockSkew.toMillis();
+    }
+
+    @Override
+    public void onBatch(List<UsageEventData> events) {
+        long now = clock.millis();
+        long earliest = oldestRetained(now);
+        long latest = now + maxClockSkewMillis;
+        for (UsageEventData event : events) {
+            long occurredAt = event.occurredAt().toEpochMilli();
+            if (occurredAt < earliest || occurredAt > latest) {
+                outOfWindowEvents.increment();
+                continue;
+            }
+            RollupSeries target = seriesFor(event.tenantId(), event.metric());
+            if (target == null) {
+                skippedEvents.increment();
+                continue;
+            }
+            target.record(occurredAt, event.value(), event.subject());
+        }
+    }
+
+    /**
+     * Aggregates of the buckets overlapping {@code [from, to)}: this node's live buckets merged with the
+     * buckets other nodes stored, which lag by up to their {@code flush-interval}. Unknown series yield
+     * an empty result.
+     */
+    public MetricSeriesData query(int tenantId, String metric, Resolution resolution, Instant from, Instant to) {
+        long fromBucket = resolution.bucketOf(from.toEpochMilli());
+        long toBucket = resolution.bucketOf(to.toEpochMilli() - 1);
+        NavigableMap<Long, Aggregate> buckets = new TreeMap<>();
+        ConcurrentMap<String, RollupSeries> metrics = series.get(tenantId);
+        RollupSeries target = metrics != null ? metrics.get(metric) : null;
+        if (target != null) {
+            target.forEach(resolution, fromBucket, toBucket, (start, count, sum, min, max, histogram, distinct) ->
+                    buckets.computeIfAbsent(start, key -> new Aggregate()).add(count, sum, min, max, histogram, distinct));
+        }
+        store.loadPeers(tenantId, metric, resolution, resolution.startOf(fromBucket), resolution.startOf(toBucket),
+                bucket -> buckets.computeIfAbsent(bucket.bucketStart(), key -> new Aggregate()).add(bucket.count(),
+                        bucket.sum(), bucket.min(), bucket.max(), LogHistogram.fromBytes(bucket.histogram()),
+                        bucket.distinct() != null ? HyperLogLog.fromBytes(bucket.distinct()) : null));
+        List<MetricPointData> points = new ArrayList<>(buckets.size());
+        Aggregate totals = new Aggregate();
+        buckets.forEach((start, bucket) -> {
+            points.add(bucket.point(Instant.ofEpochMilli(start)));
+            totals.add(bucket.count, bucket.sum, bucket.min, bucket.max, bucket.histogram, bucket.distinct);
+        });
+        return new MetricSeriesData(tenantId, metric, resolution, from, to, totals.point(from), points);
+    }
+
+    /**
+     * Events skipped because they were timed outside the buckets kept, or beyond the clock skew ahead.
+     */
+    public long outOfWindowEvents() {
+        return outOfWindowEvents.sum();
+    }
+
+    /**
+     * Number of buckets kept in memory for a resolution.
+     */
+    public int slots(Resolution resolution) {
+        return slots.get(resolution);
+    }
+
+    /**
+     * Writes all buckets changed since the previous call. Buckets of a failed write are marked dirty again.
+     */
+    public void flush() {
+        List<RollupBucket> dirty = new ArrayList<>();
+        series.values().forEach(metrics -> metrics.values().forEach(s -> s.drainDirty(dirty)));
+        if (!dirty.isEmpty()) {
+            try {
+                store.saveAll(dirty);
+            } catch (RuntimeException e) {
+                log.warn("Failed to persist {} rollup buckets, retrying on next flush", dirty.size(), e);
+                for (RollupBucket bucket : dirty) {
+                    series.get(bucket.tenantId()).get(bucket.metric()).markDirty(bucket);
+                }
+                return;
+            }
+        }
+        long now = clock.millis();
+        for (Resolution resolution : Resolution.values()) {
+            store.deleteBefore(resolution, resolution.startOf(oldestBucket(resolution, now)));
+        }
+    }
+
+    @Override
+    public void start() {
+        long now = clock.millis();
+        int restored = 0;
+        for (Resolution resolution : Resolution.values()) {
+            int[] count = {0};
+            store.loadSince(resolution, resolution.startOf(oldestBucket(resolution, now)), bucket -> {
+                RollupSeries target = seriesFor(bucket.tenantId(), bucket.metric());
+                if (target != null) {
+                    target.restore(bucket);
+                    count[0]++;
+                }
+            });
+            restored += count[0];
+        }
+        log.info("Restored {} rollup buckets of {} series of node {}", restored, seriesCount.get(), store.nodeId());
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "analytics-rollup-flush");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long period = flushInterval.toMillis();
+        scheduler.scheduleWithFixedDelay(this::flushQuietly, period, period, TimeUnit.MILLISECONDS);
+        running = true;
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        scheduler.shutdown();
+        try {
+            scheduler.awaitTermination(flushInterval.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flushQuietly();
+        if (skippedEvents.sum() > 0) {
+            log.warn("Skipped {} events beyond the limit of {} rollup series", skippedEvents.sum(), maxSeries);
+        }
+        if (outOfWindowEvents.sum() > 0) {
+            log.warn("Skipped {} events timed outside the rollup window or more than {}ms ahead",
+                    outOfWindowEvents.sum(), maxClockSkewMillis);
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Below the ingestion pipeline, so rollups are restored before it starts and flushed after it drained.
+     */
+    @Override
+    public int getPhase() {
+        return SmartLifecycle.DEFAULT_PHASE - 8192;
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            log.warn("Rollup flush failed", e);
+        }
+    }
+
+    private long oldestBucket(Resolution resolution, long now) {
+        return resolution.bucketOf(now) - slots.get(resolution) + 1;
+    }
+
+    /**
+     * Start of the oldest bucket of any resolution; older events are in no ring.
+     */
+    private long oldestRetained(long now) {
+        long oldest = Long.MAX_VALUE;
+        for (Resolution resolution : Resolution.values()) {
+            oldest = Math.min(oldest, resolution.startOf(oldestBucket(resolution, now)));
+        }
+        return oldest;
+    }
+
+    /**
+     * A series is reserved against {@code max-series} before its tenant map is created, so events of
+     * tenants beyond the cap leave nothing behind.
+     */
+    private RollupSeries seriesFor(int tenantId, String metric) {
+        ConcurrentMap<String, RollupSeries> metrics = series.get(tenantId);
+        RollupSeries existing = metrics != null ? metrics.get(metric) : null;
+        if (existing != null) {
+            return existing;
+        }
+        if (seriesCount.incrementAndGet() > maxSeries) {
+            seriesCount.decrementAndGet();
+            return null;
+        }
+        RollupSeries created = new RollupSeries(tenantId, metric, slots);
+        existing = series.computeIfAbsent(tenantId, id -> new ConcurrentHashMap<>()).putIfAbsent(metric, created);
+        if (existing != null) {
+            seriesCount.decrementAndGet();
+            return existing;
+        }
+        return created;
+    }
+
+    /**
+     * Merge of buckets, of one bucket start across nodes or of a whole range; sketches are merged into
+     * fresh copies so the live buckets stay untouched.
+     */
+    private static final class Aggregate {
+        private long count;
+        private double sum;
+        private double min = Double.POSITIVE_INFINITY;
+        private double max = Double.NEGATIVE_INFINITY;
+        private final LogHistogram histogram = new LogHistogram();
+        private HyperLogLog distinct;
+
+        private void add(long count, double sum, double min, double max, LogHistogram histogram, HyperLogLog distinct) {
+            this.count += count;
+            this.sum += sum;
+            this.min = Math.min(this.min, min);
+            this.max = Math.max(this.max, max);
+            this.histogram.merge(histogram);
+            if (distinct != null) {
+                if (this.distinct == null) {
+                    this.distinct = new HyperLogLog();
+                }
+                this.distinct.merge(distinct);
+            }
+        }
+
+        private MetricPointData point(Instant start) {
+            Long distinctCount = distinct != null ? distinct.estimate() : null;
+            if (count == 0) {
+                return new MetricPointData(start, 0, 0, null, null, null, null, null, null, distinctCount);
+            }
+            return new MetricPointData(start, count, sum, min, max, sum / count,
+                    histogram.quantile(0.5), histogram.quantile(0.9), histogram.quantile(0.99), distinctCount);
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.analytics.rollup;
+
+import com.example.analytics.base.enums.Resolution;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Minute, hour and day rings of one tenant and metric. All access is synchronized on the series;
+ * writers are the ingestion consumers and the snapshot task, so contention stays low.
+ */
+final class RollupSeries {
+
+    private final int tenantId;
+    private final String metric;
+    private final BucketRing[] rings;
+
+    RollupSeries(int tenantId, String metric, Map<Resolution, Integer> slots) {
+        this.tenantId = tenantId;
+        this.metric = metric;
+        Resolution[] resolutions = Resolution.values();
+        this.rings = new BucketRing[resolutions.length];
+        for (Resolution resolution : resolutions) {
+            rings[resolution.ordinal()] = new BucketRing(resolution, slots.get(resolution));
+        }
+    }
+
+    synchronized void record(long epochMillis, double value, String subject) {
+        for (BucketRing ring : rings) {
+            ring.record(epochMillis, value, subject);
+        }
+    }
+
+    synchronized void restore(RollupBucket snapshot) {
+        rings[snapshot.resolution().ordinal()].restore(snapshot);
+    }
+
+    synchronized void drainDirty(List<RollupBucket> out) {
+        for (BucketRing ring : rings) {
+            ring.drainDirty(tenantId, metric, out);
+        }
+    }
+
+    synchronized void markDirty(RollupBucket bucket) {
+        rings[bucket.resolution().ordinal()].markDirty(bucket.bucketStart());
+    }
+
+    synchronized void forEach(Resolution resolution, long fromBucket, long toBucket, BucketRing.BucketVisitor visitor) {
+        rings[resolution.ordinal()].forEach(fromBucket, toBucket, visitor);
+    }
+}
@@ -0,0 +1,119 @@
+package com.example.analytics.rollup;
+
+import com.example.analytics.base.enums.Resolution;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.StringUtils;
+
+import java.lang.management.ManagementFactory;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Persists rollup buckets to ANALYTICS_ROLLUP, one row per tenant, metric, resolution, bucket and
+ * node. Every node only writes the buckets of the events it ingested, so nodes never overwrite each
+ * other; readers merge the rows of all nodes. Only buckets changed since the previous snapshot are
+ * written; each is replaced by delete and insert in one transaction, which works the same on every
+ * supported database.
+ * <p>
+ * The node id defaults to pid@host. A node restarted under the same configured id restores its own
+ * rows; rows of previous ids stay visible to readers as those of another node until they age out.
+ */
+@Component
+public class RollupSnapshotStore {
+
+    private static final String DELETE_SQL =
+            "delete from ANALYTICS_ROLLUP where TENANT_ID = ? and METRIC = ? and RESOLUTION = ? and BUCKET_START = ?"
+                    + " and NODE_ID = ?";
+    private static final String INSERT_SQL =
+            "insert into ANALYTICS_ROLLUP (TENANT_ID, METRIC, RESOLUTION, BUCKET_START, NODE_ID, EVENT_COUNT, VALUE_SUM,"
+                    + " VALUE_MIN, VALUE_MAX, HISTOGRAM, DISTINCT_SKETCH) values (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String SELECT_SQL =
+            "select TENANT_ID, METRIC, BUCKET_START, EVENT_COUNT, VALUE_SUM, VALUE_MIN, VALUE_MAX, HISTOGRAM,"
+                    + " DISTINCT_SKETCH from ANALYTICS_ROLLUP where RESOLUTION = ? and BUCKET_START >= ? and NODE_ID = ?";
+    private static final String SELECT_PEERS_SQL =
+            "select BUCKET_START, EVENT_COUNT, VALUE_SUM, VALUE_MIN, VALUE_MAX, HISTOGRAM, DISTINCT_SKETCH"
+                    + " from ANALYTICS_ROLLUP where TENANT_ID = ? and METRIC = ? and RESOLUTION = ?"
+                    + " and BUCKET_START >= ? and BUCKET_START <= ? and NODE_ID <> ?";
+    private static final String PRUNE_SQL =
+            "delete from ANALYTICS_ROLLUP where RESOLUTION = ? and BUCKET_START < ?";
+    private static final int BATCH_SIZE = 500;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final String nodeId;
+
+    public RollupSnapshotStore(JdbcTemplate jdbcTemplate,
+                               PlatformTransactionManager transactionManager,
+                               @Value("${app.analytics.rollup.node-id:}") String nodeId) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.nodeId = StringUtils.hasText(nodeId) ? nodeId : ManagementFactory.getRuntimeMXBean().getName();
+    }
+
+    public String nodeId() {
+        return nodeId;
+    }
+
+    /**
+     * Replaces this node's rows of the given buckets.
+     */
+    public void saveAll(List<RollupBucket> buckets) {
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.batchUpdate(DELETE_SQL, buckets, BATCH_SIZE, (ps, bucket) -> {
+                ps.setInt(1, bucket.tenantId());
+                ps.setString(2, bucket.metric());
+                ps.setString(3, bucket.resolution().name());
+                ps.setLong(4, bucket.bucketStart());
+                ps.setString(5, nodeId);
+            });
+            jdbcTemplate.batchUpdate(INSERT_SQL, buckets, BATCH_SIZE, (ps, bucket) -> {
+                ps.setInt(1, bucket.tenantId());
+                ps.setString(2, bucket.metric());
+                ps.setString(3, bucket.resolution().name());
+                ps.setLong(4, bucket.bucketStart());
+                ps.setString(5, nodeId);
+                ps.setLong(6, bucket.count());
+                ps.setDouble(7, bucket.sum());
+                ps.setDouble(8, bucket.min());
+                ps.setDouble(9, bucket.max());
+                ps.setBytes(10, bucket.histogram());
+                ps.setBytes(11, bucket.distinct());
+            });
+        });
+    }
+
+    /**
+     * Streams this node's stored buckets of a resolution starting at {@code fromBucketStart}.
+     */
+    public void loadSince(Resolution resolution, long fromBucketStart, Consumer<RollupBucket> consumer) {
+        jdbcTemplate.query(SELECT_SQL, rs -> {
+            consumer.accept(new RollupBucket(rs.getInt(1), rs.getString(2), resolution, rs.getLong(3),
+                    rs.getLong(4), rs.getDouble(5), rs.getDouble(6), rs.getDouble(7),
+                    rs.getBytes(8), rs.getBytes(9)));
+        }, resolution.name(), fromBucketStart, nodeId);
+    }
+
+    /**
+     * Streams the buckets of one series that other nodes stored in {@code [fromBucketStart, toBucketStart]};
+     * a bucket written by several nodes is passed once per node.
+     */
+    public void loadPeers(int tenantId, String metric, Resolution resolution, long fromBucketStart, long toBucketStart,
+                          Consumer<RollupBucket> consumer) {
+        jdbcTemplate.query(SELECT_PEERS_SQL, rs -> {
+            consumer.accept(new RollupBucket(tenantId, metric, resolution, rs.getLong(1),
+                    rs.getLong(2), rs.getDouble(3), rs.getDouble(4), rs.getDouble(5),
+                    rs.getBytes(6), rs.getBytes(7)));
+        }, tenantId, metric, resolution.name(), fromBucketStart, toBucketStart, nodeId);
+    }
+
+    /**
+     * Deletes buckets of every node that have rotated out of the in-memory window.
+     */
+    public int deleteBefore(Resolution resolution, long bucketStart) {
+        return jdbcTemplate.update(PRUNE_SQL, resolution.name(), bucketStart);
+    }
+}
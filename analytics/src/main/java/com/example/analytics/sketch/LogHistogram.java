@@ -0,0 +1,157 @@
+package com.example.analytics.sketch;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Mergeable quantile sketch with logarithmic buckets (DDSketch style). Every positive value
+ * falls into bucket {@code ceil(log(v) / log(gamma))}, so a quantile is returned within the
+ * configured relative error. Values {@code <= 0} are counted in a single zero bucket.
+ * <p>
+ * Counts live in one {@code long[]} covering only the occupied index range. When the range
+ * would exceed {@link #MAX_BUCKETS}, the lowest buckets are collapsed, which sacrifices the
+ * accuracy of the smallest values first. Two sketches merge by adding counts, as long as they
+ * share the same relative error.
+ */
+public final class LogHistogram {
+
+    public static final double DEFAULT_RELATIVE_ERROR = 0.01;
+    static final int MAX_BUCKETS = 2048;
+
+    private final double relativeError;
+    private final double gamma;
+    private final double logGamma;
+    private long[] counts = new long[0];
+    private int offset;
+    private long zeroCount;
+    private long totalCount;
+
+    public LogHistogram() {
+        this(DEFAULT_RELATIVE_ERROR);
+    }
+
+    public LogHistogram(double relativeError) {
+        this.relativeError = relativeError;
+        this.gamma = (1 + relativeError) / (1 - relativeError);
+        this.logGamma = Math.log(gamma);
+    }
+
+    public void add(double value) {
+        totalCount++;
+        if (!(value > 0)) {
+            zeroCount++;
+            return;
+        }
+        int index = (int) Math.ceil(Math.log(value) / logGamma);
+        ensureCovers(index, index);
+        counts[Math.max(0, index - offset)]++;
+    }
+
+    public void merge(LogHistogram other) {
+        if (other.relativeError != relativeError) {
+            throw new IllegalArgumentException("Cannot merge histograms with different relative error");
+        }
+        totalCount += other.totalCount;
+        zeroCount += other.zeroCount;
+        int length = other.counts.length;
+        if (length == 0) {
+            return;
+        }
+        ensureCovers(other.offset, other.offset + length - 1);
+        for (int i = 0; i < length; i++) {
+            counts[Math.max(0, other.offset + i - offset)] += other.counts[i];
+        }
+    }
+
+    /**
+     * @param quantile between 0 and 1
+     * @return the estimated value, or {@code NaN} when empty
+     */
+    public double quantile(double quantile) {
+        if (totalCount == 0) {
+            return Double.NaN;
+        }
+        long rank = (long) Math.floor(quantile * (totalCount - 1));
+        if (rank < zeroCount) {
+            return 0;
+        }
+        long seen = zeroCount;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen > rank) {
+                return 2 * Math.pow(gamma, offset + i) / (gamma + 1);
+            }
+        }
+        return 2 * Math.pow(gamma, offset + counts.length - 1) / (gamma + 1);
+    }
+
+    public long count() {
+        return totalCount;
+    }
+
+    public boolean isEmpty() {
+        return totalCount == 0;
+    }
+
+    public void clear() {
+        Arrays.fill(counts, 0);
+        zeroCount = 0;
+        totalCount = 0;
+    }
+
+    /**
+     * Layout: {@code double relativeError, long zeroCount, int offset, int length, long[length] counts}.
+     * Trailing and leading empty buckets are trimmed.
+     */
+    public byte[] toBytes() {
+        int first = 0;
+        int last = counts.length - 1;
+        while (first <= last && counts[first] == 0) first++;
+        while (last >= first && counts[last] == 0) last--;
+        int length = last - first + 1;
+        ByteBuffer buffer = ByteBuffer.allocate(Double.BYTES + Long.BYTES + 2 * Integer.BYTES + length * Long.BYTES);
+        buffer.putDouble(relativeError).putLong(zeroCount).putInt(offset + first).putInt(length);
+        for (int i = first; i <= last; i++) {
+            buffer.putLong(counts[i]);
+        }
+        return buffer.array();
+    }
+
+    public static LogHistogram fromBytes(byte[] bytes) {
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        LogHistogram histogram = new LogHistogram(buffer.getDouble());
+        histogram.zeroCount = buffer.getLong();
+        histogram.offset = buffer.getInt();
+        histogram.counts = new long[buffer.getInt()];
+        histogram.totalCount = histogram.zeroCount;
+        for (int i = 0; i < histogram.counts.length; i++) {
+            histogram.counts[i] = buffer.getLong();
+            histogram.totalCount += histogram.counts[i];
+        }
+        return histogram;
+    }
+
+    /**
+     * Grows the array to cover {@code [low, high]}; beyond MAX_BUCKETS the lowest indexes fold
+     * into the first bucket.
+     */
+    private void ensureCovers(int low, int high) {
+        if (counts.length == 0) {
+            offset = Math.max(low, high - MAX_BUCKETS + 1);
+            counts = new long[Math.min(high - low + 1, MAX_BUCKETS)];
+            return;
+        }
+        int currentHigh = offset + counts.length - 1;
+        int newHigh = Math.max(high, currentHigh);
+        int newLow = Math.max(Math.min(low, offset), newHigh - MAX_BUCKETS + 1);
+        if (newLow == offset && newHigh == currentHigh) {
+            return;
+        }
+        long[] resized = new long[newHigh - newLow + 1];
+        for (int i = 0; i < counts.length; i++) {
+            resized[Math.max(0, offset + i - newLow)] += counts[i];
+        }
+        counts = resized;
+        offset = newLow;
+    }
+}
@@ -0,0 +1,11 @@
+create table ANALYTICS_EVENT
+(
+    EVT_PK_ID    bigint      not null auto_increment,
+    TENANT_ID    integer     not null,
+    METRIC       varchar(64) not null,
+    METRIC_VALUE float(53)   not null,
+    OCCURRED_AT  bigint      not null,
+    primary key (EVT_PK_ID)
+);
+
+create index IDX_EVENT_TENANT_TIME on ANALYTICS_EVENT (TENANT_ID, OCCURRED_AT);
@@ -0,0 +1,20 @@
+alter table ANALYTICS_EVENT add column SUBJECT varchar(128);
+
+create table ANALYTICS_ROLLUP
+(
+    RLP_PK_ID       bigint                          not null auto_increment,
+    TENANT_ID       integer                         not null,
+    METRIC          varchar(64)                     not null,
+    RESOLUTION      enum ('MINUTE','HOUR','DAY')    not null,
+    BUCKET_START    bigint                          not null,
+    EVENT_COUNT     bigint                          not null,
+    VALUE_SUM       float(53)                       not null,
+    VALUE_MIN       float(53)                       not null,
+    VALUE_MAX       float(53)                       not null,
+    HISTOGRAM       longblob                        not null,
+    DISTINCT_SKETCH longblob,
+    primary key (RLP_PK_ID),
+    constraint UK_ROLLUP_BUCKET unique (TENANT_ID, METRIC, RESOLUTION, BUCKET_START)
+);
+
+create index IDX_ROLLUP_RESOLUTION_START on ANALYTICS_ROLLUP (RESOLUTION, BUCKET_START);
@@ -0,0 +1,5 @@
+alter table ANALYTICS_ROLLUP add column NODE_ID varchar(128) not null default '';
+
+alter table ANALYTICS_ROLLUP drop constraint UK_ROLLUP_BUCKET;
+
+alter table ANALYTICS_ROLLUP add constraint UK_ROLLUP_BUCKET unique (TENANT_ID, METRIC, RESOLUTION, BUCKET_START, NODE_ID);
@@ -0,0 +1,98 @@
+package com.example.analytics.columnar;
+
+import com.example.analytics.base.vo.SegmentInfoData;
+import com.example.analytics.base.vo.UsageEventData;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ColumnarSegmentStoreTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void dropsTheOldestSegmentsBeyondTheLimitAndDeletesTheirFiles() throws IOException {
+        Instant now = Instant.now();
+        for (int i = 1; i <= 4; i++) {
+            segment(i, now.minusSeconds(60 - i));
+        }
+        ColumnarSegmentStore store = store(2, Duration.ZERO);
+
+        store.start();
+        try {
+            assertThat(store.segments()).extracting(SegmentInfoData::name)
+                    .containsExactly("segment-3-000001.col", "segment-4-000001.col");
+            assertThat(directory.resolve("segment-1-000001.col")).doesNotExist();
+            assertThat(directory.resolve("segment-2-000001.col")).doesNotExist();
+            assertThat(directory.resolve("segment-4-000001.col")).exists();
+        } finally {
+            store.stop();
+        }
+    }
+
+    @Test
+    void dropsSegmentsWhoseNewestRowIsPastTheRetention() throws IOException {
+        Instant now = Instant.now();
+        segment(1, now.minus(Duration.ofDays(10)));
+        segment(2, now.minus(Duration.ofDays(3)));
+        segment(3, now);
+        ColumnarSegmentStore store = store(0, Duration.ofDays(7));
+
+        store.start();
+        try {
+            assertThat(store.segments()).extracting(SegmentInfoData::name)
+                    .containsExactly("segment-2-000001.col", "segment-3-000001.col");
+            assertThat(directory.resolve("segment-1-000001.col")).doesNotExist();
+        } finally {
+            store.stop();
+        }
+    }
+
+    @Test
+    void expiresSegmentsAfterEverySeal() throws IOException, InterruptedException {
+        Instant now = Instant.now();
+        segment(1, now);
+        ColumnarSegmentStore store = store(1, Duration.ZERO);
+        store.start();
+        try {
+            store.onBatch(List.of(new UsageEventData(7, "api.calls", 3, now, null)));
+            store.seal();
+
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (store.segments().get(0).name().equals("segment-1-000001.col") && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+            }
+            assertThat(store.segments()).singleElement().extracting(SegmentInfoData::rows).isEqualTo(1);
+            assertThat(directory.resolve("segment-1-000001.col")).doesNotExist();
+            ScanFilter all = new ScanFilter(7, Set.of(), Long.MIN_VALUE, Long.MAX_VALUE,
+                    Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY);
+            List<Double> values = new ArrayList<>();
+            store.streamRows(all, 10, (tenantId, metric, time, value, subject) -> values.add(value));
+            assertThat(values).containsExactly(3.0);
+        } finally {
+            store.stop();
+        }
+    }
+
+    private ColumnarSegmentStore store(int maxSegments, Duration retention) {
+        return new ColumnarSegmentStore(true, directory, 1_000, Duration.ofMinutes(5), 1, maxSegments, retention);
+    }
+
+    private void segment(long openedAt, Instant time) throws IOException {
+        ColumnarSegmentBuilder builder = new ColumnarSegmentBuilder(2);
+        builder.add(new UsageEventData(7, "api.calls", 1, time.minusMillis(1), null));
+        builder.add(new UsageEventData(7, "api.calls", 2, time, null));
+        builder.writeTo(directory.resolve("segment-%d-%06d.col".formatted(openedAt, 1)));
+    }
+}
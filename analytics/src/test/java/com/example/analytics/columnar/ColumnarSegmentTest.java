@@ -0,0 +1,152 @@
+package com.example.analytics.columnar;
+
+import com.example.analytics.base.vo.UsageEventData;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ColumnarSegmentTest {
+
+    private static final ScanFilter ALL = new ScanFilter(null, Set.of(), Long.MIN_VALUE, Long.MAX_VALUE,
+            Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY);
+    private static final String[] METRICS = {"api.calls", "storage.bytes", "müll.größe", "a"};
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void roundTripsEveryRowSortedByTenantMetricAndTime() throws IOException {
+        List<UsageEventData> events = randomEvents(5_000, 1);
+        ColumnarSegment segment = write(events);
+
+        List<UsageEventData> scanned = scan(segment, ALL);
+
+        assertThat(segment.rows()).isEqualTo(events.size());
+        assertThat(scanned).containsExactlyElementsOf(sorted(events));
+    }
+
+    @Test
+    void sortsRowsThatArriveOutOfTimeOrder() throws IOException {
+        List<UsageEventData> events = new ArrayList<>(randomEvents(3_000, 4));
+        Collections.shuffle(events, new Random(5));
+        events.add(event(-3, "a", 1, -5, null));
+        ColumnarSegment segment = write(events);
+
+        assertThat(scan(segment, ALL)).containsExactlyElementsOf(sorted(events));
+    }
+
+    @Test
+    void keepsZoneMapsInTheHeader() throws IOException {
+        ColumnarSegment segment = write(List.of(
+                event(3, "api.calls", 2.5, 1_000, "user-1"),
+                event(9, "api.calls", -4, 5_000, null),
+                event(5, "storage.bytes", 10, 3_000, "user-2")));
+
+        assertThat(segment.minTime()).isEqualTo(1_000);
+        assertThat(segment.info().minTenantId()).isEqualTo(3);
+        assertThat(segment.info().maxTenantId()).isEqualTo(9);
+        assertThat(segment.info().maxTime()).isEqualTo(Instant.ofEpochMilli(5_000));
+        assertThat(segment.mayMatch(filter(2, Set.of(), Long.MIN_VALUE, Long.MAX_VALUE))).isFalse();
+        assertThat(segment.mayMatch(filter(null, Set.of(), 5_001, Long.MAX_VALUE))).isFalse();
+        assertThat(segment.mayMatch(filter(null, Set.of("unknown"), Long.MIN_VALUE, Long.MAX_VALUE))).isFalse();
+        assertThat(segment.mayMatch(new ScanFilter(null, Set.of(), Long.MIN_VALUE, Long.MAX_VALUE, 11, 20)))
+                .isFalse();
+        assertThat(segment.mayMatch(filter(5, Set.of("storage.bytes"), 3_000, 3_001))).isTrue();
+    }
+
+    @Test
+    void scansOnlyTheRowsOfTheFilteredRunsAndTimeRange() throws IOException {
+        List<UsageEventData> events = randomEvents(20_000, 2);
+        ColumnarSegment segment = write(events);
+        ScanFilter filter = new ScanFilter(4, Set.of("api.calls", "müll.größe"), 20_000, 60_000, -50, 50);
+
+        List<UsageEventData> scanned = new ArrayList<>();
+        long read = segment.scan(filter, (row, tenantId, metricCode, time, value) -> scanned.add(
+                event(tenantId, segment.metric(metricCode), value, time, segment.subject(row))));
+
+        List<UsageEventData> expected = sorted(events.stream()
+                .filter(e -> e.tenantId() == 4 && filter.metrics().contains(e.metric()))
+                .filter(e -> e.occurredAt().toEpochMilli() >= 20_000 && e.occurredAt().toEpochMilli() < 60_000)
+                .filter(e -> e.value() >= -50 && e.value() <= 50)
+                .toList());
+        assertThat(scanned).isNotEmpty().containsExactlyElementsOf(expected);
+        assertThat(read).as("rows read after pushdown").isLessThan(events.size() / 10);
+    }
+
+    @Test
+    void reopensFromDisk() throws IOException {
+        List<UsageEventData> events = randomEvents(1_000, 3);
+        write(events);
+
+        ColumnarSegment reopened = ColumnarSegment.open(directory.resolve("segment"));
+
+        assertThat(scan(reopened, ALL)).containsExactlyElementsOf(sorted(events));
+        assertThat(directory.resolve("segment.tmp")).doesNotExist();
+    }
+
+    @Test
+    void rejectsFilesThatAreNotSegments() throws IOException {
+        Path file = directory.resolve("other");
+        Files.write(file, new byte[ColumnarSegment.HEADER_BYTES]);
+
+        assertThatThrownBy(() -> ColumnarSegment.open(file)).isInstanceOf(IOException.class);
+    }
+
+    private ColumnarSegment write(List<UsageEventData> events) throws IOException {
+        ColumnarSegmentBuilder builder = new ColumnarSegmentBuilder(4);
+        events.forEach(builder::add);
+        Path file = directory.resolve("segment");
+        builder.writeTo(file);
+        return ColumnarSegment.open(file);
+    }
+
+    private static List<UsageEventData> scan(ColumnarSegment segment, ScanFilter filter) {
+        List<UsageEventData> rows = new ArrayList<>();
+        segment.scan(filter, (row, tenantId, metricCode, time, value) -> rows.add(
+                event(tenantId, segment.metric(metricCode), value, time, segment.subject(row))));
+        return rows;
+    }
+
+    private static List<UsageEventData> sorted(List<UsageEventData> events) {
+        List<UsageEventData> sorted = new ArrayList<>(events);
+        sorted.sort(Comparator.comparing(UsageEventData::tenantId)
+                .thenComparing(UsageEventData::metric)
+                .thenComparing(UsageEventData::occurredAt));
+        return sorted;
+    }
+
+    /**
+     * Distinct times per tenant and metric, so the sorted order is total.
+     */
+    private static List<UsageEventData> randomEvents(int count, long seed) {
+        Random random = new Random(seed);
+        List<UsageEventData> events = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            events.add(event(1 + random.nextInt(8), METRICS[random.nextInt(METRICS.length)],
+                    Math.round((random.nextDouble() - 0.5) * 2_000) / 10.0, 10L * i + random.nextInt(10),
+                    random.nextInt(4) == 0 ? null : "user-" + random.nextInt(50)));
+        }
+        return events;
+    }
+
+    private static ScanFilter filter(Integer tenantId, Set<String> metrics, long from, long to) {
+        return new ScanFilter(tenantId, metrics, from, to, Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY);
+    }
+
+    private static UsageEventData event(int tenantId, String metric, double value, long time, String subject) {
+        return new UsageEventData(tenantId, metric, value, Instant.ofEpochMilli(time), subject);
+    }
+}
@@ -0,0 +1,117 @@
+package com.example.analytics.ingest;
+
+import com.example.analytics.base.vo.UsageEventData;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class EventIngestionPipelineTest {
+
+    private static final UsageEventData EVENT = new UsageEventData(1, "api.calls", 1, Instant.EPOCH, null);
+
+    @Test
+    void drainsTheBuffersAndClosesTheSinkOnStop() {
+        RecordingSink sink = new RecordingSink();
+        EventIngestionPipeline pipeline = pipeline(sink, Duration.ofSeconds(10));
+        pipeline.start();
+
+        assertThat(pipeline.publish(List.of(EVENT, EVENT, EVENT))).isTrue();
+        pipeline.stop();
+
+        assertThat(sink.written).hasSize(3);
+        assertThat(sink.closed).isTrue();
+        assertThat(pipeline.abandoned()).isZero();
+        assertThat(pipeline.publish(List.of(EVENT))).isFalse();
+    }
+
+    @Test
+    void interruptsConsumersThatOutliveTheDrainTimeoutAndLeavesTheSinkOpen() throws InterruptedException {
+        BlockingSink sink = new BlockingSink();
+        EventIngestionPipeline pipeline = pipeline(sink, Duration.ofMillis(100));
+        pipeline.start();
+        pipeline.publish(List.of(EVENT, EVENT));
+        assertThat(sink.writing.await(5, TimeUnit.SECONDS)).isTrue();
+        pipeline.publish(List.of(EVENT));
+
+        pipeline.stop();
+
+        assertThat(sink.closed).isFalse();
+        assertThat(sink.interrupted.await(5, TimeUnit.SECONDS)).as("blocked write interrupted").isTrue();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (pipeline.stats().failed() == 0 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(pipeline.stats().failed()).as("interrupted batch dropped without retries").isEqualTo(2);
+        assertThat(pipeline.stats().buffered()).isEqualTo(1);
+        assertThat(pipeline.abandoned()).isEqualTo(1);
+    }
+
+    private static EventIngestionPipeline pipeline(EventSink sink, Duration drainTimeout) {
+        return new EventIngestionPipeline(sink, new DefaultListableBeanFactory().getBeanProvider(EventBatchListener.class),
+                1, 16, 1000, Duration.ofMillis(10), drainTimeout);
+    }
+
+    private static final class RecordingSink implements EventSink {
+
+        private final List<UsageEventData> written = new ArrayList<>();
+        private volatile boolean closed;
+
+        @Override
+        public String name() {
+            return "recording";
+        }
+
+        @Override
+        public void write(int shard, List<UsageEventData> events) {
+            written.addAll(events);
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+        }
+    }
+
+    /**
+     * Never completes a write until interrupted, like a sink stuck on an unresponsive database.
+     */
+    private static final class BlockingSink implements EventSink {
+
+        private final CountDownLatch writing = new CountDownLatch(1);
+        private final CountDownLatch interrupted = new CountDownLatch(1);
+        private final AtomicBoolean blocked = new AtomicBoolean();
+        private volatile boolean closed;
+
+        @Override
+        public String name() {
+            return "blocking";
+        }
+
+        @Override
+        public void write(int shard, List<UsageEventData> events) throws InterruptedException {
+            if (blocked.compareAndSet(false, true)) {
+                writing.countDown();
+                try {
+                    new CountDownLatch(1).await();
+                } catch (InterruptedException e) {
+                    interrupted.countDown();
+                    throw e;
+                }
+            }
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+        }
+    }
+}
@@ -0,0 +1,173 @@
+package com.example.analytics.rollup;
+
+import com.example.analytics.base.enums.Resolution;
+import com.example.analytics.base.vo.MetricSeriesData;
+import com.example.analytics.base.vo.UsageEventData;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RollupEngineTest {
+
+    private final List<StoredBucket> rows = new ArrayList<>();
+    private final RollupEngine engine = engine("node-a");
+
+    @Test
+    void aFutureEventDoesNotRotateCurrentEventsOutOfTheRings() {
+        Instant now = Instant.now();
+        engine.onBatch(List.of(event(now.plus(Duration.ofDays(400)), 1)));
+
+        engine.onBatch(List.of(event(now, 2), event(now.minusSeconds(1), 3)));
+
+        MetricSeriesData minutes = query(Resolution.MINUTE, now.minus(Duration.ofMinutes(5)), now.plusSeconds(1));
+        assertThat(minutes.total().count()).isEqualTo(2);
+        assertThat(minutes.total().sum()).isEqualTo(5);
+        assertThat(query(Resolution.DAY, now.minus(Duration.ofDays(1)), now.plusSeconds(1)).total().count())
+                .isEqualTo(2);
+        assertThat(engine.outOfWindowEvents()).isEqualTo(1);
+    }
+
+    @Test
+    void acceptsEventsWithinTheClockSkewAndSkipsThoseOlderThanEveryRing() {
+        Instant now = Instant.now();
+
+        engine.onBatch(List.of(
+                event(now.plusSeconds(30), 1),
+                event(now.minus(Duration.ofDays(100)), 1),
+                event(now.minus(Duration.ofDays(30)), 1)));
+
+        assertThat(query(Resolution.MINUTE, now.minus(Duration.ofMinutes(1)), now.plus(Duration.ofMinutes(2)))
+                .total().count()).isEqualTo(1);
+        assertThat(query(Resolution.DAY, now.minus(Duration.ofDays(89)), now.plus(Duration.ofDays(1)))
+                .total().count()).isEqualTo(2);
+        assertThat(engine.outOfWindowEvents()).isEqualTo(1);
+    }
+
+    @Test
+    void queriesMergeTheBucketsOtherNodesStored() {
+        RollupEngine other = engine("node-b");
+        Instant now = Instant.now();
+        engine.onBatch(List.of(event(now, 1, "user-1"), event(now, 2, "user-2"), event(now, 3, "user-3")));
+        other.onBatch(List.of(event(now, 10, "user-3"), event(now, 20, "user-4")));
+
+        engine.flush();
+        other.flush();
+
+        for (RollupEngine node : List.of(engine, other)) {
+            MetricSeriesData series = node.query(7, "api.calls", Resolution.MINUTE, now.minusSeconds(60), now.plusSeconds(1));
+            assertThat(series.points()).hasSize(1);
+            assertThat(series.total().count()).isEqualTo(5);
+            assertThat(series.total().sum()).isEqualTo(36);
+            assertThat(series.total().min()).isEqualTo(1);
+            assertThat(series.total().max()).isEqualTo(20);
+            assertThat(series.total().distinct()).isEqualTo(4);
+            assertThat(series.points().get(0).count()).isEqualTo(5);
+        }
+        assertThat(rows).hasSize(6).extracting(StoredBucket::nodeId).containsOnly("node-a", "node-b");
+    }
+
+    @Test
+    void aRestartedNodeRestoresOnlyItsOwnRows() {
+        RollupEngine other = engine("node-b");
+        Instant now = Instant.now();
+        engine.onBatch(List.of(event(now, 1, "user-1")));
+        other.onBatch(List.of(event(now, 2, "user-2")));
+        engine.flush();
+        other.flush();
+
+        RollupEngine restarted = engine("node-a");
+        restarted.start();
+        try {
+            restarted.onBatch(List.of(event(now, 4, "user-1")));
+            restarted.flush();
+
+            MetricSeriesData series = restarted.query(7, "api.calls", Resolution.HOUR, now.minusSeconds(60), now.plusSeconds(1));
+            assertThat(series.total().count()).isEqualTo(3);
+            assertThat(series.total().sum()).isEqualTo(7);
+            assertThat(series.total().distinct()).isEqualTo(2);
+        } finally {
+            restarted.stop();
+        }
+        assertThat(rows).filteredOn(row -> row.nodeId().equals("node-a"))
+                .extracting(row -> row.bucket().count()).containsOnly(2L);
+    }
+
+    private MetricSeriesData query(Resolution resolution, Instant from, Instant to) {
+        return engine.query(7, "api.calls", resolution, from, to);
+    }
+
+    private RollupEngine engine(String nodeId) {
+        return new RollupEngine(new InMemoryStore(rows, nodeId), 180, 168, 90, 100, Duration.ofSeconds(10),
+                Duration.ofMinutes(1));
+    }
+
+    private static UsageEventData event(Instant occurredAt, double value) {
+        return event(occurredAt, value, "user-1");
+    }
+
+    private static UsageEventData event(Instant occurredAt, double value, String subject) {
+        return new UsageEventData(7, "api.calls", value, occurredAt, subject);
+    }
+
+    private record StoredBucket(String nodeId, RollupBucket bucket) {
+
+        private boolean matches(RollupBucket other) {
+            return bucket.tenantId() == other.tenantId() && bucket.metric().equals(other.metric())
+                    && bucket.resolution() == other.resolution() && bucket.bucketStart() == other.bucketStart();
+        }
+    }
+
+    /**
+     * The rows of ANALYTICS_ROLLUP, shared by the engines of several nodes.
+     */
+    private static final class InMemoryStore extends RollupSnapshotStore {
+
+        private final List<StoredBucket> rows;
+
+        InMemoryStore(List<StoredBucket> rows, String nodeId) {
+            super(null, null, nodeId);
+            this.rows = rows;
+        }
+
+        @Override
+        public void saveAll(List<RollupBucket> buckets) {
+            for (RollupBucket bucket : buckets) {
+                rows.removeIf(row -> row.nodeId().equals(nodeId()) && row.matches(bucket));
+                rows.add(new StoredBucket(nodeId(), bucket));
+            }
+        }
+
+        @Override
+        public void loadSince(Resolution resolution, long fromBucketStart, Consumer<RollupBucket> consumer) {
+            rows.stream()
+                    .filter(row -> row.nodeId().equals(nodeId()) && row.bucket().resolution() == resolution)
+                    .filter(row -> row.bucket().bucketStart() >= fromBucketStart)
+                    .forEach(row -> consumer.accept(row.bucket()));
+        }
+
+        @Override
+        public void loadPeers(int tenantId, String metric, Resolution resolution, long fromBucketStart,
+                              long toBucketStart, Consumer<RollupBucket> consumer) {
+            rows.stream()
+                    .filter(row -> !row.nodeId().equals(nodeId()))
+                    .map(StoredBucket::bucket)
+                    .filter(bucket -> bucket.tenantId() == tenantId && bucket.metric().equals(metric))
+                    .filter(bucket -> bucket.resolution() == resolution)
+                    .filter(bucket -> bucket.bucketStart() >= fromBucketStart && bucket.bucketStart() <= toBucketStart)
+                    .forEach(consumer);
+        }
+
+        @Override
+        public int deleteBefore(Resolution resolution, long bucketStart) {
+            int before = rows.size();
+            rows.removeIf(row -> row.bucket().resolution() == resolution && row.bucket().bucketStart() < bucketStart);
+            return before - rows.size();
+        }
+    }
+}
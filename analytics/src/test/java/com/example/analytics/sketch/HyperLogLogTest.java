@@ -0,0 +1,112 @@
+package com.example.analytics.sketch;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+class HyperLogLogTest {
+
+    /**
+     * Three standard errors of the default precision, 1.04 / sqrt(2^11).
+     */
+    private static final double TOLERANCE = 3 * 1.04 / Math.sqrt(1 << HyperLogLog.DEFAULT_PRECISION);
+
+    @Test
+    void emptySketchEstimatesZero() {
+        assertThat(new HyperLogLog().estimate()).isZero();
+    }
+
+    @Test
+    void smallCardinalitiesAreNearlyExact() {
+        HyperLogLog sketch = add(new HyperLogLog(), "user-", 0, 100);
+
+        assertThat(sketch.estimate()).isCloseTo(100, within(2L));
+    }
+
+    @Test
+    void largeCardinalitiesStayWithinTheStandardError() {
+        for (int cardinality : new int[]{1_000, 10_000, 100_000, 1_000_000}) {
+            HyperLogLog sketch = add(new HyperLogLog(), "subject-", 0, cardinality);
+
+            assertThat((double) sketch.estimate()).as("cardinality %d", cardinality)
+                    .isCloseTo(cardinality, within(cardinality * TOLERANCE));
+        }
+    }
+
+    @Test
+    void duplicatesDoNotCount() {
+        HyperLogLog sketch = add(new HyperLogLog(), "user-", 0, 5_000);
+        long estimate = sketch.estimate();
+
+        add(sketch, "user-", 0, 5_000);
+
+        assertThat(sketch.estimate()).isEqualTo(estimate);
+    }
+
+    @Test
+    void mergeEstimatesTheUnion() {
+        HyperLogLog first = add(new HyperLogLog(), "user-", 0, 60_000);
+        HyperLogLog second = add(new HyperLogLog(), "user-", 40_000, 100_000);
+        HyperLogLog union = add(new HyperLogLog(), "user-", 0, 100_000);
+
+        first.merge(second);
+
+        assertThat(first.estimate()).isEqualTo(union.estimate());
+        assertThat((double) first.estimate()).isCloseTo(100_000, within(100_000 * TOLERANCE));
+    }
+
+    @Test
+    void mergingWithItselfChangesNothing() {
+        HyperLogLog sketch = add(new HyperLogLog(), "user-", 0, 20_000);
+        long estimate = sketch.estimate();
+
+        sketch.merge(HyperLogLog.fromBytes(sketch.toBytes()));
+
+        assertThat(sketch.estimate()).isEqualTo(estimate);
+    }
+
+    @Test
+    void roundTripsThroughBytes() {
+        HyperLogLog sketch = add(new HyperLogLog(14), "user-", 0, 50_000);
+
+        byte[] bytes = sketch.toBytes();
+        HyperLogLog restored = HyperLogLog.fromBytes(bytes);
+
+        assertThat(bytes).hasSize((1 << 14) + 1);
+        assertThat(restored.estimate()).isEqualTo(sketch.estimate());
+        assertThat(restored.toBytes()).isEqualTo(bytes);
+    }
+
+    @Test
+    void clearForgetsAllSubjects() {
+        HyperLogLog sketch = add(new HyperLogLog(), "user-", 0, 1_000);
+
+        sketch.clear();
+
+        assertThat(sketch.estimate()).isZero();
+    }
+
+    @Test
+    void rejectsUnsupportedPrecisionsAndMixedMerges() {
+        assertThatThrownBy(() -> new HyperLogLog(3)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new HyperLogLog(17)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new HyperLogLog(11).merge(new HyperLogLog(12)))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void hashIsStableAndSpreadsSimilarValues() {
+        assertThat(HyperLogLog.hash("user-1")).isEqualTo(HyperLogLog.hash(new StringBuilder("user-1")));
+        assertThat(HyperLogLog.hash("user-1")).isNotEqualTo(HyperLogLog.hash("user-2"));
+        assertThat(Long.bitCount(HyperLogLog.hash("user-1") ^ HyperLogLog.hash("user-2"))).isBetween(16, 48);
+    }
+
+    private static HyperLogLog add(HyperLogLog sketch, String prefix, int from, int to) {
+        for (int i = from; i < to; i++) {
+            sketch.addHash(HyperLogLog.hash(prefix + i));
+        }
+        return sketch;
+    }
+}
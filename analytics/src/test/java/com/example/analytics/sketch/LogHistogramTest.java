@@ -0,0 +1,162 @@
+package com.example.analytics.sketch;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+class LogHistogramTest {
+
+    private static final double[] QUANTILES = {0, 0.01, 0.25, 0.5, 0.75, 0.9, 0.99, 0.999, 1};
+
+    @Test
+    void emptyHistogramHasNoQuantiles() {
+        LogHistogram histogram = new LogHistogram();
+
+        assertThat(histogram.isEmpty()).isTrue();
+        assertThat(histogram.count()).isZero();
+        assertThat(histogram.quantile(0.5)).isNaN();
+    }
+
+    @Test
+    void quantilesStayWithinTheRelativeError() {
+        Random random = new Random(7);
+        double[] values = new double[100_000];
+        LogHistogram histogram = new LogHistogram();
+        for (int i = 0; i < values.length; i++) {
+            values[i] = Math.exp(random.nextGaussian() * 3);
+            histogram.add(values[i]);
+        }
+
+        assertWithinRelativeError(histogram, values, LogHistogram.DEFAULT_RELATIVE_ERROR);
+        assertThat(histogram.count()).isEqualTo(values.length);
+    }
+
+    @Test
+    void countsZeroAndNegativeValuesAsZero() {
+        LogHistogram histogram = new LogHistogram();
+        histogram.add(0);
+        histogram.add(-5);
+        histogram.add(Double.NaN);
+        histogram.add(100);
+
+        assertThat(histogram.count()).isEqualTo(4);
+        assertThat(histogram.quantile(0)).isZero();
+        assertThat(histogram.quantile(0.5)).isZero();
+        assertThat(histogram.quantile(1)).isCloseTo(100, within(100 * LogHistogram.DEFAULT_RELATIVE_ERROR));
+    }
+
+    @Test
+    void mergingMatchesRecordingEverythingInOne() {
+        Random random = new Random(11);
+        LogHistogram all = new LogHistogram();
+        LogHistogram low = new LogHistogram();
+        LogHistogram high = new LogHistogram();
+        for (int i = 0; i < 10_000; i++) {
+            double small = random.nextDouble();
+            double large = 1_000 + random.nextDouble() * 1_000_000;
+            all.add(small);
+            all.add(large);
+            low.add(small);
+            high.add(large);
+        }
+        low.add(0);
+        all.add(0);
+
+        low.merge(high);
+
+        assertThat(low.count()).isEqualTo(all.count());
+        for (double quantile : QUANTILES) {
+            assertThat(low.quantile(quantile)).as("q%s", quantile).isEqualTo(all.quantile(quantile));
+        }
+    }
+
+    @Test
+    void mergingAnEmptyHistogramChangesNothing() {
+        LogHistogram histogram = new LogHistogram();
+        histogram.add(42);
+
+        histogram.merge(new LogHistogram());
+
+        assertThat(histogram.count()).isEqualTo(1);
+        assertThat(histogram.quantile(0.5)).isCloseTo(42, within(42 * LogHistogram.DEFAULT_RELATIVE_ERROR));
+    }
+
+    @Test
+    void rejectsMergingADifferentRelativeError() {
+        LogHistogram histogram = new LogHistogram(0.01);
+
+        assertThatThrownBy(() -> histogram.merge(new LogHistogram(0.02)))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void roundTripsThroughBytes() {
+        LogHistogram histogram = new LogHistogram(0.02);
+        for (int i = 1; i <= 1_000; i++) {
+            histogram.add(i * 0.37);
+        }
+        histogram.add(0);
+
+        LogHistogram restored = LogHistogram.fromBytes(histogram.toBytes());
+
+        assertThat(restored.count()).isEqualTo(histogram.count());
+        for (double quantile : QUANTILES) {
+            assertThat(restored.quantile(quantile)).isEqualTo(histogram.quantile(quantile));
+        }
+        restored.merge(histogram);
+        assertThat(restored.count()).isEqualTo(2 * histogram.count());
+    }
+
+    @Test
+    void collapsesTheLowestBucketsBeyondTheBucketLimit() {
+        LogHistogram histogram = new LogHistogram();
+        double[] values = new double[2_000];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = Math.pow(10, -300 + 0.3 * i);
+            histogram.add(values[i]);
+        }
+
+        byte[] bytes = histogram.toBytes();
+        assertThat(bytes.length).isLessThanOrEqualTo(Double.BYTES + Long.BYTES + 2 * Integer.BYTES
+                + LogHistogram.MAX_BUCKETS * Long.BYTES);
+        assertThat(histogram.count()).isEqualTo(values.length);
+
+        Arrays.sort(values);
+        for (double quantile : new double[]{0.98, 0.99, 1}) {
+            double exact = values[(int) Math.floor(quantile * (values.length - 1))];
+            assertThat(histogram.quantile(quantile)).as("q%s", quantile)
+                    .isCloseTo(exact, within(exact * LogHistogram.DEFAULT_RELATIVE_ERROR));
+        }
+        assertThat(histogram.quantile(0)).as("smallest values fold into the lowest kept bucket")
+                .isGreaterThan(values[values.length / 2]);
+    }
+
+    @Test
+    void clearForgetsAllValues() {
+        LogHistogram histogram = new LogHistogram();
+        histogram.add(5);
+        histogram.add(0);
+
+        histogram.clear();
+
+        assertThat(histogram.isEmpty()).isTrue();
+        assertThat(histogram.quantile(0.5)).isNaN();
+        histogram.add(7);
+        assertThat(histogram.quantile(0)).isCloseTo(7, within(7 * LogHistogram.DEFAULT_RELATIVE_ERROR));
+    }
+
+    private static void assertWithinRelativeError(LogHistogram histogram, double[] values, double relativeError) {
+        double[] sorted = values.clone();
+        Arrays.sort(sorted);
+        for (double quantile : QUANTILES) {
+            double exact = sorted[(int) Math.floor(quantile * (sorted.length - 1))];
+            assertThat(histogram.quantile(quantile)).as("q%s", quantile)
+                    .isCloseTo(exact, within(exact * relativeError * 1.000001));
+        }
+    }
+}
@@ -2,10 +2,27 @@ package com.example;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.core.env.SimpleCommandLinePropertySource;
+import org.springframework.core.env.StandardEnvironment;
 
 @SpringBootApplication(scanBasePackages = "com.example")
 public class Application {
     public static void main(String[] args) {
-        SpringApplication.run(Application.class, args);
+        SpringApplication application = new SpringApplication(Application.class);
+        if (fastStart(args)) {
+            application.setApplicationStartup(new BufferingApplicationStartup(2048));
+        }
+        application.run(args);
+    }
+
+    /**
+     * Whether the fast-start profile is active through the command line, a system property or the
+     * environment; the application properties are not loaded yet when the startup recorder is chosen.
+     */
+    private static boolean fastStart(String[] args) {
+        StandardEnvironment environment = new StandardEnvironment();
+        environment.getPropertySources().addFirst(new SimpleCommandLinePropertySource(args));
+        return environment.matchesProfiles("fast-start");
     }
 }
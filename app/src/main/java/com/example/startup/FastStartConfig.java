@@ -0,0 +1,42 @@
+package com.example.startup;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.flywaydb.core.Flyway;
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationInitializer;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationStrategy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+
+/**
+ * The fast-start profile initializes beans lazily. Schema migration, schema validation
+ * and the connection pool stay eager so a broken database fails the start, not the first request.
+ */
+@Configuration
+@Profile("fast-start")
+class FastStartConfig {
+
+    @Bean
+    static LazyInitializationExcludeFilter criticalBeansLazyInitializationExcludeFilter() {
+        return LazyInitializationExcludeFilter.forBeanTypes(
+                DataSource.class, Flyway.class, FlywayMigrationInitializer.class, EntityManagerFactory.class);
+    }
+
+    /**
+     * The CDS training run ({@code spring.context.exit=onRefresh}) refreshes the AOT context
+     * without a database, where Flyway cannot be switched off by property, so it skips the migration.
+     */
+    @Bean
+    FlywayMigrationStrategy flywayMigrationStrategy(Environment environment) {
+        boolean training = environment.containsProperty("spring.context.exit");
+        return flyway -> {
+            if (!training) {
+                flyway.migrate();
+            }
+        };
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.startup;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.boot.context.metrics.buffering.StartupTimeline;
+import org.springframework.context.ApplicationListener;
+import org.springframework.core.metrics.StartupStep;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.StringJoiner;
+
+/**
+ * Logs the startup timeline once the application is ready: JVM start to ready,
+ * Spring's own time taken and, in the fast-start profile where steps are recorded, the slowest
+ * startup steps. Time to first request is reported by {@link FirstRequestFilter}.
+ */
+@Component
+public class StartupTimelineReporter implements ApplicationListener<ApplicationReadyEvent> {
+
+    private static final Logger log = LoggerFactory.getLogger(StartupTimelineReporter.class);
+    private static final int SLOWEST_STEPS = 10;
+
+    @Override
+    public void onApplicationEvent(ApplicationReadyEvent event) {
+        log.info("Startup timeline: jvm-to-ready={}ms, spring-ready={}ms",
+                sinceJvmStart().toMillis(), event.getTimeTaken().toMillis());
+
+        if (event.getApplicationContext().getApplicationStartup() instanceof BufferingApplicationStartup startup) {
+            StartupTimeline timeline = startup.getBufferedTimeline();
+            timeline.getEvents().stream()
+                    .sorted(Comparator.comparing(StartupTimeline.TimelineEvent::getDuration).reversed())
+                    .limit(SLOWEST_STEPS)
+                    .forEach(step -> log.info("Startup step {}ms {} {}",
+                            step.getDuration().toMillis(), step.getStartupStep().getName(), tags(step.getStartupStep())));
+        }
+    }
+
+    private static String tags(StartupStep step) {
+        StringJoiner joiner = new StringJoiner(", ", "[", "]");
+        step.getTags().forEach(tag -> joiner.add(tag.getKey() + "=" + tag.getValue()));
+        return joiner.toString();
+    }
+
+    static Duration sinceJvmStart() {
+        return ProcessHandle.current().info().startInstant()
+                .map(start -> Duration.between(start, Instant.now()))
+                .orElse(Duration.ZERO);
+    }
+}
@@ -0,0 +1,15 @@
+package com.example.auth.base.vo;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+
+@Schema(description = "Refresh token to exchange for the next one")
+public record RefreshTokenData(
+
+        @Schema(description = "Current refresh token of the session", example = "Jm9v0...")
+        @NotBlank
+        @Size(max = 128)
+        String refreshToken
+) {
+}
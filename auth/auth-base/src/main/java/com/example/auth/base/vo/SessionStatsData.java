@@ -0,0 +1,29 @@
+package com.example.auth.base.vo;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(description = "Session store state and counters since startup")
+public record SessionStatsData(
+
+        @Schema(description = "Live sessions", example = "120000")
+        int active,
+
+        @Schema(description = "Sessions changed but not yet written to the database", example = "12")
+        int pendingWrites,
+
+        @Schema(description = "Sessions created", example = "5000")
+        long created,
+
+        @Schema(description = "Refresh token rotations", example = "40000")
+        long refreshed,
+
+        @Schema(description = "Sessions revoked", example = "30")
+        long revoked,
+
+        @Schema(description = "Sessions expired by the timing wheel", example = "800")
+        long expired,
+
+        @Schema(description = "Sessions revoked because a replaced refresh token was presented again", example = "1")
+        long reuseDetected
+) {
+}
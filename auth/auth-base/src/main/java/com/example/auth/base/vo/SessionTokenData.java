@@ -0,0 +1,25 @@
+package com.example.auth.base.vo;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.time.Instant;
+
+@Schema(description = "Session with an access token and its current refresh token")
+public record SessionTokenData(
+
+        @Schema(description = "Session id, carried as the sid claim of its access tokens", example = "q1S0bq3b6cRkG9F1mJ2n4A")
+        String sessionId,
+
+        @Schema(description = "Bearer token of the session, rejected once the session ends", example = "eyJraWQiOi...")
+        String accessToken,
+
+        @Schema(description = "Time the access token expires; refresh the session for the next one")
+        Instant accessTokenExpiresAt,
+
+        @Schema(description = "Single-use refresh token; each refresh returns the next one", example = "Jm9v0...")
+        String refreshToken,
+
+        @Schema(description = "Time the session expires unless refreshed")
+        Instant expiresAt
+) {
+}
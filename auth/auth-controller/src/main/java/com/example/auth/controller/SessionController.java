@@ -0,0 +1,116 @@
+package com.example.auth.controller;
+
+import com.example.auth.base.vo.RefreshTokenData;
+import com.example.auth.controller.filter.JwtAuthentication;
+import com.example.auth.service.jwt.JwtPrincipal;
+import com.example.auth.service.session.SessionStore;
+import com.example.core.base.enums.ErrorMessage;
+import com.example.core.base.enums.ResponseMessage;
+import com.example.core.controller.BaseController;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import java.net.URI;
+
+@SuppressWarnings("unused")
+@RestController
+@ConditionalOnProperty(name = "app.auth.sessions.enabled", havingValue = "true", matchIfMissing = true)
+@Tag(name = "Sessions", description = "Sessions and rotating refresh tokens")
+public class SessionController extends BaseController {
+
+    private final SessionStore sessions;
+
+    public SessionController(SessionStore sessions) {
+        this.sessions = sessions;
+    }
+
+    @PostMapping("/v1/auth/sessions")
+    @Operation(
+            summary = "Create a session",
+            description = "Opens a session with the subject, tenant and grants of an identity provider access token and "
+                    + "returns the session's own access token and its first refresh token. Session access tokens are refused."
+    )
+    public ResponseEntity<?> create() {
+        JwtPrincipal principal = currentPrincipal();
+        if (principal == null) {
+            return unauthorized(ErrorMessage.AUTHENTICATION_REQUIRED.getValue());
+        }
+        if (principal.sessionId() != null) {
+            return forbidden(ErrorMessage.SESSION_TOKEN_NOT_ACCEPTED.getValue());
+        }
+        var session = sessions.create(principal.subject(), principal.tenantId(), principal.operationKeys());
+        URI location = ServletUriComponentsBuilder
+                .fromCurrentRequest()
+                .path("/{id}")
+                .buildAndExpand(session.sessionId())
+                .toUri();
+        return created(location, session, ResponseMessage.SESSION_CREATED.getValue());
+    }
+
+    @PostMapping("/v1/public/auth/sessions/refresh")
+    @Operation(
+            summary = "Refresh a session",
+            description = "Exchanges the current refresh token for the next one and a new access token, and extends the session. "
+                    + "Presenting a replaced refresh token revokes the session."
+    )
+    public ResponseEntity<?> refresh(@Valid @RequestBody RefreshTokenData request) {
+        return sessions.refresh(request.refreshToken())
+                .<ResponseEntity<?>>map(session -> ok(session, ResponseMessage.SESSION_REFRESHED.getValue()))
+                .orElseGet(() -> unauthorized(ErrorMessage.REFRESH_TOKEN_INVALID.getValue()));
+    }
+
+    @DeleteMapping("/v1/auth/sessions/{sessionId}")
+    @Operation(
+            summary = "Revoke an own session",
+            description = "Ends a session of the token subject; its refresh and access tokens are rejected from now on."
+    )
+    public ResponseEntity<?> revokeOwn(@PathVariable String sessionId) {
+        JwtPrincipal principal = currentPrincipal();
+        if (principal == null) {
+            return unauthorized(ErrorMessage.AUTHENTICATION_REQUIRED.getValue());
+        }
+        return revoked(sessionId, sessions.revoke(sessionId, principal.subject()));
+    }
+
+    @DeleteMapping("/v1/admin/auth/sessions/{sessionId}")
+    @Operation(
+            summary = "Revoke any session",
+            description = "Ends a session of any subject."
+    )
+    public ResponseEntity<?> revoke(@PathVariable String sessionId) {
+        return revoked(sessionId, sessions.revoke(sessionId));
+    }
+
+    @GetMapping("/v1/admin/auth/sessions/stats")
+    @Operation(
+            summary = "Get session statistics",
+            description = "Returns live and unwritten sessions and the counters since startup."
+    )
+    public ResponseEntity<?> stats() {
+        return ok(sessions.stats(), ResponseMessage.SESSION_STATS_FETCHED_SUCCESSFULLY.getValue());
+    }
+
+    private ResponseEntity<?> revoked(String sessionId, boolean revoked) {
+        return revoked
+                ? noContent(ResponseMessage.SESSION_REVOKED.getValue().formatted(sessionId))
+                : notFound(ErrorMessage.SESSION_NOT_FOUND.getValue().formatted(sessionId));
+    }
+
+    private static JwtPrincipal currentPrincipal() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication instanceof JwtAuthentication jwt ? jwt.getDetails() : null;
+    }
+
+}
@@ -0,0 +1,69 @@
+package com.example.auth.controller.filter;
+
+import com.example.auth.service.jwt.JwtPrincipal;
+import com.example.core.rbac.enums.Operation;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Authentication of a verified token. The principal is the token subject, the details are the
+ * {@link JwtPrincipal}, and each granted operation is an authority named by its key.
+ */
+public final class JwtAuthentication implements Authentication {
+
+    private static final Map<Operation, GrantedAuthority> AUTHORITIES = new EnumMap<>(Operation.class);
+
+    static {
+        for (Operation operation : Operation.values()) {
+            AUTHORITIES.put(operation, new SimpleGrantedAuthority(operation.getKey()));
+        }
+    }
+
+    private final JwtPrincipal principal;
+
+    public JwtAuthentication(JwtPrincipal principal) {
+        this.principal = principal;
+    }
+
+    @Override
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+        return principal.operations().stream().map(AUTHORITIES::get).toList();
+    }
+
+    @Override
+    public Object getCredentials() {
+        return null;
+    }
+
+    @Override
+    public JwtPrincipal getDetails() {
+        return principal;
+    }
+
+    @Override
+    public String getPrincipal() {
+        return principal.subject();
+    }
+
+    @Override
+    public boolean isAuthenticated() {
+        return true;
+    }
+
+    @Override
+    public void setAuthenticated(boolean isAuthenticated) {
+        if (isAuthenticated) {
+            throw new IllegalArgumentException("A token authentication cannot be marked as authenticated");
+        }
+    }
+
+    @Override
+    public String getName() {
+        return principal.subject();
+    }
+}
@@ -0,0 +1,142 @@
+package com.example.auth.controller.filter;
+
+import com.example.auth.service.jwt.JwtAuthenticationException;
+import com.example.auth.service.jwt.JwtAuthenticator;
+import com.example.auth.service.jwt.JwtPrincipal;
+import com.example.auth.service.session.SessionStore;
+import com.example.core.base.enums.ErrorMessage;
+import com.example.core.rbac.context.RequestContext;
+import com.example.core.rbac.enums.Operation;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ProblemDetail;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.UrlPathHelper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.time.Instant;
+import java.util.Optional;
+
+/**
+ * Authenticates {@code /v1/**} requests, except {@code /v1/public/**}, by the JWT in the
+ * {@code Authorization: Bearer} or {@code X-AUTH-TOKEN} header, and requires the
+ * {@link Operation} guarding the path to be granted; paths no operation guards are denied. The
+ * authentication is set on the {@link SecurityContextHolder} and, with the token's subject, tenant
+ * and grants, on the {@link RequestContext} for the rest of the request, which then acts for the
+ * token's tenant only. An access token issued for a session is only accepted while the
+ * {@link SessionStore} holds that session, so revoking a session rejects its access tokens at once;
+ * tokens of other issuers are not checked against sessions, whatever their claims. Missing or invalid
+ * tokens and ended sessions answer 401, operations not granted or not mapped 403, all as problem
+ * details.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+@ConditionalOnProperty(name = "app.auth.jwt.enabled", havingValue = "true")
+public class JwtAuthenticationFilter extends OncePerRequestFilter {
+
+    private static final String BEARER_PREFIX = "Bearer ";
+    private static final String X_AUTH_TOKEN_HEADER = "X-AUTH-TOKEN";
+
+    private final JwtAuthenticator authenticator;
+    private final SessionStore sessions;
+    private final ObjectMapper objectMapper;
+
+    public JwtAuthenticationFilter(JwtAuthenticator authenticator, ObjectProvider<SessionStore> sessions,
+                                   ObjectMapper objectMapper) {
+        this.authenticator = authenticator;
+        this.sessions = sessions.getIfAvailable();
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String path = UrlPathHelper.defaultInstance.getPathWithinApplication(request);
+        return !path.startsWith("/v1/") || path.startsWith("/v1/public/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String header = request.getHeader(HttpHeaders.AUTHORIZATION);
+        int from = BEARER_PREFIX.length();
+        if (header == null || !header.regionMatches(true, 0, BEARER_PREFIX, 0, from)) {
+            header = request.getHeader(X_AUTH_TOKEN_HEADER);
+            from = 0;
+        }
+        if (header == null || header.length() <= from) {
+            unauthorized(request, response, ErrorMessage.AUTHENTICATION_REQUIRED.getValue());
+            return;
+        }
+
+        JwtPrincipal principal;
+        try {
+            principal = authenticator.authenticate(header, from);
+        } catch (JwtAuthenticationException e) {
+            unauthorized(request, response, e.getMessage());
+            return;
+        }
+        if (principal.sessionId() != null && sessions != null && !sessions.isActive(principal.sessionId())) {
+            unauthorized(request, response, ErrorMessage.SESSION_NOT_ACTIVE.getValue());
+            return;
+        }
+        String path = UrlPathHelper.defaultInstance.getPathWithinApplication(request);
+        Optional<Operation> required = Operation.findByUrl(path);
+        if (required.isEmpty()) {
+            problem(request, response, HttpStatus.FORBIDDEN, ErrorMessage.OPERATION_NOT_MAPPED.getValue().formatted(path));
+            return;
+        }
+        if (!principal.grants(required.get())) {
+            problem(request, response, HttpStatus.FORBIDDEN,
+                    ErrorMessage.OPERATION_NOT_GRANTED.getValue().formatted(required.get().getKey()));
+            return;
+        }
+
+        SecurityContext context = SecurityContextHolder.createEmptyContext();
+        context.setAuthentication(new JwtAuthentication(principal));
+        SecurityContextHolder.setContext(context);
+        RequestContext requestContext = RequestContext.current()
+                .withPrincipal(principal.subject(), principal.tenantId(), principal.operations());
+        request.setAttribute(RequestContext.ATTRIBUTE, requestContext);
+        try {
+            requestContext.call(() -> {
+                chain.doFilter(request, response);
+                return null;
+            });
+        } catch (IOException | ServletException | RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new ServletException(e);
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+
+    private void unauthorized(HttpServletRequest request, HttpServletResponse response, String detail) throws IOException {
+        response.setHeader(HttpHeaders.WWW_AUTHENTICATE, "Bearer");
+        problem(request, response, HttpStatus.UNAUTHORIZED, detail);
+    }
+
+    private void problem(HttpServletRequest request, HttpServletResponse response, HttpStatus status, String detail)
+            throws IOException {
+        ProblemDetail problem = ProblemDetail.forStatusAndDetail(status, detail);
+        problem.setInstance(URI.create(request.getRequestURI()));
+        problem.setProperty("timestamp", Instant.now().toString());
+        response.setStatus(status.value());
+        response.setContentType(MediaType.APPLICATION_PROBLEM_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), problem);
+    }
+}
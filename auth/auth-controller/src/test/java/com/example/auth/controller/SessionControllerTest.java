@@ -0,0 +1,68 @@
+package com.example.auth.controller;
+
+import com.example.auth.controller.filter.JwtAuthentication;
+import com.example.auth.service.jwt.JwtPrincipal;
+import com.example.auth.service.session.SessionPersistence;
+import com.example.auth.service.session.SessionStore;
+import com.example.auth.service.session.SessionTokenIssuer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.time.Duration;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SessionControllerTest {
+
+    private final SessionStore sessions = new SessionStore(
+            new DefaultListableBeanFactory().getBeanProvider(SessionPersistence.class),
+            new SessionTokenIssuer("", "sessions", "sessions", Duration.ofMinutes(15), "", "permissions", "tenant_id"),
+            Duration.ofDays(14), Duration.ofDays(30), Duration.ofMillis(20), Duration.ofSeconds(1), 2);
+    private final SessionController controller = new SessionController(sessions);
+
+    @AfterEach
+    void clear() {
+        SecurityContextHolder.clearContext();
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    void opensASessionForAnIdentityProviderToken() {
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(
+                new MockHttpServletRequest("POST", "/v1/auth/sessions")));
+        authenticate(null);
+
+        ResponseEntity<?> response = controller.create();
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+        assertThat(sessions.stats().created()).isEqualTo(1);
+    }
+
+    @Test
+    void refusesSessionAccessTokens() {
+        authenticate("session-1");
+
+        ResponseEntity<?> response = controller.create();
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.FORBIDDEN);
+        assertThat(sessions.stats().created()).isZero();
+    }
+
+    @Test
+    void requiresAToken() {
+        assertThat(controller.create().getStatusCode()).isEqualTo(HttpStatus.UNAUTHORIZED);
+    }
+
+    private static void authenticate(String sessionId) {
+        SecurityContextHolder.getContext().setAuthentication(new JwtAuthentication(
+                new JwtPrincipal("alice", 7, sessionId, Set.of(), System.currentTimeMillis() + 60_000)));
+    }
+}
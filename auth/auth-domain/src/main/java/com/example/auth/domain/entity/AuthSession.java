@@ -0,0 +1,60 @@
+package com.example.auth.domain.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Write-behind copy of a live session. Rows are written and read by
+ * {@code com.example.auth.service.session.SessionPersistence}; the mapping only describes the table.
+ */
+@Entity
+@Table(name = "AUTH_SESSION", indexes = {
+        @Index(name = "IDX_AUTH_SESSION_EXPIRES_AT", columnList = "EXPIRES_AT"),
+})
+@Getter
+@Setter
+@Access(AccessType.FIELD)
+public class AuthSession {
+
+    @Id
+    @Column(name = "SESSION_ID", length = 32)
+    private String id;
+
+    @Column(name = "SUBJECT", nullable = false)
+    private String subject;
+
+    @Column(name = "TENANT_ID")
+    private Integer tenantId;
+
+    /**
+     * Space separated operation keys granted to the session's access tokens.
+     */
+    @Column(name = "PERMISSIONS", nullable = false, length = 4096)
+    private String permissions;
+
+    /**
+     * SHA-256 of the current refresh token.
+     */
+    @Column(name = "REFRESH_DIGEST", nullable = false, length = 32)
+    private byte[] refreshDigest;
+
+    /**
+     * SHA-256 of the refresh token it replaced, kept to detect reuse.
+     */
+    @Column(name = "PREVIOUS_DIGEST", length = 32)
+    private byte[] previousDigest;
+
+    /**
+     * Epoch milliseconds, like the other instants of this table.
+     */
+    @Column(name = "CREATED_AT", nullable = false)
+    private long createdAt;
+
+    @Column(name = "EXPIRES_AT", nullable = false)
+    private long expiresAt;
+
+    @Column(name = "ABSOLUTE_EXPIRES_AT", nullable = false)
+    private long absoluteExpiresAt;
+
+}
@@ -0,0 +1,15 @@
+create table AUTH_SESSION
+(
+    SESSION_ID          varchar(32)   not null,
+    SUBJECT             varchar(255)  not null,
+    TENANT_ID           integer,
+    PERMISSIONS         varchar(4096) not null,
+    REFRESH_DIGEST      varbinary(32) not null,
+    PREVIOUS_DIGEST     varbinary(32),
+    CREATED_AT          bigint        not null,
+    EXPIRES_AT          bigint        not null,
+    ABSOLUTE_EXPIRES_AT bigint        not null,
+    primary key (SESSION_ID)
+);
+
+create index IDX_AUTH_SESSION_EXPIRES_AT on AUTH_SESSION (EXPIRES_AT);
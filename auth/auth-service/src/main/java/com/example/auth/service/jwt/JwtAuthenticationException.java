@@ -0,0 +1,12 @@
+package com.example.auth.service.jwt;
+
+public class JwtAuthenticationException extends RuntimeException {
+
+    public JwtAuthenticationException(String message) {
+        super(message);
+    }
+
+    public JwtAuthenticationException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,205 @@
+package com.example.auth.service.jwt;
+
+import com.example.auth.service.session.SessionTokenIssuer;
+import com.example.auth.service.token.TokenDigest;
+import com.example.core.rbac.enums.Operation;
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.JWSVerifier;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.io.Resource;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.text.ParseException;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Verifies signed JWTs and maps their claims to a {@link JwtPrincipal}.
+ * <p>
+ * The first request with a token pays for parsing and the signature check; the resulting
+ * principal, with its permission claim already expanded to a set of {@link Operation}s, is cached
+ * by token hash until the token expires. A repeated token then costs one SHA-256 and one map
+ * lookup instead of a signature verification.
+ * <p>
+ * Access tokens of sessions are signed by the {@link SessionTokenIssuer} and verified with its key
+ * instead of the JWK set; only those carry a session id, the session claim of other issuers' tokens
+ * is ignored.
+ */
+@Component
+@ConditionalOnProperty(name = "app.auth.jwt.enabled", havingValue = "true")
+public class JwtAuthenticator {
+
+    private final JwtKeyCache keys;
+    private final VerifiedTokenCache tokens;
+    private final Set<JWSAlgorithm> algorithms;
+    private final String issuer;
+    private final String audience;
+    private final String permissionsClaim;
+    private final String tenantClaim;
+    private final SessionTokenIssuer sessionTokens;
+    private final long clockSkewMillis;
+    private final long cacheTtlMillis;
+    private final Clock clock = Clock.systemUTC();
+
+    public JwtAuthenticator(@Value("${app.auth.jwt.jwk-set-location}") Resource jwkSet,
+                            @Value("${app.auth.jwt.algorithms:RS256,ES256}") List<String> algorithms,
+                            @Value("${app.auth.jwt.issuer:}") String issuer,
+                            @Value("${app.auth.jwt.audience:}") String audience,
+                            @Value("${app.auth.jwt.permissions-claim:permissions}") String permissionsClaim,
+                            @Value("${app.auth.jwt.tenant-claim:tenant_id}") String tenantClaim,
+                            @Value("${app.auth.jwt.clock-skew:30s}") Duration clockSkew,
+                            @Value("${app.auth.jwt.cache-size:10000}") int cacheSize,
+                            @Value("${app.auth.jwt.cache-ttl:5m}") Duration cacheTtl,
+                            @Value("${app.auth.jwt.key-refresh-interval:30s}") Duration keyRefreshInterval,
+                            @Nullable SessionTokenIssuer sessionTokens) {
+        this.keys = new JwtKeyCache(jwkSet, keyRefreshInterval, clock);
+        this.tokens = new VerifiedTokenCache(cacheSize);
+        this.algorithms = algorithms.stream().map(String::trim).map(JWSAlgorithm::parse).collect(Collectors.toUnmodifiableSet());
+        this.issuer = issuer;
+        this.audience = audience;
+        this.permissionsClaim = permissionsClaim;
+        this.tenantClaim = tenantClaim;
+        this.sessionTokens = sessionTokens;
+        this.clockSkewMillis = clockSkew.toMillis();
+        this.cacheTtlMillis = cacheTtl.toMillis();
+        this.keys.refresh();
+    }
+
+    public JwtPrincipal authenticate(String token) {
+        return authenticate(token, 0);
+    }
+
+    /**
+     * Authenticates the token that starts at {@code from} in {@code value}, so a header value
+     * does not have to be cut before the cache lookup.
+     *
+     * @throws JwtAuthenticationException when the token is malformed, unsigned by a known key,
+     *                                    expired or not meant for this service
+     */
+    public JwtPrincipal authenticate(String value, int from) {
+        long now = clock.millis();
+        TokenDigest key;
+        try {
+            key = TokenDigest.of(value, from);
+        } catch (IllegalArgumentException e) {
+            throw new JwtAuthenticationException("Malformed token", e);
+        }
+        JwtPrincipal cached = tokens.get(key, now);
+        if (cached != null) {
+            return cached;
+        }
+        JwtPrincipal principal = verify(from == 0 ? value : value.substring(from), now);
+        tokens.put(key, principal, Math.min(principal.expiresAt() + clockSkewMillis, now + cacheTtlMillis), now);
+        return principal;
+    }
+
+    public int cachedTokens() {
+        return tokens.size();
+    }
+
+    public int cachedKeys() {
+        return keys.size();
+    }
+
+    private JwtPrincipal verify(String token, long now) {
+        JWTClaimsSet claims;
+        boolean session;
+        try {
+            SignedJWT jwt = SignedJWT.parse(token);
+            JWSHeader header = jwt.getHeader();
+            session = sessionTokens != null && sessionTokens.signs(header);
+            JWSVerifier verifier;
+            if (session) {
+                if (!JWSAlgorithm.HS256.equals(header.getAlgorithm())) {
+                    throw new JwtAuthenticationException("Algorithm " + header.getAlgorithm() + " is not accepted");
+                }
+                verifier = sessionTokens.verifier();
+            } else {
+                if (!algorithms.contains(header.getAlgorithm())) {
+                    throw new JwtAuthenticationException("Algorithm " + header.getAlgorithm() + " is not accepted");
+                }
+                verifier = keys.verifier(header.getKeyID(), header.getAlgorithm());
+            }
+            if (!jwt.verify(verifier)) {
+                throw new JwtAuthenticationException("Invalid token signature");
+            }
+            claims = jwt.getJWTClaimsSet();
+        } catch (ParseException e) {
+            throw new JwtAuthenticationException("Malformed token", e);
+        } catch (JOSEException e) {
+            throw new JwtAuthenticationException("Token signature could not be verified", e);
+        }
+
+        Date expiration = claims.getExpirationTime();
+        if (expiration == null) {
+            throw new JwtAuthenticationException("Token has no expiration");
+        }
+        if (now >= expiration.getTime() + clockSkewMillis) {
+            throw new JwtAuthenticationException("Token expired");
+        }
+        Date notBefore = claims.getNotBeforeTime();
+        if (notBefore != null && now + clockSkewMillis < notBefore.getTime()) {
+            throw new JwtAuthenticationException("Token is not valid yet");
+        }
+        String expectedIssuer = session ? sessionTokens.issuer() : issuer;
+        if (StringUtils.hasText(expectedIssuer) && !expectedIssuer.equals(claims.getIssuer())) {
+            throw new JwtAuthenticationException("Unexpected token issuer");
+        }
+        if (StringUtils.hasText(audience) && (claims.getAudience() == null || !claims.getAudience().contains(audience))) {
+            throw new JwtAuthenticationException("Token is not meant for this audience");
+        }
+        if (!StringUtils.hasText(claims.getSubject())) {
+            throw new JwtAuthenticationException("Token has no subject");
+        }
+        String sessionId = null;
+        if (session) {
+            Object claim = claims.getClaim(SessionTokenIssuer.SESSION_CLAIM);
+            if (!(claim instanceof String id) || id.isEmpty()) {
+                throw new JwtAuthenticationException("Session token has no session id");
+            }
+            sessionId = id;
+        }
+        return new JwtPrincipal(claims.getSubject(), tenantOf(claims.getClaim(tenantClaim)),
+                sessionId, Operation.grantsOf(permissionsOf(claims.getClaim(permissionsClaim))), expiration.getTime());
+    }
+
+    /**
+     * Accepts a JSON array of operation keys or an OAuth style space separated string.
+     */
+    private static Collection<String> permissionsOf(Object claim) {
+        if (claim instanceof Collection<?> values) {
+            return values.stream().map(String::valueOf).toList();
+        }
+        if (claim instanceof String value) {
+            return Arrays.asList(value.trim().split("\\s+"));
+        }
+        return List.of();
+    }
+
+    private static Integer tenantOf(Object claim) {
+        if (claim instanceof Number number) {
+            return number.intValue();
+        }
+        if (claim instanceof String value && !value.isBlank()) {
+            try {
+                return Integer.valueOf(value.trim());
+            } catch (NumberFormatException e) {
+                throw new JwtAuthenticationException("Malformed tenant claim");
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,126 @@
+package com.example.auth.service.jwt;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSVerifier;
+import com.nimbusds.jose.crypto.ECDSAVerifier;
+import com.nimbusds.jose.crypto.MACVerifier;
+import com.nimbusds.jose.crypto.RSASSAVerifier;
+import com.nimbusds.jose.jwk.ECKey;
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.KeyUse;
+import com.nimbusds.jose.jwk.OctetSequenceKey;
+import com.nimbusds.jose.jwk.RSAKey;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.io.Resource;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.text.ParseException;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Signature verifiers built from a JWK set, by key id. Parsing keys and building verifiers
+ * happens once per key; a token signed with an unknown key id reloads the set, at most once per
+ * {@code minRefreshInterval}, so rotated keys are picked up without letting unknown ids force
+ * a reload per request.
+ */
+final class JwtKeyCache {
+
+    private static final Logger log = LoggerFactory.getLogger(JwtKeyCache.class);
+
+    private final Resource jwkSet;
+    private final long minRefreshMillis;
+    private final Clock clock;
+
+    private volatile Map<String, JWSVerifier> verifiers = Map.of();
+    private volatile long loadedAt = Long.MIN_VALUE;
+
+    JwtKeyCache(Resource jwkSet, Duration minRefreshInterval, Clock clock) {
+        this.jwkSet = jwkSet;
+        this.minRefreshMillis = minRefreshInterval.toMillis();
+        this.clock = clock;
+    }
+
+    /**
+     * @param keyId key id of the token header, may be null when the set holds a single key
+     * @throws JwtAuthenticationException when no key matches or the key does not fit the algorithm
+     */
+    JWSVerifier verifier(String keyId, JWSAlgorithm algorithm) {
+        JWSVerifier verifier = lookup(verifiers, keyId);
+        if (verifier == null && refresh()) {
+            verifier = lookup(verifiers, keyId);
+        }
+        if (verifier == null) {
+            throw new JwtAuthenticationException("Unknown signing key " + keyId);
+        }
+        if (!verifier.supportedJWSAlgorithms().contains(algorithm)) {
+            throw new JwtAuthenticationException("Signing key " + keyId + " does not support " + algorithm);
+        }
+        return verifier;
+    }
+
+    int size() {
+        return verifiers.size();
+    }
+
+    /**
+     * Loads the set unless it was loaded within the refresh interval.
+     *
+     * @return whether the set was reloaded
+     */
+    synchronized boolean refresh() {
+        long now = clock.millis();
+        if (loadedAt != Long.MIN_VALUE && now - loadedAt < minRefreshMillis) {
+            return false;
+        }
+        loadedAt = now;
+        JWKSet keys;
+        try (InputStream in = jwkSet.getInputStream()) {
+            keys = JWKSet.parse(new String(in.readAllBytes(), StandardCharsets.UTF_8));
+        } catch (IOException | ParseException e) {
+            log.error("Failed to load JWK set from {}, keeping {} cached keys", jwkSet, verifiers.size(), e);
+            return false;
+        }
+        Map<String, JWSVerifier> loaded = new HashMap<>();
+        for (JWK key : keys.getKeys()) {
+            if (key.getKeyUse() != null && !KeyUse.SIGNATURE.equals(key.getKeyUse())) {
+                continue;
+            }
+            try {
+                loaded.put(key.getKeyID() != null ? key.getKeyID() : "", verifierOf(key));
+            } catch (JOSEException e) {
+                log.warn("Skipping unusable JWK {}: {}", key.getKeyID(), e.getMessage());
+            }
+        }
+        verifiers = Map.copyOf(loaded);
+        log.info("Loaded {} signing keys from {}", loaded.size(), jwkSet);
+        return true;
+    }
+
+    private static JWSVerifier lookup(Map<String, JWSVerifier> verifiers, String keyId) {
+        if (keyId != null) {
+            return verifiers.get(keyId);
+        }
+        return verifiers.size() == 1 ? verifiers.values().iterator().next() : null;
+    }
+
+    private static JWSVerifier verifierOf(JWK key) throws JOSEException {
+        if (key instanceof RSAKey rsa) {
+            return new RSASSAVerifier(rsa.toRSAPublicKey());
+        }
+        if (key instanceof ECKey ec) {
+            return new ECDSAVerifier(ec.toECPublicKey());
+        }
+        if (key instanceof OctetSequenceKey secret) {
+            return new MACVerifier(secret.toByteArray());
+        }
+        throw new JOSEException("Unsupported key type " + key.getKeyType());
+    }
+}
@@ -0,0 +1,26 @@
+package com.example.auth.service.jwt;
+
+import com.example.core.rbac.enums.Operation;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Caller identity taken from a verified token.
+ *
+ * @param tenantId   tenant claim, absent for tokens not bound to a tenant
+ * @param sessionId  session of a session access token, absent for tokens of other issuers
+ * @param operations granted operations, already expanded to everything below each granted key
+ * @param expiresAt  token expiry in epoch milliseconds
+ */
+public record JwtPrincipal(String subject, Integer tenantId, String sessionId, Set<Operation> operations,
+                           long expiresAt) {
+
+    public boolean grants(Operation operation) {
+        return operations.contains(operation);
+    }
+
+    public List<String> operationKeys() {
+        return operations.stream().map(Operation::getKey).toList();
+    }
+}
@@ -0,0 +1,73 @@
+package com.example.auth.service.jwt;
+
+import com.example.auth.service.token.TokenDigest;
+
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Principals of already verified tokens, keyed by {@link TokenDigest}. An entry is valid until
+ * the token expires or the cache ttl passes, whichever is first; expired entries are dropped on
+ * lookup.
+ * <p>
+ * The size is bounded: an insert into a full cache first sweeps expired entries and, if that is
+ * not enough, drops an arbitrary eighth of the cache.
+ */
+final class VerifiedTokenCache {
+
+    private final int maxEntries;
+    private final ConcurrentMap<TokenDigest, Entry> entries;
+    private final AtomicBoolean evicting = new AtomicBoolean();
+
+    VerifiedTokenCache(int maxEntries) {
+        this.maxEntries = maxEntries;
+        this.entries = new ConcurrentHashMap<>(Math.min(maxEntries, 1 << 16));
+    }
+
+    JwtPrincipal get(TokenDigest key, long now) {
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (now >= entry.validUntil()) {
+            entries.remove(key, entry);
+            return null;
+        }
+        return entry.principal();
+    }
+
+    void put(TokenDigest key, JwtPrincipal principal, long validUntil, long now) {
+        if (maxEntries <= 0 || validUntil <= now) {
+            return;
+        }
+        if (entries.size() >= maxEntries) {
+            evict(now);
+        }
+        entries.put(key, new Entry(principal, validUntil));
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    private void evict(long now) {
+        if (!evicting.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            entries.values().removeIf(entry -> now >= entry.validUntil());
+            int excess = entries.size() - (maxEntries - maxEntries / 8);
+            for (Iterator<TokenDigest> keys = entries.keySet().iterator(); excess > 0 && keys.hasNext(); excess--) {
+                keys.next();
+                keys.remove();
+            }
+        } finally {
+            evicting.set(false);
+        }
+    }
+
+    private record Entry(JwtPrincipal principal, long validUntil) {
+    }
+}
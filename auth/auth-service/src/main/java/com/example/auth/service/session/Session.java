@@ -0,0 +1,35 @@
+package com.example.auth.service.session;
+
+import com.example.auth.service.token.TokenDigest;
+
+import java.util.List;
+
+/**
+ * A live session. Identity and limits are fixed; the refresh digests and expiry change under the
+ * session's monitor, and {@code expiresAt} is also read without it by revocation checks.
+ */
+final class Session {
+
+    final String id;
+    final String subject;
+    final Integer tenantId;
+    final List<String> permissions;
+    final long createdAt;
+    final long absoluteExpiresAt;
+    final TimingWheel.Node<Session> expiry = new TimingWheel.Node<>(this);
+
+    TokenDigest refreshDigest;
+    TokenDigest previousDigest;
+    volatile long expiresAt;
+    boolean ended;
+
+    Session(String id, String subject, Integer tenantId, List<String> permissions, long createdAt,
+            long absoluteExpiresAt) {
+        this.id = id;
+        this.subject = subject;
+        this.tenantId = tenantId;
+        this.permissions = permissions;
+        this.createdAt = createdAt;
+        this.absoluteExpiresAt = absoluteExpiresAt;
+    }
+}
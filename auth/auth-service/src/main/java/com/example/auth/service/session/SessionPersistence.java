@@ -0,0 +1,81 @@
+package com.example.auth.service.session;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Write-behind storage of live sessions in AUTH_SESSION. Changed sessions are replaced by delete
+ * and insert, ended ones deleted, all in one transaction per flush; startup reads back the
+ * sessions that have not expired.
+ */
+@Component
+@ConditionalOnProperty(name = "app.auth.sessions.write-behind", havingValue = "true", matchIfMissing = true)
+public class SessionPersistence {
+
+    private static final String DELETE_SQL = "delete from AUTH_SESSION where SESSION_ID = ?";
+    private static final String INSERT_SQL =
+            "insert into AUTH_SESSION (SESSION_ID, SUBJECT, TENANT_ID, PERMISSIONS, REFRESH_DIGEST, PREVIOUS_DIGEST,"
+                    + " CREATED_AT, EXPIRES_AT, ABSOLUTE_EXPIRES_AT) values (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String SELECT_SQL =
+            "select SESSION_ID, SUBJECT, TENANT_ID, PERMISSIONS, REFRESH_DIGEST, PREVIOUS_DIGEST, CREATED_AT,"
+                    + " EXPIRES_AT, ABSOLUTE_EXPIRES_AT from AUTH_SESSION where EXPIRES_AT > ?";
+    private static final String PRUNE_SQL = "delete from AUTH_SESSION where EXPIRES_AT <= ?";
+    private static final int BATCH_SIZE = 500;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    public SessionPersistence(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * @param ended ids of sessions to delete
+     * @param live  sessions to write; their rows are replaced
+     */
+    public void write(List<String> ended, List<SessionRow> live) {
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.batchUpdate(DELETE_SQL, ended, BATCH_SIZE, (ps, id) -> ps.setString(1, id));
+            jdbcTemplate.batchUpdate(DELETE_SQL, live, BATCH_SIZE, (ps, row) -> ps.setString(1, row.id()));
+            jdbcTemplate.batchUpdate(INSERT_SQL, live, BATCH_SIZE, (ps, row) -> {
+                ps.setString(1, row.id());
+                ps.setString(2, row.subject());
+                ps.setObject(3, row.tenantId());
+                ps.setString(4, String.join(" ", row.permissions()));
+                ps.setBytes(5, row.refreshDigest());
+                ps.setBytes(6, row.previousDigest());
+                ps.setLong(7, row.createdAt());
+                ps.setLong(8, row.expiresAt());
+                ps.setLong(9, row.absoluteExpiresAt());
+            });
+        });
+    }
+
+    /**
+     * Deletes rows expired at {@code now} and streams the others.
+     */
+    public void loadActive(long now, Consumer<SessionRow> consumer) {
+        jdbcTemplate.update(PRUNE_SQL, now);
+        jdbcTemplate.query(SELECT_SQL, rs -> {
+            String permissions = rs.getString(4);
+            consumer.accept(new SessionRow(rs.getString(1), rs.getString(2), rs.getObject(3, Integer.class),
+                    permissions.isEmpty() ? List.of() : List.of(permissions.split(" ")),
+                    rs.getBytes(5), rs.getBytes(6), rs.getLong(7), rs.getLong(8), rs.getLong(9)));
+        }, now);
+    }
+
+    /**
+     * @param permissions operation keys granted to the session's access tokens
+     */
+    public record SessionRow(String id, String subject, Integer tenantId, List<String> permissions,
+                             byte[] refreshDigest, byte[] previousDigest, long createdAt, long expiresAt,
+                             long absoluteExpiresAt) {
+    }
+}
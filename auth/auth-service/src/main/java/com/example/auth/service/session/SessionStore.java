@@ -0,0 +1,407 @@
+package com.example.auth.service.session;
+
+import com.example.auth.base.vo.SessionStatsData;
+import com.example.auth.base.vo.SessionTokenData;
+import com.example.auth.service.token.TokenDigest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.security.SecureRandom;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * In-memory sessions with rotating refresh tokens.
+ * <p>
+ * Sessions are indexed by id and by the digest of their refresh token in concurrent maps, so a
+ * revocation check is one map lookup and one volatile read, whatever the number of sessions and
+ * threads. Expiry deadlines live in {@link TimingWheel}s, striped by session id so that creating
+ * and refreshing sessions on different threads rarely contend; one thread advances them every
+ * tick and ends the sessions whose deadline passed, O(1) per session.
+ * <p>
+ * A refresh token is single use: refreshing returns the next one and keeps the digest of the one
+ * it replaced, and presenting that replaced token again revokes the session, as it means the
+ * token was copied. A session expires after the idle timeout without a refresh, and at the latest
+ * after the maximum lifetime. Creating and refreshing a session also returns an access token
+ * from the {@link SessionTokenIssuer}, which names the session and is only accepted while it lives.
+ * <p>
+ * With {@link SessionPersistence} present, changed sessions are coalesced and written behind
+ * every flush interval, and the sessions that have not expired are reloaded on startup. Without
+ * it, changes are not tracked at all.
+ */
+@Component
+@ConditionalOnProperty(name = "app.auth.sessions.enabled", havingValue = "true", matchIfMissing = true)
+public class SessionStore implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(SessionStore.class);
+    private static final int SESSION_ID_BYTES = 16;
+    private static final int REFRESH_TOKEN_BYTES = 32;
+
+    private final Clock clock = Clock.systemUTC();
+    private final SecureRandom random = new SecureRandom();
+    private final Base64.Encoder encoder = Base64.getUrlEncoder().withoutPadding();
+    private final ConcurrentHashMap<String, Session> sessions = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<TokenDigest, Session> refreshTokens = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Session> dirty = new ConcurrentHashMap<>();
+    private final Stripe[] stripes;
+    private final SessionPersistence persistence;
+    private final SessionTokenIssuer accessTokens;
+    private final long idleTimeoutMillis;
+    private final long maxLifetimeMillis;
+    private final long tickMillis;
+    private final long flushIntervalMillis;
+    private final LongAdder created = new LongAdder();
+    private final LongAdder refreshed = new LongAdder();
+    private final LongAdder revoked = new LongAdder();
+    private final LongAdder expired = new LongAdder();
+    private final LongAdder reuseDetected = new LongAdder();
+
+    private ScheduledExecutorService scheduler;
+    private volatile boolean running;
+
+    public SessionStore(ObjectProvider<SessionPersistence> persistence,
+                        SessionTokenIssuer accessTokens,
+                        @Value("${app.auth.sessions.idle-timeout:14d}") Duration idleTimeout,
+                        @Value("${app.auth.sessions.max-lifetime:30d}") Duration maxLifetime,
+                        @Value("${app.auth.sessions.tick:1s}") Duration tick,
+                        @Value("${app.auth.sessions.flush-interval:1s}") Duration flushInterval,
+                        @Value("${app.auth.sessions.stripes:0}") int stripes) {
+        this.persistence = persistence.getIfAvailable();
+        this.accessTokens = accessTokens;
+        this.idleTimeoutMillis = idleTimeout.toMillis();
+        this.maxLifetimeMillis = maxLifetime.toMillis();
+        this.tickMillis = tick.toMillis();
+        this.flushIntervalMillis = flushInterval.toMillis();
+        int count = Integer.highestOneBit(Math.max(1,
+                stripes > 0 ? stripes : Runtime.getRuntime().availableProcessors()) * 2 - 1);
+        long now = clock.millis();
+        this.stripes = new Stripe[count];
+        for (int i = 0; i < count; i++) {
+            this.stripes[i] = new Stripe(tickMillis, now);
+        }
+    }
+
+    /**
+     * @param permissions operation keys the session's access tokens grant
+     */
+    public SessionTokenData create(String subject, Integer tenantId, Collection<String> permissions) {
+        long now = clock.millis();
+        Session session = new Session(randomToken(SESSION_ID_BYTES), subject, tenantId, List.copyOf(permissions), now,
+                now + maxLifetimeMillis);
+        String token = randomToken(REFRESH_TOKEN_BYTES);
+        TokenDigest digest = TokenDigest.of(token);
+        synchronized (session) {
+            session.refreshDigest = digest;
+            session.expiresAt = Math.min(session.absoluteExpiresAt, now + idleTimeoutMillis);
+            sessions.put(session.id, session);
+            refreshTokens.put(digest, session);
+            schedule(session);
+        }
+        markDirty(session);
+        created.increment();
+        return tokens(session, token, now);
+    }
+
+    /**
+     * Exchanges the current refresh token of a live session for the next one and a new access token.
+     *
+     * @return empty when the token is unknown, replaced, or its session has ended
+     */
+    public Optional<SessionTokenData> refresh(String refreshToken) {
+        TokenDigest digest;
+        try {
+            digest = TokenDigest.of(refreshToken);
+        } catch (IllegalArgumentException e) {
+            return Optional.empty();
+        }
+        Session session = refreshTokens.get(digest);
+        if (session == null) {
+            return Optional.empty();
+        }
+        long now = clock.millis();
+        String next = randomToken(REFRESH_TOKEN_BYTES);
+        TokenDigest nextDigest = TokenDigest.of(next);
+        synchronized (session) {
+            if (session.ended || session.expiresAt <= now) {
+                return Optional.empty();
+            }
+            if (!digest.equals(session.refreshDigest)) {
+                log.warn("Replaced refresh token of session {} presented again, revoking the session", session.id);
+                end(session);
+                reuseDetected.increment();
+                revoked.increment();
+                return Optional.empty();
+            }
+            if (session.previousDigest != null) {
+                refreshTokens.remove(session.previousDigest, session);
+            }
+            session.previousDigest = digest;
+            session.refreshDigest = nextDigest;
+            session.expiresAt = Math.min(session.absoluteExpiresAt, now + idleTimeoutMillis);
+            refreshTokens.put(nextDigest, session);
+            schedule(session);
+        }
+        markDirty(session);
+        refreshed.increment();
+        return Optional.of(tokens(session, next, now));
+    }
+
+    /**
+     * @return whether a live session was revoked
+     */
+    public boolean revoke(String sessionId) {
+        return revoke(sessionId, null);
+    }
+
+    /**
+     * Revokes a session only if it belongs to {@code subject}; {@code null} matches any.
+     *
+     * @return whether a live session was revoked
+     */
+    public boolean revoke(String sessionId, String subject) {
+        Session session = sessions.get(sessionId);
+        if (session == null || (subject != null && !subject.equals(session.subject))) {
+            return false;
+        }
+        synchronized (session) {
+            if (session.ended) {
+                return false;
+            }
+            end(session);
+        }
+        revoked.increment();
+        return true;
+    }
+
+    /**
+     * Constant time check on the request path: one map lookup and one volatile read.
+     */
+    public boolean isActive(String sessionId) {
+        Session session = sessions.get(sessionId);
+        return session != null && clock.millis() < session.expiresAt;
+    }
+
+    public SessionStatsData stats() {
+        return new SessionStatsData(sessions.size(), dirty.size(), created.sum(), refreshed.sum(), revoked.sum(),
+                expired.sum(), reuseDetected.sum());
+    }
+
+    @Override
+    public void start() {
+        if (persistence != null) {
+            long now = clock.millis();
+            int[] loaded = {0};
+            persistence.loadActive(now, row -> {
+                restore(row);
+                loaded[0]++;
+            });
+            log.info("Reloaded {} sessions", loaded[0]);
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "auth-sessions");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::expire, tickMillis, tickMillis, TimeUnit.MILLISECONDS);
+        if (persistence != null) {
+            scheduler.scheduleWithFixedDelay(this::flush, flushIntervalMillis, flushIntervalMillis,
+                    TimeUnit.MILLISECONDS);
+        }
+        running = true;
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        scheduler.shutdown();
+        try {
+            scheduler.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (persistence != null) {
+            flush();
+        }
+        log.info("Stopped session store with {} sessions", sessions.size());
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Below the web server, so requests stop before the last flush.
+     */
+    @Override
+    public int getPhase() {
+        return SmartLifecycle.DEFAULT_PHASE - 4096;
+    }
+
+    private void restore(SessionPersistence.SessionRow row) {
+        Session session = new Session(row.id(), row.subject(), row.tenantId(), row.permissions(), row.createdAt(),
+                row.absoluteExpiresAt());
+        synchronized (session) {
+            session.refreshDigest = TokenDigest.fromBytes(row.refreshDigest());
+            session.previousDigest = row.previousDigest() == null ? null : TokenDigest.fromBytes(row.previousDigest());
+            session.expiresAt = row.expiresAt();
+            sessions.put(session.id, session);
+            refreshTokens.put(session.refreshDigest, session);
+            if (session.previousDigest != null) {
+                refreshTokens.put(session.previousDigest, session);
+            }
+            schedule(session);
+        }
+    }
+
+    /**
+     * Caller holds the session's monitor.
+     */
+    private void end(Session session) {
+        session.ended = true;
+        session.expiresAt = 0;
+        sessions.remove(session.id, session);
+        refreshTokens.remove(session.refreshDigest, session);
+        if (session.previousDigest != null) {
+            refreshTokens.remove(session.previousDigest, session);
+        }
+        Stripe stripe = stripeOf(session);
+        stripe.lock.lock();
+        try {
+            stripe.wheel.cancel(session.expiry);
+        } finally {
+            stripe.lock.unlock();
+        }
+        markDirty(session);
+    }
+
+    /**
+     * Only sessions that will be written are tracked, as nothing else drains {@code dirty}.
+     */
+    private void markDirty(Session session) {
+        if (persistence != null) {
+            dirty.put(session.id, session);
+        }
+    }
+
+    private SessionTokenData tokens(Session session, String refreshToken, long now) {
+        long expiresAt = session.expiresAt;
+        SessionTokenIssuer.AccessToken access = accessTokens.issue(session.id, session.subject, session.tenantId,
+                session.permissions, now, expiresAt);
+        return new SessionTokenData(session.id, access.token(), Instant.ofEpochMilli(access.expiresAt()), refreshToken,
+                Instant.ofEpochMilli(expiresAt));
+    }
+
+    /**
+     * Caller holds the session's monitor.
+     */
+    private void schedule(Session session) {
+        Stripe stripe = stripeOf(session);
+        stripe.lock.lock();
+        try {
+            stripe.wheel.schedule(session.expiry, session.expiresAt);
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    private void expire() {
+        try {
+            long now = clock.millis();
+            List<Session> due = new ArrayList<>();
+            for (Stripe stripe : stripes) {
+                stripe.lock.lock();
+                try {
+                    stripe.wheel.advance(now, due::add);
+                } finally {
+                    stripe.lock.unlock();
+                }
+            }
+            for (Session session : due) {
+                synchronized (session) {
+                    // A refresh may have extended the session after its node fired; it is then scheduled again.
+                    if (session.ended || session.expiresAt > now) {
+                        continue;
+                    }
+                    end(session);
+                }
+                expired.increment();
+            }
+        } catch (RuntimeException e) {
+            log.error("Session expiry failed", e);
+        }
+    }
+
+    private void flush() {
+        if (dirty.isEmpty()) {
+            return;
+        }
+        List<Session> batch = new ArrayList<>(dirty.size());
+        for (String id : dirty.keySet()) {
+            // Removed before the state is read, so a change after this point marks the session again.
+            Session session = dirty.remove(id);
+            if (session != null) {
+                batch.add(session);
+            }
+        }
+        List<String> ended = new ArrayList<>();
+        List<SessionPersistence.SessionRow> live = new ArrayList<>(batch.size());
+        for (Session session : batch) {
+            synchronized (session) {
+                if (session.ended) {
+                    ended.add(session.id);
+                } else {
+                    live.add(new SessionPersistence.SessionRow(session.id, session.subject, session.tenantId,
+                            session.permissions, session.refreshDigest.toBytes(),
+                            session.previousDigest == null ? null : session.previousDigest.toBytes(),
+                            session.createdAt, session.expiresAt, session.absoluteExpiresAt));
+                }
+            }
+        }
+        try {
+            persistence.write(ended, live);
+        } catch (RuntimeException e) {
+            log.error("Failed to write {} sessions, retrying with the next flush", batch.size(), e);
+            for (Session session : batch) {
+                dirty.putIfAbsent(session.id, session);
+            }
+        }
+    }
+
+    private Stripe stripeOf(Session session) {
+        return stripes[session.id.hashCode() & (stripes.length - 1)];
+    }
+
+    private String randomToken(int bytes) {
+        byte[] value = new byte[bytes];
+        random.nextBytes(value);
+        return encoder.encodeToString(value);
+    }
+
+    private static final class Stripe {
+
+        private final ReentrantLock lock = new ReentrantLock();
+        private final TimingWheel<Session> wheel;
+
+        Stripe(long tickMillis, long nowMillis) {
+            this.wheel = new TimingWheel<>(tickMillis, nowMillis);
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package com.example.auth.service.session;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.JWSSigner;
+import com.nimbusds.jose.JWSVerifier;
+import com.nimbusds.jose.crypto.MACSigner;
+import com.nimbusds.jose.crypto.MACVerifier;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Signs the access tokens of sessions, HS256 with a secret of this service.
+ * <p>
+ * Tokens carry the session id in {@link #SESSION_CLAIM} next to the subject, tenant and
+ * permissions of the session, under the tenant and permissions claims the
+ * {@code JwtAuthenticator} reads, and live at most {@code access-token-ttl} and never past the
+ * session. Only tokens signed with {@link #keyId()} and issued by {@link #issuer()} are session
+ * tokens; the claims of tokens from other issuers, a {@code sid} included, are never checked
+ * against the session store.
+ * <p>
+ * Without a configured {@code signing-secret} a random one is generated at startup, so access
+ * tokens neither survive a restart nor work on other nodes; clients then refresh the session.
+ */
+@Component
+@ConditionalOnProperty(name = "app.auth.sessions.enabled", havingValue = "true", matchIfMissing = true)
+public class SessionTokenIssuer {
+
+    public static final String SESSION_CLAIM = "sid";
+
+    private static final Logger log = LoggerFactory.getLogger(SessionTokenIssuer.class);
+    private static final int SECRET_BYTES = 32;
+
+    private final JWSSigner signer;
+    private final JWSVerifier verifier;
+    private final String issuer;
+    private final String keyId;
+    private final String audience;
+    private final String permissionsClaim;
+    private final String tenantClaim;
+    private final long ttlMillis;
+
+    public SessionTokenIssuer(@Value("${app.auth.sessions.signing-secret:}") String secret,
+                              @Value("${app.auth.sessions.issuer:sessions}") String issuer,
+                              @Value("${app.auth.sessions.key-id:sessions}") String keyId,
+                              @Value("${app.auth.sessions.access-token-ttl:15m}") Duration ttl,
+                              @Value("${app.auth.jwt.audience:}") String audience,
+                              @Value("${app.auth.jwt.permissions-claim:permissions}") String permissionsClaim,
+                              @Value("${app.auth.jwt.tenant-claim:tenant_id}") String tenantClaim) {
+        byte[] key;
+        if (StringUtils.hasText(secret)) {
+            key = Base64.getDecoder().decode(secret.trim());
+            if (key.length < SECRET_BYTES) {
+                throw new IllegalStateException("app.auth.sessions.signing-secret must hold at least "
+                        + SECRET_BYTES + " bytes");
+            }
+        } else {
+            key = new byte[SECRET_BYTES];
+            new SecureRandom().nextBytes(key);
+            log.warn("No app.auth.sessions.signing-secret configured, session access tokens are only valid on this "
+                    + "node until it restarts");
+        }
+        try {
+            this.signer = new MACSigner(key);
+            this.verifier = new MACVerifier(key);
+        } catch (JOSEException e) {
+            throw new IllegalStateException("Unusable session signing secret", e);
+        }
+        this.issuer = issuer;
+        this.keyId = keyId;
+        this.audience = audience;
+        this.permissionsClaim = permissionsClaim;
+        this.tenantClaim = tenantClaim;
+        this.ttlMillis = ttl.toMillis();
+    }
+
+    /**
+     * @param sessionExpiresAt epoch milliseconds the session expires unless refreshed
+     */
+    public AccessToken issue(String sessionId, String subject, Integer tenantId, Collection<String> permissions,
+                             long now, long sessionExpiresAt) {
+        long expiresAt = Math.min(sessionExpiresAt, now + ttlMillis);
+        JWTClaimsSet.Builder claims = new JWTClaimsSet.Builder()
+                .jwtID(UUID.randomUUID().toString())
+                .issuer(issuer)
+                .subject(subject)
+                .issueTime(new Date(now))
+                .expirationTime(new Date(expiresAt))
+                .claim(SESSION_CLAIM, sessionId)
+                .claim(permissionsClaim, List.copyOf(permissions));
+        if (StringUtils.hasText(audience)) {
+            claims.audience(audience);
+        }
+        if (tenantId != null) {
+            claims.claim(tenantClaim, tenantId);
+        }
+        SignedJWT jwt = new SignedJWT(new JWSHeader.Builder(JWSAlgorithm.HS256).keyID(keyId).build(), claims.build());
+        try {
+            jwt.sign(signer);
+        } catch (JOSEException e) {
+            throw new IllegalStateException("Failed to sign a session access token", e);
+        }
+        return new AccessToken(jwt.serialize(), expiresAt);
+    }
+
+    /**
+     * Whether the header names the session key; such tokens are verified with {@link #verifier()}
+     * only, whatever keys the JWK set holds.
+     */
+    public boolean signs(JWSHeader header) {
+        return keyId.equals(header.getKeyID());
+    }
+
+    public JWSVerifier verifier() {
+        return verifier;
+    }
+
+    public String issuer() {
+        return issuer;
+    }
+
+    public String keyId() {
+        return keyId;
+    }
+
+    /**
+     * @param expiresAt epoch milliseconds
+     */
+    public record AccessToken(String token, long expiresAt) {
+    }
+}
@@ -0,0 +1,169 @@
+package com.example.auth.service.session;
+
+import java.util.function.Consumer;
+
+/**
+ * Hierarchical timing wheel: four levels of 64 slots, each level covering 64 times the span of
+ * the one below, so with one second ticks deadlines up to about 194 days are placed directly.
+ * Scheduling and cancelling link or unlink a node in a slot list, O(1); advancing fires the
+ * level 0 slot of each tick and, when a level's digit rolls over, moves the nodes of the next
+ * higher level slot down. A node moves down at most three times, so expiry is amortized O(1)
+ * per node, whatever the number of live entries.
+ * <p>
+ * A node lives in the level of the highest bit in which its deadline tick differs from the
+ * current tick, in the slot given by the deadline's digit of that level, so it is cascaded
+ * exactly when its deadline enters the range of the level below. Deadlines beyond the top level
+ * are parked at the end of the current top-level window and placed again from there.
+ * <p>
+ * Not thread safe; the owner serializes access.
+ *
+ * @param <T> payload of a node
+ */
+final class TimingWheel<T> {
+
+    private static final int SLOT_BITS = 6;
+    private static final int SLOTS = 1 << SLOT_BITS;
+    private static final int SLOT_MASK = SLOTS - 1;
+    private static final int LEVELS = 4;
+    private static final long SPAN_MASK = (1L << (SLOT_BITS * LEVELS)) - 1;
+
+    private final long tickMillis;
+    private final long origin;
+    private final Node<T>[][] wheels;
+    private long currentTick;
+    private int size;
+
+    @SuppressWarnings("unchecked")
+    TimingWheel(long tickMillis, long nowMillis) {
+        this.tickMillis = tickMillis;
+        this.origin = nowMillis;
+        this.wheels = new Node[LEVELS][SLOTS];
+        for (Node<T>[] wheel : wheels) {
+            for (int slot = 0; slot < SLOTS; slot++) {
+                wheel[slot] = Node.sentinel();
+            }
+        }
+    }
+
+    /**
+     * Schedules {@code node} to fire at the first tick at or after {@code deadlineMillis}; a
+     * node that is already scheduled is moved. Deadlines in the past fire on the next tick.
+     */
+    void schedule(Node<T> node, long deadlineMillis) {
+        if (node.isLinked()) {
+            unlink(node);
+        }
+        long deadlineTick = Math.floorDiv(deadlineMillis - origin + tickMillis - 1, tickMillis);
+        node.deadlineTick = Math.max(deadlineTick, currentTick + 1);
+        place(node);
+        size++;
+    }
+
+    /**
+     * @return whether the node was scheduled
+     */
+    boolean cancel(Node<T> node) {
+        if (!node.isLinked()) {
+            return false;
+        }
+        unlink(node);
+        return true;
+    }
+
+    /**
+     * Fires every node whose deadline is at or before {@code nowMillis}, in deadline tick order.
+     */
+    void advance(long nowMillis, Consumer<T> expired) {
+        long nowTick = Math.floorDiv(nowMillis - origin, tickMillis);
+        while (currentTick < nowTick) {
+            long tick = ++currentTick;
+            for (int level = LEVELS - 1; level > 0; level--) {
+                if ((tick & ((1L << (SLOT_BITS * level)) - 1)) == 0) {
+                    cascade(wheels[level][(int) (tick >>> (SLOT_BITS * level)) & SLOT_MASK]);
+                }
+            }
+            Node<T> head = wheels[0][(int) tick & SLOT_MASK];
+            while (head.next != head) {
+                Node<T> node = head.next;
+                if (node.deadlineTick > tick) {
+                    node.remove();
+                    place(node);
+                    continue;
+                }
+                unlink(node);
+                expired.accept(node.payload);
+            }
+        }
+    }
+
+    int size() {
+        return size;
+    }
+
+    private void cascade(Node<T> head) {
+        while (head.next != head) {
+            Node<T> node = head.next;
+            node.remove();
+            place(node);
+        }
+    }
+
+    private void place(Node<T> node) {
+        long tick = node.deadlineTick;
+        if (tick <= currentTick) {
+            link(wheels[0][(int) currentTick & SLOT_MASK], node);
+            return;
+        }
+        if (((tick ^ currentTick) & ~SPAN_MASK) != 0) {
+            tick = currentTick | SPAN_MASK;
+            if (tick == currentTick) {
+                link(wheels[0][(int) (currentTick + 1) & SLOT_MASK], node);
+                return;
+            }
+        }
+        int level = (63 - Long.numberOfLeadingZeros(tick ^ currentTick)) / SLOT_BITS;
+        link(wheels[level][(int) (tick >>> (SLOT_BITS * level)) & SLOT_MASK], node);
+    }
+
+    private static <T> void link(Node<T> head, Node<T> node) {
+        node.prev = head.prev;
+        node.next = head;
+        head.prev.next = node;
+        head.prev = node;
+    }
+
+    private void unlink(Node<T> node) {
+        node.remove();
+        size--;
+    }
+
+    static final class Node<T> {
+
+        private final T payload;
+        private long deadlineTick;
+        private Node<T> prev;
+        private Node<T> next;
+
+        Node(T payload) {
+            this.payload = payload;
+        }
+
+        private static <T> Node<T> sentinel() {
+            Node<T> head = new Node<>(null);
+            head.prev = head;
+            head.next = head;
+            return head;
+        }
+
+        boolean isLinked() {
+            return next != null;
+        }
+
+        private void remove() {
+            prev.next = next;
+            next.prev = prev;
+            prev = null;
+            next = null;
+        }
+    }
+}
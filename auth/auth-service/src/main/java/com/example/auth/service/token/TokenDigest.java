@@ -0,0 +1,81 @@
+package com.example.auth.service.token;
+
+import java.nio.ByteBuffer;
+import java.security.DigestException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * SHA-256 of a token, used as the key wherever tokens are looked up, so that neither the token
+ * nor a forgeable short hash is kept. Hashing reuses a per-thread digest and buffers, so it
+ * allocates only the result.
+ *
+ * @param h0 first eight bytes of the digest, big endian; {@code h1} to {@code h3} follow
+ */
+public record TokenDigest(long h0, long h1, long h2, long h3) {
+
+    public static final int BYTES = 32;
+
+    private static final ThreadLocal<Hasher> HASHER = ThreadLocal.withInitial(Hasher::new);
+
+    /**
+     * Hashes {@code value} from {@code from} to its end, the token without any scheme prefix.
+     *
+     * @throws IllegalArgumentException when the token holds non-ASCII characters; tokens are
+     *                                  base64url and dots, which are hashed one byte per char
+     */
+    public static TokenDigest of(String value, int from) {
+        return HASHER.get().hash(value, from);
+    }
+
+    public static TokenDigest of(String token) {
+        return of(token, 0);
+    }
+
+    public static TokenDigest fromBytes(byte[] bytes) {
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        return new TokenDigest(buffer.getLong(), buffer.getLong(), buffer.getLong(), buffer.getLong());
+    }
+
+    public byte[] toBytes() {
+        return ByteBuffer.allocate(BYTES).putLong(h0).putLong(h1).putLong(h2).putLong(h3).array();
+    }
+
+    private static final class Hasher {
+
+        private final MessageDigest digest;
+        private final byte[] digestBytes = new byte[BYTES];
+        private final ByteBuffer digestView = ByteBuffer.wrap(digestBytes);
+        private byte[] input = new byte[2048];
+
+        Hasher() {
+            try {
+                digest = MessageDigest.getInstance("SHA-256");
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException("SHA-256 is not available", e);
+            }
+        }
+
+        TokenDigest hash(String value, int from) {
+            int length = value.length() - from;
+            if (input.length < length) {
+                input = new byte[Integer.highestOneBit(length) << 1];
+            }
+            for (int i = 0; i < length; i++) {
+                char c = value.charAt(from + i);
+                if (c > 0x7f) {
+                    digest.reset();
+                    throw new IllegalArgumentException("Token contains non-ASCII characters");
+                }
+                input[i] = (byte) c;
+            }
+            digest.update(input, 0, length);
+            try {
+                digest.digest(digestBytes, 0, BYTES);
+            } catch (DigestException e) {
+                throw new IllegalStateException(e);
+            }
+            return new TokenDigest(digestView.getLong(0), digestView.getLong(8), digestView.getLong(16), digestView.getLong(24));
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package com.example.auth.service.session;
+
+import com.example.auth.base.vo.SessionTokenData;
+import com.nimbusds.jwt.SignedJWT;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+
+import java.text.ParseException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SessionStoreTest {
+
+    private static final List<String> PERMISSIONS = List.of("analytics.dashboard.user");
+
+    private SessionStore store;
+
+    @AfterEach
+    void stop() {
+        if (store != null && store.isRunning()) {
+            store.stop();
+        }
+    }
+
+    @Test
+    void refreshRotatesTheRefreshToken() throws ParseException {
+        store = store(Duration.ofDays(14), Duration.ofDays(30));
+        SessionTokenData created = store.create("alice", 7, PERMISSIONS);
+
+        SessionTokenData first = store.refresh(created.refreshToken()).orElseThrow();
+        SessionTokenData second = store.refresh(first.refreshToken()).orElseThrow();
+
+        assertThat(first.sessionId()).isEqualTo(created.sessionId());
+        assertThat(second.sessionId()).isEqualTo(created.sessionId());
+        assertThat(first.refreshToken()).isNotEqualTo(created.refreshToken());
+        assertThat(first.accessToken()).isNotEqualTo(created.accessToken());
+        assertThat(sessionClaim(second.accessToken())).isEqualTo(created.sessionId());
+        assertThat(second.refreshToken()).isNotIn(created.refreshToken(), first.refreshToken());
+        assertThat(store.isActive(created.sessionId())).isTrue();
+        assertThat(store.stats().refreshed()).isEqualTo(2);
+    }
+
+    @Test
+    void presentingAReplacedRefreshTokenRevokesTheSession() {
+        store = store(Duration.ofDays(14), Duration.ofDays(30));
+        SessionTokenData created = store.create("alice", 7, PERMISSIONS);
+        SessionTokenData rotated = store.refresh(created.refreshToken()).orElseThrow();
+
+        assertThat(store.refresh(created.refreshToken())).isEmpty();
+
+        assertThat(store.isActive(created.sessionId())).isFalse();
+        assertThat(store.refresh(rotated.refreshToken())).isEmpty();
+        assertThat(store.stats().reuseDetected()).isEqualTo(1);
+        assertThat(store.stats().revoked()).isEqualTo(1);
+        assertThat(store.stats().active()).isZero();
+    }
+
+    @Test
+    void tokensReplacedTwiceAgoAreUnknown() {
+        store = store(Duration.ofDays(14), Duration.ofDays(30));
+        SessionTokenData created = store.create("alice", 7, PERMISSIONS);
+        SessionTokenData first = store.refresh(created.refreshToken()).orElseThrow();
+        SessionTokenData second = store.refresh(first.refreshToken()).orElseThrow();
+
+        assertThat(store.refresh(created.refreshToken())).isEmpty();
+
+        assertThat(store.isActive(created.sessionId())).isTrue();
+        assertThat(store.refresh(second.refreshToken())).isPresent();
+        assertThat(store.stats().reuseDetected()).isZero();
+    }
+
+    @Test
+    void rejectsUnknownAndMalformedRefreshTokens() {
+        store = store(Duration.ofDays(14), Duration.ofDays(30));
+        store.create("alice", 7, PERMISSIONS);
+
+        assertThat(store.refresh("not-a-token")).isEmpty();
+        assertThat(store.refresh("")).isEmpty();
+        assertThat(store.refresh("%%%")).isEmpty();
+        assertThat(store.stats().revoked()).isZero();
+    }
+
+    @Test
+    void revokesOnlyTheSubjectsOwnSessions() {
+        store = store(Duration.ofDays(14), Duration.ofDays(30));
+        SessionTokenData created = store.create("alice", 7, PERMISSIONS);
+
+        assertThat(store.revoke(created.sessionId(), "bob")).isFalse();
+        assertThat(store.isActive(created.sessionId())).isTrue();
+        assertThat(store.revoke(created.sessionId(), "alice")).isTrue();
+        assertThat(store.revoke(created.sessionId(), "alice")).isFalse();
+
+        assertThat(store.isActive(created.sessionId())).isFalse();
+        assertThat(store.refresh(created.refreshToken())).isEmpty();
+    }
+
+    @Test
+    void maximumLifetimeCapsEveryRefresh() {
+        store = store(Duration.ofDays(14), Duration.ofHours(1));
+        Instant before = Instant.now().truncatedTo(ChronoUnit.MILLIS);
+        SessionTokenData created = store.create("alice", 7, PERMISSIONS);
+
+        SessionTokenData refreshed = store.refresh(created.refreshToken()).orElseThrow();
+
+        assertThat(created.expiresAt()).isBetween(before.plus(Duration.ofHours(1)),
+                Instant.now().plus(Duration.ofHours(1)));
+        assertThat(refreshed.expiresAt()).isEqualTo(created.expiresAt());
+        assertThat(refreshed.accessTokenExpiresAt()).isBefore(refreshed.expiresAt());
+    }
+
+    @Test
+    void expiresSessionsThatAreNotRefreshedWithinTheIdleTimeout() throws InterruptedException {
+        store = store(Duration.ofMillis(500), Duration.ofDays(30));
+        store.start();
+        SessionTokenData idle = store.create("alice", 7, PERMISSIONS);
+        SessionTokenData used = store.create("bob", 7, PERMISSIONS);
+
+        long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+        String token = used.refreshToken();
+        while (store.stats().expired() == 0 && System.nanoTime() < deadline) {
+            Thread.sleep(100);
+            token = store.refresh(token).orElseThrow().refreshToken();
+        }
+
+        assertThat(store.stats().expired()).isEqualTo(1);
+        assertThat(store.isActive(idle.sessionId())).isFalse();
+        assertThat(store.refresh(idle.refreshToken())).isEmpty();
+        assertThat(store.isActive(used.sessionId())).isTrue();
+        assertThat(store.stats().active()).isEqualTo(1);
+    }
+
+    private static String sessionClaim(String accessToken) throws ParseException {
+        return SignedJWT.parse(accessToken).getJWTClaimsSet().getStringClaim(SessionTokenIssuer.SESSION_CLAIM);
+    }
+
+    private static SessionStore store(Duration idleTimeout, Duration maxLifetime) {
+        SessionTokenIssuer issuer = new SessionTokenIssuer("", "sessions", "sessions", Duration.ofMinutes(15), "",
+                "permissions", "tenant_id");
+        return new SessionStore(new DefaultListableBeanFactory().getBeanProvider(SessionPersistence.class), issuer,
+                idleTimeout, maxLifetime, Duration.ofMillis(20), Duration.ofSeconds(1), 2);
+    }
+}
@@ -0,0 +1,181 @@
+package com.example.auth.service.session;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * With one millisecond ticks from origin 0, a deadline in milliseconds is also its tick.
+ */
+class TimingWheelTest {
+
+    private static final long LEVEL_1 = 1L << 6;
+    private static final long LEVEL_2 = 1L << 12;
+    private static final long LEVEL_3 = 1L << 18;
+    private static final long SPAN = 1L << 24;
+
+    private final TimingWheel<Long> wheel = new TimingWheel<>(1, 0);
+    private final List<Long> fired = new ArrayList<>();
+
+    @Test
+    void firesAtTheFirstTickAtOrAfterTheDeadline() {
+        TimingWheel<String> seconds = new TimingWheel<>(1000, 10_000);
+        List<String> expired = new ArrayList<>();
+        seconds.schedule(new TimingWheel.Node<>("a"), 15_500);
+
+        seconds.advance(15_999, expired::add);
+        assertThat(expired).isEmpty();
+
+        seconds.advance(16_000, expired::add);
+        assertThat(expired).containsExactly("a");
+        assertThat(seconds.size()).isZero();
+    }
+
+    @Test
+    void firesPastDeadlinesOnTheNextTick() {
+        wheel.advance(100, fired::add);
+        schedule(5);
+
+        wheel.advance(100, fired::add);
+        assertThat(fired).isEmpty();
+
+        wheel.advance(101, fired::add);
+        assertThat(fired).containsExactly(5L);
+    }
+
+    @Test
+    void cascadesExactlyAtLevelBoundaries() {
+        long[] deadlines = {1, LEVEL_1 - 1, LEVEL_1, LEVEL_1 + 1, LEVEL_2 - 1, LEVEL_2, LEVEL_2 + 1,
+                LEVEL_3 - 1, LEVEL_3, LEVEL_3 + 1, SPAN - 1, 3 * LEVEL_2 + 7 * LEVEL_1 + 5};
+        Map<Long, Long> firedAt = new HashMap<>();
+        for (long deadline : deadlines) {
+            schedule(deadline);
+        }
+
+        for (long now = 1; now <= SPAN; now++) {
+            long tick = now;
+            wheel.advance(now, deadline -> firedAt.put(deadline, tick));
+        }
+
+        assertThat(firedAt).hasSize(deadlines.length);
+        firedAt.forEach((deadline, tick) -> assertThat(tick).as("tick of deadline %d", deadline).isEqualTo(deadline));
+        assertThat(wheel.size()).isZero();
+    }
+
+    @Test
+    void cascadesAfterTheWheelHasTurned() {
+        wheel.advance(LEVEL_2 + 17, fired::add);
+        long base = LEVEL_2 + 17;
+        long[] offsets = {LEVEL_1 - 17, LEVEL_1, LEVEL_2 - 17, LEVEL_2, LEVEL_3};
+        for (long offset : offsets) {
+            schedule(base + offset);
+        }
+
+        for (long offset : offsets) {
+            wheel.advance(base + offset - 1, fired::add);
+            assertThat(fired).as("fired before %d", base + offset).doesNotContain(base + offset);
+            wheel.advance(base + offset, fired::add);
+            assertThat(fired).last().isEqualTo(base + offset);
+        }
+    }
+
+    @Test
+    void parksDeadlinesBeyondTheTopLevelAndPlacesThemAgain() {
+        long far = 3 * SPAN + 12_345;
+        long edge = SPAN;
+        schedule(far);
+        schedule(edge);
+
+        wheel.advance(edge - 1, fired::add);
+        assertThat(fired).isEmpty();
+        wheel.advance(edge, fired::add);
+        assertThat(fired).containsExactly(edge);
+
+        wheel.advance(far - 1, fired::add);
+        assertThat(fired).containsExactly(edge);
+        assertThat(wheel.size()).isEqualTo(1);
+
+        wheel.advance(far, fired::add);
+        assertThat(fired).containsExactly(edge, far);
+    }
+
+    @Test
+    void parksFromTheLastTickOfATopLevelWindow() {
+        wheel.advance(SPAN - 1, fired::add);
+        long far = SPAN - 1 + 2 * SPAN;
+        schedule(far);
+
+        wheel.advance(far - 1, fired::add);
+        assertThat(fired).isEmpty();
+        wheel.advance(far, fired::add);
+        assertThat(fired).containsExactly(far);
+    }
+
+    @Test
+    void reschedulingMovesTheNode() {
+        TimingWheel.Node<Long> node = new TimingWheel.Node<>(1L);
+        wheel.schedule(node, 10);
+        wheel.schedule(node, LEVEL_2 + 3);
+        assertThat(wheel.size()).isEqualTo(1);
+
+        wheel.advance(LEVEL_2 + 2, fired::add);
+        assertThat(fired).isEmpty();
+
+        wheel.schedule(node, LEVEL_2 + 100);
+        wheel.schedule(node, LEVEL_2 + 50);
+        wheel.advance(LEVEL_2 + 49, fired::add);
+        assertThat(fired).isEmpty();
+        wheel.advance(LEVEL_2 + 50, fired::add);
+        assertThat(fired).containsExactly(1L);
+        assertThat(wheel.size()).isZero();
+    }
+
+    @Test
+    void cancelledNodesNeverFire() {
+        TimingWheel.Node<Long> near = new TimingWheel.Node<>(5L);
+        TimingWheel.Node<Long> far = new TimingWheel.Node<>(LEVEL_3 + 1);
+        TimingWheel.Node<Long> kept = new TimingWheel.Node<>(LEVEL_2);
+        wheel.schedule(near, 5);
+        wheel.schedule(far, LEVEL_3 + 1);
+        wheel.schedule(kept, LEVEL_2);
+
+        assertThat(wheel.cancel(near)).isTrue();
+        assertThat(wheel.cancel(near)).isFalse();
+        wheel.advance(LEVEL_2 + 1, fired::add);
+        assertThat(wheel.cancel(far)).isTrue();
+        assertThat(wheel.cancel(kept)).isFalse();
+        wheel.advance(2 * LEVEL_3, fired::add);
+
+        assertThat(fired).containsExactly(LEVEL_2);
+        assertThat(wheel.size()).isZero();
+    }
+
+    @Test
+    void advancingOverManyTicksFiresEveryNodeInDeadlineOrder() {
+        Random random = new Random(42);
+        int count = 20_000;
+        for (int i = 0; i < count; i++) {
+            schedule(1 + (long) (random.nextDouble() * 2 * SPAN));
+        }
+
+        wheel.advance(SPAN / 3, fired::add);
+        int early = fired.size();
+        wheel.advance(3 * SPAN, fired::add);
+
+        assertThat(early).isPositive().isLessThan(count);
+        assertThat(fired).hasSize(count).isSorted();
+        assertThat(fired.get(early - 1)).isLessThanOrEqualTo(SPAN / 3);
+        assertThat(fired.get(early)).isGreaterThan(SPAN / 3);
+        assertThat(wheel.size()).isZero();
+    }
+
+    private void schedule(long deadline) {
+        wheel.schedule(new TimingWheel.Node<>(deadline), deadline);
+    }
+}
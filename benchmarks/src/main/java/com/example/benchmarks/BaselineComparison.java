@@ -0,0 +1,114 @@
+package com.example.benchmarks;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Compares two JMH JSON result files benchmark by benchmark (name + params).
+ * Both the primary score (direction taken from the mode: throughput higher is better, time lower is better)
+ * and the normalized allocation per operation reported by the GC profiler are checked.
+ * A benchmark of the current run that the baseline lacks is reported as such and fails the comparison,
+ * so new or renamed benchmarks cannot pass unchecked; baseline entries not run this time are ignored,
+ * as a run may select benchmarks by regex.
+ */
+public final class BaselineComparison {
+
+    private static final String ALLOCATION = "gc.alloc.rate.norm";
+    private static final double ALLOCATION_NOISE_BYTES = 16;
+
+    private final List<Row> rows;
+    private final List<String> missing;
+
+    private BaselineComparison(List<Row> rows, List<String> missing) {
+        this.rows = rows;
+        this.missing = missing;
+    }
+
+    public static BaselineComparison compare(Path baseline, Path current, double tolerance) throws IOException {
+        Map<String, JsonNode> before = index(baseline);
+        Map<String, JsonNode> after = index(current);
+        List<Row> rows = new ArrayList<>();
+        List<String> missing = new ArrayList<>();
+        after.forEach((key, result) -> {
+            JsonNode previous = before.get(key);
+            if (previous != null) {
+                rows.add(Row.of(key, previous, result, tolerance));
+            } else {
+                missing.add(key);
+            }
+        });
+        return new BaselineComparison(rows, missing);
+    }
+
+    public boolean hasRegressions() {
+        return rows.stream().anyMatch(Row::regressed);
+    }
+
+    /**
+     * Whether benchmarks of the current run have no baseline to be compared with.
+     */
+    public boolean hasMissingBaselines() {
+        return !missing.isEmpty();
+    }
+
+    public void print(PrintStream out) {
+        out.printf("%-100s %14s %14s %8s %12s %12s%n", "Benchmark", "Baseline", "Current", "Delta", "Alloc B/op", "Was B/op");
+        for (Row row : rows) {
+            out.printf("%-100s %14.3f %14.3f %+7.1f%% %12.1f %12.1f %s%n",
+                    row.key(), row.baselineScore(), row.score(), row.delta() * 100,
+                    row.allocation(), row.baselineAllocation(), row.regressed() ? "REGRESSION" : "");
+        }
+        for (String key : missing) {
+            out.printf("%-100s %14s %14s %8s %12s %12s %s%n", key, "-", "-", "-", "-", "-", "NO BASELINE");
+        }
+    }
+
+    private static Map<String, JsonNode> index(Path file) throws IOException {
+        Map<String, JsonNode> results = new LinkedHashMap<>();
+        for (JsonNode result : new ObjectMapper().readTree(file.toFile())) {
+            Map<String, String> params = new TreeMap<>();
+            result.path("params").fields().forEachRemaining(e -> params.put(e.getKey(), e.getValue().asText()));
+            results.put(result.path("benchmark").asText() + (params.isEmpty() ? "" : " " + params), result);
+        }
+        return results;
+    }
+
+    private static double allocationOf(JsonNode result) {
+        for (var it = result.path("secondaryMetrics").fields(); it.hasNext(); ) {
+            var metric = it.next();
+            // older JMH versions prefix secondary metrics with a middle dot
+            if (metric.getKey().replace("·", "").equals(ALLOCATION)) {
+                return metric.getValue().path("score").asDouble();
+            }
+        }
+        return Double.NaN;
+    }
+
+    private record Row(String key, double baselineScore, double score, double delta,
+                       double baselineAllocation, double allocation, boolean regressed) {
+
+        static Row of(String key, JsonNode baseline, JsonNode current, double tolerance) {
+            boolean higherIsBetter = "thrpt".equals(current.path("mode").asText());
+            double before = baseline.path("primaryMetric").path("score").asDouble();
+            double after = current.path("primaryMetric").path("score").asDouble();
+            double delta = before == 0 ? 0 : (after - before) / before;
+            boolean slower = higherIsBetter ? delta < -tolerance : delta > tolerance;
+
+            double allocationBefore = allocationOf(baseline);
+            double allocationAfter = allocationOf(current);
+            boolean allocatesMore = !Double.isNaN(allocationBefore) && !Double.isNaN(allocationAfter)
+                    && allocationAfter - allocationBefore > Math.max(ALLOCATION_NOISE_BYTES, allocationBefore * tolerance);
+
+            return new Row(key, before, after, delta, allocationBefore, allocationAfter, slower || allocatesMore);
+        }
+    }
+}
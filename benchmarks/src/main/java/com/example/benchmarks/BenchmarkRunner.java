@@ -0,0 +1,67 @@
+package com.example.benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * Runs the benchmarks with the GC profiler, writes the JSON results and compares them with the stored baseline.
+ * Any JMH command line option can be passed (e.g. a benchmark regex, -f, -wi, -i).
+ * <ul>
+ *     <li>-Dbenchmarks.result=target/jmh-result.json - where the results of this run are written</li>
+ *     <li>-Dbenchmarks.baseline=baseline/jmh-baseline.json - the baseline to compare with</li>
+ *     <li>-Dbenchmarks.tolerance=0.10 - accepted relative regression of score and normalized allocation</li>
+ *     <li>-Dbenchmarks.update-baseline=true - replace the baseline with this run instead of comparing</li>
+ * </ul>
+ * Exits with 1 when a benchmark regressed beyond the tolerance or has no baseline entry.
+ */
+public final class BenchmarkRunner {
+
+    private BenchmarkRunner() {
+    }
+
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException, IOException {
+        Path result = Path.of(System.getProperty("benchmarks.result", "target/jmh-result.json"));
+        Path baseline = Path.of(System.getProperty("benchmarks.baseline", "baseline/jmh-baseline.json"));
+        double tolerance = Double.parseDouble(System.getProperty("benchmarks.tolerance", "0.10"));
+        boolean updateBaseline = Boolean.getBoolean("benchmarks.update-baseline");
+
+        Files.createDirectories(result.toAbsolutePath().getParent());
+        Options options = new OptionsBuilder()
+                .parent(new CommandLineOptions(args))
+                .addProfiler(GCProfiler.class)
+                .resultFormat(ResultFormatType.JSON)
+                .result(result.toString())
+                .build();
+        new Runner(options).run();
+
+        if (updateBaseline) {
+            Files.createDirectories(baseline.toAbsolutePath().getParent());
+            Files.copy(result, baseline, StandardCopyOption.REPLACE_EXISTING);
+            System.out.println("Baseline updated: " + baseline);
+            return;
+        }
+        if (!Files.exists(baseline)) {
+            System.out.println("No baseline at " + baseline + ", run with -Dbenchmarks.update-baseline=true to create one");
+            return;
+        }
+        BaselineComparison comparison = BaselineComparison.compare(baseline, result, tolerance);
+        comparison.print(System.out);
+        if (comparison.hasMissingBaselines()) {
+            System.out.println("Benchmarks without a baseline entry, run with -Dbenchmarks.update-baseline=true to add them");
+        }
+        if (comparison.hasRegressions() || comparison.hasMissingBaselines()) {
+            System.exit(1);
+        }
+    }
+}
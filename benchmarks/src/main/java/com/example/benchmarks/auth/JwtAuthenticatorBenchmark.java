@@ -0,0 +1,66 @@
+package com.example.benchmarks.auth;
+
+import com.example.auth.service.jwt.JwtAuthenticator;
+import com.example.auth.service.jwt.JwtPrincipal;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.crypto.RSASSASigner;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jose.jwk.gen.RSAKeyGenerator;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.core.io.ByteArrayResource;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link JwtAuthenticator#authenticate} of a bearer header with an RS256 token, answered from the
+ * verified-token cache ({@code CACHED}) vs. parsed and signature-checked every time ({@code VERIFIED}).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtAuthenticatorBenchmark {
+
+    public enum Cache { CACHED, VERIFIED }
+
+    @Param({"CACHED", "VERIFIED"})
+    public Cache cache;
+
+    private JwtAuthenticator authenticator;
+    private String header;
+
+    @Setup
+    public void setUp() throws Exception {
+        RSAKey key = new RSAKeyGenerator(2048).keyID("bench").generate();
+        ByteArrayResource jwkSet = new ByteArrayResource(
+                new JWKSet(key.toPublicJWK()).toString().getBytes(StandardCharsets.UTF_8));
+        authenticator = new JwtAuthenticator(jwkSet, List.of("RS256"), "", "", "permissions", "tenant_id",
+                Duration.ofSeconds(30), cache == Cache.CACHED ? 10_000 : 0, Duration.ofMinutes(5), Duration.ofSeconds(30),
+                null);
+
+        JWTClaimsSet claims = new JWTClaimsSet.Builder()
+                .subject("jane")
+                .claim("tenant_id", 42)
+                .claim("permissions", List.of("payments.ledger", "analytics.dashboard.user"))
+                .expirationTime(new Date(System.currentTimeMillis() + TimeUnit.HOURS.toMillis(1)))
+                .build();
+        SignedJWT jwt = new SignedJWT(new JWSHeader.Builder(JWSAlgorithm.RS256).keyID("bench").build(), claims);
+        jwt.sign(new RSASSASigner(key));
+        header = "Bearer " + jwt.serialize();
+    }
+
+    @Benchmark
+    public JwtPrincipal authenticate() {
+        return authenticator.authenticate(header, 7);
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.benchmarks.config;
+
+import com.example.core.config.SpringSecurityAuditorAware;
+import com.example.core.rbac.context.RequestContext;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link SpringSecurityAuditorAware#getCurrentAuditor()} as called by the auditing listener on every insert and update,
+ * by security context principal type, and with the principal on a bound {@link RequestContext}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AuditorAwareBenchmark {
+
+    public enum Principal { USER_DETAILS, USERNAME, ANONYMOUS, REQUEST_CONTEXT }
+
+    @Param({"USER_DETAILS", "USERNAME", "ANONYMOUS", "REQUEST_CONTEXT"})
+    public Principal principal;
+
+    private SpringSecurityAuditorAware auditorAware;
+    private RequestContext context;
+
+    @Setup
+    public void setUp() {
+        auditorAware = new SpringSecurityAuditorAware();
+        SecurityContextHolder.clearContext();
+        switch (principal) {
+            case USER_DETAILS -> SecurityContextHolder.getContext().setAuthentication(
+                    new UsernamePasswordAuthenticationToken(new User("jane", "", List.of()), null, List.of()));
+            case USERNAME -> SecurityContextHolder.getContext().setAuthentication(
+                    new UsernamePasswordAuthenticationToken("jane", null, List.of()));
+            case ANONYMOUS -> {
+            }
+            case REQUEST_CONTEXT -> context = RequestContext.of(7, "bench").withPrincipal("jane", null, Set.of());
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Benchmark
+    public Optional<String> getCurrentAuditor() throws Exception {
+        return context == null ? auditorAware.getCurrentAuditor() : context.call(auditorAware::getCurrentAuditor);
+    }
+}
@@ -0,0 +1,27 @@
+package com.example.benchmarks.controller;
+
+import com.example.core.base.response.ControllerResponse;
+import com.example.core.controller.BaseController;
+import org.springframework.data.domain.Page;
+import org.springframework.http.ResponseEntity;
+
+import java.time.Clock;
+import java.util.concurrent.Executor;
+
+/**
+ * Exposes the protected {@link BaseController} envelope helpers to the benchmarks.
+ */
+class EnvelopeController extends BaseController {
+
+    EnvelopeController(Clock clock, Executor executor) {
+        super(clock, executor);
+    }
+
+    <T> ResponseEntity<ControllerResponse<T>> okResponse(T data, String message) {
+        return ok(data, message);
+    }
+
+    <T> ResponseEntity<ControllerResponse<PageEnvelope<T>>> paginatedResponse(Page<T> page, String message) {
+        return paginated(page, message);
+    }
+}
@@ -0,0 +1,76 @@
+package com.example.benchmarks.controller;
+
+import com.example.core.base.enums.ResponseMessage;
+import com.example.core.base.enums.TenantStatus;
+import com.example.core.base.response.ControllerResponse;
+import com.example.core.base.vo.TenantData;
+import com.example.core.controller.BaseController.PageEnvelope;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.Clock;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Response envelope building ({@code BaseController.buildResponse} through {@code ok} / {@code paginated}),
+ * {@link PageEnvelope#from(Page)} and the Jackson serialization of the resulting {@link ControllerResponse}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ResponseEnvelopeBenchmark {
+
+    @Param({"20"})
+    public int pageSize;
+
+    private EnvelopeController controller;
+    private ObjectMapper objectMapper;
+    private TenantData tenant;
+    private Page<TenantData> page;
+
+    @Setup
+    public void setUp() {
+        controller = new EnvelopeController(Clock.systemUTC(), Runnable::run);
+        // Same defaults Spring Boot applies to the MVC ObjectMapper (java.time module, ISO dates)
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        tenant = new TenantData(1, "Apple Inc.", TenantStatus.ACTIVE, false);
+        List<TenantData> content = IntStream.range(0, pageSize)
+                .mapToObj(i -> new TenantData(i, "Tenant " + i, TenantStatus.ACTIVE, false))
+                .toList();
+        page = new PageImpl<>(content, PageRequest.of(3, pageSize, Sort.by("name")), 1_000);
+    }
+
+    @Benchmark
+    public ResponseEntity<ControllerResponse<TenantData>> buildResponse() {
+        return controller.okResponse(tenant, ResponseMessage.TENANT_FETCHED_SUCCESSFULLY.getValue());
+    }
+
+    @Benchmark
+    public byte[] buildAndSerializeResponse() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(
+                controller.okResponse(tenant, ResponseMessage.TENANT_FETCHED_SUCCESSFULLY.getValue()).getBody());
+    }
+
+    @Benchmark
+    public PageEnvelope<TenantData> pageEnvelopeFrom() {
+        return PageEnvelope.from(page);
+    }
+
+    @Benchmark
+    public byte[] buildAndSerializePage() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(
+                controller.paginatedResponse(page, ResponseMessage.TENANTS_FETCHED_SUCCESSFULLY.getValue()).getBody());
+    }
+}
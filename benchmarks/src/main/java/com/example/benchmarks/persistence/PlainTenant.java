@@ -0,0 +1,89 @@
+package com.example.benchmarks.persistence;
+
+import com.example.core.base.enums.TenantStatus;
+import jakarta.persistence.*;
+import org.hibernate.annotations.ColumnDefault;
+import org.springframework.data.annotation.CreatedBy;
+import org.springframework.data.annotation.CreatedDate;
+import org.springframework.data.annotation.LastModifiedBy;
+import org.springframework.data.annotation.LastModifiedDate;
+import org.springframework.data.jpa.domain.support.AuditingEntityListener;
+
+import java.time.OffsetDateTime;
+
+/**
+ * Field for field copy of {@link com.example.core.domain.entity.Tenant}, the columns of
+ * {@link com.example.core.domain.entity.AuditableEntity} included, compiled without bytecode
+ * enhancement, so the flush benchmark can compare both dirty checking strategies in one run.
+ */
+@Entity
+@Table(name = "BENCH_PLAIN_TENANT")
+@EntityListeners(AuditingEntityListener.class)
+public class PlainTenant {
+
+    @CreatedBy
+    @Column(name = "CREATED_BY", updatable = false, nullable = false, length = 50)
+    private String createdBy;
+
+    @CreatedDate
+    @Column(name = "CREATED_ON", updatable = false, nullable = false)
+    private OffsetDateTime createdOn;
+
+    @LastModifiedBy
+    @Column(name = "LAST_MODIFIED_BY", length = 50)
+    private String lastModifiedBy;
+
+    @LastModifiedDate
+    @Column(name = "LAST_MODIFIED_ON")
+    private OffsetDateTime lastModifiedOn;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "TNT_PK_ID")
+    private Integer id;
+
+    @Column(name = "NAME", nullable = false)
+    private String name;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "STATUS", nullable = false)
+    private TenantStatus status = TenantStatus.ACTIVE;
+
+    @Column(name = "TIME_ZONE")
+    private String timeZone;
+
+    @Column(name = "CONTACT_EMAIL")
+    private String contactEmail;
+
+    @Column(name = "IS_DELETED")
+    @ColumnDefault("0")
+    private boolean deleted;
+
+    public Integer getId() {
+        return id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public void setTimeZone(String timeZone) {
+        this.timeZone = timeZone;
+    }
+
+    public void setContactEmail(String contactEmail) {
+        this.contactEmail = contactEmail;
+    }
+
+    public void setCreatedBy(String createdBy) {
+        this.createdBy = createdBy;
+    }
+
+    public void setCreatedOn(OffsetDateTime createdOn) {
+        this.createdOn = createdOn;
+    }
+}
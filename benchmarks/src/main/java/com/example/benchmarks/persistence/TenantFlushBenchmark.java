@@ -0,0 +1,122 @@
+package com.example.benchmarks.persistence;
+
+import com.example.core.domain.entity.Tenant;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.Transaction;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.cfg.Configuration;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Flush cost of a large persistence context where only a handful of entities are dirty.
+ * ENHANCED uses the build-time enhanced {@link Tenant} (dirty tracking, only touched entities are inspected),
+ * PLAIN uses {@link PlainTenant}, which Hibernate has to diff field by field on every flush.
+ * Envers is switched off so both models pay for exactly the same SQL.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TenantFlushBenchmark {
+
+    public enum Model { ENHANCED, PLAIN }
+
+    @Param({"ENHANCED", "PLAIN"})
+    public Model model;
+
+    @Param({"1000", "10000"})
+    public int contextSize;
+
+    @Param({"0", "10"})
+    public int dirtyPerFlush;
+
+    private SessionFactory sessionFactory;
+    private Session session;
+    private Transaction transaction;
+    private List<Tenant> tenants;
+    private List<PlainTenant> plainTenants;
+    private int cursor;
+    private long round;
+
+    @Setup(Level.Trial)
+    public void setUpTrial() {
+        sessionFactory = new Configuration()
+                .addAnnotatedClass(Tenant.class)
+                .addAnnotatedClass(PlainTenant.class)
+                .setProperty(AvailableSettings.JAKARTA_JDBC_URL, "jdbc:h2:mem:flush;MODE=MySQL;DB_CLOSE_DELAY=-1")
+                .setProperty(AvailableSettings.HBM2DDL_AUTO, "create-drop")
+                .setProperty(AvailableSettings.STATEMENT_BATCH_SIZE, "50")
+                .setProperty(AvailableSettings.SHOW_SQL, "false")
+                .setProperty("hibernate.integration.envers.enabled", "false")
+                .buildSessionFactory();
+
+        sessionFactory.inTransaction(s -> {
+            for (int i = 0; i < contextSize; i++) {
+                if (model == Model.ENHANCED) {
+                    Tenant tenant = new Tenant();
+                    tenant.setName("tenant-" + i);
+                    tenant.setTimeZone("UTC");
+                    tenant.setContactEmail("tenant-" + i + "@example.com");
+                    tenant.setCreatedBy("benchmark");
+                    tenant.setCreatedOn(OffsetDateTime.now());
+                    s.persist(tenant);
+                } else {
+                    PlainTenant tenant = new PlainTenant();
+                    tenant.setName("tenant-" + i);
+                    tenant.setTimeZone("UTC");
+                    tenant.setContactEmail("tenant-" + i + "@example.com");
+                    tenant.setCreatedBy("benchmark");
+                    tenant.setCreatedOn(OffsetDateTime.now());
+                    s.persist(tenant);
+                }
+                if (i % 500 == 0) {
+                    s.flush();
+                    s.clear();
+                }
+            }
+        });
+    }
+
+    @Setup(Level.Iteration)
+    public void openContext() {
+        session = sessionFactory.openSession();
+        transaction = session.beginTransaction();
+        if (model == Model.ENHANCED) {
+            tenants = session.createSelectionQuery("from Tenant", Tenant.class).getResultList();
+        } else {
+            plainTenants = session.createSelectionQuery("from PlainTenant", PlainTenant.class).getResultList();
+        }
+    }
+
+    @Benchmark
+    public void flushFewDirty() {
+        round++;
+        for (int i = 0; i < dirtyPerFlush; i++) {
+            int index = cursor++ % contextSize;
+            if (model == Model.ENHANCED) {
+                tenants.get(index).setName("tenant-" + index + "-" + round);
+            } else {
+                plainTenants.get(index).setName("tenant-" + index + "-" + round);
+            }
+        }
+        session.flush();
+    }
+
+    @TearDown(Level.Iteration)
+    public void closeContext() {
+        transaction.rollback();
+        session.close();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDownTrial() {
+        sessionFactory.close();
+    }
+}
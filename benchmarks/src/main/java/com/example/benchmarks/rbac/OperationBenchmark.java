@@ -0,0 +1,65 @@
+package com.example.benchmarks.rbac;
+
+import com.example.core.rbac.enums.Operation;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * RBAC url matching against the precomputed prefix and grant tables the request filters use, and
+ * the url listing of the {@link Operation} tree from the root module. {@link Operation#findByUrl}
+ * is measured for two hits at different depths and a miss, which compares every prefix; each
+ * trial first checks that the url resolves as expected.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OperationBenchmark {
+
+    private static final List<String> GRANTED_KEYS = List.of("payments.ledger", "analytics.dashboard.user");
+
+    @State(Scope.Benchmark)
+    public static class Request {
+
+        private static final Map<String, Optional<Operation>> EXPECTED = Map.of(
+                "/v1/analytics/dashboards/42", Optional.of(Operation.DASHBOARD_USER),
+                "/v1/admin/analytics/datasource/7/columns", Optional.of(Operation.DATASOURCE_ADMIN),
+                "/v1/unknown/1", Optional.empty());
+
+        @Param({
+                "/v1/analytics/dashboards/42",
+                "/v1/admin/analytics/datasource/7/columns",
+                "/v1/unknown/1"
+        })
+        public String url;
+
+        @Setup
+        public void checkMatch() {
+            Optional<Operation> found = Operation.findByUrl(url);
+            if (!found.equals(EXPECTED.get(url))) {
+                throw new IllegalStateException(url + " resolves to " + found + ", expected " + EXPECTED.get(url));
+            }
+        }
+    }
+
+    @Benchmark
+    public Optional<Operation> findByUrl(Request request) {
+        return Operation.findByUrl(request.url);
+    }
+
+    @Benchmark
+    public Set<Operation> grantsOf() {
+        return Operation.grantsOf(GRANTED_KEYS);
+    }
+
+    @Benchmark
+    public List<String> getAllUrls() {
+        return Operation.ANALYTICS.getAllUrls();
+    }
+}
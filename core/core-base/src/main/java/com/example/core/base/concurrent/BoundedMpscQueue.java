@@ -0,0 +1,127 @@
+package com.example.core.base.concurrent;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Consumer;
+
+/**
+ * Bounded, lock-free multi-producer / single-consumer ring buffer (sequence per slot, after D. Vyukov).
+ * Producers never block: {@link #offer} and {@link #offerAll} fail when the ring is full, which is the
+ * backpressure signal. A batch is reserved atomically, either all of its elements are enqueued or none.
+ * Only one thread may call {@link #drain} at a time.
+ */
+public final class BoundedMpscQueue<E> {
+
+    private final int capacity;
+    private final int mask;
+    private final AtomicReferenceArray<E> slots;
+    private final AtomicLongArray sequences;
+    private final AtomicLong tail = new AtomicLong();
+    private volatile long head;
+
+    /**
+     * @param capacity rounded up to the next power of two
+     */
+    public BoundedMpscQueue(int capacity) {
+        if (capacity < 2) {
+            throw new IllegalArgumentException("capacity must be at least 2");
+        }
+        this.capacity = Integer.highestOneBit(capacity - 1) << 1;
+        this.mask = this.capacity - 1;
+        this.slots = new AtomicReferenceArray<>(this.capacity);
+        this.sequences = new AtomicLongArray(this.capacity);
+        for (int i = 0; i < this.capacity; i++) {
+            sequences.set(i, i);
+        }
+    }
+
+    public boolean offer(E element) {
+        long position = reserve(1);
+        if (position < 0) {
+            return false;
+        }
+        publish(position, element);
+        return true;
+    }
+
+    /**
+     * Enqueues all elements or, when there is not enough free space, none of them.
+     */
+    public boolean offerAll(List<? extends E> elements) {
+        int count = elements.size();
+        if (count == 0) {
+            return true;
+        }
+        if (count > capacity) {
+            return false;
+        }
+        long position = reserve(count);
+        if (position < 0) {
+            return false;
+        }
+        for (int i = 0; i < count; i++) {
+            publish(position + i, elements.get(i));
+        }
+        return true;
+    }
+
+    /**
+     * Hands up to {@code max} published elements to the consumer, in order. Single consumer thread only.
+     *
+     * @return the number of elements drained
+     */
+    public int drain(Consumer<? super E> consumer, int max) {
+        long position = head;
+        int drained = 0;
+        while (drained < max) {
+            int index = (int) (position & mask);
+            if (sequences.get(index) != position + 1) {
+                break;
+            }
+            E element = slots.get(index);
+            slots.lazySet(index, null);
+            sequences.lazySet(index, position + capacity);
+            consumer.accept(element);
+            position++;
+            drained++;
+        }
+        head = position;
+        return drained;
+    }
+
+    public int size() {
+        return (int) Math.max(0, Math.min(capacity, tail.get() - head));
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    /**
+     * Claims {@code count} consecutive slots. The slots are freed in order, so the last one being free
+     * means all of them are.
+     *
+     * @return the first claimed position or -1 when the ring is full
+     */
+    private long reserve(int count) {
+        while (true) {
+            long position = tail.get();
+            long last = position + count - 1;
+            long sequence = sequences.get((int) (last & mask));
+            if (sequence < last) {
+                return -1;
+            }
+            if (sequence == last && tail.compareAndSet(position, position + count)) {
+                return position;
+            }
+        }
+    }
+
+    private void publish(long position, E element) {
+        int index = (int) (position & mask);
+        slots.set(index, element);
+        sequences.set(index, position + 1);
+    }
+}
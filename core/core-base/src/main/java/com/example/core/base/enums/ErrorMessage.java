@@ -7,7 +7,22 @@ import lombok.Getter;
 @Getter
 public enum ErrorMessage {
 
-    TENANT_CREATION_FAILED("Tenant creation failed");
+    TENANT_CREATION_FAILED("Tenant creation failed"),
+    EVENT_BUFFER_FULL("Event buffer is full, retry after %d seconds"),
+    TENANT_ID_REQUIRED("tenantId is required"),
+    TENANT_ID_INVALID("X-TENANT-ID must be a positive integer"),
+    LEDGER_BUSY("Ledger is busy, retry after %d seconds"),
+    LEDGER_UNAVAILABLE("Ledger is unavailable"),
+    SETTLEMENT_IN_PROGRESS("A settlement run is already in progress"),
+    SETTLEMENT_NOT_FOUND("No settlement run since startup"),
+    AUTHENTICATION_REQUIRED("A bearer token is required"),
+    OPERATION_NOT_GRANTED("Operation %s is not granted"),
+    OPERATION_NOT_MAPPED("No operation guards %s"),
+    TENANT_NOT_GRANTED("Tenant %d is not the tenant of the token"),
+    SESSION_NOT_ACTIVE("Session is revoked or expired"),
+    SESSION_NOT_FOUND("Session not found with id %s"),
+    SESSION_TOKEN_NOT_ACCEPTED("Sessions are opened with a token of the identity provider, not with a session token"),
+    REFRESH_TOKEN_INVALID("Refresh token is invalid, replaced or expired");
 
     private final String value;
 
@@ -13,7 +13,23 @@ public enum ResponseMessage {
     TENANT_FETCHED_SUCCESSFULLY("Tenant fetched successfully"),
     TENANTS_FETCHED_SUCCESSFULLY("Tenants fetched successfully"),
     ALL_TENANTS_FETCHED_SUCCESSFULLY("All tenants fetched successfully"),
-    TENANT_NOT_FOUND("Tenant not found with id %s");
+    TENANT_NOT_FOUND("Tenant not found with id %s"),
+    EVENTS_ACCEPTED("%d events accepted"),
+    INGESTION_STATS_FETCHED_SUCCESSFULLY("Ingestion statistics fetched successfully"),
+    METRIC_SERIES_FETCHED_SUCCESSFULLY("Metric series fetched successfully"),
+    DATASOURCE_QUERY_EXECUTED_SUCCESSFULLY("Datasource query executed successfully"),
+    SEGMENTS_FETCHED_SUCCESSFULLY("Segments fetched successfully"),
+    SEGMENT_SEAL_REQUESTED("Segment seal requested"),
+    LEDGER_TRANSACTION_POSTED("Ledger transaction %d posted"),
+    BALANCES_FETCHED_SUCCESSFULLY("Balances fetched successfully"),
+    LEDGER_STATS_FETCHED_SUCCESSFULLY("Ledger statistics fetched successfully"),
+    LEDGER_SNAPSHOT_REQUESTED("Ledger snapshot requested"),
+    SETTLEMENT_STARTED("Settlement run %s started"),
+    SETTLEMENT_FETCHED_SUCCESSFULLY("Settlement run fetched successfully"),
+    SESSION_CREATED("Session created"),
+    SESSION_REFRESHED("Session refreshed"),
+    SESSION_REVOKED("Session %s revoked"),
+    SESSION_STATS_FETCHED_SUCCESSFULLY("Session statistics fetched successfully");
 
     private final String value;
 
@@ -3,6 +3,7 @@ package com.example.core.base.vo;
 import com.example.core.base.enums.TenantStatus;
 import lombok.Builder;
 import lombok.Value;
+import lombok.extern.jackson.Jacksonized;
 
 import java.util.Optional;
 
@@ -11,6 +12,7 @@ import java.util.Optional;
  */
 @Value
 @Builder
+@Jacksonized
 public class TenantSearchData implements ValueObject {
     String name;
     TenantStatus status;
@@ -0,0 +1,158 @@
+package com.example.core.base.concurrent;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class BoundedMpscQueueTest {
+
+    @Test
+    void roundsCapacityUpToAPowerOfTwo() {
+        assertThat(new BoundedMpscQueue<>(2).capacity()).isEqualTo(2);
+        assertThat(new BoundedMpscQueue<>(5).capacity()).isEqualTo(8);
+        assertThat(new BoundedMpscQueue<>(1024).capacity()).isEqualTo(1024);
+        assertThatThrownBy(() -> new BoundedMpscQueue<>(1)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void drainsInOfferOrderUpToMax() {
+        BoundedMpscQueue<Integer> queue = new BoundedMpscQueue<>(8);
+        for (int i = 0; i < 5; i++) {
+            assertThat(queue.offer(i)).isTrue();
+        }
+        List<Integer> drained = new ArrayList<>();
+
+        assertThat(queue.drain(drained::add, 3)).isEqualTo(3);
+        assertThat(drained).containsExactly(0, 1, 2);
+        assertThat(queue.size()).isEqualTo(2);
+
+        assertThat(queue.drain(drained::add, 10)).isEqualTo(2);
+        assertThat(drained).containsExactly(0, 1, 2, 3, 4);
+        assertThat(queue.drain(drained::add, 10)).isZero();
+        assertThat(queue.size()).isZero();
+    }
+
+    @Test
+    void rejectsOffersWhenFullAndAcceptsAgainAfterDrain() {
+        BoundedMpscQueue<Integer> queue = new BoundedMpscQueue<>(4);
+        for (int i = 0; i < 4; i++) {
+            assertThat(queue.offer(i)).isTrue();
+        }
+        assertThat(queue.offer(4)).isFalse();
+        assertThat(queue.size()).isEqualTo(4);
+
+        List<Integer> drained = new ArrayList<>();
+        queue.drain(drained::add, 1);
+        assertThat(queue.offer(4)).isTrue();
+        assertThat(queue.offer(5)).isFalse();
+        queue.drain(drained::add, 10);
+        assertThat(drained).containsExactly(0, 1, 2, 3, 4);
+    }
+
+    @Test
+    void keepsOrderOverManyWrapArounds() {
+        BoundedMpscQueue<Integer> queue = new BoundedMpscQueue<>(4);
+        List<Integer> drained = new ArrayList<>();
+        int next = 0;
+        for (int round = 0; round < 1_000; round++) {
+            int batch = 1 + round % 4;
+            for (int i = 0; i < batch; i++) {
+                assertThat(queue.offer(next++)).isTrue();
+            }
+            queue.drain(drained::add, batch);
+        }
+        assertThat(drained).hasSize(next);
+        for (int i = 0; i < next; i++) {
+            assertThat(drained.get(i)).isEqualTo(i);
+        }
+    }
+
+    @Test
+    void offersBatchesAllOrNothing() {
+        BoundedMpscQueue<Integer> queue = new BoundedMpscQueue<>(8);
+        assertThat(queue.offerAll(List.of())).isTrue();
+        assertThat(queue.offerAll(List.of(0, 1, 2, 3, 4))).isTrue();
+
+        assertThat(queue.offerAll(List.of(5, 6, 7, 8))).isFalse();
+        assertThat(queue.size()).isEqualTo(5);
+        assertThat(queue.offerAll(List.of(5, 6, 7))).isTrue();
+        assertThat(queue.offerAll(List.of(0, 1, 2, 3, 4, 5, 6, 7, 8))).isFalse();
+
+        List<Integer> drained = new ArrayList<>();
+        queue.drain(drained::add, 100);
+        assertThat(drained).containsExactly(0, 1, 2, 3, 4, 5, 6, 7);
+    }
+
+    @Test
+    void concurrentProducersKeepTheirOrderAndBatchesStayContiguous() throws InterruptedException {
+        int producers = 4;
+        int batchesPerProducer = 20_000;
+        int batchSize = 3;
+        BoundedMpscQueue<long[]> queue = new BoundedMpscQueue<>(256);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>();
+        for (int p = 0; p < producers; p++) {
+            int producer = p;
+            Thread thread = new Thread(() -> {
+                await(start);
+                for (int b = 0; b < batchesPerProducer; b++) {
+                    List<long[]> batch = new ArrayList<>(batchSize);
+                    for (int i = 0; i < batchSize; i++) {
+                        batch.add(new long[]{producer, b, i});
+                    }
+                    while (!queue.offerAll(batch)) {
+                        Thread.yield();
+                    }
+                }
+            });
+            thread.start();
+            threads.add(thread);
+        }
+
+        long[] nextBatch = new long[producers];
+        long expected = (long) producers * batchesPerProducer * batchSize;
+        long[] received = {0};
+        long[][] previous = {null};
+        start.countDown();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        while (received[0] < expected && System.nanoTime() < deadline) {
+            int drained = queue.drain(element -> {
+                int producer = (int) element[0];
+                if (element[2] == 0) {
+                    assertThat(element[1]).isEqualTo(nextBatch[producer]);
+                } else {
+                    assertThat(previous[0]).containsExactly(element[0], element[1], element[2] - 1);
+                }
+                if (element[2] == batchSize - 1) {
+                    nextBatch[producer]++;
+                }
+                previous[0] = element;
+                received[0]++;
+            }, 1_024);
+            if (drained == 0) {
+                Thread.yield();
+            }
+        }
+        for (Thread thread : threads) {
+            thread.join(TimeUnit.SECONDS.toMillis(5));
+        }
+
+        assertThat(received[0]).isEqualTo(expected);
+        assertThat(nextBatch).containsOnly(batchesPerProducer);
+        assertThat(queue.size()).isZero();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -1,10 +1,23 @@
 package com.example.core.config;
 
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.data.auditing.DateTimeProvider;
 import org.springframework.data.jpa.repository.config.EnableJpaAuditing;
 
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.Optional;
+
 @Configuration
-@EnableJpaAuditing(auditorAwareRef = "auditorAware")
+@EnableJpaAuditing(auditorAwareRef = "auditorAware", dateTimeProviderRef = "auditingDateTimeProvider")
 class AuditingConfig {
 
-}
\ No newline at end of file
+    /**
+     * Audit columns are OffsetDateTime, which the default (LocalDateTime based) provider cannot convert to.
+     */
+    @Bean
+    DateTimeProvider auditingDateTimeProvider() {
+        return () -> Optional.of(OffsetDateTime.now(ZoneOffset.UTC));
+    }
+}
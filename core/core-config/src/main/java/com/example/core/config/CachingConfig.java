@@ -0,0 +1,14 @@
+package com.example.core.config;
+
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Node-local Caffeine caches from spring.cache.*; other nodes' writes reach them through the cache
+ * outbox. The expire-after-write of the spec bounds how long a stale value can outlive a missed
+ * invalidation.
+ */
+@Configuration
+@EnableCaching
+class CachingConfig {
+}
@@ -1,5 +1,6 @@
 package com.example.core.config;
 
+import com.example.core.rbac.context.RequestContext;
 import org.springframework.data.domain.AuditorAware;
 import org.springframework.lang.NonNull;
 import org.springframework.security.core.Authentication;
@@ -10,12 +11,25 @@ import org.springframework.stereotype.Component;
 
 import java.util.Optional;
 
+/**
+ * Auditor of the bound {@link RequestContext}, which also reaches work handed to executors, and
+ * otherwise the principal of the thread's {@link SecurityContextHolder}.
+ */
 @Component("auditorAware")
 public class SpringSecurityAuditorAware implements AuditorAware<String> {
 
+    /**
+     * Auditor recorded when there is no authenticated principal (jobs, unauthenticated endpoints).
+     */
+    public static final String SYSTEM_AUDITOR = "system";
+
     @Override
     @NonNull
     public Optional<String> getCurrentAuditor() {
+        String auditor = RequestContext.current().getPrincipal();
+        if (auditor != null) {
+            return Optional.of(auditor);
+        }
         return Optional.ofNullable(SecurityContextHolder.getContext())
                 .map(SecurityContext::getAuthentication)
                 .filter(Authentication::isAuthenticated)
@@ -27,6 +41,7 @@ public class SpringSecurityAuditorAware implements AuditorAware<String> {
                         return username;
                     }
                     return null;
-                });
+                })
+                .or(() -> Optional.of(SYSTEM_AUDITOR));
     }
 }
\ No newline at end of file
@@ -0,0 +1,178 @@
+package com.example.core.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springdoc.core.models.GroupedOpenApi;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Serves the OpenAPI documents generated at build time (mvn -Popenapi package) instead of
+ * letting springdoc scan the controllers at runtime. Every {@link GroupedOpenApi} group is read once
+ * from classpath:openapi/{group}.json (and .json.gz), the ETag is a hash of the content so it is the same
+ * on every node and across restarts. The gzip representation has its own ETag ({@code -gz} suffix),
+ * and every response, 304 included, varies by Accept-Encoding.
+ * Enable with app.openapi.static.enabled=true together with springdoc.api-docs.enabled=false.
+ */
+@RestController
+@ConditionalOnProperty(name = "app.openapi.static.enabled", havingValue = "true")
+public class StaticOpenApiController {
+
+    private static final Logger log = LoggerFactory.getLogger(StaticOpenApiController.class);
+    private static final String LOCATION = "openapi/";
+    private static final CacheControl CACHE_CONTROL = CacheControl.maxAge(1, TimeUnit.DAYS).cachePublic();
+
+    private final Map<String, Document> documents;
+
+    public StaticOpenApiController(List<GroupedOpenApi> groups) {
+        this.documents = groups.stream()
+                .map(GroupedOpenApi::getGroup)
+                .map(StaticOpenApiController::load)
+                .filter(document -> document != null)
+                .collect(Collectors.toUnmodifiableMap(Document::group, Function.identity()));
+        log.info("Serving pre-built OpenAPI documents for groups {}", documents.keySet());
+    }
+
+    @GetMapping(path = "${springdoc.api-docs.path:/v3/api-docs}/{group}", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<byte[]> apiDocs(@PathVariable String group,
+                                          @RequestHeader(name = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+                                          @RequestHeader(name = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        Document document = documents.get(group);
+        if (document == null) {
+            return ResponseEntity.notFound().build();
+        }
+        boolean gzip = document.gzip() != null && acceptsGzip(acceptEncoding);
+        String etag = gzip ? document.gzipEtag() : document.etag();
+        if (matches(ifNoneMatch, etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(etag)
+                    .cacheControl(CACHE_CONTROL)
+                    .varyBy(HttpHeaders.ACCEPT_ENCODING)
+                    .build();
+        }
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(CACHE_CONTROL)
+                .varyBy(HttpHeaders.ACCEPT_ENCODING)
+                .contentType(MediaType.APPLICATION_JSON);
+        if (gzip) {
+            return builder.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(document.gzip());
+        }
+        return builder.body(document.json());
+    }
+
+    /**
+     * Weak comparison against every entity tag of an If-None-Match list, {@code *} matching any.
+     */
+    static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.equals("*")) {
+                return true;
+            }
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Whether gzip (or x-gzip, or {@code *} when gzip is not listed) is acceptable with a quality above zero.
+     */
+    static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        double gzip = -1;
+        double any = -1;
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parameters = coding.split(";");
+            String name = parameters[0].trim().toLowerCase(Locale.ROOT);
+            if (name.equals("gzip") || name.equals("x-gzip")) {
+                gzip = Math.max(gzip, quality(parameters));
+            } else if (name.equals("*")) {
+                any = Math.max(any, quality(parameters));
+            }
+        }
+        return gzip >= 0 ? gzip > 0 : any > 0;
+    }
+
+    private static double quality(String[] parameters) {
+        for (int i = 1; i < parameters.length; i++) {
+            String parameter = parameters[i].trim();
+            if (parameter.length() > 2 && (parameter.charAt(0) == 'q' || parameter.charAt(0) == 'Q')
+                    && parameter.charAt(1) == '=') {
+                try {
+                    return Double.parseDouble(parameter.substring(2).trim());
+                } catch (NumberFormatException e) {
+                    return 0;
+                }
+            }
+        }
+        return 1;
+    }
+
+    private static Document load(String group) {
+        byte[] json = read(LOCATION + group + ".json");
+        if (json == null) {
+            log.warn("No pre-built OpenAPI document for group '{}', build with -Popenapi", group);
+            return null;
+        }
+        String hash = hash(json);
+        return new Document(group, json, read(LOCATION + group + ".json.gz"), "\"" + hash + "\"",
+                "\"" + hash + "-gz\"");
+    }
+
+    private static byte[] read(String path) {
+        ClassPathResource resource = new ClassPathResource(path);
+        if (!resource.exists()) {
+            return null;
+        }
+        try (InputStream in = resource.getInputStream()) {
+            return in.readAllBytes();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read " + path, e);
+        }
+    }
+
+    private static String hash(byte[] content) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(content);
+            return HexFormat.of().formatHex(digest, 0, 16);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private record Document(String group, byte[] json, byte[] gzip, String etag, String gzipEtag) {
+    }
+}
@@ -0,0 +1,83 @@
+package com.example.core.config;
+
+import org.junit.jupiter.api.Test;
+import org.springdoc.core.models.GroupedOpenApi;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class StaticOpenApiControllerTest {
+
+    private final StaticOpenApiController controller = new StaticOpenApiController(List.of(
+            GroupedOpenApi.builder().group("test").pathsToMatch("/**").build(),
+            GroupedOpenApi.builder().group("missing").pathsToMatch("/**").build()));
+
+    @Test
+    void servesEachRepresentationWithItsOwnETag() {
+        ResponseEntity<byte[]> identity = controller.apiDocs("test", null, null);
+        ResponseEntity<byte[]> gzip = controller.apiDocs("test", null, "br, gzip;q=0.5");
+
+        assertThat(identity.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(identity.getHeaders().get(HttpHeaders.CONTENT_ENCODING)).isNull();
+        assertThat(identity.getHeaders().getVary()).containsExactly(HttpHeaders.ACCEPT_ENCODING);
+        assertThat(gzip.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(gzip.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING)).isEqualTo("gzip");
+        assertThat(gzip.getHeaders().getVary()).containsExactly(HttpHeaders.ACCEPT_ENCODING);
+
+        String identityTag = identity.getHeaders().getETag();
+        assertThat(identityTag).startsWith("\"").endsWith("\"");
+        assertThat(gzip.getHeaders().getETag()).isEqualTo(identityTag.substring(0, identityTag.length() - 1) + "-gz\"");
+        assertThat(gzip.getBody()).isNotEqualTo(identity.getBody());
+    }
+
+    @Test
+    void answersNotModifiedForAMatchInTheListOrAWeakTag() {
+        String etag = controller.apiDocs("test", null, null).getHeaders().getETag();
+
+        ResponseEntity<byte[]> notModified = controller.apiDocs("test", "\"other\", " + etag, null);
+
+        assertThat(notModified.getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+        assertThat(notModified.getBody()).isNull();
+        assertThat(notModified.getHeaders().getETag()).isEqualTo(etag);
+        assertThat(notModified.getHeaders().getVary()).containsExactly(HttpHeaders.ACCEPT_ENCODING);
+        assertThat(controller.apiDocs("test", "W/" + etag, null).getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+        assertThat(controller.apiDocs("test", "*", null).getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+        assertThat(controller.apiDocs("test", "\"other\"", null).getStatusCode()).isEqualTo(HttpStatus.OK);
+    }
+
+    @Test
+    void theIdentityETagDoesNotValidateTheGzipRepresentation() {
+        String etag = controller.apiDocs("test", null, null).getHeaders().getETag();
+        String gzipTag = controller.apiDocs("test", null, "gzip").getHeaders().getETag();
+
+        ResponseEntity<byte[]> gzip = controller.apiDocs("test", etag, "gzip");
+
+        assertThat(gzip.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(gzip.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING)).isEqualTo("gzip");
+        assertThat(controller.apiDocs("test", gzipTag, "gzip").getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+        assertThat(controller.apiDocs("test", gzipTag, null).getStatusCode()).isEqualTo(HttpStatus.OK);
+    }
+
+    @Test
+    void answersNotFoundForGroupsWithoutADocument() {
+        assertThat(controller.apiDocs("missing", null, null).getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+        assertThat(controller.apiDocs("unknown", null, null).getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+    }
+
+    @Test
+    void parsesAcceptEncodingQualities() {
+        assertThat(StaticOpenApiController.acceptsGzip(null)).isFalse();
+        assertThat(StaticOpenApiController.acceptsGzip("gzip")).isTrue();
+        assertThat(StaticOpenApiController.acceptsGzip("deflate, GZIP ;Q=0.8")).isTrue();
+        assertThat(StaticOpenApiController.acceptsGzip("x-gzip")).isTrue();
+        assertThat(StaticOpenApiController.acceptsGzip("gzip;q=0")).isFalse();
+        assertThat(StaticOpenApiController.acceptsGzip("gzip;q=0.0, *")).isFalse();
+        assertThat(StaticOpenApiController.acceptsGzip("*;q=0.1")).isTrue();
+        assertThat(StaticOpenApiController.acceptsGzip("br, identity")).isFalse();
+        assertThat(StaticOpenApiController.acceptsGzip("gzip;q=abc")).isFalse();
+    }
+}
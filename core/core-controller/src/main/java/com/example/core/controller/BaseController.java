@@ -1,6 +1,8 @@
 package com.example.core.controller;
 
+import com.example.core.base.enums.ErrorMessage;
 import com.example.core.base.response.ControllerResponse;
+import com.example.core.rbac.context.RequestContext;
 import lombok.Getter;
 import org.springframework.data.domain.Page;
 import org.springframework.http.HttpHeaders;
@@ -10,6 +12,7 @@ import org.springframework.http.ResponseEntity;
 
 import java.net.URI;
 import java.time.Clock;
+import java.time.Duration;
 import java.time.Instant;
 import java.util.List;
 import java.util.Objects;
@@ -23,7 +26,7 @@ import java.util.function.Supplier;
  * - Success responses use ControllerResponse<T>.
  * - Error responses recommend ProblemDetail (RFC7807). Prefer handling via @ControllerAdvice.
  * - Proper HTTP semantics for 201/204.
- * - Async helpers use a managed Executor.
+ * - Async helpers use a managed Executor and run with the caller's RequestContext.
  * - Pagination returns a stable API DTO, not Spring Data Page directly.
  */
 public abstract class BaseController {
@@ -36,7 +39,7 @@ public abstract class BaseController {
      */
     protected BaseController(Clock clock, Executor executor) {
         this.clock = Objects.requireNonNullElse(clock, Clock.systemUTC());
-        this.executor = Objects.requireNonNull(executor, "executor must not be null");
+        this.executor = RequestContext.propagating(Objects.requireNonNull(executor, "executor must not be null"));
     }
 
     /**
@@ -44,7 +47,8 @@ public abstract class BaseController {
      */
     protected BaseController() {
         this.clock = Clock.systemUTC();
-        this.executor = CompletableFuture.delayedExecutor(0, java.util.concurrent.TimeUnit.MILLISECONDS);
+        this.executor = RequestContext.propagating(
+                CompletableFuture.delayedExecutor(0, java.util.concurrent.TimeUnit.MILLISECONDS));
     }
 
 
@@ -79,6 +83,13 @@ public abstract class BaseController {
     }
 
 
+    /**
+     * 202 Accepted with body, for work that completes after the response.
+     */
+    protected <T> ResponseEntity<ControllerResponse<T>> accepted(T data, String message) {
+        return buildResponse(HttpStatus.ACCEPTED, message, data, null);
+    }
+
     /**
      * 204 No Content – no "body" per RFC. Use for deletes or idempotent operations.
      */
@@ -139,6 +150,21 @@ public abstract class BaseController {
         return problem(HttpStatus.FORBIDDEN, "Forbidden", detail);
     }
 
+    /**
+     * Whether the request may act for {@code tenantId}, see {@link RequestContext#actsFor}.
+     * User endpoints naming a tenant answer {@link #tenantNotGranted} otherwise.
+     */
+    protected boolean actsFor(Integer tenantId) {
+        return RequestContext.current().actsFor(tenantId);
+    }
+
+    /**
+     * 403 Forbidden for a tenant the request may not act for.
+     */
+    protected ResponseEntity<ProblemDetail> tenantNotGranted(Integer tenantId) {
+        return forbidden(ErrorMessage.TENANT_NOT_GRANTED.getValue().formatted(tenantId));
+    }
+
     /**
      * 404 Not Found with ProblemDetail body.
      */
@@ -153,6 +179,16 @@ public abstract class BaseController {
         return problem(HttpStatus.CONFLICT, "Conflict", detail);
     }
 
+    /**
+     * 429 Too Many Requests with ProblemDetail body and Retry-After header.
+     */
+    protected ResponseEntity<ProblemDetail> tooManyRequests(String detail, Duration retryAfter) {
+        ResponseEntity<ProblemDetail> problem = problem(HttpStatus.TOO_MANY_REQUESTS, "Too Many Requests", detail);
+        return ResponseEntity.status(problem.getStatusCode())
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1, retryAfter.toSeconds())))
+                .body(problem.getBody());
+    }
+
     /**
      * 500 Internal Server Error with ProblemDetail body.
      */
@@ -185,9 +221,10 @@ public abstract class BaseController {
 
     /**
      * If you already have a CompletionStage (e.g., from service layer), map it to an OK envelope.
+     * The mapping runs with the caller's RequestContext, whichever thread completes the stage.
      */
     protected <T> CompletionStage<ResponseEntity<ControllerResponse<T>>> fromStage(CompletionStage<T> stage, String message) {
-        return stage.thenApply(result -> ok(result, message));
+        return stage.thenApply(RequestContext.wrap(result -> ok(result, message)));
     }
 
     /**
@@ -55,7 +55,7 @@ public class TenantController extends BaseController {
     @DeleteMapping("/{id}")
     @Operation(
             summary = "Delete a tenant by ID",
-            description = "Permanently deletes a tenant record from the database."
+            description = "Soft deletes a tenant: it is flagged as deleted with status DELETED and kept in the database."
     )
     public ResponseEntity<ControllerResponse<Void>> delete(@PathVariable Integer id) {
         tenantService.deleteTenant(id);
@@ -0,0 +1,325 @@
+package com.example.core.controller.accesslog;
+
+import com.example.core.base.concurrent.BoundedMpscQueue;
+import com.example.core.rbac.enums.Operation;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Structured access log written off the request threads.
+ * <p>
+ * A request thread only builds an {@link AccessRecord} and offers it to a lock-free queue; it
+ * never formats, locks or touches a file. One writer thread drains the queue, maps each path to
+ * its {@link Operation}, encodes the records as JSON lines into a reused buffer and appends them
+ * to {@code access-<seq>.log} files in the directory, rolled by size, keeping the newest
+ * {@code max-files}.
+ * <p>
+ * While the queue is fuller than the sample threshold, only one in {@code sample-every} ordinary
+ * requests is kept, with {@code sample} telling how many it stands for; server errors and slow
+ * requests are always kept. Records that do not fit into a full queue are dropped and counted.
+ */
+@Component
+@ConditionalOnProperty(name = "app.access-log.enabled", havingValue = "true", matchIfMissing = true)
+public class AccessLog implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(AccessLog.class);
+    private static final int BUFFER_BYTES = 256 * 1024;
+    private static final int MAX_BATCH = 4096;
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+    private static final byte[] HEX = "0123456789abcdef".getBytes();
+
+    private final Path directory;
+    private final long maxFileBytes;
+    private final int maxFiles;
+    private final int sampleFrom;
+    private final int sampleEvery;
+    private final long slowNanos;
+    private final BoundedMpscQueue<AccessRecord> queue;
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_BYTES);
+    private final byte[] digits = new byte[20];
+    private final Counter written;
+    private final Counter sampledOut;
+    private final Counter dropped;
+
+    private Thread writer;
+    private volatile boolean running;
+    private FileChannel channel;
+    private long fileBytes;
+    private long sequence;
+    private int pending;
+    private boolean failing;
+
+    public AccessLog(MeterRegistry registry,
+                     @Value("${app.access-log.directory:logs/access}") Path directory,
+                     @Value("${app.access-log.queue-capacity:65536}") int queueCapacity,
+                     @Value("${app.access-log.max-file-size:64MB}") DataSize maxFileSize,
+                     @Value("${app.access-log.max-files:10}") int maxFiles,
+                     @Value("${app.access-log.sample-threshold:0.5}") double sampleThreshold,
+                     @Value("${app.access-log.sample-every:10}") int sampleEvery,
+                     @Value("${app.access-log.slow-threshold:1s}") Duration slowThreshold) {
+        this.directory = directory;
+        this.maxFileBytes = maxFileSize.toBytes();
+        this.maxFiles = maxFiles;
+        this.queue = new BoundedMpscQueue<>(queueCapacity);
+        this.sampleFrom = (int) (queue.capacity() * sampleThreshold);
+        this.sampleEvery = Math.max(1, sampleEvery);
+        this.slowNanos = slowThreshold.toNanos();
+
+        this.written = Counter.builder("core.access-log.written")
+                .description("Access log records written").register(registry);
+        this.sampledOut = Counter.builder("core.access-log.sampled-out")
+                .description("Requests left out of the access log by load sampling").register(registry);
+        this.dropped = Counter.builder("core.access-log.dropped")
+                .description("Access log records dropped because the queue was full or the file unwritable").register(registry);
+    }
+
+    /**
+     * Records a completed request unless sampling leaves it out. Never blocks.
+     *
+     * @param path path within the application
+     */
+    public void log(String method, String path, Integer tenantId, String correlationId, int status, long latencyNanos,
+                    int sqlCount) {
+        int sample = 1;
+        if (queue.size() >= sampleFrom && status < 500 && latencyNanos < slowNanos && sampleEvery > 1) {
+            if (ThreadLocalRandom.current().nextInt(sampleEvery) != 0) {
+                sampledOut.increment();
+                return;
+            }
+            sample = sampleEvery;
+        }
+        AccessRecord record = new AccessRecord(System.currentTimeMillis(), method, path, tenantId, correlationId,
+                status, latencyNanos, sqlCount, sample);
+        if (!running || !queue.offer(record)) {
+            dropped.increment();
+        }
+    }
+
+    @Override
+    public void start() {
+        try {
+            Files.createDirectories(directory);
+            try (Stream<Path> files = Files.list(directory)) {
+                sequence = files.map(AccessLog::sequenceOf).flatMap(Optional::stream).mapToLong(Long::longValue)
+                        .max().orElse(-1) + 1;
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot open the access log directory " + directory, e);
+        }
+        running = true;
+        writer = new Thread(this::writeLoop, "access-log-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        try {
+            writer.join(TimeUnit.SECONDS.toMillis(10));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Below the web server, so the last requests are written before the writer stops.
+     */
+    @Override
+    public int getPhase() {
+        return SmartLifecycle.DEFAULT_PHASE - 4096;
+    }
+
+    private void writeLoop() {
+        Consumer<AccessRecord> encoder = this::encode;
+        while (true) {
+            boolean stopping = !running;
+            int drained = queue.drain(encoder, MAX_BATCH);
+            if (drained > 0) {
+                flush();
+            } else if (stopping) {
+                close();
+                return;
+            } else {
+                LockSupport.parkNanos(IDLE_PARK_NANOS);
+            }
+        }
+    }
+
+    private void encode(AccessRecord record) {
+        int worstCase = 256 + 6 * (record.path().length() + record.method().length()
+                + (record.correlationId() == null ? 0 : record.correlationId().length()));
+        if (buffer.remaining() < worstCase) {
+            flush();
+            if (buffer.remaining() < worstCase) {
+                dropped.increment();
+                return;
+            }
+        }
+        ascii("{\"ts\":");
+        number(record.timestamp());
+        ascii(",\"method\":");
+        string(record.method());
+        ascii(",\"path\":");
+        string(record.path());
+        ascii(",\"op\":");
+        Optional<Operation> operation = Operation.findByUrl(record.path());
+        if (operation.isPresent()) {
+            string(operation.get().getKey());
+        } else {
+            ascii("null");
+        }
+        ascii(",\"tenant\":");
+        if (record.tenantId() != null) {
+            number(record.tenantId());
+        } else {
+            ascii("null");
+        }
+        ascii(",\"status\":");
+        number(record.status());
+        ascii(",\"latency_us\":");
+        number(record.latencyNanos() / 1000);
+        ascii(",\"sql\":");
+        number(record.sqlCount());
+        ascii(",\"sample\":");
+        number(record.sample());
+        if (record.correlationId() != null) {
+            ascii(",\"cid\":");
+            string(record.correlationId());
+        }
+        ascii("}\n");
+        pending++;
+    }
+
+    private void ascii(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            buffer.put((byte) value.charAt(i));
+        }
+    }
+
+    private void number(long value) {
+        if (value < 0) {
+            buffer.put((byte) '-');
+            value = -value;
+        }
+        int position = digits.length;
+        do {
+            digits[--position] = (byte) ('0' + value % 10);
+            value /= 10;
+        } while (value != 0);
+        buffer.put(digits, position, digits.length - position);
+    }
+
+    /**
+     * JSON string; quotes, backslashes, control and non-ASCII characters are escaped, so every
+     * char takes at most six bytes.
+     */
+    private void string(String value) {
+        buffer.put((byte) '"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                buffer.put((byte) '\\').put((byte) c);
+            } else if (c < 0x20 || c > 0x7e) {
+                buffer.put((byte) '\\').put((byte) 'u')
+                        .put(HEX[c >> 12 & 0xf]).put(HEX[c >> 8 & 0xf]).put(HEX[c >> 4 & 0xf]).put(HEX[c & 0xf]);
+            } else {
+                buffer.put((byte) c);
+            }
+        }
+        buffer.put((byte) '"');
+    }
+
+    private void flush() {
+        buffer.flip();
+        try {
+            if (channel == null || fileBytes + buffer.remaining() > maxFileBytes) {
+                roll();
+            }
+            while (buffer.hasRemaining()) {
+                fileBytes += channel.write(buffer);
+            }
+            written.increment(pending);
+            failing = false;
+        } catch (IOException e) {
+            if (!failing) {
+                log.error("Failed to write the access log, dropping records until it recovers", e);
+                failing = true;
+            }
+            dropped.increment(pending);
+            close();
+        } finally {
+            buffer.clear();
+            pending = 0;
+        }
+    }
+
+    private void roll() throws IOException {
+        close();
+        Path file = directory.resolve("access-%06d.log".formatted(sequence++));
+        channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        fileBytes = channel.size();
+        prune();
+    }
+
+    private void prune() throws IOException {
+        List<Path> files;
+        try (Stream<Path> listing = Files.list(directory)) {
+            files = listing.filter(path -> sequenceOf(path).isPresent()).sorted().toList();
+        }
+        for (int i = 0; i < files.size() - maxFiles; i++) {
+            Files.deleteIfExists(files.get(i));
+        }
+    }
+
+    private void close() {
+        if (channel == null) {
+            return;
+        }
+        try {
+            channel.close();
+        } catch (IOException e) {
+            log.warn("Failed to close the access log file", e);
+        }
+        channel = null;
+    }
+
+    private static Optional<Long> sequenceOf(Path path) {
+        String name = path.getFileName().toString();
+        if (!name.startsWith("access-") || !name.endsWith(".log")) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(Long.parseLong(name, 7, name.length() - 4, 10));
+        } catch (NumberFormatException e) {
+            return Optional.empty();
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.example.core.controller.accesslog;
+
+import com.example.core.rbac.context.RequestContext;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.UrlPathHelper;
+
+import java.io.IOException;
+
+/**
+ * Outermost filter feeding the {@link AccessLog}: measures each request from entry to completion,
+ * counts the SQL statements run on the request thread, and takes tenant and correlation id from
+ * the {@link RequestContext} the inner filters stored on the request. Requests that go async are
+ * recorded when the async processing completes.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+@ConditionalOnProperty(name = "app.access-log.enabled", havingValue = "true", matchIfMissing = true)
+public class AccessLogFilter extends OncePerRequestFilter {
+
+    private final AccessLog accessLog;
+
+    public AccessLogFilter(AccessLog accessLog) {
+        this.accessLog = accessLog;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        long started = System.nanoTime();
+        int statementsBefore = SqlStatementCounter.count();
+        boolean failed = true;
+        try {
+            chain.doFilter(request, response);
+            failed = false;
+        } finally {
+            int statements = SqlStatementCounter.count() - statementsBefore;
+            if (!failed && request.isAsyncStarted()) {
+                request.getAsyncContext().addListener(new CompletionListener(started, statements));
+            } else {
+                record(request, failed ? HttpServletResponse.SC_INTERNAL_SERVER_ERROR : response.getStatus(),
+                        started, statements);
+            }
+        }
+    }
+
+    private void record(HttpServletRequest request, int status, long started, int statements) {
+        RequestContext context = request.getAttribute(RequestContext.ATTRIBUTE) instanceof RequestContext bound
+                ? bound : RequestContext.EMPTY;
+        accessLog.log(request.getMethod(), UrlPathHelper.defaultInstance.getPathWithinApplication(request),
+                context.getTenantId(), context.getCorrelationId(), status, System.nanoTime() - started, statements);
+    }
+
+    private final class CompletionListener implements AsyncListener {
+
+        private final long started;
+        private final int statements;
+
+        private CompletionListener(long started, int statements) {
+            this.started = started;
+            this.statements = statements;
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            HttpServletResponse response = (HttpServletResponse) event.getSuppliedResponse();
+            record((HttpServletRequest) event.getSuppliedRequest(), response.getStatus(), started, statements);
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.example.core.controller.accesslog;
+
+/**
+ * One request, as handed from the request thread to the {@link AccessLog} writer.
+ *
+ * @param timestamp    epoch milliseconds at completion
+ * @param path         path within the application, mapped to its operation by the writer
+ * @param latencyNanos time from entering the filter chain to completion
+ * @param sample       number of requests this record stands for, more than 1 when sampled
+ */
+record AccessRecord(long timestamp, String method, String path, Integer tenantId, String correlationId, int status,
+                    long latencyNanos, int sqlCount, int sample) {
+}
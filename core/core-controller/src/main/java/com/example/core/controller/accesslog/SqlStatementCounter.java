@@ -0,0 +1,25 @@
+package com.example.core.controller.accesslog;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Counts the SQL statements Hibernate prepares on each thread, for the access log. Statements run
+ * through {@code JdbcTemplate} are not seen.
+ */
+public final class SqlStatementCounter implements StatementInspector {
+
+    private static final ThreadLocal<int[]> COUNT = ThreadLocal.withInitial(() -> new int[1]);
+
+    @Override
+    public String inspect(String sql) {
+        COUNT.get()[0]++;
+        return sql;
+    }
+
+    /**
+     * @return statements prepared on this thread so far; callers take differences
+     */
+    public static int count() {
+        return COUNT.get()[0];
+    }
+}
@@ -0,0 +1,109 @@
+package com.example.core.controller.filter;
+
+import com.example.core.base.enums.ErrorMessage;
+import com.example.core.rbac.context.RequestContext;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ProblemDetail;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.net.URI;
+import java.time.Instant;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Captures the {@link RequestContext} of a request from the {@code X-TENANT-ID} and
+ * {@code X-Correlation-Id} headers and binds it for the rest of the chain. Authentication filters
+ * further down bind a copy with the principal. A correlation id is generated when none is sent,
+ * and echoed in the response either way.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 5)
+public class RequestContextCaptureFilter extends OncePerRequestFilter {
+
+    public static final String TENANT_HEADER = "X-TENANT-ID";
+    public static final String CORRELATION_HEADER = "X-Correlation-Id";
+
+    private static final int MAX_CORRELATION_LENGTH = 128;
+
+    private final ObjectMapper objectMapper;
+
+    public RequestContextCaptureFilter(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        Integer tenantId = null;
+        String tenant = request.getHeader(TENANT_HEADER);
+        if (tenant != null && !tenant.isBlank()) {
+            try {
+                tenantId = Integer.valueOf(tenant.trim());
+            } catch (NumberFormatException e) {
+                tenantId = -1;
+            }
+            if (tenantId <= 0) {
+                badRequest(request, response, ErrorMessage.TENANT_ID_INVALID.getValue());
+                return;
+            }
+        }
+        String correlationId = request.getHeader(CORRELATION_HEADER);
+        if (!isValidCorrelationId(correlationId)) {
+            correlationId = newCorrelationId();
+        }
+        response.setHeader(CORRELATION_HEADER, correlationId);
+
+        RequestContext context = RequestContext.of(tenantId, correlationId);
+        request.setAttribute(RequestContext.ATTRIBUTE, context);
+        try {
+            context.call(() -> {
+                chain.doFilter(request, response);
+                return null;
+            });
+        } catch (IOException | ServletException | RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new ServletException(e);
+        }
+    }
+
+    /**
+     * Echoed ids end up in logs and headers, so only short printable tokens are taken over.
+     */
+    private static boolean isValidCorrelationId(String value) {
+        if (value == null || value.isEmpty() || value.length() > MAX_CORRELATION_LENGTH) {
+            return false;
+        }
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (!(Character.isLetterOrDigit(c) && c < 0x80) && c != '-' && c != '_' && c != '.') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static String newCorrelationId() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return Long.toHexString(random.nextLong() | Long.MIN_VALUE) + Long.toHexString(random.nextLong() | Long.MIN_VALUE);
+    }
+
+    private void badRequest(HttpServletRequest request, HttpServletResponse response, String detail) throws IOException {
+        ProblemDetail problem = ProblemDetail.forStatusAndDetail(HttpStatus.BAD_REQUEST, detail);
+        problem.setInstance(URI.create(request.getRequestURI()));
+        problem.setProperty("timestamp", Instant.now().toString());
+        response.setStatus(HttpStatus.BAD_REQUEST.value());
+        response.setContentType(MediaType.APPLICATION_PROBLEM_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), problem);
+    }
+}
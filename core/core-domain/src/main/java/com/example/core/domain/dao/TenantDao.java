@@ -3,11 +3,12 @@ package com.example.core.domain.dao;
 import com.example.core.base.enums.TenantStatus;
 import com.example.core.domain.entity.Tenant;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 
 import java.util.List;
 import java.util.Optional;
 
-public interface TenantDao extends JpaRepository<Tenant, Integer> {
+public interface TenantDao extends JpaRepository<Tenant, Integer>, JpaSpecificationExecutor<Tenant> {
 
     Optional<Tenant> findByName(String name);
 
@@ -0,0 +1,37 @@
+package com.example.core.domain.dao;
+
+import com.example.core.base.enums.TenantStatus;
+import com.example.core.base.vo.TenantSearchData;
+import com.example.core.domain.entity.Tenant;
+import org.springframework.data.jpa.domain.Specification;
+
+/**
+ * Query building blocks for tenant searches.
+ */
+public final class TenantSpecifications {
+
+    private TenantSpecifications() {
+    }
+
+    /**
+     * Name contains (case-insensitive), status and deleted equal; absent criteria are not applied.
+     */
+    public static Specification<Tenant> matching(TenantSearchData searchData) {
+        return Specification.allOf(
+                searchData.getName().filter(name -> !name.isBlank()).map(TenantSpecifications::nameContains).orElse(null),
+                searchData.getStatus().map(TenantSpecifications::hasStatus).orElse(null),
+                searchData.getDeleted().map(TenantSpecifications::isDeleted).orElse(null));
+    }
+
+    public static Specification<Tenant> nameContains(String name) {
+        return (root, query, cb) -> cb.like(cb.lower(root.get("name")), "%" + name.toLowerCase() + "%");
+    }
+
+    public static Specification<Tenant> hasStatus(TenantStatus status) {
+        return (root, query, cb) -> cb.equal(root.get("status"), status);
+    }
+
+    public static Specification<Tenant> isDeleted(boolean deleted) {
+        return (root, query, cb) -> cb.equal(root.get("deleted"), deleted);
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.core.domain.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Last outbox id a node has applied. The lowest cursor of the live nodes bounds outbox
+ * compaction; rows of nodes that stopped updating are removed.
+ */
+@Entity
+@Table(name = "CORE_CACHE_OUTBOX_CURSOR")
+@Getter
+@Setter
+@Access(AccessType.FIELD)
+public class CacheOutboxCursor {
+
+    @Id
+    @Column(name = "NODE_ID", length = 128)
+    private String nodeId;
+
+    @Column(name = "LAST_ID", nullable = false)
+    private long lastId;
+
+    /**
+     * Epoch milliseconds of the node's last update.
+     */
+    @Column(name = "UPDATED_AT", nullable = false)
+    private long updatedAt;
+
+}
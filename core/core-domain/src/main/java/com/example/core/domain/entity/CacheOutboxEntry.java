@@ -0,0 +1,42 @@
+package com.example.core.domain.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Cache invalidation written in the same transaction as the change it announces. Rows are
+ * appended and tailed by {@code com.example.core.service.cache.CacheOutboxStore}; the mapping
+ * only describes the table.
+ */
+@Entity
+@Table(name = "CORE_CACHE_OUTBOX")
+@Getter
+@Setter
+@Access(AccessType.FIELD)
+public class CacheOutboxEntry {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "OUTBOX_ID")
+    private Long id;
+
+    @Column(name = "CACHE_NAME", nullable = false, length = 64)
+    private String cacheName;
+
+    /**
+     * Key to evict, absent to clear the whole cache.
+     */
+    @Column(name = "CACHE_KEY")
+    private String cacheKey;
+
+    @Column(name = "ORIGIN_NODE", nullable = false, length = 128)
+    private String originNode;
+
+    /**
+     * Epoch milliseconds on the writing node.
+     */
+    @Column(name = "CREATED_AT", nullable = false)
+    private long createdAt;
+
+}
@@ -2,10 +2,12 @@ package com.example.core.domain.entity;
 
 import com.example.core.base.enums.TenantStatus;
 import jakarta.persistence.*;
-import lombok.Data;
-import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
 import org.hibernate.annotations.ColumnDefault;
 import org.hibernate.envers.Audited;
+import org.hibernate.proxy.HibernateProxy;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 
 @Audited
@@ -13,8 +15,9 @@ import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 @Table(name = "CORE_TENANT", indexes = {
         @Index(name = "IDX_TENANT_STATUS", columnList = "STATUS"),
 })
-@Data
-@EqualsAndHashCode(callSuper = false)
+@Getter
+@Setter
+@ToString(callSuper = true)
 @Access(AccessType.FIELD)
 @EntityListeners(AuditingEntityListener.class)
 public class Tenant extends AuditableEntity {
@@ -41,5 +44,32 @@ public class Tenant extends AuditableEntity {
     @ColumnDefault("0")
     private boolean deleted;
 
-}
+    /**
+     * Identifier based equality. Proxies are compared through their lazy initializer,
+     * so neither side is ever initialized; transient instances are only equal to themselves.
+     */
+    @Override
+    public final boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null) return false;
+        Integer otherId;
+        if (o instanceof HibernateProxy proxy) {
+            if (proxy.getHibernateLazyInitializer().getPersistentClass() != Tenant.class) return false;
+            otherId = (Integer) proxy.getHibernateLazyInitializer().getIdentifier();
+        } else if (o instanceof Tenant other) {
+            otherId = other.getId();
+        } else {
+            return false;
+        }
+        return id != null && id.equals(otherId);
+    }
+
+    /**
+     * Constant per class so the hash stays stable when the identifier is assigned on persist.
+     */
+    @Override
+    public final int hashCode() {
+        return Tenant.class.hashCode();
+    }
 
+}
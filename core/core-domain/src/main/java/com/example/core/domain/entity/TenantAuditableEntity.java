@@ -4,17 +4,25 @@ import jakarta.persistence.FetchType;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.MappedSuperclass;
-import lombok.Data;
-import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
 import org.hibernate.envers.Audited;
 import org.hibernate.envers.RelationTargetAuditMode;
 
+/**
+ * Base class for tenant owned entities.
+ * Equality is left to the concrete entity (identifier based) and the tenant association
+ * is kept out of toString so neither ever triggers a load.
+ */
 @Audited
 @MappedSuperclass
-@Data
-@EqualsAndHashCode(callSuper = false)
+@Getter
+@Setter
+@ToString(callSuper = true)
 public class TenantAuditableEntity extends AuditableEntity {
 
+    @ToString.Exclude
     @Audited(targetAuditMode = RelationTargetAuditMode.NOT_AUDITED)
     @ManyToOne(optional = false, fetch = FetchType.EAGER)
     @JoinColumn(name = "TENANT_ID", referencedColumnName = "TNT_PK_ID")
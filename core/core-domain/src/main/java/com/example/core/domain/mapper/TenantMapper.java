@@ -0,0 +1,30 @@
+package com.example.core.domain.mapper;
+
+import com.example.core.base.vo.TenantData;
+import com.example.core.domain.entity.Tenant;
+import org.mapstruct.BeanMapping;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+import org.mapstruct.MappingConstants;
+import org.mapstruct.MappingTarget;
+import org.mapstruct.NullValuePropertyMappingStrategy;
+import org.mapstruct.ReportingPolicy;
+
+/**
+ * Maps Tenant entities to and from the TenantData API representation.
+ */
+@Mapper(componentModel = MappingConstants.ComponentModel.SPRING, unmappedTargetPolicy = ReportingPolicy.IGNORE)
+public interface TenantMapper {
+
+    TenantData toData(Tenant tenant);
+
+    @Mapping(target = "id", ignore = true)
+    @Mapping(target = "status", source = "status", defaultValue = "ACTIVE")
+    Tenant toEntity(TenantData tenantData);
+
+    @BeanMapping(ignoreByDefault = true, nullValuePropertyMappingStrategy = NullValuePropertyMappingStrategy.IGNORE)
+    @Mapping(target = "name", source = "name")
+    @Mapping(target = "status", source = "status")
+    @Mapping(target = "deleted", source = "deleted")
+    void update(TenantData tenantData, @MappingTarget Tenant tenant);
+}
@@ -0,0 +1,41 @@
+create table CORE_TENANT
+(
+    TNT_PK_ID        integer      not null auto_increment,
+    CREATED_BY       varchar(50)  not null,
+    CREATED_ON       datetime(6)  not null,
+    LAST_MODIFIED_BY varchar(50),
+    LAST_MODIFIED_ON datetime(6),
+    NAME             varchar(255) not null,
+    STATUS           enum ('ACTIVE','INACTIVE','SUSPENDED','DELETED') not null,
+    TIME_ZONE        varchar(255),
+    CONTACT_EMAIL    varchar(255),
+    IS_DELETED       bit default 0,
+    primary key (TNT_PK_ID)
+);
+
+create index IDX_TENANT_STATUS on CORE_TENANT (STATUS);
+
+create table REVINFO
+(
+    REV      integer not null auto_increment,
+    REVTSTMP bigint,
+    primary key (REV)
+);
+
+create table CORE_TENANT_AUD
+(
+    TNT_PK_ID        integer not null,
+    REV              integer not null,
+    REVTYPE          tinyint,
+    CREATED_BY       varchar(50),
+    CREATED_ON       datetime(6),
+    LAST_MODIFIED_BY varchar(50),
+    LAST_MODIFIED_ON datetime(6),
+    NAME             varchar(255),
+    STATUS           enum ('ACTIVE','INACTIVE','SUSPENDED','DELETED'),
+    TIME_ZONE        varchar(255),
+    CONTACT_EMAIL    varchar(255),
+    IS_DELETED       bit default 0,
+    primary key (REV, TNT_PK_ID),
+    constraint FK_CORE_TENANT_AUD_REV foreign key (REV) references REVINFO (REV)
+);
@@ -0,0 +1,17 @@
+create table CORE_CACHE_OUTBOX
+(
+    OUTBOX_ID   bigint       not null auto_increment,
+    CACHE_NAME  varchar(64)  not null,
+    CACHE_KEY   varchar(255),
+    ORIGIN_NODE varchar(128) not null,
+    CREATED_AT  bigint       not null,
+    primary key (OUTBOX_ID)
+);
+
+create table CORE_CACHE_OUTBOX_CURSOR
+(
+    NODE_ID    varchar(128) not null,
+    LAST_ID    bigint       not null,
+    UPDATED_AT bigint       not null,
+    primary key (NODE_ID)
+);
@@ -0,0 +1,188 @@
+package com.example.core.rbac.context;
+
+import com.example.core.rbac.enums.Operation;
+
+import java.util.Collections;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Who a request acts for: tenant, principal, granted operations and correlation id. A context is
+ * immutable and captured once per request; it is bound for the extent of a call, in the style of
+ * {@code ScopedValue.where(...).run(...)}, and every binding restores the previous one when the
+ * call returns.
+ * <p>
+ * Propagating to other threads copies one reference: {@link #wrap(Runnable)} and
+ * {@link #propagating(Executor)} capture the context when a task is submitted and bind it while
+ * the task runs. Nothing is left bound on a pooled thread afterwards, and since the value is
+ * immutable the same capture is safe on any number of threads, virtual ones included.
+ */
+public final class RequestContext {
+
+    public static final RequestContext EMPTY = new RequestContext(null, null, Set.of(), null);
+
+    /**
+     * Request attribute holding the context last bound for the request, for code that runs
+     * outside of the binding, such as access logging after the filter chain returned.
+     */
+    public static final String ATTRIBUTE = RequestContext.class.getName();
+
+    private static final ThreadLocal<RequestContext> CURRENT = new ThreadLocal<>();
+
+    private final Integer tenantId;
+    private final String principal;
+    private final Set<Operation> grants;
+    private final String correlationId;
+
+    private RequestContext(Integer tenantId, String principal, Set<Operation> grants, String correlationId) {
+        this.tenantId = tenantId;
+        this.principal = principal;
+        this.grants = grants;
+        this.correlationId = correlationId;
+    }
+
+    public static RequestContext of(Integer tenantId, String correlationId) {
+        return new RequestContext(tenantId, null, Set.of(), correlationId);
+    }
+
+    /**
+     * @return the bound context, or {@link #EMPTY} outside of any binding
+     */
+    public static RequestContext current() {
+        RequestContext context = CURRENT.get();
+        return context == null ? EMPTY : context;
+    }
+
+    /**
+     * Copy authenticated as {@code principal}, acting for the tenant the principal is bound to.
+     * The requested tenant is not taken over, so a token cannot be pointed at another tenant by
+     * header, and a principal bound to no tenant acts for none.
+     *
+     * @param grants granted operations, already expanded to their descendants; wrapped read-only, not copied
+     */
+    public RequestContext withPrincipal(String principal, Integer tenantId, Set<Operation> grants) {
+        return new RequestContext(tenantId, principal, Collections.unmodifiableSet(grants), correlationId);
+    }
+
+    /**
+     * Runs {@code action} with this context bound.
+     */
+    public void run(Runnable action) {
+        RequestContext previous = CURRENT.get();
+        CURRENT.set(this);
+        try {
+            action.run();
+        } finally {
+            restore(previous);
+        }
+    }
+
+    /**
+     * Calls {@code action} with this context bound.
+     */
+    public <T> T call(Callable<T> action) throws Exception {
+        RequestContext previous = CURRENT.get();
+        CURRENT.set(this);
+        try {
+            return action.call();
+        } finally {
+            restore(previous);
+        }
+    }
+
+    /**
+     * @return {@code action} bound to the current context
+     */
+    public static Runnable wrap(Runnable action) {
+        RequestContext context = CURRENT.get();
+        return context == null ? action : () -> context.run(action);
+    }
+
+    /**
+     * @return {@code supplier} bound to the current context
+     */
+    public static <T> Supplier<T> wrap(Supplier<T> supplier) {
+        RequestContext context = CURRENT.get();
+        return context == null ? supplier : () -> context.get(supplier);
+    }
+
+    /**
+     * @return {@code function} bound to the current context, for {@code CompletionStage}
+     * callbacks that may run on whichever thread completes the stage
+     */
+    public static <T, R> Function<T, R> wrap(Function<T, R> function) {
+        RequestContext context = CURRENT.get();
+        return context == null ? function : value -> context.get(() -> function.apply(value));
+    }
+
+    /**
+     * @return an executor running each task with the context current when it was submitted
+     */
+    public static Executor propagating(Executor executor) {
+        Objects.requireNonNull(executor, "executor must not be null");
+        return executor instanceof Propagating ? executor : new Propagating(executor);
+    }
+
+    public Integer getTenantId() {
+        return tenantId;
+    }
+
+    public String getPrincipal() {
+        return principal;
+    }
+
+    public Set<Operation> getGrants() {
+        return grants;
+    }
+
+    public String getCorrelationId() {
+        return correlationId;
+    }
+
+    public boolean grants(Operation operation) {
+        return grants.contains(operation);
+    }
+
+    /**
+     * Whether the request may act for {@code tenantId}: unauthenticated requests for any tenant,
+     * authenticated ones only for the tenant of their principal.
+     */
+    public boolean actsFor(Integer tenantId) {
+        return principal == null || (this.tenantId != null && this.tenantId.equals(tenantId));
+    }
+
+    @Override
+    public String toString() {
+        return "RequestContext[tenantId=" + tenantId + ", principal=" + principal + ", correlationId=" + correlationId + "]";
+    }
+
+    private <T> T get(Supplier<T> supplier) {
+        RequestContext previous = CURRENT.get();
+        CURRENT.set(this);
+        try {
+            return supplier.get();
+        } finally {
+            restore(previous);
+        }
+    }
+
+    private static void restore(RequestContext previous) {
+        if (previous == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(previous);
+        }
+    }
+
+    private record Propagating(Executor delegate) implements Executor {
+
+        @Override
+        public void execute(Runnable command) {
+            delegate.execute(wrap(command));
+        }
+    }
+}
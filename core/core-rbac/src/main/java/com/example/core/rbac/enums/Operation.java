@@ -2,9 +2,17 @@ package com.example.core.rbac.enums;
 
 import lombok.Getter;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Stream;
 
 /**
@@ -37,9 +45,88 @@ public enum Operation {
             List.of(),
             List.of(DATASOURCE_USER, DATASOURCE_ADMIN)),
 
+    EVENTS_USER("analytics.events.user",
+            List.of("/v1/analytics/events/**"),
+            List.of()),
+
+    EVENTS_ADMIN("analytics.events.admin",
+            List.of("/v1/admin/analytics/events/**"),
+            List.of(EVENTS_USER)),
+
+    EVENTS("analytics.events",
+            List.of(),
+            List.of(EVENTS_USER, EVENTS_ADMIN)),
+
     ANALYTICS("analytics",
             List.of(),
-            List.of(DASHBOARD, DATASOURCE));
+            List.of(DASHBOARD, DATASOURCE, EVENTS)),
+
+    LEDGER_USER("payments.ledger.user",
+            List.of("/v1/payments/ledger/**"),
+            List.of()),
+
+    LEDGER_ADMIN("payments.ledger.admin",
+            List.of("/v1/admin/payments/ledger/**"),
+            List.of(LEDGER_USER)),
+
+    LEDGER("payments.ledger",
+            List.of(),
+            List.of(LEDGER_USER, LEDGER_ADMIN)),
+
+    SETTLEMENT_ADMIN("payments.settlement.admin",
+            List.of("/v1/admin/payments/settlements/**"),
+            List.of()),
+
+    SETTLEMENT("payments.settlement",
+            List.of(),
+            List.of(SETTLEMENT_ADMIN)),
+
+    PAYMENTS("payments",
+            List.of(),
+            List.of(LEDGER, SETTLEMENT)),
+
+    SESSIONS_USER("auth.sessions.user",
+            List.of("/v1/auth/sessions/**"),
+            List.of()),
+
+    SESSIONS_ADMIN("auth.sessions.admin",
+            List.of("/v1/admin/auth/sessions/**"),
+            List.of(SESSIONS_USER)),
+
+    SESSIONS("auth.sessions",
+            List.of(),
+            List.of(SESSIONS_USER, SESSIONS_ADMIN)),
+
+    AUTH("auth",
+            List.of(),
+            List.of(SESSIONS)),
+
+    TENANTS_ADMIN("core.tenants.admin",
+            List.of("/v1/tenants/**"),
+            List.of()),
+
+    TENANTS("core.tenants",
+            List.of(),
+            List.of(TENANTS_ADMIN)),
+
+    CORE("core",
+            List.of(),
+            List.of(TENANTS));
+
+    private static final Map<String, Set<Operation>> GRANTS = new HashMap<>();
+    private static final List<Map.Entry<String, Operation>> URL_PREFIXES = new ArrayList<>();
+
+    static {
+        for (Operation operation : values()) {
+            EnumSet<Operation> granted = EnumSet.noneOf(Operation.class);
+            operation.collect(granted);
+            GRANTS.put(operation.key, Collections.unmodifiableSet(granted));
+            for (String url : operation.urls) {
+                URL_PREFIXES.add(Map.entry(url.endsWith("/**") ? url.substring(0, url.length() - 3) : url, operation));
+            }
+        }
+        URL_PREFIXES.sort(Comparator.comparingInt((Map.Entry<String, Operation> e) -> e.getKey().length()).reversed());
+    }
 
     private final String key;
     private final List<String> urls;
@@ -51,6 +138,12 @@ public enum Operation {
         this.children = children;
     }
 
+    private void collect(Set<Operation> into) {
+        if (into.add(this)) {
+            children.forEach(child -> child.collect(into));
+        }
+    }
+
     public boolean isComposite() {
         return !children.isEmpty();
     }
@@ -88,6 +181,36 @@ public enum Operation {
         return map;
     }
 
+    /**
+     * Operations granted by the given keys: each operation together with everything below it.
+     * The closures are computed once, so this is a map lookup and a union per key; unknown keys
+     * grant nothing.
+     */
+    public static Set<Operation> grantsOf(Collection<String> keys) {
+        EnumSet<Operation> granted = EnumSet.noneOf(Operation.class);
+        for (String key : keys) {
+            Set<Operation> closure = GRANTS.get(key);
+            if (closure != null) {
+                granted.addAll(closure);
+            }
+        }
+        return Collections.unmodifiableSet(granted);
+    }
+
+    /**
+     * The operation guarding a request path (without context path), by the longest matching url
+     * prefix, where {@code /v1/x/**} matches {@code /v1/x} and everything below it.
+     */
+    public static Optional<Operation> findByUrl(String path) {
+        for (Map.Entry<String, Operation> prefix : URL_PREFIXES) {
+            String url = prefix.getKey();
+            if (path.startsWith(url) && (path.length() == url.length() || path.charAt(url.length()) == '/')) {
+                return Optional.of(prefix.getValue());
+            }
+        }
+        return Optional.empty();
+    }
+
     public static List<Operation> findBySuffix(String suffix) {
         return Stream.of(values())
                 .filter(op -> op.getKey().endsWith(suffix))
@@ -103,7 +226,7 @@ public enum Operation {
     }
 
     public static List<Operation> modules() {
-        return List.of(ANALYTICS);
+        return List.of(ANALYTICS, PAYMENTS, AUTH, CORE);
     }
 
     public static List<Operation> features(Operation module) {
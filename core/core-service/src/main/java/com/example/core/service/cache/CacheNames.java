@@ -0,0 +1,13 @@
+package com.example.core.service.cache;
+
+/**
+ * Names of the caches kept on each node. Keys are strings, so that the invalidations published
+ * through {@link CacheOutbox} match them on every node.
+ */
+public final class CacheNames {
+
+    public static final String TENANTS = "tenants";
+
+    private CacheNames() {
+    }
+}
@@ -0,0 +1,74 @@
+package com.example.core.service.cache;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.StringUtils;
+
+import java.lang.management.ManagementFactory;
+import java.time.Clock;
+
+/**
+ * Publishes cache invalidations through CORE_CACHE_OUTBOX instead of a message broker. The entry
+ * is written in the transaction of the change, so it becomes visible to other nodes exactly when
+ * the change does, and never for a rolled back one. The writing node also evicts right after
+ * commit; every node, the writer included, evicts again when {@link CacheOutboxPoller} reads
+ * the entry, which also clears a stale value a concurrent read put back in between. A read that
+ * loaded the old value before the commit but puts it after the poller's eviction keeps it until
+ * the cache's expire-after-write, which is the backstop for such races and for missed entries.
+ */
+@Component
+public class CacheOutbox {
+
+    private final CacheOutboxStore store;
+    private final CacheManager cacheManager;
+    private final String nodeId;
+    private final Clock clock = Clock.systemUTC();
+
+    public CacheOutbox(CacheOutboxStore store,
+                       CacheManager cacheManager,
+                       @Value("${app.cache.outbox.node-id:}") String nodeId) {
+        this.store = store;
+        this.cacheManager = cacheManager;
+        this.nodeId = StringUtils.hasText(nodeId) ? nodeId : ManagementFactory.getRuntimeMXBean().getName();
+    }
+
+    /**
+     * Records that {@code key} of {@code cacheName} changes with the current transaction.
+     *
+     * @param key cache key, {@code null} to clear the whole cache
+     * @throws IllegalStateException outside of a transaction
+     */
+    public void publish(String cacheName, Object key) {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            throw new IllegalStateException("Cache invalidations must be published within the changing transaction");
+        }
+        String cacheKey = key == null ? null : key.toString();
+        store.append(cacheName, cacheKey, nodeId, clock.millis());
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                apply(cacheName, cacheKey);
+            }
+        });
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    void apply(String cacheName, String cacheKey) {
+        Cache cache = cacheManager.getCache(cacheName);
+        if (cache == null) {
+            return;
+        }
+        if (cacheKey == null) {
+            cache.clear();
+        } else {
+            cache.evict(cacheKey);
+        }
+    }
+}
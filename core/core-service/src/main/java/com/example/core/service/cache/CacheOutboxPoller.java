@@ -0,0 +1,199 @@
+package com.example.core.service.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tails CORE_CACHE_OUTBOX on every node and applies the invalidations to the local caches.
+ * <p>
+ * Entries are read by increasing id after the node's cursor. Ids are assigned at insert but
+ * become visible at commit, so a transaction may commit an id below one already read; ids
+ * skipped over are kept as gaps and looked up on each poll until they appear or the gap timeout
+ * passes, after which their transaction is taken to have rolled back. At most {@code MAX_GAPS}
+ * ids are awaited; ids skipped beyond that are counted as {@code core.cache.outbox.gaps-dropped}
+ * and logged, and only the caches' expire-after-write catches up with them.
+ * <p>
+ * Caches start empty, so a starting node skips the outbox except for the entries of the last gap
+ * timeout, which covers transactions still in flight with lower ids. The cursor is
+ * saved per node; whichever node finds compaction due deletes the entries all live nodes have
+ * applied once they are older than the retention, and forgets nodes silent for the node timeout.
+ * The time from writing an entry to applying it is recorded as {@code core.cache.outbox.lag}.
+ */
+@Component
+@ConditionalOnProperty(name = "app.cache.outbox.enabled", havingValue = "true", matchIfMissing = true)
+public class CacheOutboxPoller implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(CacheOutboxPoller.class);
+    private static final int MAX_GAPS = 1_000;
+
+    private final CacheOutbox outbox;
+    private final CacheOutboxStore store;
+    private final Clock clock = Clock.systemUTC();
+    private final Duration pollInterval;
+    private final int batchSize;
+    private final long gapTimeoutMillis;
+    private final long cursorIntervalMillis;
+    private final long compactIntervalMillis;
+    private final long retentionMillis;
+    private final long nodeTimeoutMillis;
+    private final Map<Long, Long> gaps = new HashMap<>();
+    private final Timer lag;
+    private final Counter applied;
+    private final Counter gapsDropped;
+
+    private ScheduledExecutorService poller;
+    private volatile boolean running;
+    private volatile int gapCount;
+    private long cursor;
+    private long savedCursor = -1;
+    private long cursorSavedAt;
+    private long compactedAt;
+
+    public CacheOutboxPoller(CacheOutbox outbox,
+                             CacheOutboxStore store,
+                             MeterRegistry registry,
+                             @Value("${app.cache.outbox.poll-interval:200ms}") Duration pollInterval,
+                             @Value("${app.cache.outbox.batch-size:500}") int batchSize,
+                             @Value("${app.cache.outbox.gap-timeout:30s}") Duration gapTimeout,
+                             @Value("${app.cache.outbox.cursor-interval:10s}") Duration cursorInterval,
+                             @Value("${app.cache.outbox.compact-interval:1m}") Duration compactInterval,
+                             @Value("${app.cache.outbox.retention:10m}") Duration retention,
+                             @Value("${app.cache.outbox.node-timeout:1h}") Duration nodeTimeout) {
+        this.outbox = outbox;
+        this.store = store;
+        this.pollInterval = pollInterval;
+        this.batchSize = batchSize;
+        this.gapTimeoutMillis = gapTimeout.toMillis();
+        this.cursorIntervalMillis = cursorInterval.toMillis();
+        this.compactIntervalMillis = compactInterval.toMillis();
+        this.retentionMillis = retention.toMillis();
+        this.nodeTimeoutMillis = nodeTimeout.toMillis();
+
+        this.lag = Timer.builder("core.cache.outbox.lag")
+                .description("Time from writing a cache invalidation to applying it on this node").register(registry);
+        this.applied = Counter.builder("core.cache.outbox.applied")
+                .description("Cache invalidations applied on this node").register(registry);
+        this.gapsDropped = Counter.builder("core.cache.outbox.gaps-dropped")
+                .description("Outbox ids skipped over but not awaited because too many gaps were open").register(registry);
+        Gauge.builder("core.cache.outbox.gaps", this, p -> p.gapCount)
+                .description("Outbox ids skipped over and still awaited").register(registry);
+    }
+
+    @Override
+    public void start() {
+        long now = clock.millis();
+        cursor = store.maxIdBefore(now - gapTimeoutMillis);
+        saveCursor(now);
+        compactedAt = now;
+        poller = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "cache-outbox");
+            thread.setDaemon(true);
+            return thread;
+        });
+        poller.scheduleWithFixedDelay(this::poll, pollInterval.toMillis(), pollInterval.toMillis(), TimeUnit.MILLISECONDS);
+        running = true;
+        log.info("Tailing the cache outbox from id {} as node {}", cursor, outbox.getNodeId());
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        poller.shutdown();
+        try {
+            poller.awaitTermination(1, TimeUnit.MINUTES);
+            saveCursor(clock.millis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException e) {
+            log.warn("Failed to save the cache outbox cursor on stop", e);
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Below the web server, so the last invalidations are applied before the caches go away.
+     */
+    @Override
+    public int getPhase() {
+        return SmartLifecycle.DEFAULT_PHASE - 4096;
+    }
+
+    void poll() {
+        try {
+            long now = clock.millis();
+            if (!gaps.isEmpty()) {
+                for (CacheOutboxStore.Entry entry : store.readIds(gaps.keySet())) {
+                    gaps.remove(entry.id());
+                    apply(entry, now);
+                }
+                gaps.values().removeIf(seenAt -> now - seenAt > gapTimeoutMillis);
+            }
+            List<CacheOutboxStore.Entry> entries;
+            long dropped = 0;
+            do {
+                entries = store.readAfter(cursor, batchSize);
+                for (CacheOutboxStore.Entry entry : entries) {
+                    long id = cursor + 1;
+                    for (; id < entry.id() && gaps.size() < MAX_GAPS; id++) {
+                        gaps.put(id, now);
+                    }
+                    dropped += entry.id() - id;
+                    apply(entry, now);
+                    cursor = entry.id();
+                }
+            } while (entries.size() == batchSize);
+            gapCount = gaps.size();
+            if (dropped > 0) {
+                gapsDropped.increment(dropped);
+                log.warn("Not awaiting {} skipped cache outbox ids beyond {} open gaps up to id {}, "
+                        + "their invalidations may only take effect by cache expiry", dropped, MAX_GAPS, cursor);
+            }
+
+            if (cursor != savedCursor || now - cursorSavedAt >= cursorIntervalMillis) {
+                saveCursor(now);
+            }
+            if (now - compactedAt >= compactIntervalMillis) {
+                compactedAt = now;
+                int deleted = store.compact(now - nodeTimeoutMillis, now - retentionMillis);
+                if (deleted > 0) {
+                    log.debug("Compacted {} cache outbox entries", deleted);
+                }
+            }
+        } catch (RuntimeException e) {
+            log.error("Cache outbox poll failed", e);
+        }
+    }
+
+    private void apply(CacheOutboxStore.Entry entry, long now) {
+        outbox.apply(entry.cacheName(), entry.cacheKey());
+        applied.increment();
+        lag.record(Math.max(0, now - entry.createdAt()), TimeUnit.MILLISECONDS);
+    }
+
+    private void saveCursor(long now) {
+        store.saveCursor(outbox.getNodeId(), cursor, now);
+        savedCursor = cursor;
+        cursorSavedAt = now;
+    }
+}
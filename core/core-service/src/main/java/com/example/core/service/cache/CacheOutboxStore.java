@@ -0,0 +1,87 @@
+package com.example.core.service.cache;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * JDBC access to CORE_CACHE_OUTBOX and the per-node cursors in CORE_CACHE_OUTBOX_CURSOR.
+ * Appends join the caller's transaction; everything else runs in its own.
+ */
+@Component
+public class CacheOutboxStore {
+
+    private static final String INSERT_SQL =
+            "insert into CORE_CACHE_OUTBOX (CACHE_NAME, CACHE_KEY, ORIGIN_NODE, CREATED_AT) values (?, ?, ?, ?)";
+    private static final String SELECT_COLUMNS = "select OUTBOX_ID, CACHE_NAME, CACHE_KEY, CREATED_AT from CORE_CACHE_OUTBOX";
+    private static final String TAIL_SQL = SELECT_COLUMNS + " where OUTBOX_ID > ? order by OUTBOX_ID limit ?";
+    private static final String MAX_ID_SQL = "select coalesce(max(OUTBOX_ID), 0) from CORE_CACHE_OUTBOX where CREATED_AT < ?";
+    private static final String UPDATE_CURSOR_SQL =
+            "update CORE_CACHE_OUTBOX_CURSOR set LAST_ID = ?, UPDATED_AT = ? where NODE_ID = ?";
+    private static final String INSERT_CURSOR_SQL =
+            "insert into CORE_CACHE_OUTBOX_CURSOR (NODE_ID, LAST_ID, UPDATED_AT) values (?, ?, ?)";
+    private static final String PRUNE_CURSORS_SQL = "delete from CORE_CACHE_OUTBOX_CURSOR where UPDATED_AT < ?";
+    private static final String MIN_CURSOR_SQL = "select min(LAST_ID) from CORE_CACHE_OUTBOX_CURSOR";
+    private static final String COMPACT_SQL = "delete from CORE_CACHE_OUTBOX where OUTBOX_ID <= ? and CREATED_AT < ?";
+    private static final RowMapper<Entry> ENTRY_MAPPER =
+            (rs, row) -> new Entry(rs.getLong(1), rs.getString(2), rs.getString(3), rs.getLong(4));
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public CacheOutboxStore(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public void append(String cacheName, String cacheKey, String originNode, long createdAt) {
+        jdbcTemplate.update(INSERT_SQL, cacheName, cacheKey, originNode, createdAt);
+    }
+
+    /**
+     * @return up to {@code limit} entries after {@code afterId}, ascending
+     */
+    public List<Entry> readAfter(long afterId, int limit) {
+        return jdbcTemplate.query(TAIL_SQL, ENTRY_MAPPER, afterId, limit);
+    }
+
+    public List<Entry> readIds(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        String placeholders = String.join(", ", Collections.nCopies(ids.size(), "?"));
+        return jdbcTemplate.query(SELECT_COLUMNS + " where OUTBOX_ID in (" + placeholders + ")", ENTRY_MAPPER,
+                ids.toArray());
+    }
+
+    /**
+     * @return the highest id written before {@code createdBefore}, 0 if none
+     */
+    public long maxIdBefore(long createdBefore) {
+        Long max = jdbcTemplate.queryForObject(MAX_ID_SQL, Long.class, createdBefore);
+        return max == null ? 0 : max;
+    }
+
+    public void saveCursor(String nodeId, long lastId, long now) {
+        if (jdbcTemplate.update(UPDATE_CURSOR_SQL, lastId, now, nodeId) == 0) {
+            jdbcTemplate.update(INSERT_CURSOR_SQL, nodeId, lastId, now);
+        }
+    }
+
+    /**
+     * Drops the cursors of nodes silent since {@code nodesSeenAfter}, then deletes the entries
+     * every remaining node has applied and that were written before {@code writtenBefore}.
+     *
+     * @return deleted entries
+     */
+    public int compact(long nodesSeenAfter, long writtenBefore) {
+        jdbcTemplate.update(PRUNE_CURSORS_SQL, nodesSeenAfter);
+        Long applied = jdbcTemplate.queryForObject(MIN_CURSOR_SQL, Long.class);
+        return jdbcTemplate.update(COMPACT_SQL, applied == null ? Long.MAX_VALUE : applied, writtenBefore);
+    }
+
+    public record Entry(long id, String cacheName, String cacheKey, long createdAt) {
+    }
+}
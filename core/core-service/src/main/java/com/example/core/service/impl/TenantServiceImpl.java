@@ -1,43 +1,81 @@
 package com.example.core.service.impl;
 
+import com.example.core.base.enums.ResponseMessage;
+import com.example.core.base.enums.TenantStatus;
 import com.example.core.base.vo.TenantData;
 import com.example.core.base.vo.TenantSearchData;
+import com.example.core.domain.dao.TenantDao;
+import com.example.core.domain.dao.TenantSpecifications;
+import com.example.core.domain.entity.Tenant;
+import com.example.core.domain.mapper.TenantMapper;
 import com.example.core.service.TenantService;
+import com.example.core.service.cache.CacheNames;
+import com.example.core.service.cache.CacheOutbox;
+import jakarta.persistence.EntityNotFoundException;
+import lombok.RequiredArgsConstructor;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Optional;
 
 @Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
 public class TenantServiceImpl implements TenantService {
 
+    private final TenantDao tenantDao;
+    private final TenantMapper tenantMapper;
+    private final CacheOutbox cacheOutbox;
+
     @Override
+    @Transactional
     public TenantData createTenant(TenantData tenant) {
-        return null;
+        Tenant saved = tenantDao.save(tenantMapper.toEntity(tenant));
+        cacheOutbox.publish(CacheNames.TENANTS, saved.getId());
+        return tenantMapper.toData(saved);
     }
 
     @Override
+    @Transactional
     public TenantData updateTenant(Integer id, TenantData tenant) {
-        return null;
+        Tenant existing = findOrThrow(id);
+        tenantMapper.update(tenant, existing);
+        cacheOutbox.publish(CacheNames.TENANTS, id);
+        return tenantMapper.toData(existing);
     }
 
     @Override
+    @Transactional
     public void deleteTenant(Integer id) {
-
+        Tenant existing = findOrThrow(id);
+        existing.setDeleted(true);
+        existing.setStatus(TenantStatus.DELETED);
+        tenantDao.save(existing);
+        cacheOutbox.publish(CacheNames.TENANTS, id);
     }
 
     @Override
+    @Cacheable(cacheNames = CacheNames.TENANTS, key = "#id.toString()", unless = "#result == null")
     public Optional<TenantData> getTenantById(Integer id) {
-        return Optional.empty();
+        return tenantDao.findById(id).map(tenantMapper::toData);
     }
 
     @Override
     public List<TenantData> getAllTenants() {
-        return List.of();
+        return tenantDao.findAll().stream().map(tenantMapper::toData).toList();
     }
 
     @Override
     public List<TenantData> searchTenants(TenantSearchData searchData) {
-        return List.of();
+        return tenantDao.findAll(TenantSpecifications.matching(searchData)).stream()
+                .map(tenantMapper::toData)
+                .toList();
+    }
+
+    private Tenant findOrThrow(Integer id) {
+        return tenantDao.findById(id)
+                .orElseThrow(() -> new EntityNotFoundException(ResponseMessage.TENANT_NOT_FOUND.getValue().formatted(id)));
     }
 }
@@ -0,0 +1,187 @@
+package com.example.core.service.cache;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CacheOutboxPollerTest {
+
+    private final InMemoryStore store = new InMemoryStore();
+    private final ConcurrentMapCacheManager cacheManager = new ConcurrentMapCacheManager("tenants");
+    private final Cache cache = cacheManager.getCache("tenants");
+    private final MeterRegistry registry = new SimpleMeterRegistry();
+
+    @Test
+    void appliesCommittedEntriesInIdOrderAndSavesTheCursor() {
+        CacheOutboxPoller poller = poller(Duration.ofSeconds(30), 500);
+        cache(1, 2, 3);
+        store.commit(1, "1");
+        store.commit(2, "2");
+
+        poller.poll();
+
+        assertThat(cached()).containsExactly("3");
+        assertThat(store.cursor).isEqualTo(2);
+        assertThat(registry.counter("core.cache.outbox.applied").count()).isEqualTo(2);
+    }
+
+    @Test
+    void readsBatchesUntilCaughtUp() {
+        CacheOutboxPoller poller = poller(Duration.ofSeconds(30), 2);
+        cache(1, 2, 3, 4, 5);
+        for (int id = 1; id <= 5; id++) {
+            store.commit(id, String.valueOf(id));
+        }
+
+        poller.poll();
+
+        assertThat(cached()).isEmpty();
+        assertThat(store.cursor).isEqualTo(5);
+    }
+
+    @Test
+    void clearsTheWholeCacheForEntriesWithoutKey() {
+        CacheOutboxPoller poller = poller(Duration.ofSeconds(30), 500);
+        cache(1, 2);
+        store.commit(1, null);
+
+        poller.poll();
+
+        assertThat(cached()).isEmpty();
+    }
+
+    @Test
+    void appliesIdsThatCommitAfterAHigherIdWasRead() {
+        CacheOutboxPoller poller = poller(Duration.ofSeconds(30), 500);
+        store.commit(1, "1");
+        store.commit(4, "4");
+        poller.poll();
+        assertThat(gaps()).isEqualTo(2);
+
+        cache(2, 3);
+        store.commit(3, "3");
+        poller.poll();
+        assertThat(cached()).containsExactly("2");
+        assertThat(gaps()).isEqualTo(1);
+
+        store.commit(2, "2");
+        poller.poll();
+        assertThat(cached()).isEmpty();
+        assertThat(gaps()).isZero();
+        assertThat(store.cursor).isEqualTo(4);
+    }
+
+    @Test
+    void stopsAwaitingGapsAfterTheGapTimeout() throws InterruptedException {
+        CacheOutboxPoller poller = poller(Duration.ofMillis(50), 500);
+        store.commit(1, "1");
+        store.commit(3, "3");
+        poller.poll();
+        assertThat(gaps()).isEqualTo(1);
+
+        Thread.sleep(100);
+        poller.poll();
+        assertThat(gaps()).isZero();
+
+        cache(2);
+        store.commit(2, "2");
+        poller.poll();
+        assertThat(cached()).as("an id given up on is taken to have rolled back").containsExactly("2");
+    }
+
+    @Test
+    void countsSkippedIdsBeyondTheGapLimit() {
+        CacheOutboxPoller poller = poller(Duration.ofSeconds(30), 500);
+        store.commit(1, "1");
+        store.commit(1_500, "1500");
+
+        poller.poll();
+
+        assertThat(gaps()).isEqualTo(1_000);
+        assertThat(registry.counter("core.cache.outbox.gaps-dropped").count()).isEqualTo(498);
+        assertThat(store.cursor).isEqualTo(1_500);
+
+        store.commit(1_501, "1501");
+        poller.poll();
+        assertThat(registry.counter("core.cache.outbox.gaps-dropped").count()).isEqualTo(498);
+    }
+
+    private CacheOutboxPoller poller(Duration gapTimeout, int batchSize) {
+        CacheOutbox outbox = new CacheOutbox(store, cacheManager, "node-1");
+        return new CacheOutboxPoller(outbox, store, registry, Duration.ofMillis(200), batchSize, gapTimeout,
+                Duration.ofSeconds(10), Duration.ofMinutes(1), Duration.ofMinutes(10), Duration.ofHours(1));
+    }
+
+    private void cache(int... keys) {
+        for (int key : keys) {
+            cache.put(String.valueOf(key), "tenant-" + key);
+        }
+    }
+
+    private List<String> cached() {
+        List<String> keys = new ArrayList<>();
+        for (int key = 1; key <= 10; key++) {
+            if (cache.get(String.valueOf(key)) != null) {
+                keys.add(String.valueOf(key));
+            }
+        }
+        return keys;
+    }
+
+    private double gaps() {
+        return registry.get("core.cache.outbox.gaps").gauge().value();
+    }
+
+    /**
+     * The committed rows of CORE_CACHE_OUTBOX; ids may commit out of order, as with concurrent transactions.
+     */
+    private static final class InMemoryStore extends CacheOutboxStore {
+
+        private final NavigableMap<Long, Entry> committed = new ConcurrentSkipListMap<>();
+        private long cursor = -1;
+
+        InMemoryStore() {
+            super(null);
+        }
+
+        void commit(long id, String cacheKey) {
+            committed.put(id, new Entry(id, "tenants", cacheKey, System.currentTimeMillis()));
+        }
+
+        @Override
+        public List<Entry> readAfter(long afterId, int limit) {
+            return committed.tailMap(afterId, false).values().stream().limit(limit).toList();
+        }
+
+        @Override
+        public List<Entry> readIds(Collection<Long> ids) {
+            return ids.stream().map(committed::get).filter(entry -> entry != null).toList();
+        }
+
+        @Override
+        public long maxIdBefore(long createdBefore) {
+            return 0;
+        }
+
+        @Override
+        public void saveCursor(String nodeId, long lastId, long now) {
+            cursor = lastId;
+        }
+
+        @Override
+        public int compact(long nodesSeenAfter, long writtenBefore) {
+            return 0;
+        }
+    }
+}
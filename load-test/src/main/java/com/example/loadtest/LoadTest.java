@@ -0,0 +1,92 @@
+package com.example.loadtest;
+
+import com.example.Application;
+import com.example.core.base.enums.TenantStatus;
+import com.example.core.base.vo.TenantData;
+import com.example.core.service.TenantService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Boots the application against an embedded H2 database (MySQL mode), seeds tenants, drives the
+ * /v1/tenants API with an open model arrival rate and compares the HdrHistogram percentiles and
+ * throughput with the committed baseline. Exits with 1 on a regression.
+ * Settings: see {@link LoadTestSettings}, run with mvn -Pload-test verify -pl load-test -am.
+ */
+public final class LoadTest {
+
+    private static final Logger log = LoggerFactory.getLogger(LoadTest.class);
+
+    private LoadTest() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        LoadTestSettings settings = LoadTestSettings.fromSystemProperties();
+        int exitCode;
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(Application.class)
+                .profiles("loadtest")
+                .run(args)) {
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            String contextPath = Objects.requireNonNullElse(context.getEnvironment().getProperty("server.servlet.context-path"), "");
+            List<Integer> seededIds = seed(context.getBean(TenantService.class), settings.tenants());
+
+            TenantApiClient client = new TenantApiClient("http://localhost:" + port + contextPath + "/v1/tenants", seededIds,
+                    settings.requestTimeout());
+            OpenModelLoadGenerator generator = new OpenModelLoadGenerator(client, settings);
+
+            log.info("Warmup {} at {} req/s", settings.warmup(), settings.rate());
+            generator.run(settings.warmup());
+            LoadTestReport.of(settings, generator.stats());
+
+            log.info("Measuring {} at {} req/s ({} arrivals, mix {})", settings.duration(), settings.rate(), settings.arrival(), settings.mix());
+            generator.run(settings.duration());
+            LoadTestReport report = LoadTestReport.of(settings, generator.stats());
+            report.write(settings.result());
+            log.info("Load test result ({}):{}{}", settings.result(), System.lineSeparator(), report.format());
+
+            exitCode = compare(report, settings);
+        }
+        System.exit(exitCode);
+    }
+
+    static String seededName(int index) {
+        return "Tenant " + index;
+    }
+
+    private static List<Integer> seed(TenantService tenantService, int tenants) {
+        List<Integer> ids = new ArrayList<>(tenants);
+        for (int i = 0; i < tenants; i++) {
+            ids.add(tenantService.createTenant(new TenantData(seededName(i), TenantStatus.ACTIVE)).id());
+        }
+        log.info("Seeded {} tenants", tenants);
+        return ids;
+    }
+
+    private static int compare(LoadTestReport report, LoadTestSettings settings) throws IOException {
+        if (settings.updateBaseline()) {
+            report.write(settings.baseline());
+            log.info("Baseline updated: {}", settings.baseline());
+            return 0;
+        }
+        if (!Files.exists(settings.baseline())) {
+            log.warn("No baseline at {}, run with -Dloadtest.update-baseline=true to create one", settings.baseline());
+            return 0;
+        }
+        LoadTestReport baseline = LoadTestReport.read(settings.baseline());
+        if (!baseline.settings().equals(report.settings())) {
+            log.warn("Baseline was recorded with different settings {}, comparing anyway", baseline.settings());
+        }
+        List<String> regressions = report.regressionsAgainst(baseline, settings.tolerance());
+        regressions.forEach(regression -> log.error("Regression: {}", regression));
+        return regressions.isEmpty() ? 0 : 1;
+    }
+}
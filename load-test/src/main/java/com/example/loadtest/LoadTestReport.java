@@ -0,0 +1,116 @@
+package com.example.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Percentiles (milliseconds), throughput, error rate and timeouts per operation, plus the settings the run used.
+ * The same structure is stored as the baseline.
+ */
+record LoadTestReport(Map<String, Object> settings, Map<String, Result> operations) {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+
+    record Result(long count, long errors, long timeouts, double throughput, double errorRate,
+                  double p50, double p99, double p999, double max) {
+
+        static Result of(Histogram histogram, long errors, long timeouts, Duration duration) {
+            long count = histogram.getTotalCount();
+            return new Result(count, errors, timeouts,
+                    count / (duration.toMillis() / 1000d),
+                    count == 0 ? 0 : (double) errors / count,
+                    millis(histogram.getValueAtPercentile(50)),
+                    millis(histogram.getValueAtPercentile(99)),
+                    millis(histogram.getValueAtPercentile(99.9)),
+                    millis(histogram.getMaxValue()));
+        }
+
+        private static double millis(long micros) {
+            return micros / 1000d;
+        }
+    }
+
+    static LoadTestReport of(LoadTestSettings settings, Map<TenantOperation, OperationStats> stats) {
+        Map<String, Object> usedSettings = new LinkedHashMap<>();
+        usedSettings.put("tenants", settings.tenants());
+        usedSettings.put("rate", settings.rate());
+        usedSettings.put("duration", settings.duration().toString());
+        usedSettings.put("arrival", settings.arrival().name());
+        usedSettings.put("mix", settings.mix().toString());
+        usedSettings.put("requestTimeout", settings.requestTimeout().toString());
+
+        Map<String, Result> operations = new LinkedHashMap<>();
+        Histogram total = new Histogram(3);
+        long totalErrors = 0;
+        long totalTimeouts = 0;
+        for (Map.Entry<TenantOperation, OperationStats> entry : stats.entrySet()) {
+            Histogram histogram = entry.getValue().drain();
+            long errors = entry.getValue().drainErrors();
+            long timeouts = entry.getValue().drainTimeouts();
+            if (histogram.getTotalCount() > 0) {
+                operations.put(entry.getKey().name().toLowerCase(), Result.of(histogram, errors, timeouts, settings.duration()));
+            }
+            total.add(histogram);
+            totalErrors += errors;
+            totalTimeouts += timeouts;
+        }
+        operations.put("total", Result.of(total, totalErrors, totalTimeouts, settings.duration()));
+        return new LoadTestReport(usedSettings, operations);
+    }
+
+    static LoadTestReport read(Path file) throws IOException {
+        return MAPPER.readValue(file.toFile(), LoadTestReport.class);
+    }
+
+    void write(Path file) throws IOException {
+        Path parent = file.toAbsolutePath().getParent();
+        Files.createDirectories(parent);
+        MAPPER.writeValue(file.toFile(), this);
+    }
+
+    String format() {
+        StringBuilder out = new StringBuilder(String.format("%-8s %9s %7s %8s %10s %9s %9s %9s %9s%n",
+                "op", "count", "errors", "timeouts", "req/s", "p50 ms", "p99 ms", "p999 ms", "max ms"));
+        operations.forEach((name, r) -> out.append(String.format("%-8s %9d %7d %8d %10.1f %9.2f %9.2f %9.2f %9.2f%n",
+                name, r.count(), r.errors(), r.timeouts(), r.throughput(), r.p50(), r.p99(), r.p999(), r.max())));
+        return out.toString();
+    }
+
+    /**
+     * Regressions of this run against the baseline: p99/p999 above and throughput below the baseline
+     * by more than the tolerance, or an error rate more than 0.1% above the baseline.
+     */
+    List<String> regressionsAgainst(LoadTestReport baseline, double tolerance) {
+        List<String> regressions = new ArrayList<>();
+        baseline.operations().forEach((name, expected) -> {
+            Result actual = operations.get(name);
+            if (actual == null) {
+                regressions.add(name + ": no requests recorded");
+                return;
+            }
+            if (actual.p99() > expected.p99() * (1 + tolerance)) {
+                regressions.add("%s: p99 %.2fms > baseline %.2fms".formatted(name, actual.p99(), expected.p99()));
+            }
+            if (actual.p999() > expected.p999() * (1 + tolerance)) {
+                regressions.add("%s: p999 %.2fms > baseline %.2fms".formatted(name, actual.p999(), expected.p999()));
+            }
+            if (actual.throughput() < expected.throughput() * (1 - tolerance)) {
+                regressions.add("%s: throughput %.1f/s < baseline %.1f/s".formatted(name, actual.throughput(), expected.throughput()));
+            }
+            if (actual.errorRate() > expected.errorRate() + 0.001) {
+                regressions.add("%s: error rate %.4f > baseline %.4f".formatted(name, actual.errorRate(), expected.errorRate()));
+            }
+        });
+        return regressions;
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.loadtest;
+
+import org.springframework.boot.convert.DurationStyle;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Load test settings, read from loadtest.* system properties.
+ *
+ * @param tenants        tenants seeded before the run
+ * @param rate           open model arrival rate, requests per second (independent of response times)
+ * @param warmup         warmup duration, not recorded
+ * @param duration       measured duration
+ * @param arrival        constant or poisson inter-arrival times
+ * @param mix            relative operation weights
+ * @param requestTimeout time after which a request counts as a timeout (and an error)
+ * @param tolerance      accepted relative regression against the baseline
+ * @param baseline       committed baseline to compare with
+ * @param result         where the result of this run is written
+ * @param updateBaseline write this run as the new baseline instead of comparing
+ */
+public record LoadTestSettings(int tenants,
+                               double rate,
+                               Duration warmup,
+                               Duration duration,
+                               Arrival arrival,
+                               Map<TenantOperation, Integer> mix,
+                               Duration requestTimeout,
+                               double tolerance,
+                               Path baseline,
+                               Path result,
+                               boolean updateBaseline) {
+
+    public enum Arrival { CONSTANT, POISSON }
+
+    public static LoadTestSettings fromSystemProperties() {
+        return new LoadTestSettings(
+                Integer.parseInt(System.getProperty("loadtest.tenants", "1000")),
+                Double.parseDouble(System.getProperty("loadtest.rate", "50")),
+                DurationStyle.detectAndParse(System.getProperty("loadtest.warmup", "20s")),
+                DurationStyle.detectAndParse(System.getProperty("loadtest.duration", "30s")),
+                Arrival.valueOf(System.getProperty("loadtest.arrival", "poisson").toUpperCase()),
+                parseMix(System.getProperty("loadtest.mix", "read=60,search=15,create=10,update=10,delete=5")),
+                DurationStyle.detectAndParse(System.getProperty("loadtest.request-timeout", "5s")),
+                Double.parseDouble(System.getProperty("loadtest.tolerance", "0.25")),
+                Path.of(System.getProperty("loadtest.baseline", "baseline/load-test-baseline.json")),
+                Path.of(System.getProperty("loadtest.result", "target/load-test-result.json")),
+                Boolean.getBoolean("loadtest.update-baseline"));
+    }
+
+    private static Map<TenantOperation, Integer> parseMix(String mix) {
+        Map<TenantOperation, Integer> weights = new LinkedHashMap<>();
+        for (String entry : mix.split(",")) {
+            String[] pair = entry.trim().split("=");
+            weights.put(TenantOperation.valueOf(pair[0].trim().toUpperCase()), Integer.parseInt(pair[1].trim()));
+        }
+        return weights;
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.loadtest;
+
+import java.net.http.HttpTimeoutException;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Phaser;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.Stream;
+
+/**
+ * Open model load generator: requests are scheduled at the configured arrival rate no matter how fast
+ * the server answers, and latency is measured from the intended send time, so a stalled server shows up
+ * in the percentiles instead of silently lowering the offered load (no coordinated omission). Requests
+ * that exceed the request timeout are recorded as timeouts, so a run always ends.
+ */
+class OpenModelLoadGenerator {
+
+    private final TenantApiClient client;
+    private final LoadTestSettings settings;
+    private final TenantOperation[] weightedOperations;
+    private final Map<TenantOperation, OperationStats> stats = new EnumMap<>(TenantOperation.class);
+
+    OpenModelLoadGenerator(TenantApiClient client, LoadTestSettings settings) {
+        this.client = client;
+        this.settings = settings;
+        this.weightedOperations = settings.mix().entrySet().stream()
+                .flatMap(e -> Stream.generate(e::getKey).limit(e.getValue()))
+                .toArray(TenantOperation[]::new);
+        for (TenantOperation operation : TenantOperation.values()) {
+            stats.put(operation, new OperationStats());
+        }
+    }
+
+    Map<TenantOperation, OperationStats> stats() {
+        return stats;
+    }
+
+    /**
+     * Offers load for the given duration and waits for all in-flight requests to complete.
+     */
+    void run(Duration duration) {
+        SplittableRandom random = new SplittableRandom();
+        Phaser inFlight = new Phaser(1);
+        double meanIntervalNanos = 1_000_000_000d / settings.rate();
+        long end = System.nanoTime() + duration.toNanos();
+        long intended = System.nanoTime();
+
+        while (intended < end) {
+            long now;
+            while ((now = System.nanoTime()) < intended) {
+                LockSupport.parkNanos(intended - now);
+            }
+            TenantOperation operation = weightedOperations[random.nextInt(weightedOperations.length)];
+            long sendTime = intended;
+            inFlight.register();
+            client.send(operation).whenComplete((outcome, error) -> {
+                long latency = System.nanoTime() - sendTime;
+                if (outcome != null) {
+                    stats.get(outcome.operation()).record(latency, outcome.success());
+                } else if (timedOut(error)) {
+                    stats.get(operation).recordTimeout(latency);
+                } else {
+                    stats.get(operation).record(latency, false);
+                }
+                inFlight.arriveAndDeregister();
+            });
+            intended += nextInterval(random, meanIntervalNanos);
+        }
+        inFlight.arriveAndAwaitAdvance();
+    }
+
+    private static boolean timedOut(Throwable error) {
+        Throwable cause = error instanceof CompletionException ? error.getCause() : error;
+        return cause instanceof HttpTimeoutException;
+    }
+
+    private long nextInterval(SplittableRandom random, double meanIntervalNanos) {
+        if (settings.arrival() == LoadTestSettings.Arrival.CONSTANT) {
+            return (long) meanIntervalNanos;
+        }
+        return (long) (-Math.log(1 - random.nextDouble()) * meanIntervalNanos);
+    }
+}
@@ -0,0 +1,44 @@
+package com.example.loadtest;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latency (microseconds, measured from the intended send time), error and timeout counts of one operation.
+ * A timed out request is recorded with the latency it had when it was abandoned and counts as an error.
+ */
+class OperationStats {
+
+    private final Recorder recorder = new Recorder(3);
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder timeouts = new LongAdder();
+
+    void record(long latencyNanos, boolean success) {
+        recorder.recordValue(Math.max(1, latencyNanos / 1_000));
+        if (!success) {
+            errors.increment();
+        }
+    }
+
+    void recordTimeout(long latencyNanos) {
+        record(latencyNanos, false);
+        timeouts.increment();
+    }
+
+    /**
+     * Returns everything recorded since the previous call and starts a new interval.
+     */
+    Histogram drain() {
+        return recorder.getIntervalHistogram();
+    }
+
+    long drainErrors() {
+        return errors.sumThenReset();
+    }
+
+    long drainTimeouts() {
+        return timeouts.sumThenReset();
+    }
+}
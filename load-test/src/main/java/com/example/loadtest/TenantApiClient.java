@@ -0,0 +1,126 @@
+package com.example.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Non-blocking HTTP client for the tenant API. Reads, searches and updates target the seeded tenants,
+ * deletes remove tenants created during the run (a create is issued instead while there are none).
+ * Every request carries the request timeout, so a hung request completes exceptionally with an
+ * {@link HttpTimeoutException} instead of holding up the end of a run.
+ */
+class TenantApiClient {
+
+    private static final String JSON = "application/json";
+
+    private final HttpClient httpClient;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final String baseUrl;
+    private final Duration requestTimeout;
+    private final List<Integer> seededIds;
+    private final Queue<Integer> createdIds = new ConcurrentLinkedQueue<>();
+
+    TenantApiClient(String baseUrl, List<Integer> seededIds, Duration requestTimeout) {
+        this.baseUrl = baseUrl;
+        this.requestTimeout = requestTimeout;
+        this.seededIds = seededIds;
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(requestTimeout)
+                .executor(Executors.newCachedThreadPool(runnable -> {
+                    Thread thread = new Thread(runnable, "load-test-http");
+                    thread.setDaemon(true);
+                    return thread;
+                }))
+                .build();
+    }
+
+    /**
+     * Sends the operation and completes with the operation actually performed and the HTTP status.
+     */
+    CompletableFuture<Outcome> send(TenantOperation operation) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int index = random.nextInt(seededIds.size());
+        int seeded = seededIds.get(index);
+        return switch (operation) {
+            case READ -> exchange(operation, get("/" + seeded));
+            case SEARCH -> exchange(operation, post("/search", "{\"name\":\"" + LoadTest.seededName(index) + "\",\"deleted\":false}"));
+            case UPDATE -> exchange(operation, put("/" + seeded, "{\"name\":\"" + LoadTest.seededName(index) + "\",\"status\":\"ACTIVE\"}"));
+            case CREATE -> create();
+            case DELETE -> {
+                Integer id = createdIds.poll();
+                yield id == null ? create() : exchange(operation, delete("/" + id));
+            }
+        };
+    }
+
+    private CompletableFuture<Outcome> create() {
+        HttpRequest request = post("", "{\"name\":\"Load tenant\",\"status\":\"ACTIVE\"}");
+        return httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofByteArray())
+                .thenApply(response -> {
+                    if (response.statusCode() == 201) {
+                        createdIds.add(createdId(response.body()));
+                    }
+                    return new Outcome(TenantOperation.CREATE, response.statusCode());
+                });
+    }
+
+    private CompletableFuture<Outcome> exchange(TenantOperation operation, HttpRequest request) {
+        return httpClient.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                .thenApply(response -> new Outcome(operation, response.statusCode()));
+    }
+
+    private int createdId(byte[] body) {
+        try {
+            JsonNode envelope = objectMapper.readTree(body);
+            return envelope.path("data").path("id").asInt();
+        } catch (IOException e) {
+            throw new IllegalStateException("Unreadable create response", e);
+        }
+    }
+
+    private HttpRequest get(String path) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path)).timeout(requestTimeout).GET().build();
+    }
+
+    private HttpRequest delete(String path) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path)).timeout(requestTimeout).DELETE().build();
+    }
+
+    private HttpRequest post(String path, String json) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(requestTimeout)
+                .header("Content-Type", JSON)
+                .POST(HttpRequest.BodyPublishers.ofString(json))
+                .build();
+    }
+
+    private HttpRequest put(String path, String json) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(requestTimeout)
+                .header("Content-Type", JSON)
+                .PUT(HttpRequest.BodyPublishers.ofString(json))
+                .build();
+    }
+
+    record Outcome(TenantOperation operation, int status) {
+
+        boolean success() {
+            return status >= 200 && status < 300;
+        }
+    }
+}
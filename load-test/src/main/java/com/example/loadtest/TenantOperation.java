@@ -0,0 +1,12 @@
+package com.example.loadtest;
+
+/**
+ * Operations the load test drives against /v1/tenants.
+ */
+public enum TenantOperation {
+    READ,
+    SEARCH,
+    CREATE,
+    UPDATE,
+    DELETE
+}
@@ -1,10 +0,0 @@
-import lombok.Getter;
-import lombok.Setter;
-
-@Getter
-@Setter
-public class Student {
-
-    String name;
-    int age;
-}
@@ -0,0 +1,17 @@
+package com.example.payment.base.enums;
+
+/**
+ * Progress of one payout of a settlement run, recorded in PAYMENT_SETTLEMENT.
+ */
+public enum PayoutStatus {
+    /**
+     * Amount fixed, gateway not yet known to have paid.
+     */
+    PENDING,
+    /**
+     * Paid by the gateway, ledger posting not yet recorded.
+     */
+    PAID,
+    SETTLED,
+    DECLINED
+}
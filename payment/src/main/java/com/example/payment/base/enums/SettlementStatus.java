@@ -0,0 +1,8 @@
+package com.example.payment.base.enums;
+
+public enum SettlementStatus {
+    RUNNING,
+    COMPLETED,
+    STOPPED,
+    FAILED
+}
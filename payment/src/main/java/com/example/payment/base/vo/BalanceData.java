@@ -0,0 +1,17 @@
+package com.example.payment.base.vo;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(description = "Balance of one tenant account")
+public record BalanceData(
+
+        @Schema(description = "Account code", example = "receivable")
+        String account,
+
+        @Schema(description = "ISO 4217 currency", example = "USD")
+        String currency,
+
+        @Schema(description = "Balance in minor currency units", example = "1999")
+        long balance
+) {
+}
@@ -0,0 +1,18 @@
+package com.example.payment.base.vo;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+
+@Schema(description = "One leg of a ledger transaction; debits are positive, credits negative")
+public record LedgerEntryData(
+
+        @Schema(description = "Account code within the tenant", example = "receivable")
+        @NotBlank
+        @Size(max = 64)
+        String account,
+
+        @Schema(description = "Signed amount in minor currency units", example = "1999")
+        long amount
+) {
+}
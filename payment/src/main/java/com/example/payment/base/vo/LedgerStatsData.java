@@ -0,0 +1,29 @@
+package com.example.payment.base.vo;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(description = "Ledger engine state and write-ahead log counters since startup")
+public record LedgerStatsData(
+
+        @Schema(description = "Last durable sequence", example = "1042")
+        long lastSequence,
+
+        @Schema(description = "Sequence covered by the latest snapshot", example = "1000")
+        long snapshotSequence,
+
+        @Schema(description = "Transactions waiting for the writer", example = "0")
+        int queued,
+
+        @Schema(description = "Transactions posted since startup", example = "42")
+        long posted,
+
+        @Schema(description = "Group commits since startup, each ending in one fsync", example = "7")
+        long commits,
+
+        @Schema(description = "Tenants with balances", example = "3")
+        int tenants,
+
+        @Schema(description = "False once a write-ahead log failure stopped the ledger", example = "true")
+        boolean healthy
+) {
+}
@@ -0,0 +1,44 @@
+package com.example.payment.base.vo;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Size;
+
+import java.time.Instant;
+import java.util.List;
+
+@Schema(description = "Balanced double-entry ledger transaction of one tenant")
+public record LedgerTransactionData(
+
+        @Schema(description = "Ledger sequence number, assigned when posted", example = "1042", accessMode = Schema.AccessMode.READ_ONLY)
+        Long sequence,
+
+        @Schema(description = "Tenant the transaction belongs to", example = "1")
+        @NotNull
+        Integer tenantId,
+
+        @Schema(description = "Caller reference such as an invoice or charge id", example = "charge-2025-0001")
+        @Size(max = 128)
+        String reference,
+
+        @Schema(description = "ISO 4217 currency of all entries", example = "USD")
+        @NotBlank
+        @Pattern(regexp = "[A-Z]{3}")
+        String currency,
+
+        @Schema(description = "Time the transaction became durable", accessMode = Schema.AccessMode.READ_ONLY)
+        Instant postedAt,
+
+        @Schema(description = "Entries, at least two, summing to zero")
+        @NotNull
+        @Size(min = 2, max = 64)
+        List<@Valid LedgerEntryData> entries
+) {
+
+    public LedgerTransactionData withPosting(long sequence, Instant postedAt) {
+        return new LedgerTransactionData(sequence, tenantId, reference, currency, postedAt, entries);
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.payment.base.vo;
+
+import com.example.payment.base.enums.SettlementStatus;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.time.Instant;
+
+@Schema(description = "Progress of a settlement run")
+public record SettlementRunData(
+
+        @Schema(description = "Run id, also the prefix of gateway idempotency keys", example = "3f1c2e9a-7a51-4c4e-9a57-1f0f6f1d2b7c")
+        String runId,
+
+        @Schema(description = "Run status", example = "RUNNING")
+        SettlementStatus status,
+
+        @Schema(description = "Whether the run continues from a checkpoint", example = "false")
+        boolean resumed,
+
+        @Schema(description = "Time the run was first started")
+        Instant startedAt,
+
+        @Schema(description = "Time the run ended in this process, absent while running")
+        Instant finishedAt,
+
+        @Schema(description = "Tenant partitions processed in parallel", example = "4")
+        int partitions,
+
+        @Schema(description = "Tenants left to settle when this process took the run", example = "1000")
+        long tenants,
+
+        @Schema(description = "Tenants settled by this process", example = "250")
+        long settledTenants,
+
+        @Schema(description = "Tenants still to settle", example = "750")
+        long remainingTenants,
+
+        @Schema(description = "Payouts made", example = "240")
+        long payouts,
+
+        @Schema(description = "Payouts the gateway rejected; their balances stay for the next run", example = "0")
+        long failedPayouts,
+
+        @Schema(description = "Settled tenants per second", example = "512.5")
+        double tenantsPerSecond,
+
+        @Schema(description = "Why the run failed", example = "Ledger is not running")
+        String failure
+) {
+}
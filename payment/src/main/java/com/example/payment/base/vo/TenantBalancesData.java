@@ -0,0 +1,19 @@
+package com.example.payment.base.vo;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+@Schema(description = "All account balances of a tenant as of one ledger sequence")
+public record TenantBalancesData(
+
+        @Schema(description = "Tenant id", example = "1")
+        Integer tenantId,
+
+        @Schema(description = "Sequence of the last transaction of the tenant included in the balances", example = "1042")
+        long asOfSequence,
+
+        @Schema(description = "Balances ordered by currency and account")
+        List<BalanceData> balances
+) {
+}
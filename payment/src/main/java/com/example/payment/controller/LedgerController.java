@@ -0,0 +1,102 @@
+package com.example.payment.controller;
+
+import com.example.core.base.enums.ErrorMessage;
+import com.example.core.base.enums.ResponseMessage;
+import com.example.core.base.response.ControllerResponse;
+import com.example.core.controller.BaseController;
+import com.example.payment.base.vo.LedgerStatsData;
+import com.example.payment.base.vo.LedgerTransactionData;
+import com.example.payment.ledger.LedgerEngine;
+import com.example.payment.ledger.LedgerUnavailableException;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+@SuppressWarnings("unused")
+@RestController
+@Tag(name = "Payment ledger", description = "Double-entry ledger postings and balances")
+public class LedgerController extends BaseController {
+
+    private final LedgerEngine ledger;
+    private final Duration retryAfter;
+
+    public LedgerController(LedgerEngine ledger,
+                            @Value("${app.payment.ledger.retry-after:1s}") Duration retryAfter) {
+        this.ledger = ledger;
+        this.retryAfter = retryAfter;
+    }
+
+    @PostMapping("/v1/payments/ledger/transactions")
+    @Operation(
+            summary = "Post a ledger transaction",
+            description = "Appends a balanced transaction to the ledger. Answers 201 once it is durable, "
+                    + "or 429 with Retry-After when the ledger queue is full."
+    )
+    public CompletableFuture<? extends ResponseEntity<?>> post(@RequestBody @Valid LedgerTransactionData transaction) {
+        if (!actsFor(transaction.tenantId())) {
+            return CompletableFuture.completedFuture(tenantNotGranted(transaction.tenantId()));
+        }
+        Optional<String> violation = LedgerEngine.validate(transaction);
+        if (violation.isPresent()) {
+            return CompletableFuture.completedFuture(badRequest(violation.get()));
+        }
+        return ledger.post(transaction)
+                .<ResponseEntity<?>>thenApply(posted -> created(null, posted,
+                        ResponseMessage.LEDGER_TRANSACTION_POSTED.getValue().formatted(posted.sequence())))
+                .exceptionally(this::rejected);
+    }
+
+    @GetMapping("/v1/payments/ledger/tenants/{tenantId}/balances")
+    @Operation(
+            summary = "Get tenant balances",
+            description = "Returns the current balance of every account and currency of the tenant."
+    )
+    public ResponseEntity<?> balances(@PathVariable int tenantId) {
+        if (!actsFor(tenantId)) {
+            return tenantNotGranted(tenantId);
+        }
+        return ok(ledger.balances(tenantId), ResponseMessage.BALANCES_FETCHED_SUCCESSFULLY.getValue());
+    }
+
+    @GetMapping("/v1/admin/payments/ledger/stats")
+    @Operation(
+            summary = "Get ledger statistics",
+            description = "Returns sequence numbers, queue occupancy and commit counters of the ledger."
+    )
+    public ResponseEntity<ControllerResponse<LedgerStatsData>> stats() {
+        return ok(ledger.stats(), ResponseMessage.LEDGER_STATS_FETCHED_SUCCESSFULLY.getValue());
+    }
+
+    @PostMapping("/v1/admin/payments/ledger/snapshots")
+    @Operation(
+            summary = "Request a ledger snapshot",
+            description = "Asks the ledger to snapshot its balances after the current commit."
+    )
+    public ResponseEntity<ControllerResponse<Void>> snapshot() {
+        ledger.requestSnapshot();
+        return accepted(null, ResponseMessage.LEDGER_SNAPSHOT_REQUESTED.getValue());
+    }
+
+    private ResponseEntity<?> rejected(Throwable failure) {
+        Throwable cause = failure instanceof CompletionException && failure.getCause() != null ? failure.getCause() : failure;
+        if (cause instanceof LedgerUnavailableException unavailable
+                && unavailable.getReason() == LedgerUnavailableException.Reason.BUSY) {
+            return tooManyRequests(ErrorMessage.LEDGER_BUSY.getValue().formatted(Math.max(1, retryAfter.toSeconds())), retryAfter);
+        }
+        return problem(HttpStatus.SERVICE_UNAVAILABLE, ErrorMessage.LEDGER_UNAVAILABLE.getValue(), cause.getMessage());
+    }
+
+}
@@ -0,0 +1,48 @@
+package com.example.payment.controller;
+
+import com.example.core.base.enums.ErrorMessage;
+import com.example.core.base.enums.ResponseMessage;
+import com.example.core.controller.BaseController;
+import com.example.payment.settlement.SettlementProcessor;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@SuppressWarnings("unused")
+@RestController
+@Tag(name = "Payment settlement", description = "Batch settlement of tenant balances")
+public class SettlementController extends BaseController {
+
+    private final SettlementProcessor processor;
+
+    public SettlementController(SettlementProcessor processor) {
+        this.processor = processor;
+    }
+
+    @PostMapping("/v1/admin/payments/settlements")
+    @Operation(
+            summary = "Start a settlement run",
+            description = "Starts settling all tenants in the background, or resumes the unfinished run. "
+                    + "Answers 409 while a run is in progress."
+    )
+    public ResponseEntity<?> start() {
+        return processor.begin()
+                .<ResponseEntity<?>>map(run -> accepted(run, ResponseMessage.SETTLEMENT_STARTED.getValue().formatted(run.runId())))
+                .orElseGet(() -> conflict(ErrorMessage.SETTLEMENT_IN_PROGRESS.getValue()));
+    }
+
+    @GetMapping("/v1/admin/payments/settlements/current")
+    @Operation(
+            summary = "Get the current settlement run",
+            description = "Returns progress and throughput of the running or last finished settlement run."
+    )
+    public ResponseEntity<?> current() {
+        return processor.current()
+                .<ResponseEntity<?>>map(run -> ok(run, ResponseMessage.SETTLEMENT_FETCHED_SUCCESSFULLY.getValue()))
+                .orElseGet(() -> notFound(ErrorMessage.SETTLEMENT_NOT_FOUND.getValue()));
+    }
+
+}
@@ -0,0 +1,68 @@
+package com.example.payment.domain.entity;
+
+import com.example.payment.base.enums.PayoutStatus;
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * One payout of a settlement run, recorded before the gateway is called and completed as the
+ * payout and its ledger posting are made. Rows are written by
+ * {@link com.example.payment.settlement.SettlementStore}; the mapping only describes the table.
+ */
+@Entity
+@Table(name = "PAYMENT_SETTLEMENT", uniqueConstraints = {
+        @UniqueConstraint(name = "UK_SETTLEMENT_RUN_TENANT", columnNames = {"RUN_ID", "TENANT_ID", "CURRENCY"}),
+        @UniqueConstraint(name = "UK_SETTLEMENT_PAYOUT", columnNames = {"PAYOUT_ID"}),
+}, indexes = {
+        @Index(name = "IDX_SETTLEMENT_TENANT", columnList = "TENANT_ID, SETTLED_AT"),
+        @Index(name = "IDX_SETTLEMENT_RUN_STATUS", columnList = "RUN_ID, STATUS"),
+})
+@Getter
+@Setter
+@Access(AccessType.FIELD)
+public class PaymentSettlement {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "PST_PK_ID")
+    private Long id;
+
+    @Column(name = "RUN_ID", nullable = false, length = 36)
+    private String runId;
+
+    @Column(name = "TENANT_ID", nullable = false)
+    private Integer tenantId;
+
+    @Column(name = "CURRENCY", nullable = false, length = 3)
+    private String currency;
+
+    /**
+     * Minor currency units.
+     */
+    @Column(name = "AMOUNT", nullable = false)
+    private long amount;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "STATUS", nullable = false, length = 16)
+    private PayoutStatus status;
+
+    @Column(name = "PAYOUT_ID", length = 64)
+    private String payoutId;
+
+    @Column(name = "LEDGER_SEQUENCE")
+    private Long ledgerSequence;
+
+    /**
+     * Epoch milliseconds.
+     */
+    @Column(name = "CREATED_AT", nullable = false)
+    private long createdAt;
+
+    /**
+     * Epoch milliseconds.
+     */
+    @Column(name = "SETTLED_AT")
+    private Long settledAt;
+
+}
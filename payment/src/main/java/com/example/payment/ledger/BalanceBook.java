@@ -0,0 +1,143 @@
+package com.example.payment.ledger;
+
+import com.example.payment.base.vo.BalanceData;
+import com.example.payment.base.vo.LedgerEntryData;
+import com.example.payment.base.vo.LedgerTransactionData;
+import com.example.payment.base.vo.TenantBalancesData;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * In-memory account balances per tenant, updated incrementally as transactions become durable.
+ * Only the ledger writer thread applies transactions; readers take the tenant's monitor, so they
+ * always see every entry of a transaction or none.
+ * <p>
+ * Per tenant and currency the book also remembers the last settlement posting, which is what a
+ * resumed settlement checks to learn whether its posting was made.
+ */
+final class BalanceBook {
+
+    private final ConcurrentMap<Integer, TenantAccounts> tenants = new ConcurrentHashMap<>();
+
+    void apply(LedgerTransactionData transaction) {
+        tenants.computeIfAbsent(transaction.tenantId(), id -> new TenantAccounts()).apply(transaction);
+    }
+
+    TenantBalancesData balances(int tenantId) {
+        TenantAccounts accounts = tenants.get(tenantId);
+        if (accounts == null) {
+            return new TenantBalancesData(tenantId, 0, List.of());
+        }
+        synchronized (accounts) {
+            List<BalanceData> balances = new ArrayList<>(accounts.balances.size());
+            accounts.balances.forEach((key, amount) -> balances.add(new BalanceData(key.account(), key.currency(), amount[0])));
+            balances.sort(Comparator.comparing(BalanceData::currency).thenComparing(BalanceData::account));
+            return new TenantBalancesData(tenantId, accounts.lastSequence, balances);
+        }
+    }
+
+    Optional<LedgerEngine.SettlementPosting> lastSettlement(int tenantId, String currency) {
+        TenantAccounts accounts = tenants.get(tenantId);
+        if (accounts == null) {
+            return Optional.empty();
+        }
+        synchronized (accounts) {
+            return Optional.ofNullable(accounts.settlements.get(currency));
+        }
+    }
+
+    int tenantCount() {
+        return tenants.size();
+    }
+
+    int[] tenantIds() {
+        return tenants.keySet().stream().mapToInt(Integer::intValue).sorted().toArray();
+    }
+
+    /**
+     * Layout: {@code int tenants, tenants x (int tenantId, long lastSequence, int balances,
+     * balances x (UTF account, UTF currency, long amount), int settlements, settlements x
+     * (UTF currency, UTF reference, long sequence, long postedAt))}.
+     */
+    void writeTo(DataOutputStream out) throws IOException {
+        out.writeInt(tenants.size());
+        for (Map.Entry<Integer, TenantAccounts> tenant : tenants.entrySet()) {
+            TenantAccounts accounts = tenant.getValue();
+            synchronized (accounts) {
+                out.writeInt(tenant.getKey());
+                out.writeLong(accounts.lastSequence);
+                out.writeInt(accounts.balances.size());
+                for (Map.Entry<BalanceKey, long[]> balance : accounts.balances.entrySet()) {
+                    out.writeUTF(balance.getKey().account());
+                    out.writeUTF(balance.getKey().currency());
+                    out.writeLong(balance.getValue()[0]);
+                }
+                out.writeInt(accounts.settlements.size());
+                for (Map.Entry<String, LedgerEngine.SettlementPosting> settlement : accounts.settlements.entrySet()) {
+                    out.writeUTF(settlement.getKey());
+                    out.writeUTF(settlement.getValue().reference());
+                    out.writeLong(settlement.getValue().sequence());
+                    out.writeLong(settlement.getValue().postedAt());
+                }
+            }
+        }
+    }
+
+    /**
+     * @param settlements whether the image has the settlement postings, which version 1 snapshots lack
+     */
+    void readFrom(DataInputStream in, boolean settlements) throws IOException {
+        tenants.clear();
+        int tenantCount = in.readInt();
+        for (int t = 0; t < tenantCount; t++) {
+            TenantAccounts accounts = new TenantAccounts();
+            int tenantId = in.readInt();
+            accounts.lastSequence = in.readLong();
+            int balanceCount = in.readInt();
+            for (int b = 0; b < balanceCount; b++) {
+                String account = in.readUTF();
+                String currency = in.readUTF();
+                accounts.balances.put(new BalanceKey(account, currency), new long[]{in.readLong()});
+            }
+            int settlementCount = settlements ? in.readInt() : 0;
+            for (int s = 0; s < settlementCount; s++) {
+                String currency = in.readUTF();
+                accounts.settlements.put(currency, new LedgerEngine.SettlementPosting(in.readUTF(), in.readLong(), in.readLong()));
+            }
+            tenants.put(tenantId, accounts);
+        }
+    }
+
+    private record BalanceKey(String account, String currency) {
+    }
+
+    private static final class TenantAccounts {
+
+        private final Map<BalanceKey, long[]> balances = new HashMap<>();
+        private final Map<String, LedgerEngine.SettlementPosting> settlements = new HashMap<>(2);
+        private long lastSequence;
+
+        private synchronized void apply(LedgerTransactionData transaction) {
+            for (LedgerEntryData entry : transaction.entries()) {
+                balances.computeIfAbsent(new BalanceKey(entry.account(), transaction.currency()), key -> new long[1])[0]
+                        += entry.amount();
+            }
+            String reference = transaction.reference();
+            if (reference != null && reference.startsWith(LedgerEngine.SETTLEMENT_REFERENCE_PREFIX)) {
+                settlements.put(transaction.currency(), new LedgerEngine.SettlementPosting(reference,
+                        transaction.sequence(), transaction.postedAt().toEpochMilli()));
+            }
+            lastSequence = transaction.sequence();
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.payment.ledger;
+
+import com.example.payment.base.vo.LedgerEntryData;
+import com.example.payment.base.vo.LedgerTransactionData;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Binary form of a posted transaction inside a write-ahead log record:
+ * {@code int tenantId, long postedAt (epoch millis), str reference, str currency, short entries,
+ * entries x (str account, long amount)} where {@code str} is a short UTF-8 length (-1 for null)
+ * followed by the bytes. The sequence lives in the record header.
+ */
+final class LedgerCodec {
+
+    private LedgerCodec() {
+    }
+
+    static int maxEncodedSize(LedgerTransactionData transaction) {
+        int size = Integer.BYTES + Long.BYTES + 3 * Short.BYTES + Short.BYTES;
+        size += maxStringSize(transaction.reference()) + maxStringSize(transaction.currency());
+        for (LedgerEntryData entry : transaction.entries()) {
+            size += maxStringSize(entry.account()) + Long.BYTES;
+        }
+        return size;
+    }
+
+    static void encode(LedgerTransactionData transaction, ByteBuffer buffer) {
+        buffer.putInt(transaction.tenantId());
+        buffer.putLong(transaction.postedAt().toEpochMilli());
+        putString(buffer, transaction.reference());
+        putString(buffer, transaction.currency());
+        buffer.putShort((short) transaction.entries().size());
+        for (LedgerEntryData entry : transaction.entries()) {
+            putString(buffer, entry.account());
+            buffer.putLong(entry.amount());
+        }
+    }
+
+    static LedgerTransactionData decode(long sequence, ByteBuffer buffer) {
+        int tenantId = buffer.getInt();
+        Instant postedAt = Instant.ofEpochMilli(buffer.getLong());
+        String reference = getString(buffer);
+        String currency = getString(buffer);
+        int count = buffer.getShort();
+        List<LedgerEntryData> entries = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            entries.add(new LedgerEntryData(getString(buffer), buffer.getLong()));
+        }
+        return new LedgerTransactionData(sequence, tenantId, reference, currency, postedAt, entries);
+    }
+
+    private static int maxStringSize(String value) {
+        return Short.BYTES + (value == null ? 0 : value.length() * 3);
+    }
+
+    private static void putString(ByteBuffer buffer, String value) {
+        if (value == null) {
+            buffer.putShort((short) -1);
+            return;
+        }
+        byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+        buffer.putShort((short) utf8.length).put(utf8);
+    }
+
+    private static String getString(ByteBuffer buffer) {
+        int length = buffer.getShort();
+        if (length < 0) {
+            return null;
+        }
+        byte[] utf8 = new byte[length];
+        buffer.get(utf8);
+        return new String(utf8, StandardCharsets.UTF_8);
+    }
+}
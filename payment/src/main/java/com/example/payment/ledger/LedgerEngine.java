@@ -0,0 +1,370 @@
+package com.example.payment.ledger;
+
+import com.example.core.base.concurrent.BoundedMpscQueue;
+import com.example.payment.base.vo.LedgerEntryData;
+import com.example.payment.base.vo.LedgerStatsData;
+import com.example.payment.base.vo.LedgerTransactionData;
+import com.example.payment.base.vo.TenantBalancesData;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+/**
+ * Double-entry ledger with a local write-ahead log.
+ * <p>
+ * Callers enqueue balanced transactions on a bounded lock-free queue and get a future. A single
+ * writer thread drains the queue in batches, assigns sequences, appends the batch to the log and
+ * forces it with one fsync (group commit); only then are the balances updated and the futures
+ * completed, so an acknowledged posting is always durable. While one fsync runs, the next batch
+ * accumulates, which is what keeps thousands of postings per second on one disk.
+ * <p>
+ * Balances are kept in memory per tenant and account, so reads never touch postings. Every
+ * {@code snapshot-every} postings or {@code snapshot-interval} the writer serializes them and a
+ * background thread stores the snapshot and prunes log segments no snapshot needs anymore. Startup
+ * restores the newest snapshot and replays the log after it. An I/O error on the log stops the
+ * ledger, since the state of the failed batch on disk is unknown.
+ */
+@Component
+public class LedgerEngine implements SmartLifecycle {
+
+    /**
+     * Reference prefix reserved for settlement postings, which the ledger tracks per tenant and currency.
+     */
+    public static final String SETTLEMENT_REFERENCE_PREFIX = "settlement:";
+
+    private static final Logger log = LoggerFactory.getLogger(LedgerEngine.class);
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+    private static final int BUFFER_BYTES = 4 * 1024 * 1024;
+
+    private final Path directory;
+    private final int maxBatch;
+    private final long snapshotEvery;
+    private final Duration snapshotInterval;
+    private final Clock clock = Clock.systemUTC();
+    private final BoundedMpscQueue<PendingPosting> queue;
+    private final BalanceBook book = new BalanceBook();
+    private final WriteAheadLog wal;
+    private final LedgerSnapshotStore snapshots;
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_BYTES);
+    private final AtomicInteger offering = new AtomicInteger();
+
+    private ExecutorService snapshotWriter;
+    private Thread writer;
+    private volatile boolean running;
+    private volatile boolean failed;
+    private volatile boolean snapshotRequested;
+    private volatile long lastSequence;
+    private volatile long snapshotSequence;
+    private volatile long posted;
+    private volatile long commits;
+    private long postedSinceSnapshot;
+    private long lastSnapshotAt;
+
+    public LedgerEngine(@Value("${app.payment.ledger.directory:data/payment/ledger}") Path directory,
+                        @Value("${app.payment.ledger.queue-capacity:65536}") int queueCapacity,
+                        @Value("${app.payment.ledger.max-batch:4096}") int maxBatch,
+                        @Value("${app.payment.ledger.segment-size:64MB}") DataSize segmentSize,
+                        @Value("${app.payment.ledger.fsync:true}") boolean fsync,
+                        @Value("${app.payment.ledger.snapshot-every:100000}") long snapshotEvery,
+                        @Value("${app.payment.ledger.snapshot-interval:5m}") Duration snapshotInterval) {
+        this.directory = directory;
+        this.maxBatch = maxBatch;
+        this.snapshotEvery = snapshotEvery;
+        this.snapshotInterval = snapshotInterval;
+        this.queue = new BoundedMpscQueue<>(queueCapacity);
+        this.wal = new WriteAheadLog(directory, segmentSize.toBytes(), fsync);
+        this.snapshots = new LedgerSnapshotStore(directory);
+    }
+
+    /**
+     * @return a description of the first rule the transaction breaks
+     */
+    public static Optional<String> validate(LedgerTransactionData transaction) {
+        if (transaction.reference() != null && transaction.reference().startsWith(SETTLEMENT_REFERENCE_PREFIX)) {
+            return Optional.of("References starting with " + SETTLEMENT_REFERENCE_PREFIX + " are reserved for settlements");
+        }
+        long sum = 0;
+        for (LedgerEntryData entry : transaction.entries()) {
+            if (entry.amount() == 0) {
+                return Optional.of("Entry amounts must not be zero");
+            }
+            try {
+                sum = Math.addExact(sum, entry.amount());
+            } catch (ArithmeticException e) {
+                return Optional.of("Entry amounts overflow");
+            }
+        }
+        return sum == 0 ? Optional.empty() : Optional.of("Entries must sum to zero but sum to " + sum);
+    }
+
+    /**
+     * Enqueues a validated transaction.
+     *
+     * @return completes with the posted transaction once it is durable, or exceptionally with
+     * {@link LedgerUnavailableException}
+     */
+    public CompletableFuture<LedgerTransactionData> post(LedgerTransactionData transaction) {
+        if (failed) {
+            return CompletableFuture.failedFuture(unavailable(LedgerUnavailableException.Reason.FAILED));
+        }
+        // stop() waits for offers in progress, so every posting it lets through is drained
+        offering.incrementAndGet();
+        try {
+            if (!running) {
+                return CompletableFuture.failedFuture(unavailable(LedgerUnavailableException.Reason.STOPPED));
+            }
+            PendingPosting posting = new PendingPosting(transaction, new CompletableFuture<>());
+            if (!queue.offer(posting)) {
+                return CompletableFuture.failedFuture(unavailable(LedgerUnavailableException.Reason.BUSY));
+            }
+            return posting.future();
+        } finally {
+            offering.decrementAndGet();
+        }
+    }
+
+    public TenantBalancesData balances(int tenantId) {
+        return book.balances(tenantId);
+    }
+
+    /**
+     * @return the last posting of the tenant in {@code currency} whose reference starts with
+     * {@link #SETTLEMENT_REFERENCE_PREFIX}
+     */
+    public Optional<SettlementPosting> lastSettlement(int tenantId, String currency) {
+        return book.lastSettlement(tenantId, currency);
+    }
+
+    /**
+     * @return ids of all tenants with balances, ascending
+     */
+    public int[] tenantIds() {
+        return book.tenantIds();
+    }
+
+    public LedgerStatsData stats() {
+        return new LedgerStatsData(lastSequence, snapshotSequence, queue.size(), posted, commits,
+                book.tenantCount(), !failed);
+    }
+
+    /**
+     * Asks the writer to take a snapshot after its current batch.
+     */
+    public void requestSnapshot() {
+        snapshotRequested = true;
+    }
+
+    @Override
+    public void start() {
+        try {
+            Files.createDirectories(directory);
+            long restored = snapshots.restoreLatest(book).orElse(0L);
+            long[] replayed = {0};
+            lastSequence = wal.replay(restored, transaction -> {
+                book.apply(transaction);
+                replayed[0]++;
+            });
+            snapshotSequence = restored;
+            postedSinceSnapshot = replayed[0];
+            lastSnapshotAt = clock.millis();
+            wal.open(lastSequence + 1);
+            log.info("Recovered ledger at sequence {}: snapshot {} plus {} replayed transactions, {} tenants",
+                    lastSequence, restored, replayed[0], book.tenantCount());
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot recover the ledger in " + directory, e);
+        }
+        snapshotWriter = Executors.newSingleThreadExecutor(r -> {
+            Thread thread = new Thread(r, "ledger-snapshot");
+            thread.setDaemon(true);
+            return thread;
+        });
+        running = true;
+        writer = new Thread(this::writeLoop, "ledger-writer");
+        writer.start();
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        while (offering.get() > 0) {
+            Thread.onSpinWait();
+        }
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        queue.drain(posting -> posting.future().completeExceptionally(
+                unavailable(LedgerUnavailableException.Reason.STOPPED)), Integer.MAX_VALUE);
+        if (!failed && postedSinceSnapshot > 0) {
+            snapshot();
+        }
+        snapshotWriter.shutdown();
+        try {
+            snapshotWriter.awaitTermination(1, TimeUnit.MINUTES);
+            wal.close();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException e) {
+            log.error("Failed to close the write-ahead log", e);
+        }
+        log.info("Stopped ledger at sequence {}", lastSequence);
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Below the web server, so requests stop before the writer drains and the ledger closes.
+     */
+    @Override
+    public int getPhase() {
+        return SmartLifecycle.DEFAULT_PHASE - 4096;
+    }
+
+    private void writeLoop() {
+        List<PendingPosting> batch = new ArrayList<>(maxBatch);
+        Consumer<PendingPosting> collector = batch::add;
+        while (true) {
+            boolean stopping = !running;
+            int drained = queue.drain(collector, maxBatch);
+            if (drained > 0) {
+                if (failed) {
+                    batch.forEach(p -> p.future().completeExceptionally(unavailable(LedgerUnavailableException.Reason.FAILED)));
+                } else {
+                    commit(batch);
+                }
+                batch.clear();
+            } else if (stopping) {
+                return;
+            }
+            if (!failed && snapshotDue()) {
+                snapshot();
+            }
+            if (drained == 0) {
+                LockSupport.parkNanos(IDLE_PARK_NANOS);
+            }
+        }
+    }
+
+    private void commit(List<PendingPosting> batch) {
+        Instant postedAt = clock.instant();
+        long sequence = lastSequence;
+        List<LedgerTransactionData> committed = new ArrayList<>(batch.size());
+        try {
+            buffer.clear();
+            for (PendingPosting posting : batch) {
+                LedgerTransactionData transaction = posting.transaction().withPosting(++sequence, postedAt);
+                if (buffer.remaining() < WriteAheadLog.RECORD_HEADER_BYTES + LedgerCodec.maxEncodedSize(transaction)) {
+                    wal.append(buffer.flip());
+                    buffer.clear();
+                }
+                wal.putRecord(buffer, sequence, transaction);
+                committed.add(transaction);
+            }
+            wal.append(buffer.flip());
+            wal.sync();
+        } catch (IOException | RuntimeException e) {
+            failed = true;
+            log.error("Write-ahead log append failed, the ledger stops accepting postings", e);
+            batch.forEach(p -> p.future().completeExceptionally(unavailable(LedgerUnavailableException.Reason.FAILED)));
+            return;
+        }
+        for (LedgerTransactionData transaction : committed) {
+            book.apply(transaction);
+        }
+        lastSequence = sequence;
+        posted += batch.size();
+        commits++;
+        postedSinceSnapshot += batch.size();
+        for (int i = 0; i < batch.size(); i++) {
+            batch.get(i).future().complete(committed.get(i));
+        }
+        try {
+            wal.rollIfFull(sequence + 1);
+        } catch (IOException e) {
+            failed = true;
+            log.error("Write-ahead log segment roll failed, the ledger stops accepting postings", e);
+        }
+    }
+
+    private boolean snapshotDue() {
+        if (snapshotRequested) {
+            return true;
+        }
+        return postedSinceSnapshot >= snapshotEvery
+                || (postedSinceSnapshot > 0 && clock.millis() - lastSnapshotAt >= snapshotInterval.toMillis());
+    }
+
+    /**
+     * Serializes the balances on the writer thread, where they cannot change, and stores them in the background.
+     */
+    private void snapshot() {
+        snapshotRequested = false;
+        long sequence = lastSequence;
+        byte[] image;
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            book.writeTo(new DataOutputStream(bytes));
+            image = bytes.toByteArray();
+        } catch (IOException e) {
+            log.error("Failed to serialize ledger balances", e);
+            return;
+        }
+        postedSinceSnapshot = 0;
+        lastSnapshotAt = clock.millis();
+        snapshotWriter.execute(() -> {
+            try {
+                long oldestRetained = snapshots.write(sequence, image);
+                snapshotSequence = sequence;
+                int pruned = wal.deleteCoveredBy(oldestRetained);
+                log.info("Wrote ledger snapshot at sequence {} ({} bytes), pruned {} log segments",
+                        sequence, image.length, pruned);
+            } catch (IOException e) {
+                log.error("Failed to write ledger snapshot at sequence {}", sequence, e);
+            }
+        });
+    }
+
+    private static LedgerUnavailableException unavailable(LedgerUnavailableException.Reason reason) {
+        return new LedgerUnavailableException(reason, switch (reason) {
+            case BUSY -> "Ledger queue is full";
+            case STOPPED -> "Ledger is not running";
+            case FAILED -> "Ledger stopped after a write-ahead log failure";
+        });
+    }
+
+    /**
+     * @param postedAt epoch milliseconds
+     */
+    public record SettlementPosting(String reference, long sequence, long postedAt) {
+    }
+
+    private record PendingPosting(LedgerTransactionData transaction, CompletableFuture<LedgerTransactionData> future) {
+    }
+}
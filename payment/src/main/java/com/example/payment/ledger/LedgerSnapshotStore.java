@@ -0,0 +1,121 @@
+package com.example.payment.ledger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * Balance snapshots named after the last sequence they include. A file holds
+ * {@code int magic, int version, long sequence, balance book image, int crc32c} and is written to a
+ * temporary name, forced and renamed, so a snapshot is either complete or absent. Startup uses the
+ * newest snapshot whose checksum verifies; the previous one is kept, together with the log after
+ * it, as a fallback.
+ */
+final class LedgerSnapshotStore {
+
+    private static final Logger log = LoggerFactory.getLogger(LedgerSnapshotStore.class);
+    private static final int MAGIC = 0x4c444753;
+    private static final int VERSION = 2;
+    private static final String PREFIX = "snapshot-";
+    private static final String SUFFIX = ".snap";
+    private static final int RETAINED = 2;
+
+    private final Path directory;
+
+    LedgerSnapshotStore(Path directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * @param image balance book image from {@link BalanceBook#writeTo}
+     * @return the sequence of the oldest retained snapshot; the log is only needed after it
+     */
+    long write(long sequence, byte[] image) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(2 * Integer.BYTES + Long.BYTES).putInt(MAGIC).putInt(VERSION).putLong(sequence).flip();
+        CRC32C crc = new CRC32C();
+        crc.update(header.duplicate());
+        crc.update(image);
+        ByteBuffer trailer = ByteBuffer.allocate(Integer.BYTES).putInt((int) crc.getValue()).flip();
+
+        Path target = directory.resolve(PREFIX + "%020d".formatted(sequence) + SUFFIX);
+        Path temporary = directory.resolve(target.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            for (ByteBuffer part : new ByteBuffer[]{header, ByteBuffer.wrap(image), trailer}) {
+                while (part.hasRemaining()) {
+                    channel.write(part);
+                }
+            }
+            channel.force(true);
+        }
+        Files.move(temporary, target, StandardCopyOption.ATOMIC_MOVE);
+        List<Path> snapshots = snapshots();
+        int first = Math.max(0, snapshots.size() - RETAINED);
+        for (int i = 0; i < first; i++) {
+            Files.deleteIfExists(snapshots.get(i));
+        }
+        return sequenceOf(snapshots.get(first));
+    }
+
+    /**
+     * Restores the newest valid snapshot into {@code book}.
+     *
+     * @return the sequence it covers, empty when there is no usable snapshot
+     */
+    Optional<Long> restoreLatest(BalanceBook book) throws IOException {
+        List<Path> snapshots = snapshots();
+        for (int i = snapshots.size() - 1; i >= 0; i--) {
+            Path snapshot = snapshots.get(i);
+            byte[] bytes = Files.readAllBytes(snapshot);
+            ByteBuffer buffer = ByteBuffer.wrap(bytes);
+            if (bytes.length < 2 * Integer.BYTES + Long.BYTES + Integer.BYTES || buffer.getInt() != MAGIC) {
+                log.warn("Ignoring unreadable ledger snapshot {}", snapshot.getFileName());
+                continue;
+            }
+            int version = buffer.getInt();
+            if (version < 1 || version > VERSION) {
+                log.warn("Ignoring ledger snapshot {} of unsupported version {}", snapshot.getFileName(), version);
+                continue;
+            }
+            long sequence = buffer.getLong();
+            CRC32C crc = new CRC32C();
+            crc.update(bytes, 0, bytes.length - Integer.BYTES);
+            if ((int) crc.getValue() != buffer.getInt(bytes.length - Integer.BYTES)) {
+                log.warn("Ignoring ledger snapshot {} with a bad checksum", snapshot.getFileName());
+                continue;
+            }
+            int imageOffset = 2 * Integer.BYTES + Long.BYTES;
+            book.readFrom(new DataInputStream(new ByteArrayInputStream(bytes, imageOffset, bytes.length - imageOffset - Integer.BYTES)),
+                    version >= 2);
+            return Optional.of(sequence);
+        }
+        return Optional.empty();
+    }
+
+    private static long sequenceOf(Path snapshot) {
+        String name = snapshot.getFileName().toString();
+        return Long.parseLong(name.substring(PREFIX.length(), name.length() - SUFFIX.length()));
+    }
+
+    private List<Path> snapshots() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(f -> {
+                String name = f.getFileName().toString();
+                return name.startsWith(PREFIX) && name.endsWith(SUFFIX);
+            }).sorted().toList();
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.example.payment.ledger;
+
+import lombok.Getter;
+
+/**
+ * A posting was not accepted. {@link Reason#BUSY} is transient; the others last until restart.
+ */
+@Getter
+public class LedgerUnavailableException extends RuntimeException {
+
+    public enum Reason {
+        BUSY,
+        STOPPED,
+        FAILED
+    }
+
+    private final Reason reason;
+
+    public LedgerUnavailableException(Reason reason, String message) {
+        super(message);
+        this.reason = reason;
+    }
+}
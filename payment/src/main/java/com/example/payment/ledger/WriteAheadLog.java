@@ -0,0 +1,237 @@
+package com.example.payment.ledger;
+
+import com.example.payment.base.vo.LedgerTransactionData;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * Segmented append-only write-ahead log. Each segment is named after the first sequence it holds
+ * and contains records of {@code int payloadLength, int crc32c, long sequence, payload}, where the
+ * checksum covers sequence and payload.
+ * <p>
+ * Appends and syncs come from the ledger writer thread only. A torn record at the end of the last
+ * segment (crash during a write) is truncated on replay. A damaged record anywhere else, including
+ * one in the last segment that a valid record follows, stops startup, because truncating there would
+ * drop postings and those after it could not be trusted.
+ */
+final class WriteAheadLog implements Closeable {
+
+    static final int RECORD_HEADER_BYTES = 2 * Integer.BYTES + Long.BYTES;
+
+    private static final Logger log = LoggerFactory.getLogger(WriteAheadLog.class);
+    private static final String PREFIX = "ledger-";
+    private static final String SUFFIX = ".wal";
+
+    private final Path directory;
+    private final long segmentBytes;
+    private final boolean fsync;
+    private final CRC32C crc = new CRC32C();
+    private FileChannel channel;
+    private volatile Path current;
+
+    WriteAheadLog(Path directory, long segmentBytes, boolean fsync) {
+        this.directory = directory;
+        this.segmentBytes = segmentBytes;
+        this.fsync = fsync;
+    }
+
+    /**
+     * Hands every record with a sequence above {@code after} to {@code consumer}, in order.
+     *
+     * @return the last sequence in the log, or {@code after} when there is none beyond it
+     */
+    long replay(long after, Consumer<LedgerTransactionData> consumer) throws IOException {
+        List<Path> segments = segments();
+        long last = after;
+        for (int i = 0; i < segments.size(); i++) {
+            Path segment = segments.get(i);
+            boolean tail = i == segments.size() - 1;
+            try (FileChannel file = FileChannel.open(segment, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                MappedByteBuffer buffer = file.map(FileChannel.MapMode.READ_ONLY, 0, file.size());
+                while (buffer.hasRemaining()) {
+                    int start = buffer.position();
+                    LedgerTransactionData record = readRecord(buffer);
+                    if (record == null) {
+                        if (!tail || recordFollows(buffer, start)) {
+                            throw new IOException("Corrupt write-ahead log record in %s at offset %d".formatted(segment, start));
+                        }
+                        log.warn("Truncating torn write-ahead log tail of {} at offset {} ({} bytes)",
+                                segment.getFileName(), start, file.size() - start);
+                        file.truncate(start);
+                        file.force(true);
+                        break;
+                    }
+                    long sequence = record.sequence();
+                    if (sequence <= last) {
+                        continue;
+                    }
+                    if (sequence != last + 1) {
+                        throw new IOException("Write-ahead log gap: expected sequence %d but found %d in %s"
+                                .formatted(last + 1, sequence, segment));
+                    }
+                    consumer.accept(record);
+                    last = sequence;
+                }
+            }
+        }
+        return last;
+    }
+
+    /**
+     * Starts a fresh segment; a file of that name can only be an empty leftover and is overwritten.
+     */
+    void open(long nextSequence) throws IOException {
+        Path segment = directory.resolve(PREFIX + "%020d".formatted(nextSequence) + SUFFIX);
+        FileChannel opened = FileChannel.open(segment, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+        if (channel != null) {
+            sync();
+            channel.close();
+        }
+        channel = opened;
+        current = segment;
+        syncDirectory();
+    }
+
+    /**
+     * Writes one record per call into {@code buffer} at its position.
+     */
+    void putRecord(ByteBuffer buffer, long sequence, LedgerTransactionData transaction) {
+        int start = buffer.position();
+        buffer.position(start + RECORD_HEADER_BYTES);
+        LedgerCodec.encode(transaction, buffer);
+        int end = buffer.position();
+        buffer.putInt(start, end - start - RECORD_HEADER_BYTES);
+        buffer.putLong(start + 2 * Integer.BYTES, sequence);
+        crc.reset();
+        crc.update(buffer.duplicate().position(start + 2 * Integer.BYTES).limit(end));
+        buffer.putInt(start + Integer.BYTES, (int) crc.getValue());
+    }
+
+    void append(ByteBuffer records) throws IOException {
+        while (records.hasRemaining()) {
+            channel.write(records);
+        }
+    }
+
+    /**
+     * Forces appended records to disk; one call per group commit.
+     */
+    void sync() throws IOException {
+        if (fsync) {
+            channel.force(false);
+        }
+    }
+
+    void rollIfFull(long nextSequence) throws IOException {
+        if (channel.size() >= segmentBytes) {
+            open(nextSequence);
+        }
+    }
+
+    /**
+     * Deletes closed segments whose records are all at or below {@code sequence}.
+     */
+    int deleteCoveredBy(long sequence) throws IOException {
+        List<Path> segments = segments();
+        int deleted = 0;
+        for (int i = 0; i + 1 < segments.size(); i++) {
+            Path segment = segments.get(i);
+            if (segment.equals(current) || firstSequence(segments.get(i + 1)) - 1 > sequence) {
+                break;
+            }
+            Files.deleteIfExists(segment);
+            deleted++;
+        }
+        return deleted;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (channel != null) {
+            sync();
+            channel.close();
+            channel = null;
+        }
+    }
+
+    private LedgerTransactionData readRecord(ByteBuffer buffer) {
+        if (buffer.remaining() < RECORD_HEADER_BYTES) {
+            return null;
+        }
+        int start = buffer.position();
+        int length = buffer.getInt();
+        int checksum = buffer.getInt();
+        if (length <= 0 || buffer.remaining() < Long.BYTES + length) {
+            return null;
+        }
+        crc.reset();
+        crc.update(buffer.duplicate().limit(buffer.position() + Long.BYTES + length));
+        if ((int) crc.getValue() != checksum) {
+            buffer.position(start);
+            return null;
+        }
+        long sequence = buffer.getLong();
+        ByteBuffer payload = buffer.slice(buffer.position(), length);
+        buffer.position(buffer.position() + length);
+        return LedgerCodec.decode(sequence, payload);
+    }
+
+    /**
+     * Whether a well-formed record starts anywhere after {@code from}, which tells a damaged record
+     * from a torn tail. Only runs once per startup, for the bad record found.
+     */
+    private boolean recordFollows(ByteBuffer buffer, int from) {
+        for (int position = from + 1; position + RECORD_HEADER_BYTES <= buffer.limit(); position++) {
+            int length = buffer.getInt(position);
+            int payload = position + RECORD_HEADER_BYTES;
+            if (length <= 0 || length > buffer.limit() - payload) {
+                continue;
+            }
+            crc.reset();
+            crc.update(buffer.duplicate().position(position + 2 * Integer.BYTES).limit(payload + length));
+            if ((int) crc.getValue() == buffer.getInt(position + Integer.BYTES)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private List<Path> segments() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(f -> {
+                String name = f.getFileName().toString();
+                return name.startsWith(PREFIX) && name.endsWith(SUFFIX);
+            }).sorted().toList();
+        }
+    }
+
+    private static long firstSequence(Path segment) {
+        String name = segment.getFileName().toString();
+        return Long.parseLong(name.substring(PREFIX.length(), name.length() - SUFFIX.length()));
+    }
+
+    /**
+     * Makes a new segment's directory entry durable; not supported on every platform.
+     */
+    private void syncDirectory() {
+        try (FileChannel dir = FileChannel.open(directory, StandardOpenOption.READ)) {
+            dir.force(true);
+        } catch (IOException ignored) {
+            // best effort
+        }
+    }
+}
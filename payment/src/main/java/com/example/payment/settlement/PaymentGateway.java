@@ -0,0 +1,25 @@
+package com.example.payment.settlement;
+
+/**
+ * Pays settled balances out to tenants. Implementations must be thread safe and treat
+ * {@link PayoutInstruction#idempotencyKey()} as the identity of a payout: a repeated key answers
+ * the original receipt instead of paying twice, which is what makes a resumed run safe. A repeated
+ * key with a different tenant, currency or amount is a caller error and must be refused rather
+ * than answered with the receipt of the original payout.
+ */
+public interface PaymentGateway {
+
+    String name();
+
+    /**
+     * @throws PaymentGatewayException when the payout was not made
+     * @throws IllegalStateException   when the key was used for a different payout
+     */
+    PayoutReceipt payout(PayoutInstruction instruction);
+
+    record PayoutInstruction(String idempotencyKey, int tenantId, String currency, long amount) {
+    }
+
+    record PayoutReceipt(String payoutId) {
+    }
+}
@@ -0,0 +1,8 @@
+package com.example.payment.settlement;
+
+public class PaymentGatewayException extends RuntimeException {
+
+    public PaymentGatewayException(String message) {
+        super(message);
+    }
+}
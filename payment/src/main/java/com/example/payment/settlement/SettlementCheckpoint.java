@@ -0,0 +1,99 @@
+package com.example.payment.settlement;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.zip.CRC32C;
+
+/**
+ * Progress of the unfinished settlement run, if any. The file holds
+ * {@code int magic, int version, UTF-8 run id, long startedAt, int partitions, partitions x long
+ * last settled tenant, int crc32c} and is rewritten through a forced temporary file and an atomic
+ * rename, so a crash leaves either the previous or the new checkpoint.
+ */
+final class SettlementCheckpoint {
+
+    static final long NONE = Long.MIN_VALUE;
+
+    private static final int MAGIC = 0x53544c43;
+    private static final int VERSION = 1;
+    private static final String FILE_NAME = "settlement.ckpt";
+
+    private final Path file;
+    private final Path temporary;
+
+    SettlementCheckpoint(Path directory) {
+        this.file = directory.resolve(FILE_NAME);
+        this.temporary = directory.resolve(FILE_NAME + ".tmp");
+    }
+
+    /**
+     * @return the checkpoint, empty when there is none
+     * @throws IOException also when the checkpoint is corrupt, since guessing could pay twice
+     */
+    Optional<State> load() throws IOException {
+        if (!Files.exists(file)) {
+            return Optional.empty();
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(file));
+        try {
+            if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+                throw new IOException("Unsupported settlement checkpoint " + file);
+            }
+            byte[] runId = new byte[buffer.getShort()];
+            buffer.get(runId);
+            Instant startedAt = Instant.ofEpochMilli(buffer.getLong());
+            long[] cursors = new long[buffer.getInt()];
+            for (int i = 0; i < cursors.length; i++) {
+                cursors[i] = buffer.getLong();
+            }
+            CRC32C crc = new CRC32C();
+            crc.update(buffer.array(), 0, buffer.position());
+            if (buffer.getInt() != (int) crc.getValue()) {
+                throw new IOException("Settlement checkpoint checksum mismatch in " + file);
+            }
+            return Optional.of(new State(new String(runId, StandardCharsets.UTF_8), startedAt, cursors));
+        } catch (RuntimeException e) {
+            throw new IOException("Truncated settlement checkpoint " + file, e);
+        }
+    }
+
+    void save(State state) throws IOException {
+        byte[] runId = state.runId().getBytes(StandardCharsets.UTF_8);
+        ByteBuffer buffer = ByteBuffer.allocate(3 * Integer.BYTES + Short.BYTES + runId.length + Long.BYTES
+                + state.cursors().length * Long.BYTES + Integer.BYTES);
+        buffer.putInt(MAGIC).putInt(VERSION).putShort((short) runId.length).put(runId)
+                .putLong(state.startedAt().toEpochMilli()).putInt(state.cursors().length);
+        for (long cursor : state.cursors()) {
+            buffer.putLong(cursor);
+        }
+        CRC32C crc = new CRC32C();
+        crc.update(buffer.array(), 0, buffer.position());
+        buffer.putInt((int) crc.getValue()).flip();
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(true);
+        }
+        Files.move(temporary, file, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    void clear() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    /**
+     * @param cursors per partition, the last tenant whose settlement is recorded, or {@link #NONE}
+     */
+    record State(String runId, Instant startedAt, long[] cursors) {
+    }
+}
@@ -0,0 +1,429 @@
+package com.example.payment.settlement;
+
+import com.example.payment.base.enums.PayoutStatus;
+import com.example.payment.base.enums.SettlementStatus;
+import com.example.payment.base.vo.BalanceData;
+import com.example.payment.base.vo.LedgerEntryData;
+import com.example.payment.base.vo.LedgerTransactionData;
+import com.example.payment.base.vo.SettlementRunData;
+import com.example.payment.ledger.LedgerEngine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.scheduling.support.CronExpression;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Pays out every tenant's credit balance on the {@code account} ledger account and moves it to
+ * {@code clearing-account}.
+ * <p>
+ * Tenants are split into {@code partitions} by id; the partitions run in parallel on a fork-join
+ * pool and each settles its tenants in ascending order, {@code batch-size} tenants at a time. A
+ * chunk first records its payouts with their amounts as pending, pays them out through the
+ * {@link PaymentGateway}, posts their ledger transactions together so they share group commits,
+ * records the outcome of each step with one JDBC batch and then advances the partition's cursor in
+ * the checkpoint file.
+ * <p>
+ * A run that crashed, failed or was stopped resumes from the checkpoint, on startup or on the next
+ * request, under the same run id. It first reconciles the payouts it recorded but did not settle,
+ * from the recorded amounts rather than the live balance, which may have taken new charges since:
+ * gateway idempotency keys derive from run, tenant and currency, so a payout that was made is
+ * answered with its original receipt, and the ledger posting carries the same key as its reference,
+ * so the ledger's last settlement posting of the tenant tells whether it was made. Tenants with a recorded payout are not paid again by the run.
+ * <p>
+ * Throughput, remaining tenants and chunk latency are published as {@code payment.settlement.*}
+ * meters.
+ */
+@Component
+public class SettlementProcessor implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(SettlementProcessor.class);
+
+    private final LedgerEngine ledger;
+    private final PaymentGateway gateway;
+    private final SettlementStore store;
+    private final Path directory;
+    private final SettlementCheckpoint checkpoint;
+    private final int partitions;
+    private final int batchSize;
+    private final String account;
+    private final String clearingAccount;
+    private final boolean resumeOnStart;
+    private final CronExpression cron;
+    private final Clock clock = Clock.systemUTC();
+
+    private final Counter settledCounter;
+    private final Counter payoutCounter;
+    private final Counter failedPayoutCounter;
+    private final Timer chunkTimer;
+
+    private volatile SettlementRun current;
+    private ExecutorService coordinator;
+    private ScheduledExecutorService scheduler;
+    private ForkJoinPool pool;
+    private volatile boolean running;
+
+    public SettlementProcessor(LedgerEngine ledger,
+                               PaymentGateway gateway,
+                               SettlementStore store,
+                               MeterRegistry registry,
+                               @Value("${app.payment.settlement.directory:data/payment/settlement}") Path directory,
+                               @Value("${app.payment.settlement.partitions:0}") int partitions,
+                               @Value("${app.payment.settlement.batch-size:256}") int batchSize,
+                               @Value("${app.payment.settlement.account:payable}") String account,
+                               @Value("${app.payment.settlement.clearing-account:settlement-clearing}") String clearingAccount,
+                               @Value("${app.payment.settlement.resume-on-start:true}") boolean resumeOnStart,
+                               @Value("${app.payment.settlement.cron:}") String cron) {
+        this.ledger = ledger;
+        this.gateway = gateway;
+        this.store = store;
+        this.directory = directory;
+        this.checkpoint = new SettlementCheckpoint(directory);
+        this.partitions = partitions > 0 ? partitions : Runtime.getRuntime().availableProcessors();
+        this.batchSize = batchSize;
+        this.account = account;
+        this.clearingAccount = clearingAccount;
+        this.resumeOnStart = resumeOnStart;
+        this.cron = StringUtils.hasText(cron) ? CronExpression.parse(cron) : null;
+
+        this.settledCounter = Counter.builder("payment.settlement.tenants")
+                .description("Tenants settled").register(registry);
+        this.payoutCounter = Counter.builder("payment.settlement.payouts")
+                .description("Payouts made").register(registry);
+        this.failedPayoutCounter = Counter.builder("payment.settlement.payouts.failed")
+                .description("Payouts declined by the gateway").register(registry);
+        this.chunkTimer = Timer.builder("payment.settlement.chunk")
+                .description("Time to settle one chunk of tenants").register(registry);
+        Gauge.builder("payment.settlement.remaining", this, p -> p.current == null ? 0 : p.current.remaining())
+                .description("Tenants left in the running settlement").register(registry);
+        Gauge.builder("payment.settlement.throughput", this,
+                        p -> p.current == null || !p.current.isRunning() ? 0 : p.current.tenantsPerSecond(p.clock.instant()))
+                .description("Tenants settled per second by the running settlement").register(registry);
+    }
+
+    /**
+     * Starts a settlement run, or resumes the unfinished one.
+     *
+     * @return the run, empty while another run is in progress or the processor is stopped
+     */
+    public synchronized Optional<SettlementRunData> begin() {
+        SettlementRun run = current;
+        if (!running || (run != null && run.isRunning())) {
+            return Optional.empty();
+        }
+        try {
+            Optional<SettlementCheckpoint.State> unfinished = checkpoint.load();
+            SettlementCheckpoint.State state = unfinished.orElseGet(() -> {
+                long[] cursors = new long[partitions];
+                Arrays.fill(cursors, SettlementCheckpoint.NONE);
+                return new SettlementCheckpoint.State(UUID.randomUUID().toString(), clock.instant(), cursors);
+            });
+            if (unfinished.isEmpty()) {
+                checkpoint.save(state);
+            }
+            run = new SettlementRun(state, clock.instant(), unfinished.isPresent());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read the settlement checkpoint in " + directory, e);
+        }
+        current = run;
+        SettlementRun started = run;
+        coordinator.execute(() -> execute(started));
+        return Optional.of(run.toData(clock.instant()));
+    }
+
+    /**
+     * @return the running or last finished run of this process
+     */
+    public Optional<SettlementRunData> current() {
+        SettlementRun run = current;
+        return run == null ? Optional.empty() : Optional.of(run.toData(clock.instant()));
+    }
+
+    @Override
+    public void start() {
+        boolean unfinished;
+        try {
+            Files.createDirectories(directory);
+            unfinished = checkpoint.load().isPresent();
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot read the settlement checkpoint in " + directory, e);
+        }
+        pool = new ForkJoinPool(partitions);
+        coordinator = Executors.newSingleThreadExecutor(r -> new Thread(r, "settlement-coordinator"));
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "settlement-scheduler");
+            thread.setDaemon(true);
+            return thread;
+        });
+        running = true;
+        if (unfinished && resumeOnStart) {
+            begin().ifPresent(run -> log.info("Resuming settlement run {}", run.runId()));
+        }
+        scheduleNext();
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        scheduler.shutdownNow();
+        coordinator.shutdown();
+        try {
+            if (!coordinator.awaitTermination(1, TimeUnit.MINUTES)) {
+                log.warn("Settlement run did not stop within a minute");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        pool.shutdown();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Between the ledger and the web server, so a run starts after the ledger recovered and stops
+     * at a chunk boundary before the ledger closes.
+     */
+    @Override
+    public int getPhase() {
+        return SmartLifecycle.DEFAULT_PHASE - 3072;
+    }
+
+    private void scheduleNext() {
+        if (cron == null || !running) {
+            return;
+        }
+        ZonedDateTime now = ZonedDateTime.now(clock);
+        ZonedDateTime next = cron.next(now);
+        if (next == null) {
+            return;
+        }
+        scheduler.schedule(() -> {
+            if (begin().isEmpty()) {
+                log.warn("Skipped scheduled settlement, a run is still in progress");
+            }
+            scheduleNext();
+        }, Duration.between(now, next).toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    private void execute(SettlementRun run) {
+        Throwable failure;
+        try {
+            failure = settlePartitions(run, reconcile(run));
+        } catch (RuntimeException e) {
+            failure = e;
+        }
+
+        if (failure != null) {
+            Throwable cause = failure instanceof CompletionException && failure.getCause() != null ? failure.getCause() : failure;
+            run.finish(SettlementStatus.FAILED, clock.instant(), cause.getMessage());
+            log.error("Settlement run {} failed, it resumes from its checkpoint", run.runId(), cause);
+        } else if (!running) {
+            run.finish(SettlementStatus.STOPPED, clock.instant(), null);
+            log.info("Settlement run {} stopped, it resumes from its checkpoint", run.runId());
+        } else {
+            try {
+                checkpoint.clear();
+                run.finish(SettlementStatus.COMPLETED, clock.instant(), null);
+                SettlementRunData data = run.toData(clock.instant());
+                log.info("Settlement run {} completed: {} tenants, {} payouts, {} declined, {} tenants/s", data.runId(),
+                        data.settledTenants(), data.payouts(), data.failedPayouts(), Math.round(data.tenantsPerSecond()));
+            } catch (IOException e) {
+                run.finish(SettlementStatus.FAILED, clock.instant(), e.getMessage());
+                log.error("Failed to clear the checkpoint of settlement run {}", run.runId(), e);
+            }
+        }
+    }
+
+    /**
+     * Finishes the payouts an earlier attempt of the run recorded but did not settle, with their
+     * recorded amounts.
+     *
+     * @return {@link SettlementStore#key} of every tenant and currency the run has a payout for
+     */
+    private Set<String> reconcile(SettlementRun run) {
+        if (!run.resumed()) {
+            return Set.of();
+        }
+        List<SettlementStore.Payout> unfinished = store.findUnfinished(run.runId());
+        if (!unfinished.isEmpty()) {
+            log.info("Settlement run {} reconciles {} unfinished payouts", run.runId(), unfinished.size());
+            List<SettlementStore.Payout> paid = new ArrayList<>(unfinished.size());
+            List<SettlementStore.Payout> pending = new ArrayList<>();
+            for (SettlementStore.Payout payout : unfinished) {
+                (payout.status() == PayoutStatus.PAID ? paid : pending).add(payout);
+            }
+            paid.addAll(pay(run, pending));
+            post(run, paid);
+        }
+        return store.findRecorded(run.runId());
+    }
+
+    /**
+     * @return the first failure of a partition, null when all finished
+     */
+    private Throwable settlePartitions(SettlementRun run, Set<String> recorded) {
+        int[] tenants = ledger.tenantIds();
+        List<int[]> partitioned = IntStream.range(0, run.partitions())
+                .mapToObj(p -> Arrays.stream(tenants)
+                        .filter(t -> Math.floorMod(t, run.partitions()) == p && t > run.cursor(p))
+                        .toArray())
+                .toList();
+        long total = partitioned.stream().mapToLong(p -> p.length).sum();
+        run.tenants(total);
+        log.info("Settlement run {} started: {} tenants in {} partitions", run.runId(), total, run.partitions());
+
+        List<ForkJoinTask<?>> tasks = new ArrayList<>(run.partitions());
+        for (int p = 0; p < run.partitions(); p++) {
+            int partition = p;
+            tasks.add(pool.submit(() -> settlePartition(run, partition, partitioned.get(partition), recorded)));
+        }
+        Throwable failure = null;
+        for (ForkJoinTask<?> task : tasks) {
+            try {
+                task.join();
+            } catch (RuntimeException e) {
+                failure = failure == null ? e : failure;
+            }
+        }
+        return failure;
+    }
+
+    private void settlePartition(SettlementRun run, int partition, int[] tenants, Set<String> recorded) {
+        for (int from = 0; from < tenants.length && running; from += batchSize) {
+            int to = Math.min(tenants.length, from + batchSize);
+            long started = System.nanoTime();
+            settleChunk(run, Arrays.copyOfRange(tenants, from, to), recorded);
+            run.advance(partition, tenants[to - 1], to - from);
+            saveCheckpoint(run);
+            settledCounter.increment(to - from);
+            chunkTimer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private void settleChunk(SettlementRun run, int[] tenants, Set<String> recorded) {
+        List<SettlementStore.Payout> payouts = new ArrayList<>();
+        for (int tenantId : tenants) {
+            for (BalanceData balance : ledger.balances(tenantId).balances()) {
+                if (!balance.account().equals(account) || balance.balance() >= 0
+                        || recorded.contains(SettlementStore.key(tenantId, balance.currency()))) {
+                    continue;
+                }
+                payouts.add(new SettlementStore.Payout(tenantId, balance.currency(), -balance.balance(),
+                        PayoutStatus.PENDING, null));
+            }
+        }
+        store.recordPending(run.runId(), payouts, clock.millis());
+        post(run, pay(run, payouts));
+    }
+
+    /**
+     * Pays out pending payouts and records which were paid and which declined.
+     *
+     * @return the paid payouts
+     */
+    private List<SettlementStore.Payout> pay(SettlementRun run, List<SettlementStore.Payout> pending) {
+        List<SettlementStore.Payout> paid = new ArrayList<>(pending.size());
+        List<SettlementStore.Payout> declined = new ArrayList<>();
+        for (SettlementStore.Payout payout : pending) {
+            String key = idempotencyKey(run, payout);
+            try {
+                PaymentGateway.PayoutReceipt receipt = gateway.payout(new PaymentGateway.PayoutInstruction(key,
+                        payout.tenantId(), payout.currency(), payout.amount()));
+                paid.add(payout.paid(receipt.payoutId()));
+            } catch (PaymentGatewayException e) {
+                declined.add(payout);
+                run.declined();
+                failedPayoutCounter.increment();
+                log.warn("Payout {} of {} {} declined: {}", key, payout.amount(), payout.currency(), e.getMessage());
+            }
+        }
+        store.markPaid(run.runId(), paid);
+        store.markDeclined(run.runId(), declined);
+        return paid;
+    }
+
+    /**
+     * Posts paid payouts to the ledger, except those whose posting the ledger already has, and
+     * records them as settled.
+     */
+    private void post(SettlementRun run, List<SettlementStore.Payout> paid) {
+        List<SettlementStore.Settlement> settlements = new ArrayList<>(paid.size());
+        List<CompletableFuture<LedgerTransactionData>> postings = new ArrayList<>(paid.size());
+        for (SettlementStore.Payout payout : paid) {
+            String reference = LedgerEngine.SETTLEMENT_REFERENCE_PREFIX + idempotencyKey(run, payout);
+            Optional<LedgerEngine.SettlementPosting> last = ledger.lastSettlement(payout.tenantId(), payout.currency());
+            if (last.isPresent() && last.get().reference().equals(reference)) {
+                settlements.add(new SettlementStore.Settlement(payout.tenantId(), payout.currency(),
+                        last.get().sequence(), last.get().postedAt()));
+                continue;
+            }
+            postings.add(ledger.post(new LedgerTransactionData(null, payout.tenantId(), reference, payout.currency(),
+                    null, List.of(
+                    new LedgerEntryData(account, payout.amount()),
+                    new LedgerEntryData(clearingAccount, -payout.amount())))));
+        }
+
+        RuntimeException failure = null;
+        for (CompletableFuture<LedgerTransactionData> posting : postings) {
+            try {
+                LedgerTransactionData posted = posting.join();
+                settlements.add(new SettlementStore.Settlement(posted.tenantId(), posted.currency(), posted.sequence(),
+                        posted.postedAt().toEpochMilli()));
+                run.paid();
+                payoutCounter.increment();
+            } catch (CompletionException e) {
+                failure = failure == null ? e : failure;
+            }
+        }
+        store.markSettled(run.runId(), settlements);
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    private static String idempotencyKey(SettlementRun run, SettlementStore.Payout payout) {
+        return run.runId() + ":" + SettlementStore.key(payout.tenantId(), payout.currency());
+    }
+
+    private void saveCheckpoint(SettlementRun run) {
+        synchronized (checkpoint) {
+            try {
+                checkpoint.save(run.checkpoint());
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot write the settlement checkpoint in " + directory, e);
+            }
+        }
+    }
+}
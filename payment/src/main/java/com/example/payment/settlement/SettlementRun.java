@@ -0,0 +1,104 @@
+package com.example.payment.settlement;
+
+import com.example.payment.base.enums.SettlementStatus;
+import com.example.payment.base.vo.SettlementRunData;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Live state of one settlement run in this process. Partition threads advance their own cursor
+ * and the shared counters; the coordinator sets the outcome.
+ */
+final class SettlementRun {
+
+    private final String runId;
+    private final Instant startedAt;
+    private final Instant takenAt;
+    private final boolean resumed;
+    private final AtomicLongArray cursors;
+    private final LongAdder settledTenants = new LongAdder();
+    private final LongAdder payouts = new LongAdder();
+    private final LongAdder failedPayouts = new LongAdder();
+    private volatile long tenants;
+    private volatile SettlementStatus status = SettlementStatus.RUNNING;
+    private volatile Instant finishedAt;
+    private volatile String failure;
+
+    SettlementRun(SettlementCheckpoint.State checkpoint, Instant takenAt, boolean resumed) {
+        this.runId = checkpoint.runId();
+        this.startedAt = checkpoint.startedAt();
+        this.takenAt = takenAt;
+        this.resumed = resumed;
+        this.cursors = new AtomicLongArray(checkpoint.cursors());
+    }
+
+    String runId() {
+        return runId;
+    }
+
+    boolean resumed() {
+        return resumed;
+    }
+
+    int partitions() {
+        return cursors.length();
+    }
+
+    long cursor(int partition) {
+        return cursors.get(partition);
+    }
+
+    void advance(int partition, int lastTenant, int settled) {
+        cursors.set(partition, lastTenant);
+        settledTenants.add(settled);
+    }
+
+    SettlementCheckpoint.State checkpoint() {
+        long[] copy = new long[cursors.length()];
+        for (int i = 0; i < copy.length; i++) {
+            copy[i] = cursors.get(i);
+        }
+        return new SettlementCheckpoint.State(runId, startedAt, copy);
+    }
+
+    void tenants(long tenants) {
+        this.tenants = tenants;
+    }
+
+    void paid() {
+        payouts.increment();
+    }
+
+    void declined() {
+        failedPayouts.increment();
+    }
+
+    boolean isRunning() {
+        return status == SettlementStatus.RUNNING;
+    }
+
+    long remaining() {
+        return isRunning() ? Math.max(0, tenants - settledTenants.sum()) : 0;
+    }
+
+    double tenantsPerSecond(Instant now) {
+        Instant end = finishedAt != null ? finishedAt : now;
+        long millis = Math.max(1, Duration.between(takenAt, end).toMillis());
+        return settledTenants.sum() * 1000.0 / millis;
+    }
+
+    void finish(SettlementStatus status, Instant finishedAt, String failure) {
+        this.failure = failure;
+        this.finishedAt = finishedAt;
+        this.status = status;
+    }
+
+    SettlementRunData toData(Instant now) {
+        long settled = settledTenants.sum();
+        return new SettlementRunData(runId, status, resumed, startedAt, finishedAt, partitions(), tenants, settled,
+                Math.max(0, tenants - settled), payouts.sum(), failedPayouts.sum(), tenantsPerSecond(now), failure);
+    }
+}
@@ -0,0 +1,135 @@
+package com.example.payment.settlement;
+
+import com.example.payment.base.enums.PayoutStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Component;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Records payouts in PAYMENT_SETTLEMENT with one JDBC batch per step of a settled chunk of tenants.
+ * A payout is inserted as {@link PayoutStatus#PENDING} with its amount before the gateway is
+ * called, and moves on to {@code PAID} or {@code DECLINED} and then {@code SETTLED}; a row is
+ * identified by run, tenant and currency.
+ */
+@Component
+public class SettlementStore {
+
+    private static final String INSERT_SQL =
+            "insert into PAYMENT_SETTLEMENT (RUN_ID, TENANT_ID, CURRENCY, AMOUNT, STATUS, CREATED_AT)"
+                    + " values (?, ?, ?, ?, 'PENDING', ?)";
+    private static final String PAID_SQL =
+            "update PAYMENT_SETTLEMENT set STATUS = 'PAID', PAYOUT_ID = ? where RUN_ID = ? and TENANT_ID = ? and CURRENCY = ?";
+    private static final String DECLINED_SQL =
+            "update PAYMENT_SETTLEMENT set STATUS = 'DECLINED' where RUN_ID = ? and TENANT_ID = ? and CURRENCY = ?";
+    private static final String SETTLED_SQL =
+            "update PAYMENT_SETTLEMENT set STATUS = 'SETTLED', LEDGER_SEQUENCE = ?, SETTLED_AT = ?"
+                    + " where RUN_ID = ? and TENANT_ID = ? and CURRENCY = ?";
+    private static final String UNFINISHED_SQL =
+            "select TENANT_ID, CURRENCY, AMOUNT, STATUS, PAYOUT_ID from PAYMENT_SETTLEMENT"
+                    + " where RUN_ID = ? and STATUS in ('PENDING', 'PAID') order by TENANT_ID, CURRENCY";
+    private static final String RECORDED_SQL = "select TENANT_ID, CURRENCY from PAYMENT_SETTLEMENT where RUN_ID = ?";
+    private static final RowMapper<Payout> PAYOUT_MAPPER = (rs, row) -> new Payout(rs.getInt(1), rs.getString(2),
+            rs.getLong(3), PayoutStatus.valueOf(rs.getString(4)), rs.getString(5));
+    private static final int BATCH_SIZE = 500;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public SettlementStore(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Records the payouts about to be made as pending.
+     */
+    public void recordPending(String runId, List<Payout> payouts, long createdAt) {
+        if (payouts.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(INSERT_SQL, payouts, BATCH_SIZE, (ps, payout) -> {
+            ps.setString(1, runId);
+            ps.setInt(2, payout.tenantId());
+            ps.setString(3, payout.currency());
+            ps.setLong(4, payout.amount());
+            ps.setLong(5, createdAt);
+        });
+    }
+
+    public void markPaid(String runId, List<Payout> payouts) {
+        if (payouts.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(PAID_SQL, payouts, BATCH_SIZE, (ps, payout) -> {
+            ps.setString(1, payout.payoutId());
+            ps.setString(2, runId);
+            ps.setInt(3, payout.tenantId());
+            ps.setString(4, payout.currency());
+        });
+    }
+
+    public void markDeclined(String runId, List<Payout> payouts) {
+        if (payouts.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(DECLINED_SQL, payouts, BATCH_SIZE, (ps, payout) -> {
+            ps.setString(1, runId);
+            ps.setInt(2, payout.tenantId());
+            ps.setString(3, payout.currency());
+        });
+    }
+
+    public void markSettled(String runId, List<Settlement> settlements) {
+        if (settlements.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(SETTLED_SQL, settlements, BATCH_SIZE, (ps, settlement) -> {
+            ps.setLong(1, settlement.ledgerSequence());
+            ps.setLong(2, settlement.settledAt());
+            ps.setString(3, runId);
+            ps.setInt(4, settlement.tenantId());
+            ps.setString(5, settlement.currency());
+        });
+    }
+
+    /**
+     * @return the pending and paid payouts of the run
+     */
+    public List<Payout> findUnfinished(String runId) {
+        return jdbcTemplate.query(UNFINISHED_SQL, PAYOUT_MAPPER, runId);
+    }
+
+    /**
+     * @return {@link #key} of every tenant and currency the run has recorded a payout for
+     */
+    public Set<String> findRecorded(String runId) {
+        Set<String> recorded = new HashSet<>();
+        jdbcTemplate.query(RECORDED_SQL, rs -> {
+            recorded.add(key(rs.getInt(1), rs.getString(2)));
+        }, runId);
+        return recorded;
+    }
+
+    public static String key(int tenantId, String currency) {
+        return tenantId + ":" + currency;
+    }
+
+    /**
+     * @param amount   minor currency units
+     * @param payoutId gateway payout id, once paid
+     */
+    public record Payout(int tenantId, String currency, long amount, PayoutStatus status, String payoutId) {
+
+        public Payout paid(String payoutId) {
+            return new Payout(tenantId, currency, amount, PayoutStatus.PAID, payoutId);
+        }
+    }
+
+    /**
+     * @param settledAt epoch milliseconds the ledger posting became durable
+     */
+    public record Settlement(int tenantId, String currency, long ledgerSequence, long settledAt) {
+    }
+}
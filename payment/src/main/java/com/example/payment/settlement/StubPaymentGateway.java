@@ -0,0 +1,65 @@
+package com.example.payment.settlement;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Local gateway for development and load runs. Each new payout waits {@code latency} to stand in
+ * for the network call and fails with probability {@code failure-rate}. Idempotency keys are kept
+ * in memory for the life of the process, together with the instruction they were first used for.
+ */
+@Component
+@ConditionalOnProperty(name = "app.payment.gateway.type", havingValue = "stub", matchIfMissing = true)
+public class StubPaymentGateway implements PaymentGateway {
+
+    private final long latencyNanos;
+    private final double failureRate;
+    private final ConcurrentMap<String, Payout> payouts = new ConcurrentHashMap<>();
+
+    public StubPaymentGateway(@Value("${app.payment.gateway.stub.latency:2ms}") Duration latency,
+                              @Value("${app.payment.gateway.stub.failure-rate:0}") double failureRate) {
+        this.latencyNanos = latency.toNanos();
+        this.failureRate = failureRate;
+    }
+
+    @Override
+    public String name() {
+        return "stub";
+    }
+
+    @Override
+    public PayoutReceipt payout(PayoutInstruction instruction) {
+        Payout existing = payouts.get(instruction.idempotencyKey());
+        if (existing != null) {
+            return existing.receiptFor(instruction);
+        }
+        if (latencyNanos > 0) {
+            LockSupport.parkNanos(latencyNanos);
+        }
+        if (failureRate > 0 && ThreadLocalRandom.current().nextDouble() < failureRate) {
+            throw new PaymentGatewayException("Stub gateway declined payout " + instruction.idempotencyKey());
+        }
+        return payouts.computeIfAbsent(instruction.idempotencyKey(),
+                key -> new Payout(instruction, new PayoutReceipt("po_" + UUID.randomUUID()))).receiptFor(instruction);
+    }
+
+    private record Payout(PayoutInstruction instruction, PayoutReceipt receipt) {
+
+        private PayoutReceipt receiptFor(PayoutInstruction repeated) {
+            if (!instruction.equals(repeated)) {
+                throw new IllegalStateException("Idempotency key %s was used for %d %s to tenant %d, not %d %s to tenant %d"
+                        .formatted(instruction.idempotencyKey(), instruction.amount(), instruction.currency(),
+                                instruction.tenantId(), repeated.amount(), repeated.currency(), repeated.tenantId()));
+            }
+            return receipt;
+        }
+    }
+}
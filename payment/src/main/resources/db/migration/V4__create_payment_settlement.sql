@@ -0,0 +1,19 @@
+create table PAYMENT_SETTLEMENT
+(
+    PST_PK_ID       bigint       not null auto_increment,
+    RUN_ID          varchar(36)  not null,
+    TENANT_ID       integer      not null,
+    CURRENCY        varchar(3)   not null,
+    AMOUNT          bigint       not null,
+    STATUS          varchar(16)  not null,
+    PAYOUT_ID       varchar(64),
+    LEDGER_SEQUENCE bigint,
+    CREATED_AT      bigint       not null,
+    SETTLED_AT      bigint,
+    primary key (PST_PK_ID),
+    constraint UK_SETTLEMENT_RUN_TENANT unique (RUN_ID, TENANT_ID, CURRENCY),
+    constraint UK_SETTLEMENT_PAYOUT unique (PAYOUT_ID)
+);
+
+create index IDX_SETTLEMENT_TENANT on PAYMENT_SETTLEMENT (TENANT_ID, SETTLED_AT);
+create index IDX_SETTLEMENT_RUN_STATUS on PAYMENT_SETTLEMENT (RUN_ID, STATUS);
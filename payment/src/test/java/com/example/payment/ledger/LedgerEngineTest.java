@@ -0,0 +1,102 @@
+package com.example.payment.ledger;
+
+import com.example.payment.base.vo.LedgerEntryData;
+import com.example.payment.base.vo.LedgerTransactionData;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LedgerEngineTest {
+
+    private static final LedgerTransactionData TRANSACTION = new LedgerTransactionData(null, 1, null, "EUR", null,
+            List.of(new LedgerEntryData("cash", 100), new LedgerEntryData("revenue", -100)));
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void completesEveryPostingThatRacesWithStop() throws InterruptedException {
+        LedgerEngine engine = engine();
+        engine.start();
+        CountDownLatch posting = new CountDownLatch(4);
+        List<List<CompletableFuture<LedgerTransactionData>>> futures = new ArrayList<>();
+        List<Thread> posters = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            List<CompletableFuture<LedgerTransactionData>> own = new ArrayList<>();
+            futures.add(own);
+            Thread poster = new Thread(() -> {
+                posting.countDown();
+                while (true) {
+                    CompletableFuture<LedgerTransactionData> future = engine.post(TRANSACTION);
+                    own.add(future);
+                    if (reason(future) == LedgerUnavailableException.Reason.STOPPED) {
+                        return;
+                    }
+                }
+            });
+            posters.add(poster);
+            poster.start();
+        }
+        assertThat(posting.await(5, TimeUnit.SECONDS)).isTrue();
+        Thread.sleep(50);
+
+        engine.stop();
+        for (Thread poster : posters) {
+            poster.join(TimeUnit.SECONDS.toMillis(5));
+        }
+
+        List<CompletableFuture<LedgerTransactionData>> all = futures.stream().flatMap(List::stream).toList();
+        assertThat(all).allMatch(CompletableFuture::isDone);
+        long posted = all.stream().filter(future -> !future.isCompletedExceptionally()).count();
+        assertThat(posted).isPositive().isEqualTo(engine.stats().posted());
+
+        LedgerEngine restarted = engine();
+        restarted.start();
+        try {
+            assertThat(restarted.stats().lastSequence()).isEqualTo(posted);
+        } finally {
+            restarted.stop();
+        }
+    }
+
+    @Test
+    void rejectsPostingsOnceStopped() {
+        LedgerEngine engine = engine();
+        engine.start();
+        assertThat(engine.post(TRANSACTION).join().sequence()).isEqualTo(1);
+
+        engine.stop();
+
+        assertThat(reason(engine.post(TRANSACTION))).isEqualTo(LedgerUnavailableException.Reason.STOPPED);
+    }
+
+    private LedgerEngine engine() {
+        return new LedgerEngine(directory, 1024, 64, DataSize.ofMegabytes(1), false, 100_000, Duration.ofMinutes(5));
+    }
+
+    /**
+     * @return why the posting was rejected, null while pending or once posted
+     */
+    private static LedgerUnavailableException.Reason reason(CompletableFuture<LedgerTransactionData> future) {
+        if (!future.isCompletedExceptionally()) {
+            return null;
+        }
+        try {
+            future.join();
+            return null;
+        } catch (CompletionException e) {
+            return ((LedgerUnavailableException) e.getCause()).getReason();
+        }
+    }
+}
@@ -0,0 +1,179 @@
+package com.example.payment.ledger;
+
+import com.example.payment.base.vo.LedgerEntryData;
+import com.example.payment.base.vo.LedgerTransactionData;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class WriteAheadLogTest {
+
+    private static final long SEGMENT_BYTES = 1024 * 1024;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void replaysRecordsOfAllSegmentsInOrder() throws IOException {
+        try (WriteAheadLog wal = new WriteAheadLog(directory, 1, false)) {
+            wal.open(1);
+            append(wal, 1, 2);
+            wal.rollIfFull(3);
+            append(wal, 3, 4);
+            wal.rollIfFull(5);
+            append(wal, 5);
+        }
+        assertThat(segments()).hasSize(3);
+
+        List<LedgerTransactionData> replayed = new ArrayList<>();
+        long last = new WriteAheadLog(directory, 1, false).replay(0, replayed::add);
+
+        assertThat(last).isEqualTo(5);
+        assertThat(replayed).extracting(LedgerTransactionData::sequence).containsExactly(1L, 2L, 3L, 4L, 5L);
+        assertThat(replayed.get(2)).isEqualTo(transaction(3).withPosting(3, transaction(3).postedAt()));
+    }
+
+    @Test
+    void skipsRecordsCoveredBySnapshot() throws IOException {
+        try (WriteAheadLog wal = new WriteAheadLog(directory, SEGMENT_BYTES, false)) {
+            wal.open(1);
+            append(wal, 1, 2, 3);
+        }
+
+        List<LedgerTransactionData> replayed = new ArrayList<>();
+        long last = new WriteAheadLog(directory, SEGMENT_BYTES, false).replay(2, replayed::add);
+
+        assertThat(last).isEqualTo(3);
+        assertThat(replayed).extracting(LedgerTransactionData::sequence).containsExactly(3L);
+        assertThat(new WriteAheadLog(directory, SEGMENT_BYTES, false).replay(3, replayed::add)).isEqualTo(3);
+    }
+
+    @Test
+    void truncatesTornRecordAtTheTail() throws IOException {
+        Path segment;
+        long intact;
+        try (WriteAheadLog wal = new WriteAheadLog(directory, SEGMENT_BYTES, false)) {
+            wal.open(1);
+            append(wal, 1, 2);
+            segment = segments().get(0);
+            intact = Files.size(segment);
+            append(wal, 3);
+        }
+        try (FileChannel file = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+            file.truncate(Files.size(segment) - 5);
+        }
+
+        List<LedgerTransactionData> replayed = new ArrayList<>();
+        long last = new WriteAheadLog(directory, SEGMENT_BYTES, false).replay(0, replayed::add);
+
+        assertThat(last).isEqualTo(2);
+        assertThat(replayed).extracting(LedgerTransactionData::sequence).containsExactly(1L, 2L);
+        assertThat(Files.size(segment)).isEqualTo(intact);
+    }
+
+    @Test
+    void truncatesZeroFilledTail() throws IOException {
+        Path segment;
+        long intact;
+        try (WriteAheadLog wal = new WriteAheadLog(directory, SEGMENT_BYTES, false)) {
+            wal.open(1);
+            append(wal, 1, 2, 3);
+            segment = segments().get(0);
+            intact = Files.size(segment);
+        }
+        Files.write(segment, new byte[4096], StandardOpenOption.APPEND);
+
+        long last = new WriteAheadLog(directory, SEGMENT_BYTES, false).replay(0, transaction -> {
+        });
+
+        assertThat(last).isEqualTo(3);
+        assertThat(Files.size(segment)).isEqualTo(intact);
+    }
+
+    @Test
+    void failsOnDamagedRecordFollowedByValidOnesInTheLastSegment() throws IOException {
+        Path segment;
+        long second;
+        try (WriteAheadLog wal = new WriteAheadLog(directory, SEGMENT_BYTES, false)) {
+            wal.open(1);
+            append(wal, 1);
+            segment = segments().get(0);
+            second = Files.size(segment);
+            append(wal, 2, 3);
+        }
+        long size = Files.size(segment);
+        corrupt(segment, second + WriteAheadLog.RECORD_HEADER_BYTES + 2);
+
+        assertThatThrownBy(() -> new WriteAheadLog(directory, SEGMENT_BYTES, false).replay(0, transaction -> {
+        })).isInstanceOf(IOException.class).hasMessageContaining("offset " + second);
+        assertThat(Files.size(segment)).isEqualTo(size);
+    }
+
+    @Test
+    void failsOnDamagedRecordInAnEarlierSegment() throws IOException {
+        try (WriteAheadLog wal = new WriteAheadLog(directory, 1, false)) {
+            wal.open(1);
+            append(wal, 1, 2);
+            wal.rollIfFull(3);
+            append(wal, 3);
+        }
+        Path first = segments().get(0);
+        corrupt(first, Files.size(first) - 1);
+
+        assertThatThrownBy(() -> new WriteAheadLog(directory, 1, false).replay(0, transaction -> {
+        })).isInstanceOf(IOException.class).hasMessageContaining(first.toString());
+    }
+
+    @Test
+    void failsOnSequenceGap() throws IOException {
+        try (WriteAheadLog wal = new WriteAheadLog(directory, SEGMENT_BYTES, false)) {
+            wal.open(1);
+            append(wal, 1, 3);
+        }
+
+        assertThatThrownBy(() -> new WriteAheadLog(directory, SEGMENT_BYTES, false).replay(0, transaction -> {
+        })).isInstanceOf(IOException.class).hasMessageContaining("expected sequence 2 but found 3");
+    }
+
+    private static void append(WriteAheadLog wal, long... sequences) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(64 * 1024);
+        for (long sequence : sequences) {
+            wal.putRecord(buffer, sequence, transaction(sequence));
+        }
+        wal.append(buffer.flip());
+        wal.sync();
+    }
+
+    private static LedgerTransactionData transaction(long sequence) {
+        return new LedgerTransactionData(null, 7, "charge-" + sequence, "USD", Instant.ofEpochMilli(1_000 + sequence),
+                List.of(new LedgerEntryData("receivable", 100 * sequence), new LedgerEntryData("revenue", -100 * sequence)));
+    }
+
+    private static void corrupt(Path segment, long offset) throws IOException {
+        try (FileChannel file = FileChannel.open(segment, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            ByteBuffer one = ByteBuffer.allocate(1);
+            file.read(one, offset);
+            one.put(0, (byte) (one.get(0) ^ 0x5a));
+            file.write(one.rewind(), offset);
+        }
+    }
+
+    private List<Path> segments() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.sorted().toList();
+        }
+    }
+}
@@ -0,0 +1,288 @@
+package com.example.payment.settlement;
+
+import com.example.payment.base.enums.PayoutStatus;
+import com.example.payment.base.enums.SettlementStatus;
+import com.example.payment.base.vo.BalanceData;
+import com.example.payment.base.vo.LedgerEntryData;
+import com.example.payment.base.vo.LedgerTransactionData;
+import com.example.payment.base.vo.SettlementRunData;
+import com.example.payment.ledger.LedgerEngine;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SettlementProcessorTest {
+
+    private static final String PAYABLE = "payable";
+    private static final String CLEARING = "settlement-clearing";
+
+    @TempDir
+    Path directory;
+
+    private final Map<String, Row> rows = new TreeMap<>();
+    private final CountingGateway gateway = new CountingGateway();
+    private LedgerEngine ledger;
+
+    @BeforeEach
+    void startLedger() {
+        ledger = ledger();
+        ledger.start();
+        charge(1, "EUR", 500);
+        charge(2, "EUR", 300);
+        charge(2, "USD", 200);
+        charge(3, "EUR", 100);
+    }
+
+    @AfterEach
+    void stopLedger() {
+        if (ledger.isRunning()) {
+            ledger.stop();
+        }
+    }
+
+    @Test
+    void settlesEveryCreditOnceWithoutACrash() throws InterruptedException {
+        SettlementRunData run = settle(new InMemoryStore(null));
+
+        assertThat(run.status()).isEqualTo(SettlementStatus.COMPLETED);
+        assertThat(run.payouts()).isEqualTo(4);
+        assertSettledOnce(run.runId());
+    }
+
+    @Test
+    void resumesAfterACrashOnceThePayoutsWereRecordedAsPending() throws InterruptedException {
+        crashAndResume(Crash.AFTER_PENDING);
+    }
+
+    @Test
+    void resumesAfterACrashBetweenThePayoutAndRecordingIt() throws InterruptedException {
+        crashAndResume(Crash.AFTER_PAYOUT);
+    }
+
+    @Test
+    void resumesAfterACrashOnceThePayoutsWereRecordedAsPaid() throws InterruptedException {
+        crashAndResume(Crash.AFTER_PAID);
+    }
+
+    @Test
+    void resumesAfterACrashBetweenTheLedgerPostingAndRecordingIt() throws InterruptedException {
+        crashAndResume(Crash.AFTER_POSTING);
+    }
+
+    @Test
+    void resumesAfterACrashOnceThePayoutsWereRecordedAsSettled() throws InterruptedException {
+        crashAndResume(Crash.AFTER_SETTLED);
+    }
+
+    /**
+     * Fails the run at {@code crash}, restarts ledger and processor with a new charge booked in
+     * between, and resumes: every payout is made and posted once, with the amount recorded before
+     * the crash.
+     */
+    private void crashAndResume(Crash crash) throws InterruptedException {
+        SettlementRunData failed = settle(new InMemoryStore(crash));
+        assertThat(failed.status()).isEqualTo(SettlementStatus.FAILED);
+        assertThat(rows).as("first chunk of two tenants").hasSize(3);
+
+        ledger.stop();
+        ledger = ledger();
+        ledger.start();
+        charge(1, "EUR", 50);
+
+        SettlementRunData resumed = settle(new InMemoryStore(null));
+
+        assertThat(resumed.status()).isEqualTo(SettlementStatus.COMPLETED);
+        assertThat(resumed.resumed()).isTrue();
+        assertThat(resumed.runId()).isEqualTo(failed.runId());
+        assertSettledOnce(failed.runId());
+        assertThat(balance(1, PAYABLE, "EUR")).as("charge after the crash is left for the next run").isEqualTo(-50);
+    }
+
+    private void assertSettledOnce(String runId) {
+        assertThat(rows.values()).extracting(Row::status).containsOnly(PayoutStatus.SETTLED);
+        assertThat(rows).extractingFromEntries(e -> e.getValue().amount)
+                .containsExactly(500L, 300L, 200L, 100L);
+        assertThat(gateway.payouts).hasSize(4);
+        rows.forEach((key, row) -> {
+            assertThat(gateway.payouts.get(runId + ":" + key)).isEqualTo(row.payoutId);
+            assertThat(ledger.lastSettlement(row.tenantId, row.currency)).get()
+                    .satisfies(posting -> {
+                        assertThat(posting.reference())
+                                .isEqualTo(LedgerEngine.SETTLEMENT_REFERENCE_PREFIX + runId + ":" + key);
+                        assertThat(posting.sequence()).isEqualTo(row.ledgerSequence);
+                    });
+            assertThat(balance(row.tenantId, CLEARING, row.currency)).isEqualTo(-row.amount);
+        });
+        assertThat(balance(2, PAYABLE, "EUR")).isZero();
+        assertThat(balance(2, PAYABLE, "USD")).isZero();
+        assertThat(balance(3, PAYABLE, "EUR")).isZero();
+    }
+
+    private SettlementRunData settle(InMemoryStore store) throws InterruptedException {
+        SettlementProcessor processor = new SettlementProcessor(ledger, gateway, store, new SimpleMeterRegistry(),
+                directory.resolve("settlement"), 1, 2, PAYABLE, CLEARING, false, "");
+        processor.start();
+        try {
+            assertThat(processor.begin()).isPresent();
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+            while (processor.current().orElseThrow().status() == SettlementStatus.RUNNING
+                    && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+            }
+            return processor.current().orElseThrow();
+        } finally {
+            processor.stop();
+        }
+    }
+
+    private LedgerEngine ledger() {
+        return new LedgerEngine(directory.resolve("ledger"), 1024, 64, DataSize.ofMegabytes(1), false, 100_000,
+                Duration.ofMinutes(5));
+    }
+
+    private void charge(int tenantId, String currency, long amount) {
+        ledger.post(new LedgerTransactionData(null, tenantId, "invoice", currency, null, List.of(
+                new LedgerEntryData("cash", amount), new LedgerEntryData(PAYABLE, -amount)))).join();
+    }
+
+    private long balance(int tenantId, String account, String currency) {
+        return ledger.balances(tenantId).balances().stream()
+                .filter(b -> b.account().equals(account) && b.currency().equals(currency))
+                .mapToLong(BalanceData::balance)
+                .findFirst().orElse(0);
+    }
+
+    /**
+     * Where the process dies: the store either fails a step before writing it or after it was written.
+     */
+    private enum Crash {
+        AFTER_PENDING,
+        AFTER_PAYOUT,
+        AFTER_PAID,
+        AFTER_POSTING,
+        AFTER_SETTLED
+    }
+
+    private static final class Row {
+
+        private final int tenantId;
+        private final String currency;
+        private final long amount;
+        private PayoutStatus status = PayoutStatus.PENDING;
+        private String payoutId;
+        private long ledgerSequence;
+
+        private Row(int tenantId, String currency, long amount) {
+            this.tenantId = tenantId;
+            this.currency = currency;
+            this.amount = amount;
+        }
+
+        private PayoutStatus status() {
+            return status;
+        }
+    }
+
+    /**
+     * The rows of PAYMENT_SETTLEMENT for one run, which outlive the processor like the database does.
+     */
+    private final class InMemoryStore extends SettlementStore {
+
+        private final Crash crash;
+
+        InMemoryStore(Crash crash) {
+            super(null);
+            this.crash = crash;
+        }
+
+        @Override
+        public void recordPending(String runId, List<Payout> payouts, long createdAt) {
+            for (Payout payout : payouts) {
+                rows.put(key(payout.tenantId(), payout.currency()),
+                        new Row(payout.tenantId(), payout.currency(), payout.amount()));
+            }
+            crashIf(Crash.AFTER_PENDING, payouts);
+        }
+
+        @Override
+        public void markPaid(String runId, List<Payout> payouts) {
+            crashIf(Crash.AFTER_PAYOUT, payouts);
+            for (Payout payout : payouts) {
+                Row row = rows.get(key(payout.tenantId(), payout.currency()));
+                row.status = PayoutStatus.PAID;
+                row.payoutId = payout.payoutId();
+            }
+            crashIf(Crash.AFTER_PAID, payouts);
+        }
+
+        @Override
+        public void markDeclined(String runId, List<Payout> payouts) {
+            payouts.forEach(payout -> rows.get(key(payout.tenantId(), payout.currency())).status = PayoutStatus.DECLINED);
+        }
+
+        @Override
+        public void markSettled(String runId, List<Settlement> settlements) {
+            crashIf(Crash.AFTER_POSTING, settlements);
+            for (Settlement settlement : settlements) {
+                Row row = rows.get(key(settlement.tenantId(), settlement.currency()));
+                row.status = PayoutStatus.SETTLED;
+                row.ledgerSequence = settlement.ledgerSequence();
+            }
+            crashIf(Crash.AFTER_SETTLED, settlements);
+        }
+
+        @Override
+        public List<Payout> findUnfinished(String runId) {
+            return rows.values().stream()
+                    .filter(row -> row.status == PayoutStatus.PENDING || row.status == PayoutStatus.PAID)
+                    .map(row -> new Payout(row.tenantId, row.currency, row.amount, row.status, row.payoutId))
+                    .toList();
+        }
+
+        @Override
+        public Set<String> findRecorded(String runId) {
+            return new HashSet<>(rows.keySet());
+        }
+
+        private void crashIf(Crash step, List<?> written) {
+            if (step == crash && !written.isEmpty()) {
+                throw new IllegalStateException("Crashed " + step);
+            }
+        }
+    }
+
+    /**
+     * Stub gateway that remembers the payout ids answered for every idempotency key.
+     */
+    private static final class CountingGateway extends StubPaymentGateway {
+
+        private final Map<String, String> payouts = new ConcurrentHashMap<>();
+
+        CountingGateway() {
+            super(Duration.ZERO, 0);
+        }
+
+        @Override
+        public PayoutReceipt payout(PayoutInstruction instruction) {
+            PayoutReceipt receipt = super.payout(instruction);
+            payouts.merge(instruction.idempotencyKey(), receipt.payoutId(),
+                    (first, repeated) -> first.equals(repeated) ? first : first + " and " + repeated);
+            return receipt;
+        }
+    }
+}